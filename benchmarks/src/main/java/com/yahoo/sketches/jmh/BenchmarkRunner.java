@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+/**
+ * The main class of the benchmarks jar. It takes the usual JMH command line options, e.g.,
+ * a regular expression of the benchmarks to run, and adds two defaults: the gc profiler, which
+ * reports the allocation rate and bytes allocated per operation, and JSON results written to
+ * jmh-result.json. Use "-rf csv" for CSV results or "-rff" to choose the result file.
+ */
+public final class BenchmarkRunner {
+
+  private BenchmarkRunner() {}
+
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions cmdOptions = new CommandLineOptions(args);
+    if (cmdOptions.shouldHelp() || cmdOptions.shouldList() || cmdOptions.shouldListProfilers()
+        || cmdOptions.shouldListResultFormats()) {
+      org.openjdk.jmh.Main.main(args);
+      return;
+    }
+    ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmdOptions);
+    if (!hasGcProfiler(cmdOptions)) {
+      builder.addProfiler(GCProfiler.class);
+    }
+    if (!cmdOptions.getResultFormat().hasValue()) {
+      builder.resultFormat(ResultFormatType.JSON);
+    }
+    new Runner(builder.build()).run();
+  }
+
+  private static boolean hasGcProfiler(CommandLineOptions cmdOptions) {
+    for (ProfilerConfig profiler : cmdOptions.getProfilers()) {
+      String name = profiler.getKlass();
+      if (name.equals("gc") || name.equals(GCProfiler.class.getName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
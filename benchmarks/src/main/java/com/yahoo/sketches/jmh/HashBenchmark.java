@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.yahoo.sketches.hash.MurmurHash3;
+import com.yahoo.sketches.hash.MurmurHash3Adaptor;
+import com.yahoo.sketches.memory.Memory;
+import com.yahoo.sketches.memory.NativeMemory;
+
+/**
+ * MurmurHash3 of long and byte array keys, and the bucketing of keys with the
+ * MurmurHash3Adaptor. The hashToLongs benchmarks are the array based paths that hashModulo and
+ * hashAsDouble replace.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HashBenchmark {
+  static final long SEED = 9001L;
+  static final int KEYS = 1024;
+
+  private final long[] longKey_ = new long[1];
+  private final byte[] bytes16_ = new byte[16];
+  private final byte[] bytes1024_ = new byte[1024];
+  private final String[] strKeys_ = new String[KEYS];
+  private Memory memKeys_;
+  private int buckets_ = 1000; //not a constant the JIT could fold into the modulo
+  private int next_;
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < bytes1024_.length; i++) {
+      bytes1024_[i] = (byte) i;
+    }
+    memKeys_ = new NativeMemory(new byte[KEYS << 4]);
+    for (int i = 0; i < KEYS; i++) {
+      strKeys_[i] = "tenant-" + (i % 7) + "/user-" + i;
+      memKeys_.putLong(i << 4, i);
+      memKeys_.putLong((i << 4) + 8, ~i);
+    }
+  }
+
+  private int nextKey() {
+    return next_++ & (KEYS - 1);
+  }
+
+  @Benchmark
+  public long hashLong() {
+    longKey_[0] = next_++;
+    return MurmurHash3.hash(longKey_, SEED)[0];
+  }
+
+  @Benchmark
+  public long hashBytes16() {
+    bytes16_[0] = (byte) next_++;
+    return MurmurHash3.hash(bytes16_, SEED)[0];
+  }
+
+  @Benchmark
+  public long hashBytes1024() {
+    bytes1024_[0] = (byte) next_++;
+    return MurmurHash3.hash(bytes1024_, SEED)[0];
+  }
+
+  @Benchmark
+  public int asIntLong() {
+    return MurmurHash3Adaptor.asInt((long) next_++, buckets_);
+  }
+
+  @Benchmark
+  public int asIntString() {
+    return MurmurHash3Adaptor.asInt(strKeys_[nextKey()], buckets_);
+  }
+
+  @Benchmark
+  public int moduloHashToLongsLong() {
+    return MurmurHash3Adaptor.modulo(MurmurHash3Adaptor.hashToLongs(next_++, SEED), buckets_);
+  }
+
+  @Benchmark
+  public int hashModuloLong() {
+    return MurmurHash3Adaptor.hashModulo(next_++, SEED, buckets_);
+  }
+
+  @Benchmark
+  public int moduloHashToLongsString() {
+    long[] h = MurmurHash3Adaptor.hashToLongs(strKeys_[nextKey()], SEED);
+    return MurmurHash3Adaptor.modulo(h, buckets_);
+  }
+
+  @Benchmark
+  public int hashModuloString() {
+    return MurmurHash3Adaptor.hashModulo(strKeys_[nextKey()], SEED, buckets_);
+  }
+
+  @Benchmark
+  public int hashModuloMemory() {
+    return MurmurHash3Adaptor.hashModulo(memKeys_, nextKey() << 4, 16, SEED, buckets_);
+  }
+
+  @Benchmark
+  public double asDoubleHashToLongsLong() {
+    return MurmurHash3Adaptor.asDouble(MurmurHash3Adaptor.hashToLongs(next_++, SEED)) * buckets_;
+  }
+
+  @Benchmark
+  public double hashAsDoubleLong() {
+    return MurmurHash3Adaptor.hashAsDouble(next_++, SEED) * buckets_;
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.yahoo.sketches.hll.HllSketch;
+import com.yahoo.sketches.hll.HllSketchBuilder;
+import com.yahoo.sketches.hll.Preamble;
+
+/**
+ * HLL union of a source sketch into a new target sketch for every kind of fields: HASH (a sparse
+ * source with hash fields into dense fields), DENSE (one byte per bucket), COMPRESSED
+ * (compressed dense fields) and IMMUTABLE_COMPACT (a compact copy of dense fields into dense
+ * fields).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HllUnionBenchmark {
+  static final int LG_K = 12;
+  static final int K = 1 << LG_K;
+
+  @Param({"HASH", "DENSE", "COMPRESSED", "IMMUTABLE_COMPACT"})
+  public String fields;
+
+  private HllSketchBuilder targetBldr_;
+  private HllSketch source_;
+
+  @Setup
+  public void setup() {
+    boolean hashFields = fields.equals("HASH");
+    targetBldr_ = hashFields ? builder("DENSE") : builder(fields);
+    HllSketch source = builder(fields).build();
+    int n = hashFields ? 64 : (4 * K); //hash fields must stay sparse
+    for (int i = 0; i < n; i++) {
+      source.update(new long[] {i});
+    }
+    source_ = fields.equals("IMMUTABLE_COMPACT") ? source.asCompact() : source;
+  }
+
+  @Benchmark
+  public HllSketch union() {
+    HllSketch target = targetBldr_.build();
+    return target.union(source_);
+  }
+
+  /**
+   * Returns a builder of sketches with the given kind of fields
+   * @param fields HASH, DENSE, COMPRESSED or IMMUTABLE_COMPACT, which is built as DENSE
+   * @return a builder of sketches with the given kind of fields
+   */
+  static HllSketchBuilder builder(String fields) {
+    HllSketchBuilder bldr = HllSketch.builder().setPreamble(Preamble.fromLogK(LG_K));
+    switch (fields) {
+      case "HASH":
+        return bldr;
+      case "COMPRESSED":
+        return bldr.setDenseMode(true).setCompressedDense(true);
+      default:
+        return bldr.setDenseMode(true);
+    }
+  }
+}
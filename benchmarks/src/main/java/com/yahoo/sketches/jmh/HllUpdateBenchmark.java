@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.yahoo.sketches.hll.HllSketch;
+import com.yahoo.sketches.hll.HllSketchBuilder;
+import com.yahoo.sketches.hll.Preamble;
+
+/**
+ * HLL update for every kind of fields: HASH (sparse hash fields), DENSE (one byte per bucket)
+ * and COMPRESSED (compressed dense fields). A sketch with hash fields turns dense as it grows, so
+ * it is replaced by a new sketch every 64 updates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HllUpdateBenchmark {
+  static final int LG_K = 12;
+  static final int OPS = 1024;
+  static final int HASH_FIELDS_OPS = 64;
+
+  @Param({"HASH", "DENSE", "COMPRESSED"})
+  public String fields;
+
+  private HllSketchBuilder bldr_;
+  private boolean rebuild_;
+  private HllSketch sketch_;
+  private final long[] key_ = new long[1];
+  private long next_;
+
+  @Setup
+  public void setup() {
+    bldr_ = HllUnionBenchmark.builder(fields);
+    rebuild_ = fields.equals("HASH");
+    sketch_ = bldr_.build();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPS)
+  public int update() {
+    HllSketch sketch = sketch_;
+    long v = next_;
+    for (int i = 0; i < OPS; i++) {
+      if (rebuild_ && ((i % HASH_FIELDS_OPS) == 0)) {
+        sketch = bldr_.build();
+      }
+      key_[0] = v++;
+      sketch.update(key_);
+    }
+    sketch_ = sketch;
+    next_ = v;
+    return sketch.numBuckets();
+  }
+}
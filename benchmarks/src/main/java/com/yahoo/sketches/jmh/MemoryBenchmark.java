@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.yahoo.sketches.memory.AllocMemory;
+import com.yahoo.sketches.memory.ByteBufferMemory;
+import com.yahoo.sketches.memory.Memory;
+import com.yahoo.sketches.memory.MemoryUtil;
+import com.yahoo.sketches.memory.NativeMemory;
+
+/**
+ * The Memory accessors of NativeMemory and ByteBufferMemory, on the heap and off the heap:
+ * NATIVE_HEAP (NativeMemory of a byte array), NATIVE_OFF_HEAP (AllocMemory),
+ * BUFFER_HEAP (ByteBufferMemory of a heap ByteBuffer) and BUFFER_DIRECT (ByteBufferMemory of a
+ * direct ByteBuffer). The copy benchmark copies from the heap to off the heap in the same kind
+ * of Memory, and one of its operations copies 8 bytes. The atomic benchmarks are uncontended,
+ * they measure the cost of getAndAddLong and getAndSetLong of a single thread.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MemoryBenchmark {
+  static final int OPS = 1024;
+  static final int BYTES = OPS << 3;
+
+  @Param({"NATIVE_HEAP", "NATIVE_OFF_HEAP", "BUFFER_HEAP", "BUFFER_DIRECT"})
+  public String memory;
+
+  private Memory mem_;
+  private Memory copySrc_;
+  private Memory copyDst_;
+
+  @Setup
+  public void setup() {
+    boolean buffer = memory.startsWith("BUFFER");
+    boolean offHeap = memory.equals("NATIVE_OFF_HEAP") || memory.equals("BUFFER_DIRECT");
+    mem_ = newMemory(BYTES, offHeap, buffer);
+    copySrc_ = newMemory(BYTES, false, buffer);
+    copyDst_ = newMemory(BYTES, true, buffer);
+  }
+
+  @TearDown
+  public void tearDown() {
+    freeMemory(mem_);
+    freeMemory(copyDst_);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPS)
+  public long getPutLong() {
+    Memory mem = mem_;
+    long sum = 0;
+    for (int i = 0; i < OPS; i++) {
+      long offset = i << 3;
+      mem.putLong(offset, mem.getLong(offset) + i);
+      sum += mem.getLong(offset);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPS)
+  public long getAndAddLong() {
+    Memory mem = mem_;
+    long sum = 0;
+    for (int i = 0; i < OPS; i++) {
+      sum += mem.getAndAddLong(i << 3, i);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPS)
+  public long getAndSetLong() {
+    Memory mem = mem_;
+    long sum = 0;
+    for (int i = 0; i < OPS; i++) {
+      sum += mem.getAndSetLong(i << 3, sum);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPS)
+  public long copy() {
+    MemoryUtil.copy(copySrc_, 0, copyDst_, 0, BYTES);
+    return copyDst_.getLong(0);
+  }
+
+  static Memory newMemory(int capacityBytes, boolean offHeap, boolean buffer) {
+    if (buffer) {
+      return offHeap ? ByteBufferMemory.allocateDirect(capacityBytes)
+          : new ByteBufferMemory(new byte[capacityBytes]);
+    }
+    return offHeap ? new AllocMemory(capacityBytes) : new NativeMemory(new byte[capacityBytes]);
+  }
+
+  static void freeMemory(Memory mem) {
+    if (mem instanceof NativeMemory) {
+      ((NativeMemory) mem).freeMemory();
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.jmh;
+
+import static com.yahoo.sketches.QuickSelect.selectExcludingZeros;
+import static com.yahoo.sketches.QuickSelect.selectFloydRivestExcludingZeros;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The QuickSelect and the Floyd-Rivest selection on hash tables as they are found at a
+ * QuickSelect sketch rebuild: 2<sup>lgNomLongs + 1</sup> slots filled to 15/16 with hashes, with
+ * the pivot at nominal entries + 1. Besides random tables it also selects on tables whose hashes
+ * are clustered in sorted runs, which degrade the pivot choice of the plain QuickSelect.
+ * Selection reorders the table, so every operation first copies the table into a work array.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QuickSelectBenchmark {
+
+  @Param({"10", "14", "18"})
+  public int lgNomLongs;
+
+  @Param({"random", "clustered"})
+  public String table;
+
+  private long[] table_;
+  private long[] work_;
+  private int nonZeros_;
+  private int pivot_;
+
+  @Setup
+  public void setup() {
+    table_ = buildTable(lgNomLongs, table.equals("clustered"), new Random(lgNomLongs));
+    work_ = new long[table_.length];
+    nonZeros_ = 0;
+    for (long h : table_) {
+      if (h != 0) nonZeros_++;
+    }
+    pivot_ = (1 << lgNomLongs) + 1;
+  }
+
+  @Benchmark
+  public long quickSelect() {
+    System.arraycopy(table_, 0, work_, 0, table_.length);
+    return selectExcludingZeros(work_, nonZeros_, pivot_);
+  }
+
+  @Benchmark
+  public long floydRivest() {
+    System.arraycopy(table_, 0, work_, 0, table_.length);
+    return selectFloydRivestExcludingZeros(work_, nonZeros_, pivot_);
+  }
+
+  private static long[] buildTable(int lgNomLongs, boolean clustered, Random rand) {
+    int arrLongs = 1 << (lgNomLongs + 1);
+    int count = (int) ((15.0 / 16.0) * arrLongs);
+    long[] table = new long[arrLongs];
+    if (clustered) {
+      int runLen = 64;
+      for (int i = 0; i < count; i += runLen) {
+        long start = (rand.nextLong() >>> 2) + 1;
+        for (int j = i; j < Math.min(count, i + runLen); j++) {
+          table[j] = start + (j - i);
+        }
+      }
+    } else {
+      for (int i = 0; i < count; i++) {
+        table[i] = (rand.nextLong() >>> 1) | 1L;
+      }
+      shuffle(table, rand);
+    }
+    return table;
+  }
+
+  private static void shuffle(long[] arr, Random rand) {
+    for (int i = arr.length - 1; i > 0; i--) {
+      int j = rand.nextInt(i + 1);
+      long x = arr[i];
+      arr[i] = arr[j];
+      arr[j] = x;
+    }
+  }
+}
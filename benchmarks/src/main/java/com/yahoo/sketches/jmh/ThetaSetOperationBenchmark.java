@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.yahoo.sketches.theta.AnotB;
+import com.yahoo.sketches.theta.CompactSketch;
+import com.yahoo.sketches.theta.Intersection;
+import com.yahoo.sketches.theta.SetOperation;
+import com.yahoo.sketches.theta.Union;
+import com.yahoo.sketches.theta.UpdateSketch;
+
+/**
+ * Theta union, intersection and AnotB of two compact, ordered sketches in estimation mode that
+ * overlap by half. One operation builds the set operation, updates it and gets the result.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ThetaSetOperationBenchmark {
+  static final int K = 1 << 12;
+
+  private CompactSketch a_;
+  private CompactSketch b_;
+
+  @Setup
+  public void setup() {
+    UpdateSketch a = UpdateSketch.builder().build(K);
+    UpdateSketch b = UpdateSketch.builder().build(K);
+    for (int i = 0; i < (4 * K); i++) {
+      a.update(i);
+      b.update(i + (2 * K));
+    }
+    a_ = a.compact(true, null);
+    b_ = b.compact(true, null);
+  }
+
+  @Benchmark
+  public CompactSketch union() {
+    Union union = SetOperation.builder().buildUnion(K);
+    union.update(a_);
+    union.update(b_);
+    return union.getResult();
+  }
+
+  @Benchmark
+  public CompactSketch intersection() {
+    Intersection inter = SetOperation.builder().buildIntersection(K);
+    inter.update(a_);
+    inter.update(b_);
+    return inter.getResult();
+  }
+
+  @Benchmark
+  public CompactSketch aNotB() {
+    AnotB aNotB = SetOperation.builder().buildANotB(K);
+    aNotB.update(a_, b_);
+    return aNotB.getResult();
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.yahoo.sketches.memory.NativeMemory;
+import com.yahoo.sketches.theta.Sketch;
+import com.yahoo.sketches.theta.UpdateSketch;
+
+/**
+ * Theta UpdateSketch.update(long) on the heap and in Memory, in exact and in estimation mode.
+ * Exact mode resets the sketch and then does k/2 distinct updates, estimation mode keeps
+ * updating a sketch that is already in estimation mode with new values.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ThetaUpdateBenchmark {
+  static final int LG_K = 12;
+  static final int K = 1 << LG_K;
+  static final int OPS = 1024;
+
+  @Param({"false", "true"})
+  public boolean direct;
+
+  private UpdateSketch exactSketch_;
+  private UpdateSketch estimationSketch_;
+  private long next_;
+
+  @Setup
+  public void setup() {
+    exactSketch_ = newSketch();
+    estimationSketch_ = newSketch();
+    for (next_ = 0; next_ < (16 * K); next_++) {
+      estimationSketch_.update(next_);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(K / 2)
+  public int updateExact() {
+    UpdateSketch sketch = exactSketch_;
+    sketch.reset();
+    long v = next_;
+    for (int i = 0; i < (K / 2); i++) {
+      sketch.update(v++);
+    }
+    next_ = v;
+    return sketch.getRetainedEntries(false);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPS)
+  public int updateEstimation() {
+    UpdateSketch sketch = estimationSketch_;
+    long v = next_;
+    for (int i = 0; i < OPS; i++) {
+      sketch.update(v++);
+    }
+    next_ = v;
+    return sketch.getRetainedEntries(false);
+  }
+
+  private UpdateSketch newSketch() {
+    if (direct) {
+      NativeMemory mem = new NativeMemory(new byte[Sketch.getMaxUpdateSketchBytes(K)]);
+      return UpdateSketch.builder().initMemory(mem).build(K);
+    }
+    return UpdateSketch.builder().build(K);
+  }
+}
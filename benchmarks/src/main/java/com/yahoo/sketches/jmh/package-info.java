@@ -0,0 +1,18 @@
+/**
+ * <p>JMH benchmarks of the hot paths of sketches-core: theta update, union, intersection and
+ * AnotB, HLL update and union, MurmurHash3 and the bucketing of keys, the Memory accessors,
+ * and the selection of a theta rebuild. They are the baseline for performance changes.</p>
+ *
+ * <p>Build sketches-core with <i>mvn install</i> in the project root, then build and run the
+ * benchmarks in the <i>benchmarks</i> directory:</p>
+ * <pre>
+ *   mvn package
+ *   java -jar target/benchmarks.jar                      # all benchmarks
+ *   java -jar target/benchmarks.jar HashBenchmark -rf csv -rff hash.csv
+ * </pre>
+ *
+ * <p>Every benchmark reports its throughput and, through the gc profiler, its allocation rate
+ * and the bytes allocated per operation. The results are written as JSON to jmh-result.json
+ * unless another format or file is given. See {@link com.yahoo.sketches.jmh.BenchmarkRunner}.</p>
+ */
+package com.yahoo.sketches.jmh;
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches;
+
+import static com.yahoo.sketches.Util.DEFAULT_UPDATE_SEED;
+import static com.yahoo.sketches.hash.MurmurHash3.hash;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Arrays;
+
+import com.yahoo.sketches.hash.HashFunction;
+import com.yahoo.sketches.hll.HllSketch;
+import com.yahoo.sketches.theta.UpdateSketch;
+
+/**
+ * Presents each datum to a fixed set of registered theta and HLL sketches, hashing the datum
+ * only once. This is useful when a single event feeds many sketches, for example one per
+ * dimension of a cube, and the hashing would otherwise dominate the update cost.
+ *
+ * <p>The datum is converted and hashed exactly as by the update methods of the individual
+ * sketches, so the sketches end up in the same state as if they had been updated one by one.
+ * All registered sketches must use the seed of this updater and theta sketches must hash with
+ * {@link HashFunction#MURMUR3}. HLL sketches always use the
+ * <a href="{@docRoot}/resources/dictionary.html#defaultUpdateSeed">Default Update Seed</a>.</p>
+ *
+ * <p>This class is not thread safe.</p>
+ */
+public class MultiSketchUpdater {
+  private final long seed_;
+  private UpdateSketch[] thetaSketches_ = new UpdateSketch[0];
+  private HllSketch[] hllSketches_ = new HllSketch[0];
+
+  /**
+   * Creates a new updater that hashes with the
+   * <a href="{@docRoot}/resources/dictionary.html#defaultUpdateSeed">Default Update Seed</a>.
+   */
+  public MultiSketchUpdater() {
+    this(DEFAULT_UPDATE_SEED);
+  }
+
+  /**
+   * Creates a new updater that hashes with the given seed
+   * @param seed <a href="{@docRoot}/resources/dictionary.html#seed">See Update Hash Seed</a>.
+   */
+  public MultiSketchUpdater(long seed) {
+    seed_ = seed;
+  }
+
+  /**
+   * Registers the given theta sketch with this updater.
+   * @param sketch the given theta sketch, which must have been built with the seed of this updater
+   * and must hash with {@link HashFunction#MURMUR3}
+   * @return this updater
+   */
+  public MultiSketchUpdater add(UpdateSketch sketch) {
+    if (sketch.getHashFunction() != HashFunction.MURMUR3) {
+      throw new IllegalArgumentException(
+          "Theta sketches must hash with MURMUR3. The given sketch hashes with: "
+          + sketch.getHashFunction());
+    }
+    if (sketch.getSeed() != seed_) {
+      throw new IllegalArgumentException(
+          "The seed of the given sketch: " + sketch.getSeed() + ", does not match the seed of this "
+          + "updater: " + seed_);
+    }
+    thetaSketches_ = Arrays.copyOf(thetaSketches_, thetaSketches_.length + 1);
+    thetaSketches_[thetaSketches_.length - 1] = sketch;
+    return this;
+  }
+
+  /**
+   * Registers the given HLL sketch with this updater.
+   * @param sketch the given HLL sketch
+   * @return this updater
+   */
+  public MultiSketchUpdater add(HllSketch sketch) {
+    if (seed_ != DEFAULT_UPDATE_SEED) {
+      throw new IllegalArgumentException(
+          "HLL sketches require the default update seed. This updater uses: " + seed_);
+    }
+    hllSketches_ = Arrays.copyOf(hllSketches_, hllSketches_.length + 1);
+    hllSketches_[hllSketches_.length - 1] = sketch;
+    return this;
+  }
+
+  /**
+   * Returns the number of registered sketches
+   * @return the number of registered sketches
+   */
+  public int getNumSketches() {
+    return thetaSketches_.length + hllSketches_.length;
+  }
+
+  /**
+   * Present all registered sketches with a long.
+   * @param datum The given long datum.
+   */
+  public void update(long datum) {
+    long[] data = { datum };
+    updateWithHash(hash(data, seed_));
+  }
+
+  /**
+   * Present all registered sketches with the given double (or float) datum, converted the same way
+   * as by {@link UpdateSketch#update(double)}.
+   * @param datum The given double datum.
+   */
+  public void update(double datum) {
+    double d = (datum == 0.0) ? 0.0 : datum; // canonicalize -0.0, 0.0
+    long[] data = { Double.doubleToLongBits(d) };// canonicalize all NaN forms
+    updateWithHash(hash(data, seed_));
+  }
+
+  /**
+   * Present all registered sketches with the given String.
+   * The string is converted to a byte array using UTF8 encoding.
+   * If the string is null or empty no update attempt is made and the method returns.
+   * @param datum The given String.
+   */
+  public void update(String datum) {
+    if ((datum == null) || datum.isEmpty()) {
+      return;
+    }
+    updateWithHash(hash(datum.getBytes(UTF_8), seed_));
+  }
+
+  /**
+   * Present all registered sketches with the given byte array.
+   * If the byte array is null or empty no update attempt is made and the method returns.
+   * @param data The given byte array.
+   */
+  public void update(byte[] data) {
+    if ((data == null) || (data.length == 0)) {
+      return;
+    }
+    updateWithHash(hash(data, seed_));
+  }
+
+  /**
+   * Present all registered sketches with the given integer array.
+   * If the integer array is null or empty no update attempt is made and the method returns.
+   * @param data The given int array.
+   */
+  public void update(int[] data) {
+    if ((data == null) || (data.length == 0)) {
+      return;
+    }
+    updateWithHash(hash(data, seed_));
+  }
+
+  /**
+   * Present all registered sketches with the given long array.
+   * If the long array is null or empty no update attempt is made and the method returns.
+   * @param data The given long array.
+   */
+  public void update(long[] data) {
+    if ((data == null) || (data.length == 0)) {
+      return;
+    }
+    updateWithHash(hash(data, seed_));
+  }
+
+  private void updateWithHash(long[] hash) {
+    for (int i = 0; i < thetaSketches_.length; i++) {
+      thetaSketches_[i].updateWithHash(hash, seed_);
+    }
+    for (int i = 0; i < hllSketches_.length; i++) {
+      hllSketches_[i].updateWithHash(hash, seed_);
+    }
+  }
+
+}
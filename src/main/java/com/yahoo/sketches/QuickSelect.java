@@ -4,17 +4,24 @@
  */
 package com.yahoo.sketches;
 
+import com.yahoo.sketches.memory.Memory;
+
 /**
  * QuickSelect algorithm improved from Sedgewick. Gets the kth order value (1-based or 0-based) from
  * the array. Warning! This changes the ordering of elements in the given array!<br>
  * Also see:<br>
  * blog.teamleadnet.com/2012/07/quick-select-algorithm-find-kth-element.html<br>
- * See QuickSelectTest for examples and testNG tests.
+ * See QuickSelectTest for examples and testNG tests.<br>
+ * The Floyd-Rivest variants find the same values with fewer comparisons on large arrays and are
+ * used by the theta sketches to rebuild their hash tables.
  * 
  * @author Lee Rhodes
  */
 public final class QuickSelect {
   
+  //arrays larger than this are first narrowed by a recursive selection within a sample
+  private static final int FR_SAMPLE_THRESHOLD = 600;
+  
   private QuickSelect() {}
   
   /**
@@ -118,6 +125,258 @@ public final class QuickSelect {
     return j;
   }
   
+  //Floyd-Rivest selection for long arrays
+  
+  /**
+   * Gets the 0-based kth order statistic from the array using the Floyd-Rivest algorithm.
+   * It first selects recursively within a small sample around the expected position of the kth
+   * value to find two pivots that bracket it closely, so that most of the array is partitioned
+   * only once. It is faster than {@link #select(long[], int, int, int)} on large arrays and does
+   * not degrade on sorted or clustered input. Warning! This changes the ordering of elements in
+   * the given array!
+   * 
+   * @param arr The array to be re-arranged.
+   * @param lo The lowest 0-based index to be considered.
+   * @param hi The highest 0-based index to be considered.
+   * @param pivot The 0-based index of the value to pivot on.
+   * @return The value of the smallest (n)th element where n is 0-based.
+   */
+  public static long selectFloydRivest(long[] arr, int lo, int hi, final int pivot) {
+    while (hi > lo) {
+      if ((hi - lo) > FR_SAMPLE_THRESHOLD) {
+        int n = (hi - lo) + 1;
+        int i = (pivot - lo) + 1;
+        double z = Math.log(n);
+        double s = 0.5 * Math.exp((2.0 * z) / 3.0);
+        double sd = 0.5 * Math.sqrt((z * s * (n - s)) / n) * Math.signum(i - (n / 2.0));
+        int newLo = Math.max(lo, (int) ((pivot - ((i * s) / n)) + sd));
+        int newHi = Math.min(hi, (int) ((pivot + (((n - i) * s) / n)) + sd));
+        selectFloydRivest(arr, newLo, newHi, pivot);
+      }
+      long t = arr[pivot];
+      int i = lo;
+      int j = hi;
+      swap(arr, lo, pivot);
+      if (arr[hi] > t) {
+        swap(arr, hi, lo);
+      }
+      while (i < j) {
+        swap(arr, i, j);
+        i++;
+        j--;
+        while (arr[i] < t) { i++; }
+        while (arr[j] > t) { j--; }
+      }
+      if (arr[lo] == t) {
+        swap(arr, lo, j);
+      } 
+      else {
+        j++;
+        swap(arr, j, hi);
+      }
+      if (j <= pivot) { lo = j + 1; }
+      if (pivot <= j) { hi = j - 1; }
+    }
+    return arr[pivot];
+  }
+  
+  /**
+   * Gets the 1-based kth order statistic from the array excluding any zero values in the array,
+   * using the Floyd-Rivest algorithm. The zeros are not removed first, they simply sort below
+   * all other values. Warning! This changes the ordering of elements in the given array!
+   * 
+   * @param arr The hash array.
+   * @param nonZeros The number of non-zero values in the array.
+   * @param pivot The 1-based index of the value that is chosen as the pivot for the array.
+   * @return The value of the smallest (N)th element excluding zeros, where N is 1-based.
+   */
+  public static long selectFloydRivestExcludingZeros(long[] arr, final int nonZeros, 
+      final int pivot) {
+    if (pivot > nonZeros) {
+      return 0L;
+    }
+    int arrSize = arr.length;
+    int zeros = arrSize - nonZeros;
+    int adjK = (pivot + zeros) - 1;
+    return selectFloydRivest(arr, 0, arrSize - 1, adjK);
+  }
+  
+  private static void swap(long[] arr, int i, int j) {
+    long x = arr[i];
+    arr[i] = arr[j];
+    arr[j] = x;
+  }
+  
+  //For long arrays in Memory
+  
+  /**
+   * Gets the 0-based kth order statistic from an array of longs in Memory. Warning! This changes
+   * the ordering of elements in the given Memory!
+   * 
+   * @param mem The Memory that holds the array to be re-arranged.
+   * @param offsetBytes The offset in bytes of the start of the array in the given Memory.
+   * @param lo The lowest 0-based index to be considered.
+   * @param hi The highest 0-based index to be considered.
+   * @param pivot The 0-based index of the value to pivot on.
+   * @return The value of the smallest (n)th element where n is 0-based.
+   */
+  public static long select(Memory mem, long offsetBytes, int lo, int hi, final int pivot) {
+    while (hi > lo) {
+      int j = partition(mem, offsetBytes, lo, hi);
+      if (j == pivot) {
+        return mem.getLong(offsetBytes + (pivot << 3));
+      }
+      if (j > pivot) {
+        hi = j - 1;
+      } 
+      else {
+        lo = j + 1;
+      }
+    }
+    return mem.getLong(offsetBytes + (pivot << 3));
+  }
+  
+  /**
+   * Gets the 1-based kth order statistic from an array of longs in Memory excluding any zero
+   * values in the array. Warning! This changes the ordering of elements in the given Memory!
+   * 
+   * @param mem The Memory that holds the hash array.
+   * @param offsetBytes The offset in bytes of the start of the array in the given Memory.
+   * @param arrLongs The number of longs in the array.
+   * @param nonZeros The number of non-zero values in the array.
+   * @param pivot The 1-based index of the value that is chosen as the pivot for the array.
+   * @return The value of the smallest (N)th element excluding zeros, where N is 1-based.
+   */
+  public static long selectExcludingZeros(Memory mem, long offsetBytes, int arrLongs, 
+      final int nonZeros, final int pivot) {
+    if (pivot > nonZeros) {
+      return 0L;
+    }
+    int zeros = arrLongs - nonZeros;
+    int adjK = (pivot + zeros) - 1;
+    return select(mem, offsetBytes, 0, arrLongs - 1, adjK);
+  }
+  
+  /**
+   * Partition the array in Memory into arr[lo .. i-1], arr[i], arr[i+1,hi]
+   * 
+   * @param mem The Memory that holds the array to partition
+   * @param offsetBytes The offset in bytes of the start of the array in the given Memory.
+   * @param lo  the low index
+   * @param hi  the high index
+   * @return the next partition value.  Ultimately, the desired pivot.
+   */
+  private static int partition(Memory mem, long offsetBytes, final int lo, final int hi) {
+    int i = lo, j = hi + 1; //left and right scan indices
+    long v = mem.getLong(offsetBytes + (lo << 3)); //partitioning item value
+    while (true) {
+      //Scan right, scan left, check for scan complete, and exchange
+      while (mem.getLong(offsetBytes + (++i << 3)) < v) {
+        if (i == hi) {
+          break;
+        }
+      }
+      while (v < mem.getLong(offsetBytes + (--j << 3))) {
+        if (j == lo) {
+          break;
+        }
+      }
+      if (i >= j) {
+        break;
+      }
+      long x = mem.getLong(offsetBytes + (i << 3));
+      mem.putLong(offsetBytes + (i << 3), mem.getLong(offsetBytes + (j << 3)));
+      mem.putLong(offsetBytes + (j << 3), x);
+    }
+    //put v=arr[j] into position with a[lo .. j-1] <= a[j] <= a[j+1 .. hi]
+    long x = mem.getLong(offsetBytes + (lo << 3));
+    mem.putLong(offsetBytes + (lo << 3), mem.getLong(offsetBytes + (j << 3)));
+    mem.putLong(offsetBytes + (j << 3), x);
+    return j;
+  }
+  
+  /**
+   * Gets the 0-based kth order statistic from an array of longs in Memory using the Floyd-Rivest
+   * algorithm. See {@link #selectFloydRivest(long[], int, int, int)}. Warning! This changes the
+   * ordering of elements in the given Memory!
+   * 
+   * @param mem The Memory that holds the array to be re-arranged.
+   * @param offsetBytes The offset in bytes of the start of the array in the given Memory.
+   * @param lo The lowest 0-based index to be considered.
+   * @param hi The highest 0-based index to be considered.
+   * @param pivot The 0-based index of the value to pivot on.
+   * @return The value of the smallest (n)th element where n is 0-based.
+   */
+  public static long selectFloydRivest(Memory mem, long offsetBytes, int lo, int hi, 
+      final int pivot) {
+    while (hi > lo) {
+      if ((hi - lo) > FR_SAMPLE_THRESHOLD) {
+        int n = (hi - lo) + 1;
+        int i = (pivot - lo) + 1;
+        double z = Math.log(n);
+        double s = 0.5 * Math.exp((2.0 * z) / 3.0);
+        double sd = 0.5 * Math.sqrt((z * s * (n - s)) / n) * Math.signum(i - (n / 2.0));
+        int newLo = Math.max(lo, (int) ((pivot - ((i * s) / n)) + sd));
+        int newHi = Math.min(hi, (int) ((pivot + (((n - i) * s) / n)) + sd));
+        selectFloydRivest(mem, offsetBytes, newLo, newHi, pivot);
+      }
+      long t = mem.getLong(offsetBytes + (pivot << 3));
+      int i = lo;
+      int j = hi;
+      swap(mem, offsetBytes, lo, pivot);
+      if (mem.getLong(offsetBytes + (hi << 3)) > t) {
+        swap(mem, offsetBytes, hi, lo);
+      }
+      while (i < j) {
+        swap(mem, offsetBytes, i, j);
+        i++;
+        j--;
+        while (mem.getLong(offsetBytes + (i << 3)) < t) { i++; }
+        while (mem.getLong(offsetBytes + (j << 3)) > t) { j--; }
+      }
+      if (mem.getLong(offsetBytes + (lo << 3)) == t) {
+        swap(mem, offsetBytes, lo, j);
+      } 
+      else {
+        j++;
+        swap(mem, offsetBytes, j, hi);
+      }
+      if (j <= pivot) { lo = j + 1; }
+      if (pivot <= j) { hi = j - 1; }
+    }
+    return mem.getLong(offsetBytes + (pivot << 3));
+  }
+  
+  /**
+   * Gets the 1-based kth order statistic from an array of longs in Memory excluding any zero
+   * values in the array, using the Floyd-Rivest algorithm. Warning! This changes the ordering of
+   * elements in the given Memory!
+   * 
+   * @param mem The Memory that holds the hash array.
+   * @param offsetBytes The offset in bytes of the start of the array in the given Memory.
+   * @param arrLongs The number of longs in the array.
+   * @param nonZeros The number of non-zero values in the array.
+   * @param pivot The 1-based index of the value that is chosen as the pivot for the array.
+   * @return The value of the smallest (N)th element excluding zeros, where N is 1-based.
+   */
+  public static long selectFloydRivestExcludingZeros(Memory mem, long offsetBytes, int arrLongs, 
+      final int nonZeros, final int pivot) {
+    if (pivot > nonZeros) {
+      return 0L;
+    }
+    int zeros = arrLongs - nonZeros;
+    int adjK = (pivot + zeros) - 1;
+    return selectFloydRivest(mem, offsetBytes, 0, arrLongs - 1, adjK);
+  }
+  
+  private static void swap(Memory mem, long offsetBytes, int i, int j) {
+    long iOff = offsetBytes + (i << 3);
+    long jOff = offsetBytes + (j << 3);
+    long x = mem.getLong(iOff);
+    mem.putLong(iOff, mem.getLong(jOff));
+    mem.putLong(jOff, x);
+  }
+  
   //For double arrays
   
   /**
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.hash;
+
+/**
+ * The hash functions with which sketches can hash their input. Each returns a 64-bit hash.
+ *
+ * <p>A sketch identifies its hash function through the 16-bit seed hash in its preamble, which is
+ * the hash of the seed computed with the hash function itself. The seed hash of
+ * {@link #MURMUR3} is the one sketches have always had, so existing images are unchanged, and
+ * sketches of different hash functions are rejected as incompatible by the set operations just as
+ * sketches of different seeds are.</p>
+ */
+public enum HashFunction {
+
+  /**
+   * The first 64 bits of the 128-bit {@link MurmurHash3}. This is the default.
+   */
+  MURMUR3 {
+    @Override
+    public long hash(long datum, long seed) {
+      return MurmurHash3.hash0(datum, seed); //without allocating the long[] of the datum
+    }
+
+    @Override
+    public long hash(long[] data, long seed) {
+      return MurmurHash3.hash(data, seed)[0];
+    }
+
+    @Override
+    public long hash(int[] data, long seed) {
+      return MurmurHash3.hash(data, seed)[0];
+    }
+
+    @Override
+    public long hash(byte[] data, long seed) {
+      return MurmurHash3.hash(data, seed)[0];
+    }
+  },
+
+  /**
+   * The 64-bit {@link XxHash64}, which is considerably faster for short keys.
+   */
+  XXHASH64 {
+    @Override
+    public long hash(long datum, long seed) {
+      return XxHash64.hash(datum, seed);
+    }
+
+    @Override
+    public long hash(long[] data, long seed) {
+      return XxHash64.hash(data, seed);
+    }
+
+    @Override
+    public long hash(int[] data, long seed) {
+      return XxHash64.hash(data, seed);
+    }
+
+    @Override
+    public long hash(byte[] data, long seed) {
+      return XxHash64.hash(data, seed);
+    }
+  };
+
+  /**
+   * Returns the 64-bit hash of a single long.
+   * @param datum the input long
+   * @param seed A long valued seed.
+   * @return the hash.
+   */
+  public abstract long hash(long datum, long seed);
+
+  /**
+   * Returns the 64-bit hash of the given long array.
+   * @param data the input long array. Must be non-null.
+   * @param seed A long valued seed.
+   * @return the hash.
+   */
+  public abstract long hash(long[] data, long seed);
+
+  /**
+   * Returns the 64-bit hash of the given int array.
+   * @param data the input int array. Must be non-null.
+   * @param seed A long valued seed.
+   * @return the hash.
+   */
+  public abstract long hash(int[] data, long seed);
+
+  /**
+   * Returns the 64-bit hash of the given byte array.
+   * @param data the input byte array. Must be non-null.
+   * @param seed A long valued seed.
+   * @return the hash.
+   */
+  public abstract long hash(byte[] data, long seed);
+
+  /**
+   * Computes and checks the 16-bit seed hash of the given seed with this hash function.
+   * The seed hash may not be zero in order to maintain compatibility with older serialized
+   * versions that did not have this concept. A hash function other than MURMUR3 must not give
+   * the same seed hash as another one, from which it could then not be told apart.
+   * @param seed <a href="{@docRoot}/resources/dictionary.html#seed">See Update Hash Seed</a>
+   * @return the seed hash.
+   */
+  public short computeSeedHash(long seed) {
+    short seedHash = rawSeedHash(seed);
+    if (seedHash == 0) {
+      throw new IllegalArgumentException(
+          "The given seed: " + seed + " produced a seedHash of zero. " +
+          "You must choose a different seed.");
+    }
+    for (HashFunction other : values()) {
+      if ((this != MURMUR3) && (other != this) && (other.rawSeedHash(seed) == seedHash)) {
+        throw new IllegalArgumentException(
+            "The given seed: " + seed + " produced the same seedHash with " + this + " and "
+            + other + ". You must choose a different seed.");
+      }
+    }
+    return seedHash;
+  }
+
+  /**
+   * Returns the hash function whose seed hash of the given seed is the given seed hash.
+   * MURMUR3 is checked first.
+   * @param seedHash the seed hash, usually read from a preamble
+   * @param seed <a href="{@docRoot}/resources/dictionary.html#seed">See Update Hash Seed</a>
+   * @return the hash function of the seed hash
+   * @throws IllegalArgumentException if no hash function gives the seed hash for the seed
+   */
+  public static HashFunction fromSeedHash(short seedHash, long seed) {
+    for (HashFunction fn : values()) {
+      if (fn.rawSeedHash(seed) == seedHash) {
+        return fn;
+      }
+    }
+    throw new IllegalArgumentException("Incompatible Seed Hashes. " + seedHash + ", "
+        + MURMUR3.rawSeedHash(seed));
+  }
+
+  private short rawSeedHash(long seed) {
+    return (short) (hash(seed, 0L) & 0XFFFFL);
+  }
+}
@@ -6,6 +6,8 @@ package com.yahoo.sketches.hash;
 
 import java.io.Serializable;
 
+import com.yahoo.sketches.memory.Memory;
+
 /**
  * <p>
  * The MurmurHash3 is a fast, non-cryptographic, 128-bit hash function that has
@@ -35,6 +37,16 @@ import java.io.Serializable;
  * structure. This also makes the code more readable and suitable for future extensions.
  * </p>
  * 
+ * <p>
+ * A region of a Memory is hashed in place, without copying it into an array, and produces the
+ * same hash as the byte array of the same bytes.
+ * </p>
+ * 
+ * <p>
+ * A key of several fields can be hashed field by field with a {@link Hasher}, without first 
+ * concatenating the fields into an array.
+ * </p>
+ * 
  * @author Lee Rhodes
  */
 public final class MurmurHash3 implements Serializable {
@@ -157,6 +169,255 @@ public final class MurmurHash3 implements Serializable {
     return hashState.finalMix128(k1, k2, bytes);
   }
   
+  //--Hash of Memory----------------------------------------------------
+  /**
+   * Returns a long array of size 2, which is a 128-bit hash of the given region of the Memory. 
+   * The result is the same as that of {@link #hash(byte[], long)} given the same bytes. 
+   * The 16-byte blocks are read with {@link Memory#getLong(long)}.
+   * 
+   * @param mem The input Memory. Must be non-null.
+   * @param offsetBytes the offset of the region in the Memory
+   * @param lengthBytes the length of the region in bytes
+   * @param seed A long valued seed.
+   * @return the hash.
+   */
+  public static long[] hash(Memory mem, long offsetBytes, long lengthBytes, long seed) {
+    if ((offsetBytes | lengthBytes | (mem.getCapacity() - offsetBytes - lengthBytes)) < 0) {
+      throw new IllegalArgumentException("Region out of bounds: offset: " + offsetBytes 
+          + ", length: " + lengthBytes + ", capacity: " + mem.getCapacity());
+    }
+    HashState hashState = new HashState(seed, seed);
+    
+    // Number of full 128-bit blocks of 16 bytes.
+    // Possible exclusion of a remainder of up to 15 bytes.
+    final long nblocks = lengthBytes >> 4; //bytes / 16
+    
+    // Process the 128-bit blocks (the body) into the hash
+    long off = offsetBytes;
+    for (long i = 0; i < nblocks; i++ ) { //16 bytes per block
+      long k1 = mem.getLong(off); //0, 16, 32, ...
+      long k2 = mem.getLong(off + 8); //8, 24, 40, ...
+      hashState.blockMix128(k1, k2);
+      off += 16;
+    }
+    
+    // Get the remainder length
+    int rem = (int) (lengthBytes & 0XF); // remainder bytes: 0,1,...,15
+    
+    // Get the tail
+    long k1 = 0;
+    long k2 = 0;
+    if (rem > 8) { //k1 -> whole; k2 -> partial
+      k1 = mem.getLong(off);
+      k2 = getLong(mem, off + 8, rem - 8);
+    } 
+    else { //k1 -> whole, partial or 0; k2 == 0
+      k1 = (rem == 0) ? 0 : getLong(mem, off, rem);
+    }
+    // Mix the tail into the hash and return
+    return hashState.finalMix128(k1, k2, lengthBytes);
+  }
+  
+  //--Hasher class------------------------------------------------------
+  /**
+   * An incremental hasher of a key made of several fields, for example (tenant, userId, deviceId).
+   * The fields are put one after another and {@link #finish()} returns the same hash as
+   * {@link MurmurHash3#hash(byte[], long)} of the concatenation of their bytes, where longs and 
+   * ints are in little-endian byte order and Strings are UTF-8 encoded. Thus putting the longs 
+   * of a long array gives the same hash as the long array itself.
+   * 
+   * <p>After {@link #finish()} the hasher starts over with the next key, so one hasher can hash
+   * any number of keys without allocating. A hasher is not thread safe.</p>
+   */
+  public static final class Hasher {
+    private final long seed_;
+    private final HashState hashState_;
+    private final long[] hash_ = new long[2];
+    private long k1_; //bytes 0 to 7 of the current block
+    private long k2_; //bytes 8 to 15 of the current block
+    private int blockBytes_; //bytes in the current block: 0 to 15
+    private long lengthBytes_;
+    
+    /**
+     * Creates a hasher with the given seed
+     * @param seed A long valued seed.
+     */
+    public Hasher(long seed) {
+      seed_ = seed;
+      hashState_ = new HashState(seed, seed);
+    }
+    
+    /**
+     * Returns the seed of this hasher
+     * @return the seed of this hasher
+     */
+    public long getSeed() {
+      return seed_;
+    }
+    
+    /**
+     * Returns the number of bytes put since the last finish or reset
+     * @return the number of bytes put since the last finish or reset
+     */
+    public long getLengthBytes() {
+      return lengthBytes_;
+    }
+    
+    /**
+     * Puts the given byte
+     * @param datum the given byte
+     * @return this hasher
+     */
+    public Hasher putByte(byte datum) {
+      put(datum & 0XFFL, 1);
+      return this;
+    }
+    
+    /**
+     * Puts the 4 bytes of the given int
+     * @param datum the given int
+     * @return this hasher
+     */
+    public Hasher putInt(int datum) {
+      put(datum & 0XFFFFFFFFL, 4);
+      return this;
+    }
+    
+    /**
+     * Puts the 8 bytes of the given long
+     * @param datum the given long
+     * @return this hasher
+     */
+    public Hasher putLong(long datum) {
+      put(datum, 8);
+      return this;
+    }
+    
+    /**
+     * Puts the given bytes
+     * @param data the given bytes. Must be non-null.
+     * @return this hasher
+     */
+    public Hasher putBytes(byte[] data) {
+      final int bytes = data.length;
+      int i = 0;
+      for (; (i + 8) <= bytes; i += 8) {
+        put(getLong(data, i, 8), 8);
+      }
+      if (i < bytes) {
+        put(getLong(data, i, bytes - i), bytes - i);
+      }
+      return this;
+    }
+    
+    /**
+     * Puts the UTF-8 encoding of the given String, which gives the same bytes as
+     * String.getBytes(UTF_8), without encoding it into an array.
+     * @param datum the given String. Must be non-null.
+     * @return this hasher
+     */
+    public Hasher putString(String datum) {
+      final int len = datum.length();
+      int i = 0;
+      while (i < len) {
+        long ascii = ((i + 8) <= len) ? ascii8(datum, i) : -1L;
+        if (ascii >= 0) {
+          put(ascii, 8);
+          i += 8;
+          continue;
+        }
+        long utf8 = utf8(datum, i);
+        int n = (int) (utf8 >>> 32);
+        put(utf8 & 0XFFFFFFFFL, n);
+        i += (n == 4) ? 2 : 1; //a surrogate pair is 2 chars
+      }
+      return this;
+    }
+    
+    /**
+     * Puts the bytes of the given region of a Memory without copying them
+     * @param mem the given Memory. Must be non-null.
+     * @param offsetBytes the offset of the region in the Memory
+     * @param lengthBytes the length of the region in bytes
+     * @return this hasher
+     */
+    public Hasher putBytes(Memory mem, long offsetBytes, long lengthBytes) {
+      if ((offsetBytes | lengthBytes | (mem.getCapacity() - offsetBytes - lengthBytes)) < 0) {
+        throw new IllegalArgumentException("Region out of bounds: offset: " + offsetBytes 
+            + ", length: " + lengthBytes + ", capacity: " + mem.getCapacity());
+      }
+      final long end = offsetBytes + lengthBytes;
+      long off = offsetBytes;
+      for (; (off + 8) <= end; off += 8) {
+        put(mem.getLong(off), 8);
+      }
+      if (off < end) {
+        put(getLong(mem, off, (int) (end - off)), (int) (end - off));
+      }
+      return this;
+    }
+    
+    /**
+     * Returns the 128-bit hash of the bytes put since the last finish or reset and starts over.
+     * The returned array is owned by this hasher and is overwritten by the next call to finish.
+     * @return a long array of size 2, which is the 128-bit hash of the bytes put.
+     */
+    public long[] finish() {
+      hashState_.finalMix128(k1_, k2_, lengthBytes_, hash_);
+      reset();
+      return hash_;
+    }
+    
+    /**
+     * Discards the bytes put since the last finish or reset
+     */
+    public void reset() {
+      reset(seed_);
+    }
+    
+    /**
+     * Discards the bytes put and starts over with the given seed, which lasts until the next 
+     * finish or reset.
+     * @param seed A long valued seed.
+     */
+    void reset(long seed) {
+      hashState_.h1 = seed;
+      hashState_.h2 = seed;
+      k1_ = 0;
+      k2_ = 0;
+      blockBytes_ = 0;
+      lengthBytes_ = 0;
+    }
+    
+    /**
+     * Appends the low n bytes of v, whose higher bytes must be zero, to the current block and
+     * mixes the block in when it is full.
+     * @param v the bytes in little-endian order
+     * @param n the number of bytes in the range [1,8]
+     */
+    private void put(long v, int n) {
+      int pos = blockBytes_;
+      if (pos < 8) {
+        k1_ |= v << (pos << 3);
+        if ((pos + n) > 8) {
+          k2_ = v >>> ((8 - pos) << 3);
+        }
+      } 
+      else {
+        k2_ |= v << ((pos - 8) << 3);
+      }
+      pos += n;
+      if (pos >= 16) {
+        hashState_.blockMix128(k1_, k2_);
+        pos -= 16;
+        k1_ = (pos == 0) ? 0 : v >>> ((n - pos) << 3);
+        k2_ = 0;
+      }
+      blockBytes_ = pos;
+      lengthBytes_ += n;
+    }
+  }
+  
   //--HashState class---------------------------------------------------
   /**
    * Common processing of the 128-bit hash state independent of input type.
@@ -191,6 +452,10 @@ public final class MurmurHash3 implements Serializable {
     }
     
     long[] finalMix128(long k1, long k2, long inputLengthBytes) {
+      return finalMix128(k1, k2, inputLengthBytes, new long[2]);
+    }
+    
+    long[] finalMix128(long k1, long k2, long inputLengthBytes, long[] hashOut) {
       h1 ^= mixK1(k1);
       h2 ^= mixK2(k2);
       h1 ^= inputLengthBytes;
@@ -201,7 +466,9 @@ public final class MurmurHash3 implements Serializable {
       h2 = finalMix64(h2);
       h1 += h2;
       h2 += h1;
-      return (new long[] { h1, h2 });
+      hashOut[0] = h1;
+      hashOut[1] = h2;
+      return hashOut;
     }
     
     /**
@@ -246,7 +513,89 @@ public final class MurmurHash3 implements Serializable {
     }
   }
   
+  //--Hash of a single long--------------------------------------------
+  /**
+   * Returns the first 64 bits of the hash of a long array of the given datum, the same as 
+   * hash(new long[] {datum}, seed)[0], without allocating.
+   * 
+   * @param datum the input long
+   * @param seed A long valued seed.
+   * @return the first 64 bits of the hash
+   */
+  static long hash0(long datum, long seed) {
+    long h2 = seed ^ 8L; //8 bytes
+    long h1 = (seed ^ HashState.mixK1(datum) ^ 8L) + h2;
+    h2 += h1;
+    return HashState.finalMix64(h1) + HashState.finalMix64(h2);
+  }
+  
+  /**
+   * Returns the second 64 bits of the hash of a long array of the given datum, the same as 
+   * hash(new long[] {datum}, seed)[1], without allocating.
+   * 
+   * @param datum the input long
+   * @param seed A long valued seed.
+   * @return the second 64 bits of the hash
+   */
+  static long hash1(long datum, long seed) {
+    long h2 = seed ^ 8L; //8 bytes
+    long h1 = (seed ^ HashState.mixK1(datum) ^ 8L) + h2;
+    h2 += h1;
+    h2 = HashState.finalMix64(h2);
+    return HashState.finalMix64(h1) + h2 + h2;
+  }
+  
   //--Helper methods----------------------------------------------------
+  /**
+   * Returns the 8 chars of the given String starting at the given index as a long of 8 bytes in
+   * little-endian order, which is their UTF-8 encoding, if they are all ASCII, otherwise -1.
+   * 
+   * @param str the given String
+   * @param index the index of the first char. There must be 8 chars from there.
+   * @return the 8 ASCII chars as a long, or -1
+   */
+  static long ascii8(String str, int index) {
+    long out = 0L;
+    int any = 0;
+    for (int i = 8; i-- > 0;) {
+      char c = str.charAt(index + i);
+      any |= c;
+      out = (out << 8) | c;
+    }
+    return ((any & 0XFF80) == 0) ? out : -1L;
+  }
+  
+  /**
+   * Returns the UTF-8 encoding of the char of the given String at the given index, or of the 
+   * surrogate pair starting there, with the same bytes as String.getBytes(UTF_8). 
+   * The bytes are in the low 32 bits in little-endian order, and their number, 1 to 4, 
+   * in the high 32 bits. A number of 4 means that the char at index + 1 was also encoded.
+   * 
+   * @param str the given String
+   * @param index the index of the char
+   * @return the UTF-8 bytes and their number
+   */
+  static long utf8(String str, int index) {
+    char c = str.charAt(index);
+    if (c < 0X80) {
+      return (1L << 32) | c;
+    }
+    if (c < 0X800) {
+      return (2L << 32) | (0XC0 | (c >>> 6)) | ((0X80 | (c & 0X3F)) << 8);
+    }
+    if (!Character.isSurrogate(c)) {
+      return (3L << 32) | (0XE0 | (c >>> 12)) | ((0X80 | ((c >>> 6) & 0X3F)) << 8)
+          | ((0X80 | (c & 0X3F)) << 16);
+    }
+    if (Character.isHighSurrogate(c) && ((index + 1) < str.length())
+        && Character.isLowSurrogate(str.charAt(index + 1))) {
+      int cp = Character.toCodePoint(c, str.charAt(index + 1));
+      return (4L << 32) | (0XF0 | (cp >>> 18)) | ((0X80 | ((cp >>> 12) & 0X3F)) << 8)
+          | ((0X80 | ((cp >>> 6) & 0X3F)) << 16) | ((0X80L | (cp & 0X3F)) << 24);
+    }
+    return (1L << 32) | '?'; //unpaired surrogate, replaced as by the UTF-8 encoder
+  }
+  
   /**
    * Gets a long from the given byte array starting at the given byte array index and continuing for
    * remainder (rem) bytes. The bytes are extracted in little-endian order. There is no limit
@@ -266,6 +615,28 @@ public final class MurmurHash3 implements Serializable {
     return out;
   }
   
+  /**
+   * Gets a long from the given Memory starting at the given offset and continuing for
+   * remainder (rem) bytes. The bytes are extracted in little-endian order. There is no limit
+   * checking.
+   * 
+   * @param mem The given input Memory.
+   * @param offsetBytes Zero-based offset from the start of the Memory.
+   * @param rem Remainder bytes. An integer in the range [1,8].
+   * @return long
+   */
+  private static long getLong(Memory mem, long offsetBytes, int rem) {
+    if (rem == 8) {
+      return mem.getLong(offsetBytes);
+    }
+    long out = 0L;
+    for (int i = rem; i-- > 0;) { //i= 6,5,4,3,2,1,0
+      byte b = mem.getByte(offsetBytes + i);
+      out ^= (b & 0xFFL) << (i * 8); //equivalent to |=
+    }
+    return out;
+  }
+  
   /**
    * Gets a long from the given int array starting at the given int array index and continuing for
    * remainder (rem) integers. The integers are extracted in little-endian order. There is no limit
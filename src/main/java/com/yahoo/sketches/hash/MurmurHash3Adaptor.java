@@ -10,14 +10,20 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 import java.nio.ByteBuffer;
 
+import com.yahoo.sketches.hash.MurmurHash3.Hasher;
+import com.yahoo.sketches.memory.Memory;
+
 /**
  * A general purpose wrapper for the MurmurHash3.
  * <ul>
- * <li>Inputs can be long, long[], int[], byte[], double or String.</li>
- * <li>Returns null if arrays or String is null or empty.</li>
+ * <li>Inputs can be long, long[], int[], byte[], double, String or a region of a Memory.</li>
+ * <li>Returns null if arrays, String or the region of a Memory is null or empty.</li>
  * <li>Provides methods for returning the 128-bit result as either an array of 2 longs or as a byte
  * array of 16 bytes.</li>
  * <li>Provides modulo, asDouble and asInt functions.</li>
+ * <li>The asInt, hashAsDouble and hashModulo functions do not allocate. A long or double key is
+ * hashed in local variables, other keys with a {@link MurmurHash3.Hasher} of the calling thread.
+ * An int key is hashed as a long.</li>
  * </ul>
  * 
  * @author Lee Rhodes
@@ -27,6 +33,8 @@ public final class MurmurHash3Adaptor {
   private static final long MAX_LONG = Long.MAX_VALUE;
   private static final long INT_MASK = 0x7FFFFFFFL;
   private static final long PRIME = 9219741426499971445L; //from P. L'Ecuyer and R. Simard 
+  private static final int MAX_TRIALS = 10000;
+  private static final ThreadLocal<Hasher> HASHER = ThreadLocal.withInitial(() -> new Hasher(0L));
   
   private MurmurHash3Adaptor() {}
   
@@ -84,6 +92,23 @@ public final class MurmurHash3Adaptor {
     return toByteArray(hash(data, seed));
   }
   
+  /**
+   * Hash a region of a Memory and long seed without copying it. 
+   * The result is the same as that of the byte[] of the same bytes.
+   * 
+   * @param mem the input Memory.
+   * @param offsetBytes the offset of the region in the Memory
+   * @param lengthBytes the length of the region in bytes
+   * @param seed A long valued seed.
+   * @return The 128-bit hash as a byte[16] as 2 64-bit longs in Big Endian order.
+   */
+  public static byte[] hashToBytes(Memory mem, long offsetBytes, long lengthBytes, long seed) {
+    if ((mem == null) || (lengthBytes == 0)) {
+      return null;
+    }
+    return toByteArray(hash(mem, offsetBytes, lengthBytes, seed));
+  }
+  
   /**
    * Hash a double and long seed.
    * 
@@ -166,6 +191,23 @@ public final class MurmurHash3Adaptor {
     return hash(data, seed);
   }
   
+  /**
+   * Hash a region of a Memory and long seed without copying it. 
+   * The result is the same as that of the byte[] of the same bytes.
+   * 
+   * @param mem the input Memory.
+   * @param offsetBytes the offset of the region in the Memory
+   * @param lengthBytes the length of the region in bytes
+   * @param seed A long valued seed.
+   * @return The 128-bit hash as a long[2].
+   */
+  public static long[] hashToLongs(Memory mem, long offsetBytes, long lengthBytes, long seed) {
+    if ((mem == null) || (lengthBytes == 0)) {
+      return null;
+    }
+    return hash(mem, offsetBytes, lengthBytes, seed);
+  }
+  
   /**
    * Hash a double and long seed.
    * 
@@ -207,7 +249,20 @@ public final class MurmurHash3Adaptor {
     if ((data == null) || (data.length == 0)) {
       throw new IllegalArgumentException("Input is null or empty.");
     }
-    return asInteger(data, n); //data is long[]
+    long mask = asIntMask(n);
+    Hasher hasher = HASHER.get();
+    long seed = 0;
+    for (int cnt = 1; cnt < MAX_TRIALS; cnt++) {
+      hasher.reset(seed);
+      for (long datum : data) { hasher.putLong(datum); }
+      long[] h = hasher.finish();
+      int t = asInteger(h[0], h[1], n, mask);
+      if (t >= 0) {
+        return t;
+      }
+      seed += PRIME;
+    }
+    throw asIntegerFailed();
   }
   
   /**
@@ -221,7 +276,20 @@ public final class MurmurHash3Adaptor {
     if ((data == null) || (data.length == 0)) {
       throw new IllegalArgumentException("Input is null or empty.");
     }    
-    return asInteger(toLongArray(data), n); //data is int[]
+    long mask = asIntMask(n);
+    Hasher hasher = HASHER.get();
+    long seed = 0;
+    for (int cnt = 1; cnt < MAX_TRIALS; cnt++) {
+      hasher.reset(seed);
+      putPacked(hasher, data);
+      long[] h = hasher.finish();
+      int t = asInteger(h[0], h[1], n, mask);
+      if (t >= 0) {
+        return t;
+      }
+      seed += PRIME;
+    }
+    throw asIntegerFailed();
   }
   
   /**
@@ -235,19 +303,72 @@ public final class MurmurHash3Adaptor {
     if ((data == null) || (data.length == 0)) {
       throw new IllegalArgumentException("Input is null or empty.");
     }
-    return asInteger(toLongArray(data), n); //data is byte[]
+    long mask = asIntMask(n);
+    Hasher hasher = HASHER.get();
+    long seed = 0;
+    for (int cnt = 1; cnt < MAX_TRIALS; cnt++) {
+      hasher.reset(seed);
+      putPacked(hasher, data);
+      long[] h = hasher.finish();
+      int t = asInteger(h[0], h[1], n, mask);
+      if (t >= 0) {
+        return t;
+      }
+      seed += PRIME;
+    }
+    throw asIntegerFailed();
   }
   
   /**
    * Returns a deterministic uniform random integer between zero (inclusive) and
-   * n (exclusive) given the input datum.
+   * n (exclusive) given the bytes of the region of the Memory, which are not copied.
+   * The result is the same as that of {@link #asInt(byte[], int)} given the same bytes.
+   * @param mem the input Memory.
+   * @param offsetBytes the offset of the region in the Memory
+   * @param lengthBytes the length of the region in bytes
+   * @param n The upper exclusive bound of the integers produced. Must be &gt; 1.
+   * @return deterministic uniform random integer.
+   */
+  public static int asInt(Memory mem, long offsetBytes, long lengthBytes, int n) {
+    if ((mem == null) || (lengthBytes == 0)) {
+      throw new IllegalArgumentException("Input is null or empty.");
+    }
+    checkRegion(mem, offsetBytes, lengthBytes);
+    long mask = asIntMask(n);
+    Hasher hasher = HASHER.get();
+    long seed = 0;
+    for (int cnt = 1; cnt < MAX_TRIALS; cnt++) {
+      hasher.reset(seed);
+      putPacked(hasher, mem, offsetBytes, lengthBytes);
+      long[] h = hasher.finish();
+      int t = asInteger(h[0], h[1], n, mask);
+      if (t >= 0) {
+        return t;
+      }
+      seed += PRIME;
+    }
+    throw asIntegerFailed();
+  }
+  
+  /**
+   * Returns a deterministic uniform random integer between zero (inclusive) and
+   * n (exclusive) given the input datum. An int datum gives the same result as an int array of
+   * the datum.
    * @param datum the input long
    * @param n The upper exclusive bound of the integers produced. Must be &gt; 1.
    * @return deterministic uniform random integer
    */
   public static int asInt(long datum, int n) {
-    long[] data = { datum };
-    return asInteger(data, n); //data is long[]
+    long mask = asIntMask(n);
+    long seed = 0;
+    for (int cnt = 1; cnt < MAX_TRIALS; cnt++) {
+      int t = asInteger(MurmurHash3.hash0(datum, seed), MurmurHash3.hash1(datum, seed), n, mask);
+      if (t >= 0) {
+        return t;
+      }
+      seed += PRIME;
+    }
+    throw asIntegerFailed();
   }
   
   /**
@@ -258,9 +379,7 @@ public final class MurmurHash3Adaptor {
    * @return deterministic uniform random integer
    */
   public static int asInt(double datum, int n) {
-    double d = (datum == 0.0) ? 0.0 : datum; //canonicalize -0.0, 0.0
-    long[] data = { Double.doubleToLongBits(d) };//canonicalize all NaN forms
-    return asInteger(data, n); //data is long[]
+    return asInt(canonicalBits(datum), n);
   }
   
   /**
@@ -274,77 +393,171 @@ public final class MurmurHash3Adaptor {
     if ((datum == null) || datum.isEmpty()) {
       throw new IllegalArgumentException("Input is null or empty.");
     }
-    byte[] data = datum.getBytes(UTF_8);
-    return asInteger(toLongArray(data), n); //data is byte[]
+    long mask = asIntMask(n);
+    Hasher hasher = HASHER.get();
+    long seed = 0;
+    for (int cnt = 1; cnt < MAX_TRIALS; cnt++) {
+      hasher.reset(seed);
+      putPacked(hasher, datum);
+      long[] h = hasher.finish();
+      int t = asInteger(h[0], h[1], n, mask);
+      if (t >= 0) {
+        return t;
+      }
+      seed += PRIME;
+    }
+    throw asIntegerFailed();
   }
   
   /**
-   * Returns a deterministic uniform random integer with a minimum inclusive value of zero and a 
-   * maximum exclusive value of n given the input data.
+   * Returns the mask of the candidate integers of a hash for the given n.
    * <p>
    * The integer values produced are only as random as the MurmurHash3 algorithm, which may be
    * adequate for many applications. However, if you are looking for high guarantees of randomness
    * you should turn to more sophisticated random generators such as Mersenne Twister or Well19937c
    * algorithms.
    * 
-   * @param data The input data (key)
    * @param n The upper exclusive bound of the integers produced. Must be &gt; 1.
-   * @return deterministic uniform random integer
+   * @return the mask of the candidate integers
    */
-  private static int asInteger(long[] data, int n) {
-    int t;
-    int cnt = 0;
-    long seed = 0;
+  private static long asIntMask(int n) {
     if (n < 2) throw new IllegalArgumentException("Given value of n must be &gt; 1.");
-    if (n > (1 << 30)) {
-      while (++cnt < 10000) {
-        long[] h = MurmurHash3.hash(data, seed);
-        t = (int) (h[0] & INT_MASK);
-        if (t < n) {
-          return t;
-        }
-        t = (int) ((h[0] >>> 33));
-        if (t < n) {
-          return t;
-        }
-        t = (int) (h[1] & INT_MASK);
-        if (t < n) {
-          return t;
-        }
-        t = (int) ((h[1] >>> 33));
-        if (t < n) {
-          return t;
-        }
-        seed += PRIME;
-      } // end while
-      throw new IllegalStateException(
-          "Internal Error: Failed to find integer &lt; n within 10000 iterations.");
-    }
-    long mask = ceilingPowerOf2(n) - 1;
-    while (++cnt < 10000) {
-      long[] h = MurmurHash3.hash(data, seed);
-      t = (int) (h[0] & mask);
-      if (t < n) {
-        return t;
-      }
-      t = (int) ((h[0] >>> 33) & mask);
-      if (t < n) {
-        return t;
-      }
-      t = (int) (h[1] & mask);
-      if (t < n) {
-        return t;
-      }
-      t = (int) ((h[1] >>> 33) & mask);
-      if (t < n) {
-        return t;
-      }
-      seed += PRIME;
-    } // end while
-    throw new IllegalStateException(
+    return (n > (1 << 30)) ? INT_MASK : ceilingPowerOf2(n) - 1;
+  }
+  
+  /**
+   * Returns the first of the four candidate integers of the given hash that is less than n,
+   * or -1 if there is none, in which case the key is hashed again with the next seed.
+   * 
+   * @param h0 The lower 64-bits of the 128-bit MurmurHash3 hash of the key.
+   * @param h1 The upper 64-bits of the 128-bit MurmurHash3 hash of the key.
+   * @param n The upper exclusive bound of the integers produced.
+   * @param mask the mask of the candidate integers
+   * @return the integer, or -1
+   */
+  private static int asInteger(long h0, long h1, int n, long mask) {
+    int t = (int) (h0 & mask);
+    if (t < n) {
+      return t;
+    }
+    t = (int) ((h0 >>> 33) & mask);
+    if (t < n) {
+      return t;
+    }
+    t = (int) (h1 & mask);
+    if (t < n) {
+      return t;
+    }
+    t = (int) ((h1 >>> 33) & mask);
+    return (t < n) ? t : -1;
+  }
+  
+  private static IllegalStateException asIntegerFailed() {
+    return new IllegalStateException(
         "Internal Error: Failed to find integer &lt; n within 10000 iterations.");
   }
   
+  //As Double and Modulo functions of a key
+  
+  /**
+   * Returns a uniform random double in [0, 1) of the hash of the given long. The result is the 
+   * same as {@link #asDouble(long[])} of {@link #hashToLongs(long, long)}.
+   * @param datum the input long
+   * @param seed A long valued seed.
+   * @return the uniform random double.
+   */
+  public static double hashAsDouble(long datum, long seed) {
+    return (MurmurHash3.hash0(datum, seed) >>> 12) * 0x1.0p-52d;
+  }
+  
+  /**
+   * Returns a uniform random double in [0, 1) of the hash of the given double. The result is the 
+   * same as {@link #asDouble(long[])} of {@link #hashToLongs(double, long)}.
+   * @param datum the input double
+   * @param seed A long valued seed.
+   * @return the uniform random double.
+   */
+  public static double hashAsDouble(double datum, long seed) {
+    return hashAsDouble(canonicalBits(datum), seed);
+  }
+  
+  /**
+   * Returns a uniform random double in [0, 1) of the hash of the given String. The result is the 
+   * same as {@link #asDouble(long[])} of {@link #hashToLongs(String, long)}.
+   * @param datum the input String. Must be non-null and non-empty.
+   * @param seed A long valued seed.
+   * @return the uniform random double.
+   */
+  public static double hashAsDouble(String datum, long seed) {
+    return asDouble(hashOf(datum, seed));
+  }
+  
+  /**
+   * Returns a uniform random double in [0, 1) of the hash of the given region of a Memory. 
+   * The result is the same as {@link #asDouble(long[])} of 
+   * {@link #hashToLongs(Memory, long, long, long)}.
+   * @param mem the input Memory.
+   * @param offsetBytes the offset of the region in the Memory
+   * @param lengthBytes the length of the region in bytes. Must be &gt; 0.
+   * @param seed A long valued seed.
+   * @return the uniform random double.
+   */
+  public static double hashAsDouble(Memory mem, long offsetBytes, long lengthBytes, long seed) {
+    return asDouble(hashOf(mem, offsetBytes, lengthBytes, seed));
+  }
+  
+  /**
+   * Returns the remainder of the hash of the given long by the divisor. The result is the same 
+   * as {@link #modulo(long[], int)} of {@link #hashToLongs(long, long)}.
+   * @param datum the input long
+   * @param seed A long valued seed.
+   * @param divisor Must be positive and greater than zero.
+   * @return the modulo result.
+   */
+  public static int hashModulo(long datum, long seed, int divisor) {
+    return modulo(MurmurHash3.hash0(datum, seed), MurmurHash3.hash1(datum, seed), divisor);
+  }
+  
+  /**
+   * Returns the remainder of the hash of the given double by the divisor. The result is the same 
+   * as {@link #modulo(long[], int)} of {@link #hashToLongs(double, long)}.
+   * @param datum the input double
+   * @param seed A long valued seed.
+   * @param divisor Must be positive and greater than zero.
+   * @return the modulo result.
+   */
+  public static int hashModulo(double datum, long seed, int divisor) {
+    return hashModulo(canonicalBits(datum), seed, divisor);
+  }
+  
+  /**
+   * Returns the remainder of the hash of the given String by the divisor. The result is the same 
+   * as {@link #modulo(long[], int)} of {@link #hashToLongs(String, long)}.
+   * @param datum the input String. Must be non-null and non-empty.
+   * @param seed A long valued seed.
+   * @param divisor Must be positive and greater than zero.
+   * @return the modulo result.
+   */
+  public static int hashModulo(String datum, long seed, int divisor) {
+    return modulo(hashOf(datum, seed), divisor);
+  }
+  
+  /**
+   * Returns the remainder of the hash of the given region of a Memory by the divisor. 
+   * The result is the same as {@link #modulo(long[], int)} of 
+   * {@link #hashToLongs(Memory, long, long, long)}.
+   * @param mem the input Memory.
+   * @param offsetBytes the offset of the region in the Memory
+   * @param lengthBytes the length of the region in bytes. Must be &gt; 0.
+   * @param seed A long valued seed.
+   * @param divisor Must be positive and greater than zero.
+   * @return the modulo result.
+   */
+  public static int hashModulo(Memory mem, long offsetBytes, long lengthBytes, long seed, 
+      int divisor) {
+    return modulo(hashOf(mem, offsetBytes, lengthBytes, seed), divisor);
+  }
+  
   /**
    * Returns a uniform random double with a minimum inclusive value of zero and a maximum exclusive
    * value of 1.0.
@@ -406,26 +619,107 @@ public final class MurmurHash3Adaptor {
     return bArr;
   }
   
-  private static long[] toLongArray(byte[] data) {
-    int dataLen = data.length;
-    int longLen = (dataLen+7)/8;
-    long[] longArr = new long[longLen];
-    for (int bi=0; bi<dataLen; bi++) {
-      int li = bi/8;
-      longArr[li] |= (((long)data[bi]) << (bi*8) % 64);
+  //The hash is in the array owned by the hasher of this thread
+  
+  private static long[] hashOf(String datum, long seed) {
+    if ((datum == null) || datum.isEmpty()) {
+      throw new IllegalArgumentException("Input is null or empty.");
+    }
+    Hasher hasher = HASHER.get();
+    hasher.reset(seed);
+    return hasher.putString(datum).finish();
+  }
+  
+  private static long[] hashOf(Memory mem, long offsetBytes, long lengthBytes, long seed) {
+    if ((mem == null) || (lengthBytes == 0)) {
+      throw new IllegalArgumentException("Input is null or empty.");
+    }
+    Hasher hasher = HASHER.get();
+    hasher.reset(seed);
+    return hasher.putBytes(mem, offsetBytes, lengthBytes).finish();
+  }
+  
+  private static long canonicalBits(double datum) {
+    double d = (datum == 0.0) ? 0.0 : datum; //canonicalize -0.0, 0.0
+    return Double.doubleToLongBits(d); //canonicalize all NaN forms
+  }
+  
+  private static void checkRegion(Memory mem, long offsetBytes, long lengthBytes) {
+    if ((offsetBytes | lengthBytes | (mem.getCapacity() - offsetBytes - lengthBytes)) < 0) {
+      throw new IllegalArgumentException("Region out of bounds: offset: " + offsetBytes 
+          + ", length: " + lengthBytes + ", capacity: " + mem.getCapacity());
+    }
+  }
+  
+  //The asInt functions hash byte and int keys as a long array, where each long is the OR of its
+  //bytes or ints shifted into place, so that a negative byte or int also sets all higher bits.
+  
+  private static void putPacked(Hasher hasher, int[] data) {
+    final int ints = data.length;
+    int i = 0;
+    for (; (i + 2) <= ints; i += 2) {
+      hasher.putLong(((long) data[i]) | (((long) data[i + 1]) << 32));
+    }
+    if (i < ints) {
+      hasher.putLong(data[i]);
+    }
+  }
+  
+  private static void putPacked(Hasher hasher, byte[] data) {
+    long word = 0;
+    for (int i = 0; i < data.length; i++) {
+      word |= ((long) data[i]) << ((i & 7) << 3);
+      if ((i & 7) == 7) {
+        hasher.putLong(word);
+        word = 0;
+      }
+    }
+    if ((data.length & 7) != 0) {
+      hasher.putLong(word);
     }
-    return longArr;
   }
   
-  private static long[] toLongArray(int[] data) {
-    int dataLen = data.length;
-    int longLen = (dataLen+1)/2;
-    long[] longArr = new long[longLen];
-    for (int ii=0; ii<dataLen; ii++) {
-      int li = ii/2;
-      longArr[li] |= (((long)data[ii]) << (ii*32) % 64);
+  private static void putPacked(Hasher hasher, Memory mem, long offsetBytes, long lengthBytes) {
+    long word = 0;
+    for (long i = 0; i < lengthBytes; i++) {
+      word |= ((long) mem.getByte(offsetBytes + i)) << ((i & 7) << 3);
+      if ((i & 7) == 7) {
+        hasher.putLong(word);
+        word = 0;
+      }
+    }
+    if ((lengthBytes & 7) != 0) {
+      hasher.putLong(word);
+    }
+  }
+  
+  private static void putPacked(Hasher hasher, String datum) { //the UTF-8 bytes of the String
+    final int len = datum.length();
+    long word = 0;
+    int bytes = 0;
+    int i = 0;
+    while (i < len) {
+      long ascii = (((bytes & 7) == 0) && ((i + 8) <= len)) ? MurmurHash3.ascii8(datum, i) : -1L;
+      if (ascii >= 0) { //ASCII bytes are not negative
+        hasher.putLong(ascii);
+        bytes += 8;
+        i += 8;
+        continue;
+      }
+      long utf8 = MurmurHash3.utf8(datum, i);
+      int n = (int) (utf8 >>> 32);
+      for (int b = 0; b < n; b++) {
+        word |= ((long) (byte) (utf8 >>> (b << 3))) << ((bytes & 7) << 3);
+        if ((++bytes & 7) == 0) {
+          hasher.putLong(word);
+          word = 0;
+        }
+      }
+      i += (n == 4) ? 2 : 1; //a surrogate pair is 2 chars
+    }
+    if ((bytes & 7) != 0) {
+      hasher.putLong(word);
     }
-    return longArr;
   }
   
 }
\ No newline at end of file
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.hash;
+
+import com.yahoo.sketches.memory.Memory;
+import com.yahoo.sketches.memory.MemoryUtil;
+
+/**
+ * <p>
+ * The XXH64 hash of Yann Collet, a fast, non-cryptographic, 64-bit hash function. For short
+ * keys it costs a fraction of the 128-bit {@link MurmurHash3}, whose second half the sketches
+ * do not use.
+ * </p>
+ *
+ * <p>
+ * This implementation produces the same output bits as the reference XXH64 given the same bytes.
+ * As with the MurmurHash3, arrays of longs or ints produce the same hash as the byte array of
+ * their elements in little-endian byte order, and a region of a Memory the same hash as the byte
+ * array of the same bytes.
+ * </p>
+ */
+public final class XxHash64 {
+  private static final long P1 = 0X9E3779B185EBCA87L;
+  private static final long P2 = 0XC2B2AE3D27D4EB4FL;
+  private static final long P3 = 0X165667B19E3779F9L;
+  private static final long P4 = 0X85EBCA77C2B2AE63L;
+  private static final long P5 = 0X27D4EB2F165667C5L;
+
+  private XxHash64() {}
+
+  /**
+   * Returns the 64-bit hash of a single long, which is the hash of its 8 bytes.
+   * @param datum the input long
+   * @param seed A long valued seed.
+   * @return the hash.
+   */
+  public static long hash(long datum, long seed) {
+    long h = seed + P5 + 8;
+    h ^= round(0, datum);
+    h = (Long.rotateLeft(h, 27) * P1) + P4;
+    return finalMix(h);
+  }
+
+  /**
+   * Returns the 64-bit hash of the given long array.
+   * @param key The input long[] array. Must be non-null.
+   * @param seed A long valued seed.
+   * @return the hash.
+   */
+  public static long hash(long[] key, long seed) {
+    final int longs = key.length;
+    int i = 0;
+    long h;
+    if (longs >= 4) { //stripes of 32 bytes
+      long v1 = seed + P1 + P2;
+      long v2 = seed + P2;
+      long v3 = seed;
+      long v4 = seed - P1;
+      for (; (i + 4) <= longs; i += 4) {
+        v1 = round(v1, key[i]);
+        v2 = round(v2, key[i + 1]);
+        v3 = round(v3, key[i + 2]);
+        v4 = round(v4, key[i + 3]);
+      }
+      h = mergeAccumulators(v1, v2, v3, v4);
+    }
+    else {
+      h = seed + P5;
+    }
+    h += longs * 8L;
+    for (; i < longs; i++) {
+      h = mixLong(h, key[i]);
+    }
+    return finalMix(h);
+  }
+
+  /**
+   * Returns the 64-bit hash of the given int array.
+   * @param key The input int[] array. Must be non-null.
+   * @param seed A long valued seed.
+   * @return the hash.
+   */
+  public static long hash(int[] key, long seed) {
+    final int ints = key.length;
+    int i = 0;
+    long h;
+    if (ints >= 8) { //stripes of 32 bytes
+      long v1 = seed + P1 + P2;
+      long v2 = seed + P2;
+      long v3 = seed;
+      long v4 = seed - P1;
+      for (; (i + 8) <= ints; i += 8) {
+        v1 = round(v1, getLong(key, i));
+        v2 = round(v2, getLong(key, i + 2));
+        v3 = round(v3, getLong(key, i + 4));
+        v4 = round(v4, getLong(key, i + 6));
+      }
+      h = mergeAccumulators(v1, v2, v3, v4);
+    }
+    else {
+      h = seed + P5;
+    }
+    h += ints * 4L;
+    for (; (i + 2) <= ints; i += 2) {
+      h = mixLong(h, getLong(key, i));
+    }
+    if (i < ints) {
+      h = mixInt(h, key[i]);
+    }
+    return finalMix(h);
+  }
+
+  /**
+   * Returns the 64-bit hash of the given byte array.
+   * @param key The input byte[] array. Must be non-null.
+   * @param seed A long valued seed.
+   * @return the hash.
+   */
+  public static long hash(byte[] key, long seed) {
+    final int bytes = key.length;
+    int i = 0;
+    long h;
+    if (bytes >= 32) { //stripes of 32 bytes
+      long v1 = seed + P1 + P2;
+      long v2 = seed + P2;
+      long v3 = seed;
+      long v4 = seed - P1;
+      for (; (i + 32) <= bytes; i += 32) {
+        v1 = round(v1, getLong(key, i));
+        v2 = round(v2, getLong(key, i + 8));
+        v3 = round(v3, getLong(key, i + 16));
+        v4 = round(v4, getLong(key, i + 24));
+      }
+      h = mergeAccumulators(v1, v2, v3, v4);
+    }
+    else {
+      h = seed + P5;
+    }
+    h += bytes;
+    for (; (i + 8) <= bytes; i += 8) {
+      h = mixLong(h, getLong(key, i));
+    }
+    if ((i + 4) <= bytes) {
+      h = mixInt(h, getInt(key, i));
+      i += 4;
+    }
+    for (; i < bytes; i++) {
+      h ^= (key[i] & 0XFFL) * P5;
+      h = Long.rotateLeft(h, 11) * P1;
+    }
+    return finalMix(h);
+  }
+
+  /**
+   * Returns the 64-bit hash of the given region of the Memory, which is the hash of the byte array
+   * of the same bytes. This is also {@link MemoryUtil#hash(Memory, long, long, long)}.
+   * @param mem The input Memory. Must be non-null.
+   * @param offsetBytes the offset of the region in the Memory
+   * @param lengthBytes the length of the region in bytes
+   * @param seed A long valued seed.
+   * @return the hash.
+   */
+  public static long hash(Memory mem, long offsetBytes, long lengthBytes, long seed) {
+    if ((offsetBytes | lengthBytes | (mem.getCapacity() - offsetBytes - lengthBytes)) < 0) {
+      throw new IllegalArgumentException("Region out of bounds: offset: " + offsetBytes
+          + ", length: " + lengthBytes + ", capacity: " + mem.getCapacity());
+    }
+    long off = offsetBytes;
+    final long end = offsetBytes + lengthBytes;
+    long h;
+    if (lengthBytes >= 32) { //stripes of 32 bytes
+      long v1 = seed + P1 + P2;
+      long v2 = seed + P2;
+      long v3 = seed;
+      long v4 = seed - P1;
+      for (; (off + 32) <= end; off += 32) {
+        v1 = round(v1, mem.getLong(off));
+        v2 = round(v2, mem.getLong(off + 8));
+        v3 = round(v3, mem.getLong(off + 16));
+        v4 = round(v4, mem.getLong(off + 24));
+      }
+      h = mergeAccumulators(v1, v2, v3, v4);
+    }
+    else {
+      h = seed + P5;
+    }
+    h += lengthBytes;
+    for (; (off + 8) <= end; off += 8) {
+      h = mixLong(h, mem.getLong(off));
+    }
+    if ((off + 4) <= end) {
+      h = mixInt(h, mem.getInt(off));
+      off += 4;
+    }
+    for (; off < end; off++) {
+      h ^= (mem.getByte(off) & 0XFFL) * P5;
+      h = Long.rotateLeft(h, 11) * P1;
+    }
+    return finalMix(h);
+  }
+
+  //--Helper methods----------------------------------------------------
+
+  private static long round(long acc, long input) {
+    return Long.rotateLeft(acc + (input * P2), 31) * P1;
+  }
+
+  private static long mergeRound(long acc, long val) {
+    return ((acc ^ round(0, val)) * P1) + P4;
+  }
+
+  private static long mergeAccumulators(long v1, long v2, long v3, long v4) {
+    long h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12)
+        + Long.rotateLeft(v4, 18);
+    h = mergeRound(h, v1);
+    h = mergeRound(h, v2);
+    h = mergeRound(h, v3);
+    return mergeRound(h, v4);
+  }
+
+  private static long mixLong(long h, long k) {
+    return (Long.rotateLeft(h ^ round(0, k), 27) * P1) + P4;
+  }
+
+  private static long mixInt(long h, int k) {
+    return (Long.rotateLeft(h ^ ((k & 0XFFFFFFFFL) * P1), 23) * P2) + P3;
+  }
+
+  private static long finalMix(long h) {
+    h ^= h >>> 33;
+    h *= P2;
+    h ^= h >>> 29;
+    h *= P3;
+    h ^= h >>> 32;
+    return h;
+  }
+
+  //little-endian long of the 8 bytes at the given index
+  private static long getLong(byte[] bArr, int index) {
+    return (bArr[index] & 0XFFL)
+        | ((bArr[index + 1] & 0XFFL) << 8)
+        | ((bArr[index + 2] & 0XFFL) << 16)
+        | ((bArr[index + 3] & 0XFFL) << 24)
+        | ((bArr[index + 4] & 0XFFL) << 32)
+        | ((bArr[index + 5] & 0XFFL) << 40)
+        | ((bArr[index + 6] & 0XFFL) << 48)
+        | ((long) bArr[index + 7] << 56);
+  }
+
+  //little-endian int of the 4 bytes at the given index
+  private static int getInt(byte[] bArr, int index) {
+    return (bArr[index] & 0XFF)
+        | ((bArr[index + 1] & 0XFF) << 8)
+        | ((bArr[index + 2] & 0XFF) << 16)
+        | (bArr[index + 3] << 24);
+  }
+
+  //little-endian long of the 2 ints at the given index
+  private static long getLong(int[] intArr, int index) {
+    return (intArr[index] & 0XFFFFFFFFL) | ((long) intArr[index + 1] << 32);
+  }
+}
@@ -1,5 +1,7 @@
 package com.yahoo.sketches.hll;
 
+import com.yahoo.sketches.memory.Memory;
+
 /**
  * An interface that abstracts out the underlying storage of an HLL from the hashing
  * and other activities required to maintain an HLL.
@@ -51,6 +53,17 @@ public interface Fields
    */
   int numBytesToSerialize();
 
+  /**
+   * Provides the byte representation of the fields, exactly as written by intoByteArray, as an ordered
+   * sequence of Memory regions.  Wherever possible the regions are views over the underlying storage, which
+   * allows the fields to be written out without first copying them into one full-size byte[].
+   *
+   * This should *not* include the preamble
+   * @return the regions that, when concatenated, form the byte representation of the fields.  Null elements
+   * represent empty regions and should be skipped.
+   */
+  Memory[] getSerializedRegions();
+
   /**
    * Return the compact form of this fields object.  The compact form is intended as the most compact representation
    * of the same data.  Generally, the compact form is not updatable and it is acceptable for it to throw
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.hll;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.stream.Collector;
+
+/**
+ * Stream Collectors that build HLL sketches. Every thread of a parallel stream accumulates into
+ * its own HllSketch, and the partial results are merged with {@link HllSketch#union(HllSketch)},
+ * so no synchronization is needed and <i>parallelStream()</i> pipelines scale across cores.
+ * All Collectors are UNORDERED.
+ *
+ * <p>The elements of a stream given to a toSketch collector are presented to the sketch as
+ * follows: Long, Integer, Short and Byte as a single long, Double and Float as the bits of the
+ * canonical double, String as its UTF-8 bytes, and byte[], int[] and long[] as themselves.
+ * Null and empty elements are ignored.</p>
+ *
+ * <pre>
+ * HllSketch sketch = userIds.parallelStream().collect(HllCollectors.toSketch(12));
+ * </pre>
+ */
+public final class HllCollectors
+{
+  private HllCollectors()
+  {
+  }
+
+  /**
+   * Returns a Collector that presents every element to an HllSketch with 2<sup>logK</sup>
+   * buckets.
+   *
+   * @param <T> the type of the elements
+   * @param logK the log base 2 of the number of buckets
+   * @return a Collector that presents every element to an HllSketch
+   */
+  public static <T> Collector<T, ?, HllSketch> toSketch(int logK)
+  {
+    return toSketch(HllSketch.builder().setLogBuckets(logK));
+  }
+
+  /**
+   * Returns a Collector that presents every element to sketches built by the given builder.
+   * The configuration of the builder is copied, so later changes of the builder have no effect.
+   * The HIP estimator cannot be used, since it is not preserved by a union.
+   *
+   * @param <T> the type of the elements
+   * @param bldr the given builder
+   * @return a Collector that presents every element to an HllSketch
+   */
+  public static <T> Collector<T, ?, HllSketch> toSketch(HllSketchBuilder bldr)
+  {
+    if (bldr.isHipEstimator()) {
+      throw new IllegalArgumentException("A Collector cannot use the HIP estimator.");
+    }
+    final HllSketchBuilder copy = bldr.copy();
+    return Collector.of(
+        copy::build,
+        HllCollectors::update,
+        HllSketch::union,
+        Collector.Characteristics.UNORDERED,
+        Collector.Characteristics.IDENTITY_FINISH
+    );
+  }
+
+  /**
+   * Returns a Collector that unions a stream of HllSketches into a new HllSketch with
+   * 2<sup>logK</sup> buckets. Null sketches are ignored.
+   *
+   * @param logK the log base 2 of the number of buckets, which must be the same as that of the
+   * sketches of the stream
+   * @return a Collector that unions a stream of HllSketches
+   */
+  public static Collector<HllSketch, ?, HllSketch> toUnion(int logK)
+  {
+    final HllSketchBuilder bldr = HllSketch.builder().setLogBuckets(logK);
+    return Collector.of(
+        bldr::build,
+        (HllSketch union, HllSketch sketch) -> {
+          if (sketch != null) {
+            union.union(sketch);
+          }
+        },
+        HllSketch::union,
+        Collector.Characteristics.UNORDERED,
+        Collector.Characteristics.IDENTITY_FINISH
+    );
+  }
+
+  /**
+   * Presents the given element to the given sketch.
+   *
+   * @param sketch the given sketch
+   * @param element the given element
+   */
+  static void update(HllSketch sketch, Object element)
+  {
+    if (element == null) {
+      return;
+    }
+    if ((element instanceof Long) || (element instanceof Integer) || (element instanceof Short)
+        || (element instanceof Byte)) {
+      sketch.update(new long[]{((Number) element).longValue()});
+    }
+    else if ((element instanceof Double) || (element instanceof Float)) {
+      double d = ((Number) element).doubleValue();
+      d = (d == 0.0) ? 0.0 : d; // canonicalize -0.0, 0.0
+      sketch.update(new long[]{Double.doubleToLongBits(d)}); // canonicalize all NaN forms
+    }
+    else if (element instanceof String) {
+      String s = (String) element;
+      if (!s.isEmpty()) {
+        sketch.update(s.getBytes(UTF_8));
+      }
+    }
+    else if (element instanceof byte[]) {
+      byte[] a = (byte[]) element;
+      if (a.length > 0) {
+        sketch.update(a);
+      }
+    }
+    else if (element instanceof int[]) {
+      int[] a = (int[]) element;
+      if (a.length > 0) {
+        sketch.update(a);
+      }
+    }
+    else if (element instanceof long[]) {
+      long[] a = (long[]) element;
+      if (a.length > 0) {
+        sketch.update(a);
+      }
+    }
+    else {
+      throw new IllegalArgumentException(
+          "Elements of this type cannot be presented to a sketch: " + element.getClass().getName());
+    }
+  }
+}
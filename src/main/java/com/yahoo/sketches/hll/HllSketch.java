@@ -1,11 +1,22 @@
 package com.yahoo.sketches.hll;
 
 import com.yahoo.sketches.Util;
+import com.yahoo.sketches.hash.HashFunction;
 import com.yahoo.sketches.hash.MurmurHash3;
+import com.yahoo.sketches.memory.Memory;
+import com.yahoo.sketches.memory.MemoryUtil;
+import com.yahoo.sketches.memory.NativeMemory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 
 @SuppressWarnings("cast")
 public class HllSketch {
   private static final double HLL_REL_ERROR_NUMER = 1.04;
+  //HLL sketches always hash with the default seed
+  private static final short XXHASH64_SEED_HASH =
+      HashFunction.XXHASH64.computeSeedHash(Util.DEFAULT_UPDATE_SEED);
 
   public static HllSketchBuilder builder()
   {
@@ -14,6 +25,7 @@ public class HllSketch {
 
   private Fields.UpdateCallback updateCallback;
   private final Preamble preamble;
+  private final HashFunction hashFn;
 
   private Fields fields;
 
@@ -29,21 +41,80 @@ public class HllSketch {
       }
     };
     this.preamble = fields.getPreamble();
+    this.hashFn = hashFunctionOf(preamble);
   }
 
   public void update(byte[] key)
   {
-    updateWithHash(MurmurHash3.hash(key, Util.DEFAULT_UPDATE_SEED));
+    if (hashFn == HashFunction.MURMUR3) {
+      updateWithHash(MurmurHash3.hash(key, Util.DEFAULT_UPDATE_SEED));
+    } else {
+      updateWithHash(hashFn.hash(key, Util.DEFAULT_UPDATE_SEED));
+    }
   }
 
   public void update(int[] key)
   {
-    updateWithHash(MurmurHash3.hash(key, Util.DEFAULT_UPDATE_SEED));
+    if (hashFn == HashFunction.MURMUR3) {
+      updateWithHash(MurmurHash3.hash(key, Util.DEFAULT_UPDATE_SEED));
+    } else {
+      updateWithHash(hashFn.hash(key, Util.DEFAULT_UPDATE_SEED));
+    }
   }
 
   public void update(long[] key)
   {
-    updateWithHash(MurmurHash3.hash(key, Util.DEFAULT_UPDATE_SEED));
+    if (hashFn == HashFunction.MURMUR3) {
+      updateWithHash(MurmurHash3.hash(key, Util.DEFAULT_UPDATE_SEED));
+    } else {
+      updateWithHash(hashFn.hash(key, Util.DEFAULT_UPDATE_SEED));
+    }
+  }
+
+  /**
+   * Returns the hash function of this sketch, which is identified by the seed hash of its preamble
+   * @return the hash function of this sketch
+   */
+  public HashFunction getHashFunction()
+  {
+    return hashFn;
+  }
+
+  /**
+   * Present this sketch with the key of several fields that has been put into the given hasher,
+   * which then starts over with the next key. The result is the same as presenting the byte array
+   * of the concatenated fields to {@link #update(byte[])}, without building that array.
+   *
+   * @param hasher the given hasher. Its seed must be the default update seed.
+   * @throws IllegalArgumentException if the seed does not match, or this sketch does not hash
+   * with MurmurHash3
+   */
+  public void update(MurmurHash3.Hasher hasher)
+  {
+    updateWithHash(hasher.finish(), hasher.getSeed());
+  }
+
+  /**
+   * Present this sketch with the 128-bit hash of a key that has already been hashed by the
+   * caller. This allows one hash of a key to be applied to many sketches.
+   * The result is the same as presenting the key itself to the corresponding update method.
+   *
+   * @param hash the 128-bit hash of the key as returned by MurmurHash3.hash(key, seed)
+   * @param seed the seed that was used to compute the hash. HLL sketches always hash with the
+   * default update seed, so it must be the default update seed.
+   * @throws IllegalArgumentException if this sketch does not hash with MurmurHash3
+   */
+  public void updateWithHash(long[] hash, long seed)
+  {
+    if (seed != Util.DEFAULT_UPDATE_SEED) {
+      throw new IllegalArgumentException(
+          "The seed of the hash does not match the seed of this sketch: " + seed);
+    }
+    if (hashFn != HashFunction.MURMUR3) {
+      throw new IllegalArgumentException(
+          "A MurmurHash3 hash cannot update a sketch that hashes with " + hashFn);
+    }
+    updateWithHash(hash);
   }
 
   public double getEstimate()
@@ -115,6 +186,10 @@ public class HllSketch {
   }
 
   public HllSketch union(HllSketch that) {
+    if (preamble.getSeedHash() != that.preamble.getSeedHash()) {
+      throw new IllegalArgumentException("Incompatible Seed Hashes. " + preamble.getSeedHash()
+          + ", " + that.preamble.getSeedHash());
+    }
     fields = that.fields.unionInto(fields, updateCallback);
     return this;
   }
@@ -126,14 +201,38 @@ public class HllSketch {
     fields = fields.updateBucket(slotno, newValue, updateCallback);
   }
 
+  //The low bits of a 64-bit hash choose the bucket, the leading zeros of the others are the value
+  private void updateWithHash(long hash)
+  {
+    int mask = preamble.getConfigK() - 1;
+    byte newValue = (byte) (Long.numberOfLeadingZeros(hash | mask) + 1);
+    fields = fields.updateBucket((int) hash & mask, newValue, updateCallback);
+  }
+
+  private static HashFunction hashFunctionOf(Preamble preamble)
+  {
+    return (preamble.getSeedHash() == XXHASH64_SEED_HASH) ? HashFunction.XXHASH64
+        : HashFunction.MURMUR3;
+  }
+
   private double eps(double numStdDevs)
   {
     return numStdDevs * HLL_REL_ERROR_NUMER / Math.sqrt(preamble.getConfigK());
   }
 
+  /**
+   * Provides the number of bytes that toByteArray() and the writeTo methods produce.
+   *
+   * @return the number of bytes to serialize this sketch including the preamble
+   */
+  public int numBytesToSerialize()
+  {
+    return (preamble.getPreambleSize() << 3) + fields.numBytesToSerialize();
+  }
+
   public byte[] toByteArray()
   {
-    int numBytes = (preamble.getPreambleSize() << 3) + fields.numBytesToSerialize();
+    int numBytes = numBytesToSerialize();
     byte[] retVal = new byte[numBytes];
 
     fields.intoByteArray(retVal, preamble.intoByteArray(retVal, 0));
@@ -141,6 +240,78 @@ public class HllSketch {
     return retVal;
   }
 
+  /**
+   * Writes the same bytes as toByteArray() into the given Memory starting at the given offset.  The fields are
+   * copied directly from their underlying storage without building the full image in an intermediate byte[].
+   *
+   * @param dstMem the destination Memory
+   * @param offsetBytes the offset in bytes into the destination Memory
+   */
+  public void writeTo(Memory dstMem, long offsetBytes)
+  {
+    int numBytes = numBytesToSerialize();
+    if (offsetBytes < 0 || dstMem.getCapacity() - offsetBytes < numBytes) {
+      throw new IllegalArgumentException(
+          String.format("memory too small[%,d] < [%,d]", dstMem.getCapacity() - offsetBytes, numBytes)
+      );
+    }
+
+    long offset = offsetBytes;
+    for (Memory region : getSerializedRegions()) {
+      if (region != null) {
+        MemoryUtil.copy(region, 0, dstMem, offset, region.getCapacity());
+        offset += region.getCapacity();
+      }
+    }
+  }
+
+  /**
+   * Writes the same bytes as toByteArray() into the given ByteBuffer starting at its current position, which is
+   * then advanced past the written bytes.
+   *
+   * @param dstBuf the destination ByteBuffer
+   */
+  public void writeTo(ByteBuffer dstBuf)
+  {
+    int numBytes = numBytesToSerialize();
+    if (dstBuf.remaining() < numBytes) {
+      throw new IllegalArgumentException(
+          String.format("buffer too small[%,d] < [%,d]", dstBuf.remaining(), numBytes)
+      );
+    }
+
+    for (Memory region : getSerializedRegions()) {
+      if (region != null) {
+        MemoryUtil.copyToBuffer(region, 0, dstBuf, region.getCapacity());
+      }
+    }
+  }
+
+  /**
+   * Writes the same bytes as toByteArray() to the given channel.  The fields are streamed through a small, fixed
+   * size buffer so that the full image is never held in an intermediate byte[].
+   *
+   * @param channel the destination channel
+   * @throws IOException if the channel throws an IOException
+   */
+  public void writeTo(WritableByteChannel channel) throws IOException
+  {
+    for (Memory region : getSerializedRegions()) {
+      if (region != null) {
+        MemoryUtil.writeToChannel(region, 0, channel, region.getCapacity());
+      }
+    }
+  }
+
+  private Memory[] getSerializedRegions()
+  {
+    Memory[] fieldsRegions = fields.getSerializedRegions();
+    Memory[] retVal = new Memory[fieldsRegions.length + 1];
+    retVal[0] = new NativeMemory(preamble.toByteArray());
+    System.arraycopy(fieldsRegions, 0, retVal, 1, fieldsRegions.length);
+    return retVal;
+  }
+
   public byte[] toByteArrayNoPreamble()
   {
     byte[] retVal = new byte[fields.numBytesToSerialize()];
@@ -8,6 +8,9 @@ import static com.yahoo.sketches.Util.DEFAULT_NOMINAL_ENTRIES;
 import static com.yahoo.sketches.Util.LS;
 import static com.yahoo.sketches.Util.TAB;
 
+import com.yahoo.sketches.Util;
+import com.yahoo.sketches.hash.HashFunction;
+
 /**
  * 
  */
@@ -16,6 +19,7 @@ public class HllSketchBuilder { //TODO will need to add seed and Memory, etc.
   private boolean compressedDense = false;
   private boolean denseMode = false;
   private boolean hipEstimator = false;
+  private HashFunction hashFunction = HashFunction.MURMUR3;
   
   public HllSketchBuilder() {
     preamble = Preamble.fromLogK(Integer.numberOfTrailingZeros(DEFAULT_NOMINAL_ENTRIES));
@@ -28,6 +32,7 @@ public class HllSketchBuilder { //TODO will need to add seed and Memory, etc.
     retVal.compressedDense = compressedDense;
     retVal.denseMode = denseMode;
     retVal.hipEstimator = hipEstimator;
+    retVal.hashFunction = hashFunction;
 
     return retVal;
   }
@@ -78,8 +83,27 @@ public class HllSketchBuilder { //TODO will need to add seed and Memory, etc.
   public boolean isHipEstimator() {
     return hipEstimator;
   }
+
+  /**
+   * Sets the hash function of the sketch, which is recorded as the seed hash of its preamble.
+   * Only sketches of the same hash function can be unioned.
+   * @param hashFunction the hash function
+   * @return this builder
+   */
+  public HllSketchBuilder setHashFunction(HashFunction hashFunction) {
+    if (hashFunction == null) {
+      throw new IllegalArgumentException("hashFunction must not be null");
+    }
+    this.hashFunction = hashFunction;
+    return this;
+  }
+
+  public HashFunction getHashFunction() {
+    return hashFunction;
+  }
   
   public HllSketch build() {
+    final Preamble preamble = preambleOf(this.preamble, hashFunction);
     final FieldsFactory denseFactory;
     if (compressedDense) {
       denseFactory = new DenseCompressedFieldsFactory();
@@ -108,8 +132,24 @@ public class HllSketchBuilder { //TODO will need to add seed and Memory, etc.
        append("LgK:").append(TAB).append(preamble.getLogConfigK()).append(LS).
        append("K:").append(TAB).append(preamble.getConfigK()).append(LS).
        append("DenseMode:").append(TAB).append(denseMode).append(LS).
-       append("HIP Estimator:").append(TAB).append(hipEstimator).append(LS);
+       append("HIP Estimator:").append(TAB).append(hipEstimator).append(LS).
+       append("HashFunction:").append(TAB).append(hashFunction).append(LS);
     return sb.toString();
   }
+
+  private static Preamble preambleOf(Preamble preamble, HashFunction hashFunction) {
+    if (hashFunction == HashFunction.MURMUR3) {
+      return preamble;
+    }
+    short seedHash = hashFunction.computeSeedHash(Util.DEFAULT_UPDATE_SEED);
+    return new Preamble.Builder()
+        .setPreambleSize(preamble.getPreambleSize())
+        .setVersion(preamble.getVersion())
+        .setFamilyId(preamble.getFamilyId())
+        .setLogConfigK(preamble.getLogConfigK())
+        .setFlags(preamble.getFlags())
+        .setSeedHash(seedHash)
+        .build();
+  }
   
 }
\ No newline at end of file
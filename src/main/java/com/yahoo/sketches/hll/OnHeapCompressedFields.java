@@ -1,5 +1,6 @@
 package com.yahoo.sketches.hll;
 
+import com.yahoo.sketches.memory.Memory;
 import com.yahoo.sketches.memory.NativeMemory;
 
 class OnHeapCompressedFields implements Fields
@@ -133,6 +134,16 @@ class OnHeapCompressedFields implements Fields
     return 1 + 5 + buckets.length + exceptions_.numBytesToSerialize();
   }
 
+  @Override
+  public Memory[] getSerializedRegions()
+  {
+    Memory header = new NativeMemory(new byte[6]);
+    header.putByte(0, Fields.COMPRESSED_DENSE_VERSION);
+    header.putByte(1, currMin);
+    header.putInt(2, numAtCurrMin);
+    return new Memory[]{header, new NativeMemory(buckets), exceptions_.getSerializedRegion()};
+  }
+
   @Override
   public Fields toCompact()
   {
@@ -1,5 +1,8 @@
 package com.yahoo.sketches.hll;
 
+import com.yahoo.sketches.memory.Memory;
+import com.yahoo.sketches.memory.NativeMemory;
+
 class OnHeapFields implements Fields
 {
   private final Preamble preamble;
@@ -48,6 +51,12 @@ class OnHeapFields implements Fields
     return 1 + buckets.length;
   }
 
+  @Override
+  public Memory[] getSerializedRegions()
+  {
+    return new Memory[]{new NativeMemory(new byte[]{Fields.NAIVE_DENSE_VERSION}), new NativeMemory(buckets)};
+  }
+
   @Override
   public Fields toCompact()
   {
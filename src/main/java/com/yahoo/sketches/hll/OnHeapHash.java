@@ -86,6 +86,16 @@ class OnHeapHash
     return (fields_.length << 2);
   }
 
+  /**
+   * Provides a view of the fields in the same byte representation as intoByteArray.
+   *
+   * @return a Memory view of the fields or null if there are no fields
+   */
+  Memory getSerializedRegion()
+  {
+    return (fields_.length == 0) ? null : new NativeMemory(fields_);
+  }
+
   BucketIterator getBucketIterator()
   {
     return new BucketIterator()
@@ -1,5 +1,8 @@
 package com.yahoo.sketches.hll;
 
+import com.yahoo.sketches.memory.Memory;
+import com.yahoo.sketches.memory.NativeMemory;
+
 /**
  */
 class OnHeapHashFields implements Fields
@@ -70,6 +73,12 @@ class OnHeapHashFields implements Fields
     return 1 + hasher.numBytesToSerialize();
   }
 
+  @Override
+  public Memory[] getSerializedRegions()
+  {
+    return new Memory[]{new NativeMemory(new byte[]{Fields.HASH_SPARSE_VERSION}), hasher.getSerializedRegion()};
+  }
+
   @Override
   public Fields toCompact()
   {
@@ -86,6 +86,13 @@ class OnHeapImmutableCompactFields implements Fields
     return 1 + (fields.length << 2);
   }
 
+  @Override
+  public Memory[] getSerializedRegions()
+  {
+    Memory fieldsRegion = (fields.length == 0) ? null : new NativeMemory(fields);
+    return new Memory[]{new NativeMemory(new byte[]{Fields.SORTED_SPARSE_VERSION}), fieldsRegion};
+  }
+
   @Override
   public Fields toCompact()
   {
@@ -6,11 +6,11 @@ package com.yahoo.sketches.memory;
 
 import static com.yahoo.sketches.memory.UnsafeUtil.unsafe;
 
-import java.util.Arrays;
-
 /**
  * This class is used to allocate memory directly off-heap. It is the responsibility of the 
  * calling class to free this memory using NativeMemory.freeMemory() when done.  
+ * Every allocation is tracked by the {@link NativeAllocations} registry, which also detects,
+ * and reports allocations that were never freed.
  * <p>The task of direct allocation was moved to this sub-class for performance reasons. 
  * (Thanks to Himanshu Gupta for pointing this out.).
  *
@@ -18,6 +18,7 @@ import java.util.Arrays;
  */
 @SuppressWarnings("restriction")
 public class AllocMemory extends NativeMemory {
+  private final NativeAllocations.Allocation allocation_; //null if nothing was allocated
   
   /**
    * Allocates and provides access to capacityBytes directly in native (off-heap) memory leveraging
@@ -25,8 +26,7 @@ public class AllocMemory extends NativeMemory {
    * @param capacityBytes the size in bytes of the native memory
    */
   public AllocMemory(final long capacityBytes) {
-    super(0L, null, null, unsafe.allocateMemory(capacityBytes), capacityBytes);
-    super.memReq_ = null;
+    this(capacityBytes, null);
   }
   
   /**
@@ -36,27 +36,29 @@ public class AllocMemory extends NativeMemory {
    * @param memReq The MemoryRequest callback
    */
   public AllocMemory(final long capacityBytes, MemoryRequest memReq) {
+    this(capacityBytes, memReq, null);
+  }
+  
+  /**
+   * Allocates capacityBytes in native memory, like {@link #AllocMemory(long, MemoryRequest)}.
+   * @param capacityBytes the size in bytes of the native memory
+   * @param memReq The MemoryRequest callback
+   * @param onLeakFreed run after {@link NativeAllocations} has freed this memory as a leak, 
+   * or null
+   */
+  AllocMemory(final long capacityBytes, MemoryRequest memReq, Runnable onLeakFreed) {
     super(0L, null, null, unsafe.allocateMemory(capacityBytes), capacityBytes);
     super.memReq_ = memReq;
+    allocation_ = (nativeRawStartAddress_ == 0L) ? null
+        : NativeAllocations.register(this, nativeRawStartAddress_, capacityBytes, onLeakFreed);
   }
   
   @Override
   public void freeMemory() {
-    super.freeMemory();
-  }
-  
-  /**
-   * If the JVM calls this method and a "freeMemory() has not been called" a <i>System.err</i>
-   * message will be logged.
-   */
-  @Override
-  protected void finalize() {
-    if (requiresFree()) {
-      System.err.println(
-          "ERROR: freeMemory() has not been called: Address: "+ nativeRawStartAddress_ +
-          ", capacity: " + capacityBytes_);
-      System.err.println(Arrays.toString(Thread.currentThread().getStackTrace()));
+    if (requiresFree() && (allocation_ != null)) {
+      allocation_.release();
     }
+    super.freeMemory();
   }
   
 }
\ No newline at end of file
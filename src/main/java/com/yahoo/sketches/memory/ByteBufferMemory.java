@@ -0,0 +1,506 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.memory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A Memory that accesses a heap or direct ByteBuffer only through the public ByteBuffer API,
+ * without <i>sun.misc.Unsafe</i>. It can be used where Unsafe is not available or not allowed.
+ * It trades speed for portability: the accessors go through the bounds checks and the
+ * heap/direct dispatch of ByteBuffer and are several times slower than those of
+ * {@link NativeMemory}, which remains the Memory of choice where Unsafe is available.
+ *
+ * <p>The byte order is always little-endian, which is the byte order of the sketch images on the
+ * platforms supported by NativeMemory, so both Memories can be used on the same images.
+ * The capacity is limited to Integer.MAX_VALUE bytes. An offset outside of the capacity throws an
+ * IndexOutOfBoundsException and a put into a read-only buffer throws a ReadOnlyBufferException.</p>
+ *
+ * <p>Unlike NativeMemory, this class has no constructor for a long[] or int[] array. A ByteBuffer
+ * can only wrap a byte[], and the public API offers no way to read or write the bytes of a long[]
+ * in place, so such an array would have to be copied into and out of a byte[].</p>
+ *
+ * <p>The getAndAdd, getAndSet and compareAndSwap methods are atomic with respect to each other on
+ * the same instance of this class, but not with respect to other instances wrapping the same
+ * buffer, nor with respect to the plain put methods.</p>
+ *
+ * <p>On Java 9 and later the multi-release jar replaces this class with a version whose accessors
+ * are VarHandles. Its accessors are about as fast as those of NativeMemory and its atomic methods
+ * are lock-free and atomic with respect to each other across all Memories of the same buffer.</p>
+ */
+public class ByteBufferMemory implements Memory {
+  private final ByteBuffer buf_; //a little-endian duplicate of the given buffer
+  private final int capacityBytes_;
+  private final MemoryRequest memReq_;
+
+  /**
+   * Provides access to the whole capacity of the given ByteBuffer using the Memory interface.
+   * The position, limit and byte order of the given buffer are ignored and not changed.
+   * The MemoryRequest callback is set to null.
+   * @param byteBuf the given heap or direct ByteBuffer
+   */
+  public ByteBufferMemory(ByteBuffer byteBuf) {
+    this(byteBuf, null);
+  }
+
+  /**
+   * Provides access to the whole capacity of the given ByteBuffer using the Memory interface.
+   * The position, limit and byte order of the given buffer are ignored and not changed.
+   * @param byteBuf the given heap or direct ByteBuffer
+   * @param memReq The MemoryRequest callback
+   */
+  public ByteBufferMemory(ByteBuffer byteBuf, MemoryRequest memReq) {
+    buf_ = byteBuf.duplicate();
+    buf_.clear();
+    buf_.order(ByteOrder.LITTLE_ENDIAN);
+    capacityBytes_ = buf_.capacity();
+    memReq_ = memReq;
+  }
+
+  /**
+   * Provides access to the given byteArray using the Memory interface
+   * @param byteArray an on-heap byte array
+   */
+  public ByteBufferMemory(byte[] byteArray) {
+    this(ByteBuffer.wrap(byteArray));
+  }
+
+  /**
+   * Returns a new ByteBufferMemory of the given capacity backed by a new direct ByteBuffer.
+   * The native memory is released by the garbage collector together with the buffer,
+   * so no freeMemory() is needed.
+   * @param capacityBytes the given capacity in bytes
+   * @return a new ByteBufferMemory backed by a new direct ByteBuffer
+   */
+  public static ByteBufferMemory allocateDirect(int capacityBytes) {
+    return new ByteBufferMemory(ByteBuffer.allocateDirect(capacityBytes));
+  }
+
+  @Override
+  public void clear() {
+    fill(0, capacityBytes_, (byte) 0);
+  }
+
+  @Override
+  public void clear(long offsetBytes, long lengthBytes) {
+    fill(offsetBytes, lengthBytes, (byte) 0);
+  }
+
+  @Override
+  public void clearBits(long offsetBytes, byte bitMask) {
+    int idx = index(offsetBytes);
+    buf_.put(idx, (byte) (buf_.get(idx) & ~bitMask));
+  }
+
+  @Override
+  public void copy(long srcOffsetBytes, long dstOffsetBytes, long lengthBytes) {
+    checkBounds(srcOffsetBytes, lengthBytes, capacityBytes_);
+    checkBounds(dstOffsetBytes, lengthBytes, capacityBytes_);
+    copyFrom(this, (int) srcOffsetBytes, (int) dstOffsetBytes, (int) lengthBytes);
+  }
+
+  @Override
+  public synchronized int getAndAddInt(long offsetBytes, int delta) {
+    int idx = index(offsetBytes);
+    int oldValue = buf_.getInt(idx);
+    buf_.putInt(idx, oldValue + delta);
+    return oldValue;
+  }
+
+  @Override
+  public synchronized long getAndAddLong(long offsetBytes, long delta) {
+    int idx = index(offsetBytes);
+    long oldValue = buf_.getLong(idx);
+    buf_.putLong(idx, oldValue + delta);
+    return oldValue;
+  }
+
+  @Override
+  public synchronized int getAndSetInt(long offsetBytes, int newValue) {
+    int idx = index(offsetBytes);
+    int oldValue = buf_.getInt(idx);
+    buf_.putInt(idx, newValue);
+    return oldValue;
+  }
+
+  @Override
+  public synchronized long getAndSetLong(long offsetBytes, long newValue) {
+    int idx = index(offsetBytes);
+    long oldValue = buf_.getLong(idx);
+    buf_.putLong(idx, newValue);
+    return oldValue;
+  }
+
+  @Override
+  public boolean getBoolean(long offsetBytes) {
+    return buf_.get(index(offsetBytes)) != 0;
+  }
+
+  @Override
+  public void getBooleanArray(long offsetBytes, boolean[] dstArray, int dstOffset, int length) {
+    checkBounds(offsetBytes, length, capacityBytes_);
+    checkBounds(dstOffset, length, dstArray.length);
+    int idx = (int) offsetBytes;
+    for (int i = 0; i < length; i++) {
+      dstArray[dstOffset + i] = buf_.get(idx + i) != 0;
+    }
+  }
+
+  @Override
+  public byte getByte(long offsetBytes) {
+    return buf_.get(index(offsetBytes));
+  }
+
+  @Override
+  public void getByteArray(long offsetBytes, byte[] dstArray, int dstOffset, int length) {
+    checkBounds(offsetBytes, length, capacityBytes_);
+    slice((int) offsetBytes, length).get(dstArray, dstOffset, length);
+  }
+
+  @Override
+  public char getChar(long offsetBytes) {
+    return buf_.getChar(index(offsetBytes));
+  }
+
+  @Override
+  public void getCharArray(long offsetBytes, char[] dstArray, int dstOffset, int length) {
+    checkBounds(offsetBytes, (long) length << 1, capacityBytes_);
+    slice((int) offsetBytes, length << 1).asCharBuffer().get(dstArray, dstOffset, length);
+  }
+
+  @Override
+  public double getDouble(long offsetBytes) {
+    return buf_.getDouble(index(offsetBytes));
+  }
+
+  @Override
+  public void getDoubleArray(long offsetBytes, double[] dstArray, int dstOffset, int length) {
+    checkBounds(offsetBytes, (long) length << 3, capacityBytes_);
+    slice((int) offsetBytes, length << 3).asDoubleBuffer().get(dstArray, dstOffset, length);
+  }
+
+  @Override
+  public float getFloat(long offsetBytes) {
+    return buf_.getFloat(index(offsetBytes));
+  }
+
+  @Override
+  public void getFloatArray(long offsetBytes, float[] dstArray, int dstOffset, int length) {
+    checkBounds(offsetBytes, (long) length << 2, capacityBytes_);
+    slice((int) offsetBytes, length << 2).asFloatBuffer().get(dstArray, dstOffset, length);
+  }
+
+  @Override
+  public int getInt(long offsetBytes) {
+    return buf_.getInt(index(offsetBytes));
+  }
+
+  @Override
+  public void getIntArray(long offsetBytes, int[] dstArray, int dstOffset, int length) {
+    checkBounds(offsetBytes, (long) length << 2, capacityBytes_);
+    slice((int) offsetBytes, length << 2).asIntBuffer().get(dstArray, dstOffset, length);
+  }
+
+  @Override
+  public long getLong(long offsetBytes) {
+    return buf_.getLong(index(offsetBytes));
+  }
+
+  @Override
+  public void getLongArray(long offsetBytes, long[] dstArray, int dstOffset, int length) {
+    checkBounds(offsetBytes, (long) length << 3, capacityBytes_);
+    slice((int) offsetBytes, length << 3).asLongBuffer().get(dstArray, dstOffset, length);
+  }
+
+  @Override
+  public short getShort(long offsetBytes) {
+    return buf_.getShort(index(offsetBytes));
+  }
+
+  @Override
+  public void getShortArray(long offsetBytes, short[] dstArray, int dstOffset, int length) {
+    checkBounds(offsetBytes, (long) length << 1, capacityBytes_);
+    slice((int) offsetBytes, length << 1).asShortBuffer().get(dstArray, dstOffset, length);
+  }
+
+  @Override
+  public boolean isAllBitsClear(long offsetBytes, byte bitMask) {
+    int value = ~buf_.get(index(offsetBytes)) & bitMask & 0XFF;
+    return value == bitMask;
+  }
+
+  @Override
+  public boolean isAllBitsSet(long offsetBytes, byte bitMask) {
+    int value = buf_.get(index(offsetBytes)) & bitMask & 0XFF;
+    return value == bitMask;
+  }
+
+  @Override
+  public boolean isAnyBitsClear(long offsetBytes, byte bitMask) {
+    int value = ~buf_.get(index(offsetBytes)) & bitMask & 0XFF;
+    return value != 0;
+  }
+
+  @Override
+  public boolean isAnyBitsSet(long offsetBytes, byte bitMask) {
+    int value = buf_.get(index(offsetBytes)) & bitMask & 0XFF;
+    return value != 0;
+  }
+
+  @Override
+  public void putBoolean(long offsetBytes, boolean srcValue) {
+    buf_.put(index(offsetBytes), srcValue ? (byte) 1 : (byte) 0);
+  }
+
+  @Override
+  public void putBooleanArray(long offsetBytes, boolean[] srcArray, int srcOffset, int length) {
+    checkBounds(srcOffset, length, srcArray.length);
+    checkBounds(offsetBytes, length, capacityBytes_);
+    int idx = (int) offsetBytes;
+    for (int i = 0; i < length; i++) {
+      buf_.put(idx + i, srcArray[srcOffset + i] ? (byte) 1 : (byte) 0);
+    }
+  }
+
+  @Override
+  public void putByte(long offsetBytes, byte srcValue) {
+    buf_.put(index(offsetBytes), srcValue);
+  }
+
+  @Override
+  public void putByteArray(long offsetBytes, byte[] srcArray, int srcOffset, int length) {
+    checkBounds(offsetBytes, length, capacityBytes_);
+    slice((int) offsetBytes, length).put(srcArray, srcOffset, length);
+  }
+
+  @Override
+  public void putChar(long offsetBytes, char srcValue) {
+    buf_.putChar(index(offsetBytes), srcValue);
+  }
+
+  @Override
+  public void putCharArray(long offsetBytes, char[] srcArray, int srcOffset, int length) {
+    checkBounds(offsetBytes, (long) length << 1, capacityBytes_);
+    slice((int) offsetBytes, length << 1).asCharBuffer().put(srcArray, srcOffset, length);
+  }
+
+  @Override
+  public void putDouble(long offsetBytes, double srcValue) {
+    buf_.putDouble(index(offsetBytes), srcValue);
+  }
+
+  @Override
+  public void putDoubleArray(long offsetBytes, double[] srcArray, int srcOffset, int length) {
+    checkBounds(offsetBytes, (long) length << 3, capacityBytes_);
+    slice((int) offsetBytes, length << 3).asDoubleBuffer().put(srcArray, srcOffset, length);
+  }
+
+  @Override
+  public void putFloat(long offsetBytes, float srcValue) {
+    buf_.putFloat(index(offsetBytes), srcValue);
+  }
+
+  @Override
+  public void putFloatArray(long offsetBytes, float[] srcArray, int srcOffset, int length) {
+    checkBounds(offsetBytes, (long) length << 2, capacityBytes_);
+    slice((int) offsetBytes, length << 2).asFloatBuffer().put(srcArray, srcOffset, length);
+  }
+
+  @Override
+  public void putInt(long offsetBytes, int srcValue) {
+    buf_.putInt(index(offsetBytes), srcValue);
+  }
+
+  @Override
+  public void putIntArray(long offsetBytes, int[] srcArray, int srcOffset, int length) {
+    checkBounds(offsetBytes, (long) length << 2, capacityBytes_);
+    slice((int) offsetBytes, length << 2).asIntBuffer().put(srcArray, srcOffset, length);
+  }
+
+  @Override
+  public void putLong(long offsetBytes, long srcValue) {
+    buf_.putLong(index(offsetBytes), srcValue);
+  }
+
+  @Override
+  public void putLongArray(long offsetBytes, long[] srcArray, int srcOffset, int length) {
+    checkBounds(offsetBytes, (long) length << 3, capacityBytes_);
+    slice((int) offsetBytes, length << 3).asLongBuffer().put(srcArray, srcOffset, length);
+  }
+
+  @Override
+  public void putShort(long offsetBytes, short srcValue) {
+    buf_.putShort(index(offsetBytes), srcValue);
+  }
+
+  @Override
+  public void putShortArray(long offsetBytes, short[] srcArray, int srcOffset, int length) {
+    checkBounds(offsetBytes, (long) length << 1, capacityBytes_);
+    slice((int) offsetBytes, length << 1).asShortBuffer().put(srcArray, srcOffset, length);
+  }
+
+  @Override
+  public void fill(byte value) {
+    fill(0, capacityBytes_, value);
+  }
+
+  @Override
+  public void fill(long offsetBytes, long lengthBytes, byte value) {
+    checkBounds(offsetBytes, lengthBytes, capacityBytes_);
+    int idx = (int) offsetBytes;
+    int end = idx + (int) lengthBytes;
+    long fill8 = (value & 0XFFL) * 0X0101010101010101L;
+    for (; idx + 8 <= end; idx += 8) {
+      buf_.putLong(idx, fill8);
+    }
+    for (; idx < end; idx++) {
+      buf_.put(idx, value);
+    }
+  }
+
+  @Override
+  public void setBits(long offsetBytes, byte bitMask) {
+    int idx = index(offsetBytes);
+    buf_.put(idx, (byte) (buf_.get(idx) | bitMask));
+  }
+
+  //Non-data Memory interface methods
+
+  /**
+   * Returns the given offset, since a ByteBuffer has no address.
+   * A MemoryRegion of this Memory passes its offsets to the methods of this Memory.
+   */
+  @Override
+  public long getAddress(long offsetBytes) {
+    return offsetBytes;
+  }
+
+  @Override
+  public long getCapacity() {
+    return capacityBytes_;
+  }
+
+  @Override
+  public MemoryRequest getMemoryRequest() {
+    return memReq_;
+  }
+
+  /**
+   * Returns the backing ByteBuffer
+   */
+  @Override
+  public Object getParent() {
+    return buf_;
+  }
+
+  @Override
+  public String toHexString(String header, long offsetBytes, int lengthBytes) {
+    checkBounds(offsetBytes, lengthBytes, capacityBytes_);
+    StringBuilder sb = new StringBuilder();
+    sb.append(header).append("\n");
+    String s1 = String.format("(%d, %d)", offsetBytes, lengthBytes);
+    sb.append(this.getClass().getName());
+    sb.append(".toHexString").append(s1).append(", hash: ").append(this.hashCode()).append(":\n");
+    sb.append("Direct              : ").append(buf_.isDirect()).append("\n");
+    sb.append("Relative Offset     : ").append(offsetBytes).append("\n");
+    sb.append("Buffer Region       :  0  1  2  3  4  5  6  7");
+    long j = offsetBytes;
+    StringBuilder sb2 = new StringBuilder();
+    for (int i = 0; i < lengthBytes; i++) {
+      int b = buf_.get((int) offsetBytes + i) & 0XFF;
+      if ((i != 0) && ((i % 8) == 0)) {
+        sb.append(String.format("\n%20s: ", j)).append(sb2);
+        j += 8;
+        sb2.setLength(0);
+      }
+      sb2.append(String.format("%02x ", b));
+    }
+    sb.append(String.format("\n%20s: ", j)).append(sb2).append("\n");
+    return sb.toString();
+  }
+
+  //ByteBufferMemory only methods
+
+  /**
+   * Returns a little-endian view of the backing ByteBuffer, which shares its content
+   * @return a little-endian view of the backing ByteBuffer
+   */
+  public ByteBuffer byteBuffer() {
+    return buf_.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Atomically sets the int at the given offset to the given new value if its current value
+   * equals the expected value.
+   * @param offsetBytes the offset in bytes relative to the start of this Memory
+   * @param expect the expected current value
+   * @param update the new value
+   * @return true if the value was set
+   */
+  public synchronized boolean compareAndSwapInt(long offsetBytes, int expect, int update) {
+    int idx = index(offsetBytes);
+    if (buf_.getInt(idx) != expect) {
+      return false;
+    }
+    buf_.putInt(idx, update);
+    return true;
+  }
+
+  /**
+   * Atomically sets the long at the given offset to the given new value if its current value
+   * equals the expected value.
+   * @param offsetBytes the offset in bytes relative to the start of this Memory
+   * @param expect the expected current value
+   * @param update the new value
+   * @return true if the value was set
+   */
+  public synchronized boolean compareAndSwapLong(long offsetBytes, long expect, long update) {
+    int idx = index(offsetBytes);
+    if (buf_.getLong(idx) != expect) {
+      return false;
+    }
+    buf_.putLong(idx, update);
+    return true;
+  }
+
+  //Restricted methods
+
+  /**
+   * Copies bytes from the given source into this Memory with the bulk copy of ByteBuffer
+   * @param source the source ByteBufferMemory, which may be this one
+   * @param srcOffsetBytes the source offset
+   * @param dstOffsetBytes the destination offset
+   * @param lengthBytes the number of bytes to copy
+   */
+  void copyFrom(ByteBufferMemory source, int srcOffsetBytes, int dstOffsetBytes, int lengthBytes) {
+    checkBounds(dstOffsetBytes, lengthBytes, capacityBytes_);
+    ByteBuffer src = source.slice(srcOffsetBytes, lengthBytes);
+    ByteBuffer dst = buf_.duplicate();
+    dst.position(dstOffsetBytes);
+    dst.put(src);
+  }
+
+  //a little-endian view of the given region, for the bulk methods
+  private ByteBuffer slice(int offsetBytes, int lengthBytes) {
+    ByteBuffer dup = buf_.duplicate();
+    dup.limit(offsetBytes + lengthBytes).position(offsetBytes);
+    return dup.slice().order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private static int index(long offsetBytes) {
+    if (offsetBytes != (int) offsetBytes) {
+      throw new IndexOutOfBoundsException("offset: " + offsetBytes);
+    }
+    return (int) offsetBytes;
+  }
+
+  private static void checkBounds(long reqOff, long reqLen, long allocSize) {
+    if ((reqOff | reqLen | (reqOff + reqLen) | (allocSize - (reqOff + reqLen))) < 0) {
+      throw new IndexOutOfBoundsException(
+          "offset: " + reqOff + ", reqLength: " + reqLen + ", size: " + allocSize);
+    }
+  }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.memory;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A budget of native (off-heap) bytes shared by the sketches of an application. Memory is granted
+ * by the {@link MemoryRequest} of a tag, such as the name of the owner of a sketch, and the live
+ * bytes are accounted per tag and in total.
+ *
+ * <p>The Memory granted is an {@link AllocMemory} whose MemoryRequest is that of its tag, so a
+ * Direct sketch or union built on it requests the Memory it grows into from the same tag. Its
+ * bytes return to the budget when it is freed, whether through the MemoryRequest or by calling
+ * freeMemory() directly. The bytes of Memory detected as leaked by {@link NativeAllocations}
+ * return to the budget when NativeAllocations frees it, which it only does if
+ * {@link NativeAllocations#setFreeLeaks(boolean)} is turned on. Otherwise the leaked bytes are
+ * still allocated and stay charged to their tag.</p>
+ *
+ * <p>A request that would take the live bytes beyond the limit first calls the
+ * {@link PressureHandler}, if one is set, which may free Memory, for example by evicting or
+ * downsampling cold sketches. If the request still does not fit, it is rejected:
+ * {@link MemoryRequest#request(long)} returns null, which a growing Direct sketch reports with an
+ * IllegalArgumentException, and {@link #allocate(String, long)} throws an
+ * IllegalArgumentException.</p>
+ *
+ * <p>This class is thread safe.</p>
+ */
+public final class MemoryBudget {
+  private final ConcurrentHashMap<String, TagRequest> tags_ = new ConcurrentHashMap<>();
+  private final AtomicLong usedBytes_ = new AtomicLong();
+  private final AtomicLong highWaterBytes_ = new AtomicLong();
+  private final AtomicLong grantedRequests_ = new AtomicLong();
+  private final AtomicLong rejectedRequests_ = new AtomicLong();
+  private volatile long limitBytes_;
+  private volatile PressureHandler handler_;
+
+  /**
+   * Called when a request does not fit into the budget.
+   */
+  public interface PressureHandler {
+
+    /**
+     * Called before a request that does not fit into the budget is rejected. An implementation
+     * may free Memory granted by the budget, after which the request is tried once more.
+     * It is called on the thread of the request.
+     * @param budget the budget of the request
+     * @param tag the tag of the request
+     * @param requestedBytes the bytes of the request
+     */
+    void onPressure(MemoryBudget budget, String tag, long requestedBytes);
+  }
+
+  /**
+   * Creates a budget with the given limit
+   * @param limitBytes the limit of the live bytes granted by this budget
+   */
+  public MemoryBudget(long limitBytes) {
+    setLimitBytes(limitBytes);
+  }
+
+  /**
+   * Sets the limit of the live bytes. Lowering it below the live bytes frees nothing, but
+   * rejects requests until enough Memory has been freed.
+   * @param limitBytes the limit of the live bytes granted by this budget
+   */
+  public void setLimitBytes(long limitBytes) {
+    if (limitBytes < 0) {
+      throw new IllegalArgumentException("limitBytes must be >= 0: " + limitBytes);
+    }
+    limitBytes_ = limitBytes;
+  }
+
+  /**
+   * Returns the limit of the live bytes
+   * @return the limit of the live bytes
+   */
+  public long getLimitBytes() {
+    return limitBytes_;
+  }
+
+  /**
+   * Sets the handler called when a request does not fit into the budget, or null for none
+   * @param handler the handler called when a request does not fit into the budget, or null
+   */
+  public void setPressureHandler(PressureHandler handler) {
+    handler_ = handler;
+  }
+
+  /**
+   * Returns the MemoryRequest that grants Memory to the given tag from this budget.
+   * The same instance is returned for the same tag.
+   * @param tag the owner of the Memory, for example the name of a sketch
+   * @return the MemoryRequest of the given tag
+   */
+  public MemoryRequest getRequest(String tag) {
+    if (tag == null) {
+      throw new IllegalArgumentException("tag must not be null");
+    }
+    TagRequest req = tags_.get(tag);
+    return (req != null) ? req : tags_.computeIfAbsent(tag, t -> new TagRequest(t));
+  }
+
+  /**
+   * Allocates Memory for the given tag, for example the initial Memory of a Direct sketch.
+   * The MemoryRequest of the returned Memory is that of the tag.
+   * @param tag the owner of the Memory, for example the name of a sketch
+   * @param capacityBytes the capacity of the Memory
+   * @return the new Memory
+   * @throws IllegalArgumentException if the request does not fit into the budget
+   */
+  public Memory allocate(String tag, long capacityBytes) {
+    Memory mem = getRequest(tag).request(capacityBytes);
+    if (mem == null) {
+      throw new IllegalArgumentException("Memory budget exceeded: " + tag + " requested "
+          + capacityBytes + " bytes, used " + getUsedBytes() + " of " + getLimitBytes());
+    }
+    return mem;
+  }
+
+  /**
+   * Returns the live bytes granted by this budget
+   * @return the live bytes granted by this budget
+   */
+  public long getUsedBytes() {
+    return usedBytes_.get();
+  }
+
+  /**
+   * Returns the live bytes granted to the given tag
+   * @param tag the owner of the Memory
+   * @return the live bytes granted to the given tag
+   */
+  public long getUsedBytes(String tag) {
+    TagRequest req = tags_.get(tag);
+    return (req == null) ? 0L : req.tagBytes_.get();
+  }
+
+  /**
+   * Returns the live bytes of every tag that has been given a request, sorted by tag
+   * @return the live bytes of every tag, sorted by tag
+   */
+  public Map<String, Long> getUsedBytesByTag() {
+    Map<String, Long> map = new TreeMap<>();
+    for (TagRequest req : tags_.values()) {
+      map.put(req.tag_, req.tagBytes_.get());
+    }
+    return map;
+  }
+
+  /**
+   * Returns the largest value that {@link #getUsedBytes()} has had
+   * @return the high-water mark of the live bytes
+   */
+  public long getHighWaterBytes() {
+    return highWaterBytes_.get();
+  }
+
+  /**
+   * Returns the number of requests granted
+   * @return the number of requests granted
+   */
+  public long getGrantedRequests() {
+    return grantedRequests_.get();
+  }
+
+  /**
+   * Returns the number of requests rejected because they did not fit into the budget
+   * @return the number of requests rejected
+   */
+  public long getRejectedRequests() {
+    return rejectedRequests_.get();
+  }
+
+  /**
+   * Returns a summary of the counters of this budget
+   * @return a summary of the counters of this budget
+   */
+  public String toSummary() {
+    return "MemoryBudget: limitBytes: " + getLimitBytes() + ", usedBytes: " + getUsedBytes()
+        + ", highWaterBytes: " + getHighWaterBytes() + ", granted: " + getGrantedRequests()
+        + ", rejected: " + getRejectedRequests() + ", byTag: " + getUsedBytesByTag();
+  }
+
+  //restricted
+
+  private boolean tryReserve(long bytes) {
+    long used;
+    do {
+      used = usedBytes_.get();
+      if ((used + bytes) > limitBytes_) { return false; }
+    } while (!usedBytes_.compareAndSet(used, used + bytes));
+    long high;
+    while ((used + bytes) > (high = highWaterBytes_.get())) {
+      if (highWaterBytes_.compareAndSet(high, used + bytes)) { break; }
+    }
+    return true;
+  }
+
+  /**
+   * The MemoryRequest of one tag
+   */
+  private final class TagRequest implements MemoryRequest {
+    final String tag_;
+    final AtomicLong tagBytes_ = new AtomicLong();
+
+    TagRequest(String tag) {
+      tag_ = tag;
+    }
+
+    @Override
+    public Memory request(long capacityBytes) {
+      if (!tryReserve(capacityBytes)) {
+        PressureHandler handler = handler_;
+        if (handler != null) {
+          handler.onPressure(MemoryBudget.this, tag_, capacityBytes);
+        }
+        if ((handler == null) || !tryReserve(capacityBytes)) {
+          rejectedRequests_.incrementAndGet();
+          return null;
+        }
+      }
+      Memory mem;
+      try {
+        mem = new BudgetMemory(capacityBytes, this);
+      } catch (RuntimeException | Error e) {
+        usedBytes_.addAndGet(-capacityBytes);
+        throw e;
+      }
+      tagBytes_.addAndGet(capacityBytes);
+      grantedRequests_.incrementAndGet();
+      return mem;
+    }
+
+    @Override
+    public void free(Memory mem) {
+      if (mem instanceof NativeMemory) {
+        ((NativeMemory) mem).freeMemory();
+      }
+    }
+
+    @Override
+    public void free(Memory memToFree, Memory newMem) {
+      free(memToFree); //a MemoryRegion is not freed
+    }
+
+    void release(long capacityBytes) {
+      tagBytes_.addAndGet(-capacityBytes);
+      usedBytes_.addAndGet(-capacityBytes);
+    }
+  }
+
+  /**
+   * Native memory granted by a budget, whose bytes return to it when freed
+   */
+  private static final class BudgetMemory extends AllocMemory {
+    private final TagRequest req_;
+
+    BudgetMemory(long capacityBytes, TagRequest req) {
+      super(capacityBytes, req, () -> req.release(capacityBytes));
+      req_ = req;
+    }
+
+    @Override
+    public synchronized void freeMemory() {
+      if (isAllocated()) {
+        req_.release(getCapacity());
+      }
+      super.freeMemory();
+    }
+  }
+}
@@ -8,6 +8,14 @@ import static com.yahoo.sketches.memory.UnsafeUtil.UNSAFE_COPY_THRESHOLD;
 import static com.yahoo.sketches.memory.UnsafeUtil.assertBounds;
 import static com.yahoo.sketches.memory.UnsafeUtil.unsafe;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+import com.yahoo.sketches.hash.XxHash64;
+
 /**
  * Useful utilities that work with Memory.
  * 
@@ -15,6 +23,12 @@ import static com.yahoo.sketches.memory.UnsafeUtil.unsafe;
  */
 public final class MemoryUtil {
   
+  /**
+   * The size of the staging buffer used when writing Memory to a channel or when copying between
+   * Memories that cannot be copied directly.
+   */
+  static final int CHANNEL_CHUNK_BYTES = 1 << 16;
+  
   private MemoryUtil() {}
   
   /**
@@ -24,6 +38,9 @@ public final class MemoryUtil {
    * destination regions should not overlap within the base Memory region. 
    * This is difficult to check at run time, so be warned that this overlap could cause 
    * unpredictable results.
+   * 
+   * <p>If either Memory is not based on a NativeMemory, such as a {@link ByteBufferMemory}, 
+   * the bytes are staged through a small, fixed size buffer instead of being copied directly.</p>
    * @param source the source Memory
    * @param srcOffsetBytes the source offset
    * @param destination the destination Memory
@@ -35,6 +52,10 @@ public final class MemoryUtil {
       long lengthBytes) {
     assertBounds(srcOffsetBytes, lengthBytes, source.getCapacity());
     assertBounds(dstOffsetBytes, lengthBytes, destination.getCapacity());
+    if (!(baseOf(source) instanceof NativeMemory) || !(baseOf(destination) instanceof NativeMemory)) {
+      copyStaged(source, srcOffsetBytes, destination, dstOffsetBytes, lengthBytes);
+      return;
+    }
     long srcAdd = srcOffsetBytes;
     long dstAdd = dstOffsetBytes;
     Object srcParent = source;
@@ -52,13 +73,206 @@ public final class MemoryUtil {
   
     while (lengthBytes > 0) {
       long size = (lengthBytes > UNSAFE_COPY_THRESHOLD)? UNSAFE_COPY_THRESHOLD : lengthBytes;
-      unsafe.copyMemory(srcParent, srcAdd, dstParent, dstAdd, lengthBytes);
+      unsafe.copyMemory(srcParent, srcAdd, dstParent, dstAdd, size);
       lengthBytes -= size;
       srcAdd += size;
       dstAdd += size;
     }
   }
   
+  //the Memory at the root of the parents of the given Memory
+  private static Memory baseOf(Memory mem) {
+    Memory base = mem;
+    while (base.getParent() instanceof Memory) {
+      base = (Memory) base.getParent();
+    }
+    return base;
+  }
+  
+  private static void copyStaged(Memory source, long srcOffsetBytes, Memory destination, 
+      long dstOffsetBytes, long lengthBytes) {
+    if (lengthBytes <= 0) return;
+    if ((source instanceof ByteBufferMemory) && (destination instanceof ByteBufferMemory)) {
+      ((ByteBufferMemory) destination).copyFrom((ByteBufferMemory) source, (int) srcOffsetBytes, 
+          (int) dstOffsetBytes, (int) lengthBytes);
+      return;
+    }
+    byte[] chunk = new byte[(int) Math.min(lengthBytes, CHANNEL_CHUNK_BYTES)];
+    long srcAdd = srcOffsetBytes;
+    long dstAdd = dstOffsetBytes;
+    long remaining = lengthBytes;
+    while (remaining > 0) {
+      int len = (int) Math.min(remaining, chunk.length);
+      source.getByteArray(srcAdd, chunk, 0, len);
+      destination.putByteArray(dstAdd, chunk, 0, len);
+      srcAdd += len;
+      dstAdd += len;
+      remaining -= len;
+    }
+  }
+  
+  /**
+   * Copies bytes from a source Memory into the given ByteBuffer starting at the buffer's current 
+   * position, which is then advanced by the number of bytes copied. The bytes go directly into the
+   * backing array or native memory of the buffer without any intermediate copy.
+   * @param source the source Memory. If null, zeros are written.
+   * @param srcOffsetBytes the source offset
+   * @param destination the destination ByteBuffer
+   * @param lengthBytes the number of bytes to copy
+   */
+  public static void copyToBuffer(Memory source, long srcOffsetBytes, ByteBuffer destination, 
+      long lengthBytes) {
+    if (destination.isReadOnly()) {
+      throw new ReadOnlyBufferException();
+    }
+    int remaining = destination.remaining();
+    if (lengthBytes > remaining) {
+      throw new IllegalArgumentException(
+          "Insufficient ByteBuffer space: "+remaining+", Need: "+lengthBytes);
+    }
+    int len = (int) lengthBytes;
+    int pos = destination.position();
+    if (destination.hasArray()) {
+      byte[] arr = destination.array();
+      int arrOffset = destination.arrayOffset() + pos;
+      if (source == null) {
+        Arrays.fill(arr, arrOffset, arrOffset + len, (byte) 0);
+      } 
+      else {
+        source.getByteArray(srcOffsetBytes, arr, arrOffset, len);
+      }
+    } 
+    else { //a writable buffer without an array must be direct
+      Memory dstMem = new NativeMemory(destination);
+      if (source == null) {
+        dstMem.clear(pos, len);
+      } 
+      else {
+        copy(source, srcOffsetBytes, dstMem, pos, len);
+      }
+    }
+    destination.position(pos + len);
+  }
+  
+  /**
+   * Writes bytes from a source Memory to the given channel. The bytes are staged through a small, 
+   * fixed size buffer so that the full length is never held in an intermediate array.
+   * @param source the source Memory. If null, zeros are written.
+   * @param srcOffsetBytes the source offset
+   * @param channel the destination channel
+   * @param lengthBytes the number of bytes to write
+   * @throws IOException if the channel throws an IOException
+   */
+  public static void writeToChannel(Memory source, long srcOffsetBytes, WritableByteChannel channel,
+      long lengthBytes) throws IOException {
+    if (lengthBytes <= 0) return;
+    byte[] chunk = new byte[(int) Math.min(lengthBytes, CHANNEL_CHUNK_BYTES)];
+    ByteBuffer buf = ByteBuffer.wrap(chunk);
+    long srcAdd = srcOffsetBytes;
+    long remaining = lengthBytes;
+    while (remaining > 0) {
+      int len = (int) Math.min(remaining, chunk.length);
+      if (source != null) {
+        source.getByteArray(srcAdd, chunk, 0, len);
+      }
+      buf.clear();
+      buf.limit(len);
+      while (buf.hasRemaining()) {
+        channel.write(buf);
+      }
+      srcAdd += len;
+      remaining -= len;
+    }
+  }
+  
+  /**
+   * Returns true if the given region of memory a holds the same bytes as the given region of 
+   * memory b. The regions are compared 8 bytes at a time.
+   * @param a the first Memory
+   * @param aOffsetBytes the offset of the region of the first Memory
+   * @param b the second Memory
+   * @param bOffsetBytes the offset of the region of the second Memory
+   * @param lengthBytes the length of both regions
+   * @return true if both regions hold the same bytes
+   */
+  public static boolean equals(Memory a, long aOffsetBytes, Memory b, long bOffsetBytes, 
+      long lengthBytes) {
+    return mismatch(a, aOffsetBytes, lengthBytes, b, bOffsetBytes, lengthBytes) < 0;
+  }
+  
+  /**
+   * Returns the index, relative to both offsets, of the first byte that differs between the given 
+   * region of memory a and the given region of memory b, or -1 if there is none. If one region is
+   * a proper prefix of the other, the index is the length of the shorter region. 
+   * The regions are compared 8 bytes at a time.
+   * @param a the first Memory
+   * @param aOffsetBytes the offset of the region of the first Memory
+   * @param aLengthBytes the length of the region of the first Memory
+   * @param b the second Memory
+   * @param bOffsetBytes the offset of the region of the second Memory
+   * @param bLengthBytes the length of the region of the second Memory
+   * @return the relative index of the first mismatch, or -1 if there is none
+   */
+  public static long mismatch(Memory a, long aOffsetBytes, long aLengthBytes, 
+      Memory b, long bOffsetBytes, long bLengthBytes) {
+    assertBounds(aOffsetBytes, aLengthBytes, a.getCapacity());
+    assertBounds(bOffsetBytes, bLengthBytes, b.getCapacity());
+    long len = Math.min(aLengthBytes, bLengthBytes);
+    if ((a != b) || (aOffsetBytes != bOffsetBytes)) {
+      long i = 0;
+      for (; i + 8 <= len; i += 8) {
+        if (a.getLong(aOffsetBytes + i) != b.getLong(bOffsetBytes + i)) {
+          break; //the mismatching byte is within this word
+        }
+      }
+      for (; i < len; i++) {
+        if (a.getByte(aOffsetBytes + i) != b.getByte(bOffsetBytes + i)) {
+          return i;
+        }
+      }
+    }
+    return (aLengthBytes == bLengthBytes) ? -1 : len;
+  }
+  
+  /**
+   * Compares the given region of memory a with the given region of memory b lexicographically, 
+   * treating the bytes as unsigned, as an ordering of serialized keys would.
+   * @param a the first Memory
+   * @param aOffsetBytes the offset of the region of the first Memory
+   * @param aLengthBytes the length of the region of the first Memory
+   * @param b the second Memory
+   * @param bOffsetBytes the offset of the region of the second Memory
+   * @param bLengthBytes the length of the region of the second Memory
+   * @return a negative value, zero or a positive value if the first region is less than, equal to
+   * or greater than the second region
+   */
+  public static int compare(Memory a, long aOffsetBytes, long aLengthBytes, 
+      Memory b, long bOffsetBytes, long bLengthBytes) {
+    long i = mismatch(a, aOffsetBytes, aLengthBytes, b, bOffsetBytes, bLengthBytes);
+    if (i < 0) return 0;
+    if (i == Math.min(aLengthBytes, bLengthBytes)) {
+      return (aLengthBytes < bLengthBytes) ? -1 : 1;
+    }
+    return (a.getByte(aOffsetBytes + i) & 0XFF) - (b.getByte(bOffsetBytes + i) & 0XFF);
+  }
+  
+  /**
+   * Returns a 64-bit hash of the content of the given region, computed with the XXH64 algorithm 
+   * 8 bytes at a time. Equal content gives equal hashes regardless of the kind of Memory or 
+   * the offset of the region, so it can be used to find identical serialized sketches. 
+   * It is not the hash used to update sketches, unless they hash with 
+   * {@link com.yahoo.sketches.hash.HashFunction#XXHASH64}. See {@link XxHash64}.
+   * @param mem the given Memory
+   * @param offsetBytes the offset of the region
+   * @param lengthBytes the length of the region
+   * @param seed the seed of the hash
+   * @return a 64-bit hash of the content of the region
+   * @throws IllegalArgumentException if the region is not within the Memory
+   */
+  public static long hash(Memory mem, long offsetBytes, long lengthBytes, long seed) {
+    return XxHash64.hash(mem, offsetBytes, lengthBytes, seed);
+  }
+  
   /**
    * Searches a range of the specified array of longs for the specified value using the binary 
    * search algorithm. The range must be sorted (as by the sort(long[], int, int) method) prior 
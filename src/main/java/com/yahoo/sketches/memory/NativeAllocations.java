@@ -0,0 +1,273 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.memory;
+
+import static com.yahoo.sketches.memory.UnsafeUtil.unsafe;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The registry of the native (off-heap) allocations made by {@link AllocMemory}. It keeps track of
+ * the live allocations, their bytes and the high-water mark of the bytes, and detects leaks:
+ * allocations whose AllocMemory became unreachable without freeMemory() having been called.
+ *
+ * <p>Every allocation is tracked with a phantom reference instead of a finalizer, so an
+ * AllocMemory is an ordinary object for the garbage collector. Leaks are detected whenever a new
+ * allocation is registered and by {@link #processLeaks()}. By default every leak is reported on
+ * <i>System.err</i>, which can be turned off, and its native memory is not freed.</p>
+ *
+ * <p>Freeing leaked native memory can be turned on with {@link #setFreeLeaks(boolean)}, but is
+ * only safe if no code can still use the address of a leaked AllocMemory. Java 8 has no
+ * reachability fence, so the garbage collector may find an AllocMemory unreachable while one of
+ * its own methods, or a method holding its address, is still running. Freeing the memory then
+ * would turn that access into a use after free.</p>
+ *
+ * <p>The stack trace of the allocation site of every allocation can be recorded for the leak
+ * reports and for {@link #getLiveAllocationSites()}. This is costly and off by default. It can be
+ * turned on with {@link #setTrackSites(boolean)} or with the system property
+ * "{@value #TRACK_SITES_PROPERTY}=true".</p>
+ *
+ * <p>This class is thread safe.</p>
+ */
+@SuppressWarnings("restriction")
+public final class NativeAllocations {
+  /**
+   * The system property that turns on the recording of allocation sites at startup
+   */
+  public static final String TRACK_SITES_PROPERTY = "com.yahoo.sketches.memory.trackAllocationSites";
+
+  private static final ReferenceQueue<AllocMemory> queue_ = new ReferenceQueue<>();
+  //holds the references of the live allocations, which must stay reachable to be enqueued
+  private static final Set<Allocation> live_ = ConcurrentHashMap.newKeySet();
+  private static final AtomicLong liveBytes_ = new AtomicLong();
+  private static final AtomicLong highWaterBytes_ = new AtomicLong();
+  private static final AtomicLong totalAllocations_ = new AtomicLong();
+  private static final AtomicLong leakedAllocations_ = new AtomicLong();
+  private static final AtomicLong leakedBytes_ = new AtomicLong();
+  private static volatile boolean trackSites_ = Boolean.getBoolean(TRACK_SITES_PROPERTY);
+  private static volatile boolean freeLeaks_ = false;
+  private static volatile boolean reportLeaks_ = true;
+
+  private NativeAllocations() {}
+
+  /**
+   * Returns the number of allocations that have been neither freed nor detected as leaked
+   * @return the number of live allocations
+   */
+  public static long getLiveAllocations() {
+    return live_.size();
+  }
+
+  /**
+   * Returns the sum of the capacities of the live allocations
+   * @return the bytes of the live allocations
+   */
+  public static long getLiveBytes() {
+    return liveBytes_.get();
+  }
+
+  /**
+   * Returns the largest value that {@link #getLiveBytes()} has had
+   * @return the high-water mark of the bytes of the live allocations
+   */
+  public static long getHighWaterBytes() {
+    return highWaterBytes_.get();
+  }
+
+  /**
+   * Sets the high-water mark back to the current live bytes
+   */
+  public static void resetHighWaterBytes() {
+    highWaterBytes_.set(liveBytes_.get());
+  }
+
+  /**
+   * Returns the number of allocations registered since startup
+   * @return the number of allocations registered since startup
+   */
+  public static long getTotalAllocations() {
+    return totalAllocations_.get();
+  }
+
+  /**
+   * Returns the number of allocations detected as leaked since startup
+   * @return the number of allocations detected as leaked since startup
+   */
+  public static long getLeakedAllocations() {
+    return leakedAllocations_.get();
+  }
+
+  /**
+   * Returns the bytes of the allocations detected as leaked since startup
+   * @return the bytes of the allocations detected as leaked since startup
+   */
+  public static long getLeakedBytes() {
+    return leakedBytes_.get();
+  }
+
+  /**
+   * Sets whether the stack trace of the allocation site is recorded for new allocations
+   * @param trackSites true if allocation sites should be recorded
+   */
+  public static void setTrackSites(boolean trackSites) {
+    trackSites_ = trackSites;
+  }
+
+  /**
+   * Returns true if the stack trace of the allocation site is recorded for new allocations
+   * @return true if allocation sites are recorded
+   */
+  public static boolean isTrackSites() {
+    return trackSites_;
+  }
+
+  /**
+   * Sets whether the native memory of a detected leak is freed. The default is false, see the
+   * class documentation for when freeing is safe.
+   * @param freeLeaks true if leaked native memory should be freed
+   */
+  public static void setFreeLeaks(boolean freeLeaks) {
+    freeLeaks_ = freeLeaks;
+  }
+
+  /**
+   * Returns true if the native memory of a detected leak is freed
+   * @return true if leaked native memory is freed
+   */
+  public static boolean isFreeLeaks() {
+    return freeLeaks_;
+  }
+
+  /**
+   * Sets whether a detected leak is reported on <i>System.err</i>. The default is true.
+   * @param reportLeaks true if leaks should be reported
+   */
+  public static void setReportLeaks(boolean reportLeaks) {
+    reportLeaks_ = reportLeaks;
+  }
+
+  /**
+   * Handles all allocations whose AllocMemory has become unreachable without being freed,
+   * as far as the garbage collector has detected them yet.
+   * @return the number of leaks handled by this call
+   */
+  public static int processLeaks() {
+    int leaks = 0;
+    Reference<? extends AllocMemory> ref;
+    while ((ref = queue_.poll()) != null) {
+      Allocation alloc = (Allocation) ref;
+      if (alloc.release()) {
+        leaks++;
+        leakedAllocations_.incrementAndGet();
+        leakedBytes_.addAndGet(alloc.capacityBytes_);
+        if (reportLeaks_) {
+          System.err.println("ERROR: freeMemory() has not been called: Address: "
+              + alloc.address_ + ", capacity: " + alloc.capacityBytes_);
+          if (alloc.site_ != null) {
+            alloc.site_.printStackTrace();
+          }
+        }
+        if (freeLeaks_) {
+          unsafe.freeMemory(alloc.address_);
+          if (alloc.onLeakFreed_ != null) {
+            alloc.onLeakFreed_.run();
+          }
+        }
+      }
+    }
+    return leaks;
+  }
+
+  /**
+   * Returns the allocation sites of the live allocations that were made while sites were
+   * tracked. Each site is a Throwable whose stack trace is that of the allocation.
+   * @return the allocation sites of the live allocations
+   */
+  public static List<Throwable> getLiveAllocationSites() {
+    List<Throwable> sites = new ArrayList<>();
+    for (Allocation alloc : live_) {
+      if (alloc.site_ != null) {
+        sites.add(alloc.site_);
+      }
+    }
+    return sites;
+  }
+
+  /**
+   * Returns a summary of the counters of this registry
+   * @return a summary of the counters of this registry
+   */
+  public static String toSummary() {
+    return "NativeAllocations: live: " + getLiveAllocations() + ", liveBytes: " + getLiveBytes()
+        + ", highWaterBytes: " + getHighWaterBytes() + ", total: " + getTotalAllocations()
+        + ", leaked: " + getLeakedAllocations() + ", leakedBytes: " + getLeakedBytes();
+  }
+
+  //restricted
+
+  /**
+   * Registers a new native allocation owned by the given AllocMemory.
+   * Also handles any pending leaks.
+   * @param owner the AllocMemory that owns the allocation
+   * @param address the native address of the allocation
+   * @param capacityBytes the capacity of the allocation
+   * @param onLeakFreed run after the native memory of the allocation has been freed as a leak,
+   * or null
+   * @return the registration, which must be released when the owner frees the memory
+   */
+  static Allocation register(AllocMemory owner, long address, long capacityBytes,
+      Runnable onLeakFreed) {
+    processLeaks();
+    Allocation alloc = new Allocation(owner, address, capacityBytes,
+        trackSites_ ? new Throwable("Allocation site") : null, onLeakFreed);
+    live_.add(alloc);
+    totalAllocations_.incrementAndGet();
+    long bytes = liveBytes_.addAndGet(capacityBytes);
+    long high;
+    while (bytes > (high = highWaterBytes_.get())) {
+      if (highWaterBytes_.compareAndSet(high, bytes)) { break; }
+    }
+    return alloc;
+  }
+
+  /**
+   * One registered native allocation
+   */
+  static final class Allocation extends PhantomReference<AllocMemory> {
+    final long address_;
+    final long capacityBytes_;
+    final Throwable site_;
+    final Runnable onLeakFreed_;
+
+    Allocation(AllocMemory owner, long address, long capacityBytes, Throwable site,
+        Runnable onLeakFreed) {
+      super(owner, queue_);
+      address_ = address;
+      capacityBytes_ = capacityBytes;
+      site_ = site;
+      onLeakFreed_ = onLeakFreed;
+    }
+
+    /**
+     * Removes this allocation from the live allocations. Does not free the native memory.
+     * @return true if this allocation was live
+     */
+    boolean release() {
+      if (live_.remove(this)) {
+        liveBytes_.addAndGet(-capacityBytes_);
+        clear();
+        return true;
+      }
+      return false;
+    }
+  }
+}
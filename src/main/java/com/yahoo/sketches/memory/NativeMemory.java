@@ -37,8 +37,8 @@ import static com.yahoo.sketches.memory.UnsafeUtil.compatibilityMethods;
 import static com.yahoo.sketches.memory.UnsafeUtil.unsafe;
 
 /**
- * This class is used to access heap byte arrays, long arrays and ByteBuffers using the Memory 
- * interface by presenting them as arguments to the constructors of this class. 
+ * This class is used to access heap byte arrays, int arrays, long arrays and ByteBuffers using the 
+ * Memory interface by presenting them as arguments to the constructors of this class. 
  * The sub-class AllocMemory is used to allocate direct, off-heap native memory, which is then
  * accessed by this class using the Memory interface. 
  * The Memory interface allows a uniform way of manipulating data structures presented in any of 
@@ -96,6 +96,23 @@ public class NativeMemory implements Memory {
     byteBuf_ = null;
   }
   
+  /**
+   * Provides access to the given intArray using Memory interface
+   * @param intArray an on-heap int array
+   */
+  public NativeMemory(int[] intArray) {
+    int arrLen = intArray.length;
+    if (arrLen <= 0) {
+      throw new IllegalArgumentException(
+          "intArray must have a length greater than zero.");
+    }
+    memArray_ = intArray;
+    objectBaseOffset_ = INT_ARRAY_BASE_OFFSET;
+    nativeRawStartAddress_ = 0L;
+    capacityBytes_ = arrLen << INT_SHIFT;
+    byteBuf_ = null;
+  }
+  
   /**
    * Provides access to the backing store of the given ByteBuffer using Memory interface
    * @param byteBuf the given ByteBuffer
@@ -661,7 +678,7 @@ public class NativeMemory implements Memory {
   
   /**
    * Returns true if the object requires being freed.  
-   * This method exists to standardize the check between freeMemory() and finalize()
+   * This method exists to standardize the check between freeMemory() and the sub-classes
    *
    * @return true if the object should be freed when it is no longer needed
    */
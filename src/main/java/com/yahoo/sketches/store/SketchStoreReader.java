@@ -0,0 +1,264 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.store;
+
+import static com.yahoo.sketches.Util.DEFAULT_UPDATE_SEED;
+import static com.yahoo.sketches.store.StoreFormat.FAMILY_BYTE;
+import static com.yahoo.sketches.store.StoreFormat.HEADER_BYTES;
+import static com.yahoo.sketches.store.StoreFormat.IMAGE_LENGTH_INT;
+import static com.yahoo.sketches.store.StoreFormat.INDEX_HEADER_BYTES;
+import static com.yahoo.sketches.store.StoreFormat.INDEX_OFFSET_LONG;
+import static com.yahoo.sketches.store.StoreFormat.KEY_LENGTH_INT;
+import static com.yahoo.sketches.store.StoreFormat.LG_SEGMENT_BYTES_BYTE;
+import static com.yahoo.sketches.store.StoreFormat.LG_SLOTS_BYTE;
+import static com.yahoo.sketches.store.StoreFormat.MAGIC;
+import static com.yahoo.sketches.store.StoreFormat.MAGIC_INT;
+import static com.yahoo.sketches.store.StoreFormat.NUM_ENTRIES_INT;
+import static com.yahoo.sketches.store.StoreFormat.RECORD_HEADER_BYTES;
+import static com.yahoo.sketches.store.StoreFormat.SER_VER;
+import static com.yahoo.sketches.store.StoreFormat.SER_VER_BYTE;
+import static com.yahoo.sketches.store.StoreFormat.SLOT_BYTES;
+import static com.yahoo.sketches.store.StoreFormat.SLOT_HASH_LONG;
+import static com.yahoo.sketches.store.StoreFormat.SLOT_OFFSET_LONG;
+import static com.yahoo.sketches.store.StoreFormat.TRAILER_BYTES;
+import static com.yahoo.sketches.store.StoreFormat.TRAILER_MAGIC_INT;
+import static com.yahoo.sketches.store.StoreFormat.UTF_8;
+import static com.yahoo.sketches.store.StoreFormat.align;
+import static com.yahoo.sketches.store.StoreFormat.keyHash;
+import static com.yahoo.sketches.store.StoreFormat.startSlot;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.yahoo.sketches.Family;
+import com.yahoo.sketches.memory.Memory;
+import com.yahoo.sketches.memory.MemoryRegion;
+import com.yahoo.sketches.memory.NativeMemory;
+import com.yahoo.sketches.theta.Sketch;
+
+/**
+ * Provides random access by key to the sketches of a store file written by the
+ * {@link SketchStoreWriter SketchStoreWriter}.
+ *
+ * <p>The file is memory mapped read-only and the sketches are returned as views directly over
+ * the mapped file without copying. Theta sketches are returned as wrapped compact sketches.
+ * HLL sketches are returned as the Memory region of their serialized image.</p>
+ *
+ * <p>The returned views must be treated as read-only. The underlying mapping is read-only and
+ * the Memory package does not check for this, so writing into a view is not supported.
+ * The views must not be used after this reader is closed.</p>
+ */
+public final class SketchStoreReader implements Closeable {
+  private final int lgSegmentBytes_;
+  private final NativeMemory[] segments_;
+  private final NativeMemory index_;
+  private final int lgSlots_;
+  private final int numEntries_;
+
+  /**
+   * Opens and maps the given store file.
+   * @param file the store file
+   * @throws IOException if the file cannot be read
+   */
+  public SketchStoreReader(File file) throws IOException {
+    try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+      FileChannel channel = raf.getChannel();
+      long fileBytes = channel.size();
+      if (fileBytes < (HEADER_BYTES + INDEX_HEADER_BYTES + TRAILER_BYTES)) {
+        throw new IllegalArgumentException("Not a valid sketch store file.");
+      }
+      NativeMemory header = new NativeMemory(channel.map(MapMode.READ_ONLY, 0, HEADER_BYTES));
+      if ((header.getInt(MAGIC_INT) != MAGIC) || (header.getByte(SER_VER_BYTE) != SER_VER)) {
+        throw new IllegalArgumentException("Not a valid sketch store file.");
+      }
+      lgSegmentBytes_ = header.getByte(LG_SEGMENT_BYTES_BYTE);
+
+      NativeMemory trailer = new NativeMemory(
+          channel.map(MapMode.READ_ONLY, fileBytes - TRAILER_BYTES, TRAILER_BYTES));
+      if (trailer.getInt(TRAILER_MAGIC_INT) != MAGIC) {
+        throw new IllegalArgumentException("Sketch store file has no index. It was not closed.");
+      }
+      long indexOffset = trailer.getLong(INDEX_OFFSET_LONG);
+      long indexBytes = fileBytes - TRAILER_BYTES - indexOffset;
+      if ((indexOffset < HEADER_BYTES) || (indexBytes < INDEX_HEADER_BYTES)
+          || (indexBytes > Integer.MAX_VALUE)) {
+        throw new IllegalArgumentException("Corrupt sketch store index.");
+      }
+      index_ = new NativeMemory(channel.map(MapMode.READ_ONLY, indexOffset, indexBytes));
+      lgSlots_ = index_.getByte(LG_SLOTS_BYTE);
+      numEntries_ = index_.getInt(NUM_ENTRIES_INT);
+      if (indexBytes < (INDEX_HEADER_BYTES + ((long) SLOT_BYTES << lgSlots_))) {
+        throw new IllegalArgumentException("Corrupt sketch store index.");
+      }
+
+      long segBytes = 1L << lgSegmentBytes_;
+      int numSegments = (int) ((indexOffset + segBytes - 1) >>> lgSegmentBytes_);
+      segments_ = new NativeMemory[numSegments];
+      for (int i = 0; i < numSegments; i++) {
+        long start = i * segBytes;
+        long len = Math.min(segBytes, indexOffset - start);
+        segments_[i] = new NativeMemory(channel.map(MapMode.READ_ONLY, start, len));
+      }
+    }
+  }
+
+  /**
+   * Returns the number of distinct keys in the store
+   * @return the number of distinct keys in the store
+   */
+  public int getNumEntries() {
+    return numEntries_;
+  }
+
+  /**
+   * Returns true if the store contains the given key
+   * @param key the given key
+   * @return true if the store contains the given key
+   */
+  public boolean contains(String key) {
+    return findRecord(key) >= 0;
+  }
+
+  /**
+   * Returns the Family of the sketch stored under the given key, or null if not found
+   * @param key the given key
+   * @return the Family of the sketch stored under the given key, or null if not found
+   */
+  public Family getFamily(String key) {
+    long recOffset = findRecord(key);
+    if (recOffset < 0) return null;
+    return Family.idToFamily(segment(recOffset).getByte(local(recOffset) + FAMILY_BYTE));
+  }
+
+  /**
+   * Returns a read-only view of the serialized image stored under the given key,
+   * or null if not found.
+   * @param key the given key
+   * @return a read-only view of the serialized image stored under the given key, or null
+   */
+  public Memory getMemory(String key) {
+    long recOffset = findRecord(key);
+    return (recOffset < 0)? null : imageRegion(recOffset);
+  }
+
+  /**
+   * Returns the theta sketch stored under the given key wrapped directly over the mapped file,
+   * or null if not found. This method assumes the
+   * <a href="{@docRoot}/resources/dictionary.html#defaultUpdateSeed">Default Update Seed</a>.
+   * @param key the given key
+   * @return the theta sketch stored under the given key, or null if not found
+   */
+  public Sketch getSketch(String key) {
+    return getSketch(key, DEFAULT_UPDATE_SEED);
+  }
+
+  /**
+   * Returns the theta sketch stored under the given key wrapped directly over the mapped file,
+   * or null if not found.
+   * @param key the given key
+   * @param seed <a href="{@docRoot}/resources/dictionary.html#seed">See Update Hash Seed</a>.
+   * @return the theta sketch stored under the given key, or null if not found
+   */
+  public Sketch getSketch(String key, long seed) {
+    long recOffset = findRecord(key);
+    if (recOffset < 0) return null;
+    Family family = Family.idToFamily(segment(recOffset).getByte(local(recOffset) + FAMILY_BYTE));
+    if (family != Family.COMPACT) {
+      throw new IllegalArgumentException("Key does not refer to a theta sketch: " + family);
+    }
+    return Sketch.wrap(imageRegion(recOffset), seed);
+  }
+
+  /**
+   * Returns all keys of the store in index order
+   * @return all keys of the store in index order
+   */
+  public List<String> getKeys() {
+    List<String> keys = new ArrayList<String>(numEntries_);
+    int slots = 1 << lgSlots_;
+    for (int i = 0; i < slots; i++) {
+      long slotOffset = INDEX_HEADER_BYTES + ((long) i * SLOT_BYTES);
+      if (index_.getLong(slotOffset + SLOT_HASH_LONG) == 0L) continue;
+      long recOffset = index_.getLong(slotOffset + SLOT_OFFSET_LONG);
+      keys.add(new String(readKey(recOffset), UTF_8));
+    }
+    return keys;
+  }
+
+  /**
+   * Releases the references to the mapped file. The mapping itself is released by the JVM
+   * once it is no longer reachable.
+   */
+  @Override
+  public void close() {
+    for (int i = 0; i < segments_.length; i++) {
+      segments_[i] = null;
+    }
+  }
+
+  //restricted methods
+
+  private long findRecord(String key) {
+    byte[] keyBytes = key.getBytes(UTF_8);
+    long keyHash = keyHash(keyBytes);
+    int mask = (1 << lgSlots_) - 1;
+    int slot = startSlot(keyHash, lgSlots_);
+    for (int i = 0; i <= mask; i++) {
+      long slotOffset = INDEX_HEADER_BYTES + ((long) slot * SLOT_BYTES);
+      long slotHash = index_.getLong(slotOffset + SLOT_HASH_LONG);
+      if (slotHash == 0L) return -1L;
+      if (slotHash == keyHash) {
+        long recOffset = index_.getLong(slotOffset + SLOT_OFFSET_LONG);
+        if (keyEquals(recOffset, keyBytes)) return recOffset;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1L;
+  }
+
+  private boolean keyEquals(long recOffset, byte[] keyBytes) {
+    NativeMemory seg = segment(recOffset);
+    long loc = local(recOffset);
+    if (seg.getInt(loc + KEY_LENGTH_INT) != keyBytes.length) return false;
+    long keyStart = loc + RECORD_HEADER_BYTES;
+    for (int i = 0; i < keyBytes.length; i++) {
+      if (seg.getByte(keyStart + i) != keyBytes[i]) return false;
+    }
+    return true;
+  }
+
+  private Memory imageRegion(long recOffset) {
+    NativeMemory seg = segment(recOffset);
+    long loc = local(recOffset);
+    int keyLen = seg.getInt(loc + KEY_LENGTH_INT);
+    int imageLen = seg.getInt(loc + IMAGE_LENGTH_INT);
+    return new MemoryRegion(seg, loc + RECORD_HEADER_BYTES + align(keyLen, 8), imageLen);
+  }
+
+  private byte[] readKey(long recOffset) {
+    NativeMemory seg = segment(recOffset);
+    long loc = local(recOffset);
+    byte[] keyBytes = new byte[seg.getInt(loc + KEY_LENGTH_INT)];
+    seg.getByteArray(loc + RECORD_HEADER_BYTES, keyBytes, 0, keyBytes.length);
+    return keyBytes;
+  }
+
+  private NativeMemory segment(long recOffset) {
+    NativeMemory seg = segments_[(int) (recOffset >>> lgSegmentBytes_)];
+    if (seg == null) throw new IllegalStateException("Reader is closed.");
+    return seg;
+  }
+
+  private long local(long recOffset) {
+    return recOffset & ((1L << lgSegmentBytes_) - 1);
+  }
+
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.store;
+
+import static com.yahoo.sketches.store.StoreFormat.DEFAULT_LG_SEGMENT_BYTES;
+import static com.yahoo.sketches.store.StoreFormat.FAMILY_BYTE;
+import static com.yahoo.sketches.store.StoreFormat.HEADER_BYTES;
+import static com.yahoo.sketches.store.StoreFormat.IMAGE_LENGTH_INT;
+import static com.yahoo.sketches.store.StoreFormat.INDEX_HEADER_BYTES;
+import static com.yahoo.sketches.store.StoreFormat.INDEX_OFFSET_LONG;
+import static com.yahoo.sketches.store.StoreFormat.KEY_LENGTH_INT;
+import static com.yahoo.sketches.store.StoreFormat.LG_SEGMENT_BYTES_BYTE;
+import static com.yahoo.sketches.store.StoreFormat.LG_SLOTS_BYTE;
+import static com.yahoo.sketches.store.StoreFormat.MAGIC;
+import static com.yahoo.sketches.store.StoreFormat.MAGIC_INT;
+import static com.yahoo.sketches.store.StoreFormat.MAX_LG_SEGMENT_BYTES;
+import static com.yahoo.sketches.store.StoreFormat.MIN_LG_SEGMENT_BYTES;
+import static com.yahoo.sketches.store.StoreFormat.MIN_LG_SLOTS;
+import static com.yahoo.sketches.store.StoreFormat.NUM_ENTRIES_INT;
+import static com.yahoo.sketches.store.StoreFormat.RECORD_HEADER_BYTES;
+import static com.yahoo.sketches.store.StoreFormat.SER_VER;
+import static com.yahoo.sketches.store.StoreFormat.SER_VER_BYTE;
+import static com.yahoo.sketches.store.StoreFormat.SLOT_BYTES;
+import static com.yahoo.sketches.store.StoreFormat.SLOT_HASH_LONG;
+import static com.yahoo.sketches.store.StoreFormat.SLOT_OFFSET_LONG;
+import static com.yahoo.sketches.store.StoreFormat.TRAILER_BYTES;
+import static com.yahoo.sketches.store.StoreFormat.TRAILER_MAGIC_INT;
+import static com.yahoo.sketches.store.StoreFormat.UTF_8;
+import static com.yahoo.sketches.store.StoreFormat.align;
+import static com.yahoo.sketches.store.StoreFormat.keyHash;
+import static com.yahoo.sketches.store.StoreFormat.recordBytes;
+import static com.yahoo.sketches.store.StoreFormat.startSlot;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import com.yahoo.sketches.Family;
+import com.yahoo.sketches.hll.HllSketch;
+import com.yahoo.sketches.memory.Memory;
+import com.yahoo.sketches.memory.NativeMemory;
+import com.yahoo.sketches.theta.Sketch;
+import com.yahoo.sketches.theta.UpdateSketch;
+
+/**
+ * Writes many serialized sketches into a single store file together with a key index so that
+ * they can be opened all at once with the {@link SketchStoreReader SketchStoreReader}.
+ *
+ * <p>Records are appended to the end of the file. The key index and trailer are written when
+ * this writer is closed. Opening an existing store in append mode reads its index back into
+ * memory and appends new records after the old trailer, so the old index and trailer are never
+ * overwritten. On close the records and the new index are forced to the storage device before the
+ * new trailer is written, so an append that is interrupted leaves the previous store intact in
+ * the first bytes of the file, up to its length when it was opened. Putting a key that is already
+ * in the store replaces the index entry of that key; the older record stays in the file but is no
+ * longer reachable.</p>
+ *
+ * <p>Theta sketches are stored in compact form so that the reader can wrap them read-only.
+ * Update sketches are compacted into ordered form, compact sketches, ordered or not, are written
+ * as they are. HLL sketches are stored in their own serialized form.</p>
+ *
+ * <p>This class is not thread safe. A store file that was not closed properly has no index and
+ * cannot be read or appended to.</p>
+ */
+public final class SketchStoreWriter implements Closeable {
+  private final RandomAccessFile file_;
+  private final FileChannel channel_;
+  private final int lgSegmentBytes_;
+  private long endOffset_;      //offset at which the next record will be written
+
+  //the in-memory key index, written to the file on close.
+  private int lgSlots_;
+  private int numEntries_;
+  private long[] slotHashes_;
+  private long[] slotOffsets_;
+  private boolean closed_ = false;
+
+  /**
+   * Opens the given file for writing sketches.
+   * @param file the store file
+   * @param append if true and the file exists, new sketches are appended to the existing store.
+   * Otherwise, the file is created or truncated.
+   * @throws IOException if the file cannot be opened or is not a valid store file.
+   */
+  public SketchStoreWriter(File file, boolean append) throws IOException {
+    this(file, append, DEFAULT_LG_SEGMENT_BYTES);
+  }
+
+  /**
+   * Opens the given file for writing sketches with the given segment size.
+   * @param file the store file
+   * @param append if true and the file exists, new sketches are appended to the existing store.
+   * @param lgSegmentBytes the log base 2 of the segment size of a new store. Ignored when
+   * appending to an existing store.
+   * @throws IOException if the file cannot be opened or is not a valid store file.
+   */
+  SketchStoreWriter(File file, boolean append, int lgSegmentBytes) throws IOException {
+    if ((lgSegmentBytes < MIN_LG_SEGMENT_BYTES) || (lgSegmentBytes > MAX_LG_SEGMENT_BYTES)) {
+      throw new IllegalArgumentException("lgSegmentBytes must be between " + MIN_LG_SEGMENT_BYTES
+          + " and " + MAX_LG_SEGMENT_BYTES + ": " + lgSegmentBytes);
+    }
+    boolean exists = file.exists() && (file.length() > 0);
+    file_ = new RandomAccessFile(file, "rw");
+    channel_ = file_.getChannel();
+    try {
+      if (append && exists) {
+        lgSegmentBytes_ = loadExisting();
+      }
+      else {
+        lgSegmentBytes_ = lgSegmentBytes;
+        initNew();
+      }
+    }
+    catch (IOException | RuntimeException e) {
+      file_.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Writes the given theta sketch into the store under the given key. Sketches that are not
+   * already compact are stored in ordered compact form.
+   * @param key the key of the sketch
+   * @param sketch the theta sketch
+   * @throws IOException if the write fails
+   */
+  public void put(String key, Sketch sketch) throws IOException {
+    Sketch compact = sketch.isCompact()? sketch : ((UpdateSketch) sketch).compact(true, null);
+    byte[] keyBytes = key.getBytes(UTF_8);
+    int imageBytes = compact.getCurrentBytes(true);
+    long recOffset = beginRecord(keyBytes, imageBytes, Family.COMPACT);
+    compact.writeTo(channel_);
+    endRecord(recOffset, keyBytes, imageBytes);
+  }
+
+  /**
+   * Writes the given HLL sketch into the store under the given key.
+   * @param key the key of the sketch
+   * @param sketch the HLL sketch
+   * @throws IOException if the write fails
+   */
+  public void put(String key, HllSketch sketch) throws IOException {
+    byte[] keyBytes = key.getBytes(UTF_8);
+    int imageBytes = sketch.numBytesToSerialize();
+    long recOffset = beginRecord(keyBytes, imageBytes, Family.HLL);
+    sketch.writeTo(channel_);
+    endRecord(recOffset, keyBytes, imageBytes);
+  }
+
+  /**
+   * Returns the number of distinct keys in the store
+   * @return the number of distinct keys in the store
+   */
+  public int getNumEntries() {
+    return numEntries_;
+  }
+
+  /**
+   * Writes the key index and trailer and closes the file.
+   * @throws IOException if the write fails
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed_) return;
+    closed_ = true;
+    try {
+      writeIndex();
+    }
+    finally {
+      file_.close();
+    }
+  }
+
+  //restricted methods
+
+  private void initNew() throws IOException {
+    channel_.truncate(0);
+    byte[] headerArr = new byte[HEADER_BYTES];
+    Memory header = new NativeMemory(headerArr);
+    header.putInt(MAGIC_INT, MAGIC);
+    header.putByte(SER_VER_BYTE, (byte) SER_VER);
+    header.putByte(LG_SEGMENT_BYTES_BYTE, (byte) lgSegmentBytes_);
+    writeFully(headerArr, 0);
+    endOffset_ = HEADER_BYTES;
+    initSlots(MIN_LG_SLOTS);
+  }
+
+  private int loadExisting() throws IOException {
+    long fileBytes = channel_.size();
+    Memory header = readFully(0, HEADER_BYTES);
+    if ((fileBytes < (HEADER_BYTES + INDEX_HEADER_BYTES + TRAILER_BYTES))
+        || (header.getInt(MAGIC_INT) != MAGIC) || (header.getByte(SER_VER_BYTE) != SER_VER)) {
+      throw new IllegalArgumentException("Not a valid sketch store file.");
+    }
+    Memory trailer = readFully(fileBytes - TRAILER_BYTES, TRAILER_BYTES);
+    if (trailer.getInt(TRAILER_MAGIC_INT) != MAGIC) {
+      throw new IllegalArgumentException("Sketch store file has no index. It was not closed.");
+    }
+    long indexOffset = trailer.getLong(INDEX_OFFSET_LONG);
+    Memory indexHeader = readFully(indexOffset, INDEX_HEADER_BYTES);
+    int lgSlots = indexHeader.getByte(LG_SLOTS_BYTE);
+    initSlots(lgSlots);
+
+    //read the slots in chunks
+    int slots = 1 << lgSlots;
+    int chunkSlots = Math.min(slots, 1 << 12);
+    for (int i = 0; i < slots; i += chunkSlots) {
+      Memory chunk =
+          readFully(indexOffset + INDEX_HEADER_BYTES + ((long) i * SLOT_BYTES), chunkSlots * SLOT_BYTES);
+      for (int j = 0; j < chunkSlots; j++) {
+        slotHashes_[i + j] = chunk.getLong((j * SLOT_BYTES) + SLOT_HASH_LONG);
+        slotOffsets_[i + j] = chunk.getLong((j * SLOT_BYTES) + SLOT_OFFSET_LONG);
+      }
+    }
+    numEntries_ = indexHeader.getInt(NUM_ENTRIES_INT);
+
+    //new records follow the old trailer, which stays valid until the new one is written
+    endOffset_ = fileBytes;
+    return header.getByte(LG_SEGMENT_BYTES_BYTE);
+  }
+
+  private void initSlots(int lgSlots) {
+    lgSlots_ = lgSlots;
+    slotHashes_ = new long[1 << lgSlots];
+    slotOffsets_ = new long[1 << lgSlots];
+    numEntries_ = 0;
+  }
+
+  /**
+   * Writes the record header and key and positions the channel at the start of the image.
+   * @return the offset of the record
+   */
+  private long beginRecord(byte[] keyBytes, int imageBytes, Family family) throws IOException {
+    if (closed_) throw new IllegalStateException("Writer is closed.");
+    long segBytes = 1L << lgSegmentBytes_;
+    long recBytes = recordBytes(keyBytes.length, imageBytes);
+    if (recBytes > segBytes) {
+      throw new IllegalArgumentException("Record of " + recBytes
+          + " bytes exceeds the segment size: " + segBytes);
+    }
+    long recOffset = skipToNextSegmentIfStraddling(endOffset_, recBytes);
+
+    int keyPadded = (int) align(keyBytes.length, 8);
+    byte[] headArr = new byte[RECORD_HEADER_BYTES + keyPadded];
+    Memory head = new NativeMemory(headArr);
+    head.putInt(KEY_LENGTH_INT, keyBytes.length);
+    head.putInt(IMAGE_LENGTH_INT, imageBytes);
+    head.putByte(FAMILY_BYTE, (byte) family.getID());
+    head.putByteArray(RECORD_HEADER_BYTES, keyBytes, 0, keyBytes.length);
+    writeFully(headArr, recOffset);
+    channel_.position(recOffset + RECORD_HEADER_BYTES + keyPadded);
+    return recOffset;
+  }
+
+  /**
+   * Checks and pads the image just written and adds the record to the index.
+   */
+  private void endRecord(long recOffset, byte[] keyBytes, int imageBytes) throws IOException {
+    long imageEnd = recOffset + RECORD_HEADER_BYTES + align(keyBytes.length, 8) + imageBytes;
+    if (channel_.position() != imageEnd) {
+      throw new IllegalStateException("Sketch image length mismatch: expected " + imageBytes
+          + ", wrote " + (channel_.position() - (imageEnd - imageBytes)));
+    }
+    long recEnd = recOffset + recordBytes(keyBytes.length, imageBytes);
+    if (recEnd > imageEnd) {
+      writeFully(new byte[(int) (recEnd - imageEnd)], imageEnd);
+    }
+    endOffset_ = recEnd;
+    insert(keyBytes, recOffset);
+  }
+
+  private long skipToNextSegmentIfStraddling(long offset, long bytes) {
+    long segMask = (1L << lgSegmentBytes_) - 1;
+    if ((offset & ~segMask) != ((offset + bytes - 1) & ~segMask)) {
+      return (offset + segMask) & ~segMask;
+    }
+    return offset;
+  }
+
+  private void insert(byte[] keyBytes, long recOffset) throws IOException {
+    if ((numEntries_ + 1) > ((1 << lgSlots_) >>> 1)) {
+      resizeSlots();
+    }
+    long keyHash = keyHash(keyBytes);
+    int mask = (1 << lgSlots_) - 1;
+    int slot = startSlot(keyHash, lgSlots_);
+    while (slotHashes_[slot] != 0L) {
+      if ((slotHashes_[slot] == keyHash) && keyEquals(slotOffsets_[slot], keyBytes)) {
+        slotOffsets_[slot] = recOffset; //replace
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    slotHashes_[slot] = keyHash;
+    slotOffsets_[slot] = recOffset;
+    numEntries_++;
+  }
+
+  private void resizeSlots() {
+    long[] oldHashes = slotHashes_;
+    long[] oldOffsets = slotOffsets_;
+    int count = numEntries_;
+    initSlots(lgSlots_ + 1);
+    int mask = (1 << lgSlots_) - 1;
+    for (int i = 0; i < oldHashes.length; i++) {
+      long keyHash = oldHashes[i];
+      if (keyHash == 0L) continue;
+      int slot = startSlot(keyHash, lgSlots_);
+      while (slotHashes_[slot] != 0L) {
+        slot = (slot + 1) & mask;
+      }
+      slotHashes_[slot] = keyHash;
+      slotOffsets_[slot] = oldOffsets[i];
+    }
+    numEntries_ = count;
+  }
+
+  private boolean keyEquals(long recOffset, byte[] keyBytes) throws IOException {
+    Memory head = readFully(recOffset, RECORD_HEADER_BYTES);
+    if (head.getInt(KEY_LENGTH_INT) != keyBytes.length) return false;
+    Memory key = readFully(recOffset + RECORD_HEADER_BYTES, keyBytes.length);
+    byte[] storedKey = new byte[keyBytes.length];
+    key.getByteArray(0, storedKey, 0, keyBytes.length);
+    return Arrays.equals(storedKey, keyBytes);
+  }
+
+  private void writeIndex() throws IOException {
+    int slots = 1 << lgSlots_;
+    long indexOffset = align(endOffset_, SLOT_BYTES);
+    if (indexOffset > endOffset_) {
+      writeFully(new byte[(int) (indexOffset - endOffset_)], endOffset_);
+    }
+    byte[] indexHeaderArr = new byte[INDEX_HEADER_BYTES];
+    Memory indexHeader = new NativeMemory(indexHeaderArr);
+    indexHeader.putInt(NUM_ENTRIES_INT, numEntries_);
+    indexHeader.putByte(LG_SLOTS_BYTE, (byte) lgSlots_);
+    writeFully(indexHeaderArr, indexOffset);
+
+    //write the slots in chunks
+    int chunkSlots = Math.min(slots, 1 << 12);
+    byte[] chunkArr = new byte[chunkSlots * SLOT_BYTES];
+    Memory chunk = new NativeMemory(chunkArr);
+    long offset = indexOffset + INDEX_HEADER_BYTES;
+    for (int i = 0; i < slots; i += chunkSlots) {
+      for (int j = 0; j < chunkSlots; j++) {
+        chunk.putLong((j * SLOT_BYTES) + SLOT_HASH_LONG, slotHashes_[i + j]);
+        chunk.putLong((j * SLOT_BYTES) + SLOT_OFFSET_LONG, slotOffsets_[i + j]);
+      }
+      writeFully(chunkArr, offset);
+      offset += chunkArr.length;
+    }
+    channel_.force(false);
+
+    byte[] trailerArr = new byte[TRAILER_BYTES];
+    Memory trailer = new NativeMemory(trailerArr);
+    trailer.putLong(INDEX_OFFSET_LONG, indexOffset);
+    trailer.putInt(TRAILER_MAGIC_INT, MAGIC);
+    writeFully(trailerArr, offset);
+    channel_.truncate(offset + TRAILER_BYTES);
+    channel_.force(true);
+  }
+
+  private void writeFully(byte[] arr, long offset) throws IOException {
+    ByteBuffer buf = ByteBuffer.wrap(arr);
+    long pos = offset;
+    while (buf.hasRemaining()) {
+      pos += channel_.write(buf, pos);
+    }
+  }
+
+  private Memory readFully(long offset, int lengthBytes) throws IOException {
+    byte[] arr = new byte[lengthBytes];
+    ByteBuffer buf = ByteBuffer.wrap(arr);
+    long pos = offset;
+    while (buf.hasRemaining()) {
+      int n = channel_.read(buf, pos);
+      if (n < 0) throw new IllegalArgumentException("Unexpected end of sketch store file.");
+      pos += n;
+    }
+    return new NativeMemory(arr);
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.store;
+
+import static com.yahoo.sketches.Util.DEFAULT_UPDATE_SEED;
+
+import java.nio.charset.Charset;
+
+import com.yahoo.sketches.hash.MurmurHash3;
+
+//@formatter:off
+/**
+ * This class defines the layout of the sketch store file and provides basic utilities shared by
+ * the writer and the reader.
+ *
+ * <p>All multi-byte integers are stored in native byte order, the same as the serialized sketches
+ * themselves. The records area is logically divided into segments of 2^lgSegmentBytes bytes and no
+ * record ever straddles a segment boundary. This allows the reader to map files larger than 2GB
+ * as a sequence of memory mapped segments. The index and trailer are mapped separately.</p>
+ *
+ * <pre>
+ * HEADER (16 bytes, at offset 0)
+ *      ||  7 |   6   |     5    |   4   |   3   |    2   |    1   |     0              |
+ *  0   || ------reserved-------- | LgSeg | SerVer | -------------MAGIC-----------------|
+ *  1   || ----------------------------reserved------------------------------------------ |
+ *
+ * RECORD (16 bytes + key + image, 8-byte aligned)
+ *  0   || ------------Image Length--------------- | ---------Key Length--------------- |
+ *  1   || ----------------------reserved--------------------------------- | FamilyID  |
+ *  2   || Key bytes (UTF-8), zero padded to a multiple of 8 bytes ...
+ *  ..  || Serialized sketch image, zero padded to a multiple of 8 bytes ...
+ *
+ * INDEX (16 bytes + 16 bytes per slot, 16-byte aligned)
+ *  0   || ----------------reserved------------------ | LgSlots | ------Num Entries------ |
+ *  1   || ----------------------reserved------------------------------------------------ |
+ *  2+  || Open addressing hash table of slots: {key hash (long), record offset (long)}.
+ *         A key hash of zero marks an empty slot.
+ *
+ * TRAILER (16 bytes, at the end of the file)
+ *  0   || ----------------------Index Offset-------------------------------------------- |
+ *  1   || -------------MAGIC------------------ | ------------reserved-------------------- |
+ * </pre>
+ */
+final class StoreFormat {
+
+  private StoreFormat() {}
+
+  static final int MAGIC                   = 0x54534B53; //"SKST"
+  static final int SER_VER                 = 1;
+
+  static final int HEADER_BYTES            = 16;
+  static final int MAGIC_INT               = 0;
+  static final int SER_VER_BYTE            = 4;
+  static final int LG_SEGMENT_BYTES_BYTE   = 5;
+
+  static final int RECORD_HEADER_BYTES     = 16;
+  static final int KEY_LENGTH_INT          = 0;
+  static final int IMAGE_LENGTH_INT        = 4;
+  static final int FAMILY_BYTE             = 8;
+
+  static final int INDEX_HEADER_BYTES      = 16;
+  static final int NUM_ENTRIES_INT         = 0;
+  static final int LG_SLOTS_BYTE           = 4;
+  static final int SLOT_BYTES              = 16;
+  static final int SLOT_HASH_LONG          = 0;
+  static final int SLOT_OFFSET_LONG        = 8;
+
+  static final int TRAILER_BYTES           = 16;
+  static final int INDEX_OFFSET_LONG       = 0;
+  static final int TRAILER_MAGIC_INT       = 12;
+
+  static final int DEFAULT_LG_SEGMENT_BYTES = 30;
+  static final int MIN_LG_SEGMENT_BYTES    = 10;
+  static final int MAX_LG_SEGMENT_BYTES    = 30;
+  static final int MIN_LG_SLOTS            = 4;
+
+  static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  /**
+   * Returns the hash of the given key bytes as stored in the index. Never zero.
+   * @param keyBytes the UTF-8 bytes of the key
+   * @return the key hash
+   */
+  static long keyHash(byte[] keyBytes) {
+    long h = MurmurHash3.hash(keyBytes, DEFAULT_UPDATE_SEED)[0];
+    return (h == 0L)? 1L : h;
+  }
+
+  /**
+   * Returns the starting slot index for the given key hash
+   * @param keyHash the key hash
+   * @param lgSlots the log base 2 of the number of index slots
+   * @return the starting slot index
+   */
+  static int startSlot(long keyHash, int lgSlots) {
+    return (int) (keyHash >>> (64 - lgSlots));
+  }
+
+  static long align(long v, int alignment) {
+    return (v + alignment - 1) & -alignment;
+  }
+
+  /**
+   * Returns the total bytes of a record with the given key and image lengths, including padding.
+   * @param keyBytes the length of the key in bytes
+   * @param imageBytes the length of the sketch image in bytes
+   * @return the total bytes of a record
+   */
+  static long recordBytes(int keyBytes, int imageBytes) {
+    return RECORD_HEADER_BYTES + align(keyBytes, 8) + align(imageBytes, 8);
+  }
+
+//@formatter:on
+}
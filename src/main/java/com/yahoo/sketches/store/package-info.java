@@ -0,0 +1,6 @@
+/**
+ * <p>The store package provides a single file container for many serialized sketches with a
+ * key index, so that a large collection of sketches can be memory mapped once and accessed
+ * by key without deserializing the whole collection.</p>
+ */
+package com.yahoo.sketches.store;
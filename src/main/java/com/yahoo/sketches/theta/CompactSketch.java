@@ -5,9 +5,14 @@
 package com.yahoo.sketches.theta;
 
 import static com.yahoo.sketches.Family.stringToFamily;
+import static com.yahoo.sketches.theta.PreambleUtil.COMPACT_FLAG_MASK;
+import static com.yahoo.sketches.theta.PreambleUtil.EMPTY_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.FAMILY_BYTE;
 import static com.yahoo.sketches.theta.PreambleUtil.FLAGS_BYTE;
+import static com.yahoo.sketches.theta.PreambleUtil.HASH32_FLAG_MASK;
+import static com.yahoo.sketches.theta.PreambleUtil.ORDERED_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.PREAMBLE_LONGS_BYTE;
+import static com.yahoo.sketches.theta.PreambleUtil.READ_ONLY_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.P_FLOAT;
 import static com.yahoo.sketches.theta.PreambleUtil.RETAINED_ENTRIES_INT;
 import static com.yahoo.sketches.theta.PreambleUtil.SEED_HASH_SHORT;
@@ -17,7 +22,9 @@ import static com.yahoo.sketches.theta.PreambleUtil.THETA_LONG;
 
 import java.util.Arrays;
 
+import com.yahoo.sketches.QuickSelect;
 import com.yahoo.sketches.memory.Memory;
+import com.yahoo.sketches.memory.NativeMemory;
 
 /**
  * The parent class of all the CompactSketches. CompactSketches are never created directly. 
@@ -33,6 +40,9 @@ import com.yahoo.sketches.memory.Memory;
  * @author Lee Rhodes
  */
 public abstract class CompactSketch extends Sketch {
+  static final int HASH32_MANTISSA_BITS = 26;
+  private static final int HASH32_MANTISSA_MASK = (1 << HASH32_MANTISSA_BITS) - 1;
+  
   final short seedHash_;
   final boolean empty_;
   final int curCount_;
@@ -86,6 +96,53 @@ public abstract class CompactSketch extends Sketch {
     return true;
   }
   
+  /**
+   * Serializes this sketch as a compact, ordered image that stores each retained hash in 32 bits
+   * instead of 64. This nearly halves the size of the image and is intended for storing sketches
+   * with small nominal entries, say up to 4096, in bulk. The image can be read with
+   * {@link Sketch#heapify(Memory)} and {@link Sketch#wrap(Memory)}, which both decode it onto the
+   * java heap, and can be given directly to {@link Union#update(Memory)}.
+   * 
+   * <p>Each hash is kept with its 27 most significant bits, like a floating point number with a
+   * 6-bit exponent and a 26-bit mantissa, and the low-order bits are cleared when it is read
+   * back. Theta is kept exactly. Because the rounding depends only on the hash itself, images of
+   * this form stay consistent with each other in set operations. Two retained hashes that round
+   * to the same value are kept once, which lowers the retained entries by a fraction of roughly
+   * n / 2<sup>29</sup> for n retained entries, e.g., 0.001% for 4096 entries.</p>
+   * 
+   * <p>A hash kept at full precision does not match its rounded value, so a set operation 
+   * combines sketches of this form only with each other. It throws an IllegalArgumentException 
+   * when hashes of this form meet full precision hashes, and its result over sketches of this 
+   * form is of this form again and always ordered. A sketch read from this form serializes back 
+   * into this form and its downsampled copies keep it.</p>
+   * 
+   * @return the 32-bit hash image of this sketch
+   */
+  public byte[] toByteArrayHash32() {
+    long[] cache = Arrays.copyOf(getCache(), curCount_);
+    if (!isOrdered()) {
+      Arrays.sort(cache);
+    }
+    int[] codes = new int[curCount_];
+    int count = 0;
+    for (int i = 0; i < curCount_; i++) {
+      int code = encodeHash32(cache[i]);
+      if ((count == 0) || (code != codes[count - 1])) {
+        codes[count++] = code;
+      }
+    }
+    int preLongs = compactPreambleLongs(thetaLong_, empty_);
+    int preBytes = preLongs << 3;
+    byte[] byteArray = new byte[preBytes + (count << 2)];
+    Memory dstMem = new NativeMemory(byteArray);
+    int emptyBit = empty_ ? EMPTY_FLAG_MASK : 0;
+    byte flags = (byte) (emptyBit | READ_ONLY_FLAG_MASK | COMPACT_FLAG_MASK | ORDERED_FLAG_MASK 
+        | HASH32_FLAG_MASK);
+    loadCompactPreamble(preLongs, seedHash_, count, thetaLong_, dstMem, flags);
+    dstMem.putIntArray(preBytes, codes, 0, count);
+    return byteArray;
+  }
+  
   /**
    * Compact the given array.
    * @param srcCache anything
@@ -178,9 +235,36 @@ public abstract class CompactSketch extends Sketch {
     if (outBytes > dstBytes) {
       throw new IllegalArgumentException("Insufficient Memory: "+dstBytes+", Need: "+outBytes);
     }
-    byte fam = (byte) stringToFamily("Compact").getID();
     
     dstMem.clear(0, outBytes);
+    loadCompactPreamble(preLongs, seedHash, curCount, thetaLong, dstMem, flags);
+    if ((compactCache != null) && (curCount > 0)) {
+      dstMem.putLongArray(preBytes, compactCache, 0, compactCache.length);
+    }
+    return dstMem;
+  }
+  
+  /**
+   * Creates the preamble of a compact image in its own Memory.
+   * @param empty The correct <a href="{@docRoot}/resources/dictionary.html#empty">Empty</a>.
+   * @param seedHash The correct <a href="{@docRoot}/resources/dictionary.html#seedHash">Seed Hash</a>.
+   * @param curCount correct value
+   * @param thetaLong The correct <a href="{@docRoot}/resources/dictionary.html#thetaLong">thetaLong</a>.
+   * @param flags the flags byte of the image
+   * @return the preamble Memory
+   */
+  static final Memory compactImagePreamble(boolean empty, short seedHash, int curCount, 
+      long thetaLong, byte flags) {
+    int preLongs = compactPreambleLongs(thetaLong, empty);
+    Memory preMem = new NativeMemory(new byte[preLongs << 3]);
+    loadCompactPreamble(preLongs, seedHash, curCount, thetaLong, preMem, flags);
+    return preMem;
+  }
+  
+  private static void loadCompactPreamble(int preLongs, short seedHash, int curCount, 
+      long thetaLong, Memory dstMem, byte flags) {
+    byte fam = (byte) stringToFamily("Compact").getID();
+    
     dstMem.putByte(PREAMBLE_LONGS_BYTE, (byte) preLongs); //RF not used = 0
     dstMem.putByte(SER_VER_BYTE, (byte) SER_VER);
     dstMem.putByte(FAMILY_BYTE, fam);
@@ -194,10 +278,132 @@ public abstract class CompactSketch extends Sketch {
     if (preLongs > 2) {
       dstMem.putLong(THETA_LONG, thetaLong);
     }
-    if ((compactCache != null) && (curCount > 0)) {
-      dstMem.putLongArray(preBytes, compactCache, 0, compactCache.length);
+  }
+  
+  /**
+   * Reduces the given compact cache to at most k hashes by lowering theta to the (k+1)th smallest
+   * hash with a QuickSelect and returns the result as a compact sketch.
+   * @param compactCache an array of only valid hashes, which may be modified. If srcOrdered is 
+   * true it may be truncated to the first k+1 hashes.
+   * @param srcOrdered true if the given compactCache is sorted
+   * @param empty The correct <a href="{@docRoot}/resources/dictionary.html#empty">Empty</a>.
+   * @param seedHash The correct <a href="{@docRoot}/resources/dictionary.html#seedHash">Seed Hash</a>.
+   * @param thetaLong The correct <a href="{@docRoot}/resources/dictionary.html#thetaLong">thetaLong</a>.
+   * @param k the nominal entries of the result
+   * @param dstOrdered true if output array must be sorted
+   * @param dstMem <a href="{@docRoot}/resources/dictionary.html#dstMem">See Destination Memory</a>.
+   * @return the downsampled compact sketch
+   */
+  static final CompactSketch downsample(long[] compactCache, boolean srcOrdered, boolean empty, 
+      short seedHash, long thetaLong, int k, boolean dstOrdered, Memory dstMem) {
+    long[] cacheR = compactCache;
+    long thetaLongR = thetaLong;
+    if (compactCache.length > k) {
+      if (srcOrdered) { //the k smallest are already at the front
+        thetaLongR = compactCache[k];
+      } 
+      else {
+        thetaLongR = QuickSelect.select(compactCache, 0, compactCache.length - 1, k);
+      }
+      cacheR = Arrays.copyOf(compactCache, k); //all values below the pivot
     }
-    return dstMem;
+    if (dstOrdered && !srcOrdered) {
+      Arrays.sort(cacheR);
+    }
+    return createCompactSketch(cacheR, empty, seedHash, cacheR.length, thetaLongR, dstOrdered, 
+        dstMem);
+  }
+  
+  /**
+   * Downsamples a SerVer 3 compact sketch image directly from Memory. Only the hashes that are 
+   * needed are read from the source Memory.
+   * @param srcMem the source compact sketch image
+   * @param k the nominal entries of the result
+   * @param dstOrdered true if output array must be sorted
+   * @param dstMem <a href="{@docRoot}/resources/dictionary.html#dstMem">See Destination Memory</a>.
+   * @return the downsampled compact sketch
+   */
+  static final CompactSketch downsample(Memory srcMem, int k, boolean dstOrdered, Memory dstMem) {
+    int preLongs = srcMem.getByte(PREAMBLE_LONGS_BYTE) & 0X3F;
+    boolean srcOrdered = srcMem.isAnyBitsSet(FLAGS_BYTE, (byte) ORDERED_FLAG_MASK);
+    boolean empty = srcMem.isAnyBitsSet(FLAGS_BYTE, (byte) EMPTY_FLAG_MASK);
+    short seedHash = srcMem.getShort(SEED_HASH_SHORT);
+    int curCount = getCurCount(srcMem);
+    int readCount = srcOrdered? Math.min(curCount, k + 1) : curCount;
+    long[] cache = new long[readCount];
+    readCompactHashes(srcMem, preLongs, cache, readCount);
+    if (srcMem.isAnyBitsSet(FLAGS_BYTE, (byte) HASH32_FLAG_MASK)) {
+      CompactSketch result = downsample(cache, srcOrdered, empty, seedHash, getThetaLong(srcMem), k, 
+          true, null);
+      return toHash32Sketch(result, dstMem);
+    }
+    return downsample(cache, srcOrdered, empty, seedHash, getThetaLong(srcMem), k, dstOrdered, 
+        dstMem);
+  }
+  
+  /**
+   * Converts the given sketch, whose hashes are already rounded to 32 bits, into a sketch that is
+   * read from its 32-bit hash image so that it keeps that form. The result is always ordered and
+   * on the java heap. If a destination Memory is given, the image is also written into it.
+   * @param sketch the given sketch with rounded hashes
+   * @param dstMem the destination Memory or null
+   * @return a sketch with 32-bit hashes
+   */
+  static final CompactSketch toHash32Sketch(CompactSketch sketch, Memory dstMem) {
+    byte[] image = sketch.toByteArrayHash32();
+    Memory srcMem = new NativeMemory(image);
+    if (dstMem != null) {
+      dstMem.putByteArray(0, image, 0, image.length);
+    }
+    return new HeapCompactOrderedSketch(srcMem);
+  }
+  
+  /**
+   * Reads the first count hashes of a compact image, decoding them if the image stores 32-bit
+   * hashes.
+   * @param srcMem the source compact sketch image
+   * @param preLongs the preamble longs of the image
+   * @param dstArr the destination array
+   * @param count the number of hashes to read
+   */
+  static final void readCompactHashes(Memory srcMem, int preLongs, long[] dstArr, int count) {
+    if (srcMem.isAnyBitsSet(FLAGS_BYTE, (byte) HASH32_FLAG_MASK)) {
+      int[] codes = new int[count];
+      srcMem.getIntArray(preLongs << 3, codes, 0, count);
+      for (int i = 0; i < count; i++) {
+        dstArr[i] = decodeHash32(codes[i]);
+      }
+    } 
+    else {
+      srcMem.getLongArray(preLongs << 3, dstArr, 0, count);
+    }
+  }
+  
+  /**
+   * Encodes the given hash into 32 bits keeping its 27 most significant bits.
+   * The encoding preserves the order of the hashes.
+   * @param hash a valid hash, which must be greater than zero
+   * @return the 32-bit code
+   */
+  static final int encodeHash32(long hash) {
+    int bitLength = 64 - Long.numberOfLeadingZeros(hash);
+    if (bitLength <= HASH32_MANTISSA_BITS) {
+      return (int) hash; //exact, exponent is zero
+    }
+    int exp = bitLength - HASH32_MANTISSA_BITS; //1 to 37, the leading one bit is implicit
+    int mantissa = (int) (hash >>> (exp - 1)) & HASH32_MANTISSA_MASK;
+    return (exp << HASH32_MANTISSA_BITS) | mantissa;
+  }
+  
+  /**
+   * Decodes the given 32-bit code into a hash with the low-order bits cleared.
+   * @param code the code from {@link #encodeHash32(long)}
+   * @return the decoded hash
+   */
+  static final long decodeHash32(int code) {
+    int exp = code >>> HASH32_MANTISSA_BITS;
+    long mantissa = code & HASH32_MANTISSA_MASK;
+    return (exp == 0) ? mantissa : ((1L << HASH32_MANTISSA_BITS) | mantissa) << (exp - 1);
   }
   
   static final int getCurCount(Memory srcMem) {
@@ -86,6 +86,16 @@ class DirectCompactOrderedSketch extends CompactSketch {
 
   //restricted methods
   
+  @Override
+  Memory getImagePreamble() {
+    return DirectCompactSketch.compactMemoryImagePreamble(mem_);
+  }
+  
+  @Override
+  Memory getImageData() {
+    return DirectCompactSketch.compactMemoryImageData(mem_, curCount_);
+  }
+  
   @Override
   public boolean isDirect() {
     return true; 
@@ -14,6 +14,8 @@ import static com.yahoo.sketches.theta.PreambleUtil.SEED_HASH_SHORT;
 
 import com.yahoo.sketches.Family;
 import com.yahoo.sketches.memory.Memory;
+import com.yahoo.sketches.memory.MemoryRegion;
+import com.yahoo.sketches.memory.NativeMemory;
 
 /**
  * An off-heap (Direct), compact, read-only sketch
@@ -83,6 +85,16 @@ class DirectCompactSketch extends CompactSketch {
 
   //restricted methods
   
+  @Override
+  Memory getImagePreamble() {
+    return DirectCompactSketch.compactMemoryImagePreamble(mem_);
+  }
+  
+  @Override
+  Memory getImageData() {
+    return DirectCompactSketch.compactMemoryImageData(mem_, curCount_);
+  }
+  
   @Override
   public boolean isDirect() {
     return true; 
@@ -108,6 +120,30 @@ class DirectCompactSketch extends CompactSketch {
     return false;
   }
 
+  /**
+   * Returns a copy of the preamble of a Memory based compact sketch
+   * @param srcMem the source Memory 
+   * @return the preamble longs of the source Memory, copied into a new Memory
+   */  
+  static Memory compactMemoryImagePreamble(final Memory srcMem) {
+    int preBytes = (srcMem.getByte(PREAMBLE_LONGS_BYTE) & 0X3F) << 3;
+    byte[] preArr = new byte[preBytes];
+    srcMem.getByteArray(0, preArr, 0, preBytes);
+    return new NativeMemory(preArr);
+  }
+  
+  /**
+   * Returns a view of the hash values of a Memory based compact sketch. No data is copied.
+   * @param srcMem the source Memory 
+   * @param curCount the current valid count
+   * @return a region of the source Memory that holds the hash values, or null if curCount is zero
+   */  
+  static Memory compactMemoryImageData(final Memory srcMem, int curCount) {
+    if (curCount == 0) return null;
+    int preBytes = (srcMem.getByte(PREAMBLE_LONGS_BYTE) & 0X3F) << 3;
+    return new MemoryRegion(srcMem, preBytes, curCount << 3);
+  }
+  
   /**
    * Serializes a Memory based compact sketch to a byte array
    * @param srcMem the source Memory 
@@ -12,6 +12,7 @@ import static com.yahoo.sketches.theta.HashOperations.hashSearch;
 import static com.yahoo.sketches.theta.PreambleUtil.EMPTY_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.FAMILY_BYTE;
 import static com.yahoo.sketches.theta.PreambleUtil.FLAGS_BYTE;
+import static com.yahoo.sketches.theta.PreambleUtil.HASH32_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.LG_ARR_LONGS_BYTE;
 import static com.yahoo.sketches.theta.PreambleUtil.LG_NOM_LONGS_BYTE;
 import static com.yahoo.sketches.theta.PreambleUtil.PREAMBLE_LONGS_BYTE;
@@ -22,14 +23,24 @@ import static com.yahoo.sketches.theta.PreambleUtil.SER_VER;
 import static com.yahoo.sketches.theta.PreambleUtil.SER_VER_BYTE;
 import static com.yahoo.sketches.theta.PreambleUtil.THETA_LONG;
 import static com.yahoo.sketches.theta.PreambleUtil.checkSeedHashes;
+import static com.yahoo.sketches.theta.PreambleUtil.writeImage;
 import static java.lang.Math.min;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.locks.StampedLock;
+
 import com.yahoo.sketches.Family;
+import com.yahoo.sketches.hash.HashFunction;
 import com.yahoo.sketches.memory.Memory;
-import com.yahoo.sketches.memory.MemoryUtil;
+import com.yahoo.sketches.memory.MemoryRegion;
 import com.yahoo.sketches.memory.NativeMemory;
 
 /**
+ * An Intersection with its hash table in a Memory. An update or reset replaces the whole hash 
+ * table, so it holds the lock for writing, and {@link #snapshot()} holds it for reading.
+ * 
  * @author Lee Rhodes
  * @author Kevin Lang
  */
@@ -44,6 +55,21 @@ class DirectIntersection extends SetOperation implements Intersection {
   private int curCount_;
   private long thetaLong_;
   private boolean empty_;
+  private boolean hash32_;           //the hashes of the HT are rounded to 32 bits
+  private final StampedLock lock_ = new StampedLock(); //only on heap, never serialized
+  
+  /**
+   * Construct a new Intersection target direct to the given destination Memory for sketches that
+   * hash with {@link HashFunction#MURMUR3}.
+   * 
+   * @param lgNomLongs <a href="{@docRoot}/resources/dictionary.html#lgNomLongs">See lgNomLongs</a>
+   * @param seed <a href="{@docRoot}/resources/dictionary.html#seed">See Seed</a>
+   * @param dstMem destination Memory 
+   * <a href="{@docRoot}/resources/dictionary.html#mem">See Memory</a>
+   */
+  DirectIntersection(int lgNomLongs, long seed, Memory dstMem) {
+    this(lgNomLongs, seed, dstMem, HashFunction.MURMUR3);
+  }
   
   /**
    * Construct a new Intersection target direct to the given destination Memory.
@@ -53,8 +79,9 @@ class DirectIntersection extends SetOperation implements Intersection {
    * @param seed <a href="{@docRoot}/resources/dictionary.html#seed">See Seed</a>
    * @param dstMem destination Memory 
    * <a href="{@docRoot}/resources/dictionary.html#mem">See Memory</a>
+   * @param hashFn the hash function of the sketches to intersect
    */
-  DirectIntersection(int lgNomLongs, long seed, Memory dstMem) {
+  DirectIntersection(int lgNomLongs, long seed, Memory dstMem, HashFunction hashFn) {
     
     lgNomLongs_ = lgNomLongs;
     if (lgNomLongs_ < MIN_LG_NOM_LONGS) throw new IllegalArgumentException(
@@ -82,7 +109,7 @@ class DirectIntersection extends SetOperation implements Intersection {
     //flags: bigEndian = readOnly = compact = ordered = false;
     empty_ = setEmpty(false);
     
-    seedHash_ = computeSeedHash(seed);
+    seedHash_ = hashFn.computeSeedHash(seed);
     mem_.putShort(SEED_HASH_SHORT, seedHash_);
     
     curCount_ = setCurCount(-1);
@@ -99,9 +126,8 @@ class DirectIntersection extends SetOperation implements Intersection {
    */
   DirectIntersection(Memory srcMem, long seed) {
     mem_ = srcMem;
-    seedHash_ = computeSeedHash(seed);
-    short seedHashMem = mem_.getShort(SEED_HASH_SHORT);
-    checkSeedHashes(seedHashMem, seedHash_); //check for seed hash conflict
+    seedHash_ = mem_.getShort(SEED_HASH_SHORT);
+    HashFunction.fromSeedHash(seedHash_, seed); //check for seed hash conflict
     
     int preambleLongs = srcMem.getByte(PREAMBLE_LONGS_BYTE) & 0X3F;
     if (preambleLongs != CONST_PREAMBLE_LONGS) {
@@ -112,6 +138,7 @@ class DirectIntersection extends SetOperation implements Intersection {
     lgNomLongs_ = srcMem.getByte(LG_NOM_LONGS_BYTE);
     thetaLong_ = srcMem.getLong(THETA_LONG);
     empty_ = srcMem.isAnyBitsSet(FLAGS_BYTE, (byte) EMPTY_FLAG_MASK);
+    hash32_ = isHash32(srcMem);
     curCount_ = srcMem.getInt(RETAINED_ENTRIES_INT);
     lgArrLongs_ = srcMem.getByte(LG_ARR_LONGS_BYTE);
     hashTableThreshold_ = setHashTableThreshold(lgArrLongs_);
@@ -124,9 +151,17 @@ class DirectIntersection extends SetOperation implements Intersection {
   }
   
   @Override
-  @SuppressWarnings("null")
   public void update(Sketch sketchIn) {
-    
+    long stamp = lock_.writeLock();
+    try {
+      intersect(sketchIn);
+    } finally {
+      lock_.unlockWrite(stamp);
+    }
+  }
+  
+  @SuppressWarnings("null")
+  private void intersect(Sketch sketchIn) {
     //The Intersection State Machine
     curCount_ = mem_.getInt(RETAINED_ENTRIES_INT);
     int skInState = ((sketchIn != null) && (sketchIn.getRetainedEntries(true) > 0))? 1 : 0;
@@ -155,6 +190,8 @@ class DirectIntersection extends SetOperation implements Intersection {
         thetaLong_ = minThetaLong(sketchIn.getThetaLong());
         empty_ = setEmpty(empty_ | sketchIn.isEmpty());
         
+        hash32_ = setHash32(sketchIn.isHash32());
+        
         //curCount was -1, must set to >= 0
         curCount_ = setCurCount(sketchIn.getRetainedEntries(true));
         //HT already empty, no need to clear. Reduce effective array size to minimum
@@ -216,6 +253,7 @@ class DirectIntersection extends SetOperation implements Intersection {
       case 7: {
         //Nth Call: curCount >0.  Incoming sketch was valid with cnt > 0.
         checkSeedHashes(seedHash_, sketchIn.getSeedHash());
+        checkHash32(hash32_, sketchIn.isHash32());
         thetaLong_ = minThetaLong(sketchIn.getThetaLong());
         empty_ = setEmpty(empty_ | sketchIn.isEmpty());
         
@@ -247,6 +285,11 @@ class DirectIntersection extends SetOperation implements Intersection {
     compactCacheR = compactCachePart(hashTable, lgArrLongs_, curCount_, thetaLong_, dstOrdered);
     
     //Create the CompactSketch
+    if (hash32_) {
+      CompactSketch result = CompactSketch.createCompactSketch(
+          compactCacheR, empty_, seedHash_, curCount_, thetaLong_, dstOrdered, null);
+      return CompactSketch.toHash32Sketch(result, dstMem);
+    }
     return CompactSketch.createCompactSketch(
         compactCacheR, empty_, seedHash_, curCount_, thetaLong_, dstOrdered, dstMem);
   }
@@ -256,6 +299,16 @@ class DirectIntersection extends SetOperation implements Intersection {
     return getResult(true, null);
   }
   
+  @Override
+  public CompactSketch snapshot() {
+    long stamp = lock_.readLock();
+    try {
+      return getResult(true, null);
+    } finally {
+      lock_.unlockRead(stamp);
+    }
+  }
+  
   @Override
   public boolean hasResult() {
     return mem_.getInt(RETAINED_ENTRIES_INT) >= 0;
@@ -263,10 +316,30 @@ class DirectIntersection extends SetOperation implements Intersection {
   
   @Override
   public byte[] toByteArray() {
-    int preBytes = CONST_PREAMBLE_LONGS << 3;
-    int dataBytes = 8 << lgArrLongs_;
-    byte[] byteArrOut = new byte[preBytes + dataBytes];
-    NativeMemory memOut = new NativeMemory(byteArrOut);
+    Memory preMem = getImagePreamble();
+    int dataBytes = getImageDataBytes();
+    byte[] byteArrOut = new byte[(int) preMem.getCapacity() + dataBytes];
+    writeImage(preMem, getImageData(), dataBytes, new NativeMemory(byteArrOut), 0);
+    return byteArrOut;
+  }
+  
+  @Override
+  public void writeTo(Memory dstMem, long offsetBytes) {
+    writeImage(getImagePreamble(), getImageData(), getImageDataBytes(), dstMem, offsetBytes);
+  }
+  
+  @Override
+  public void writeTo(ByteBuffer dstBuf) {
+    writeImage(getImagePreamble(), getImageData(), getImageDataBytes(), dstBuf);
+  }
+  
+  @Override
+  public void writeTo(WritableByteChannel channel) throws IOException {
+    writeImage(getImagePreamble(), getImageData(), getImageDataBytes(), channel);
+  }
+  
+  private Memory getImagePreamble() {
+    NativeMemory memOut = new NativeMemory(new byte[CONST_PREAMBLE_LONGS << 3]);
     
     //preamble
     memOut.putByte(PREAMBLE_LONGS_BYTE, (byte) CONST_PREAMBLE_LONGS); //RF not used = 0
@@ -280,20 +353,37 @@ class DirectIntersection extends SetOperation implements Intersection {
     else {
       memOut.clearBits(FLAGS_BYTE, (byte) EMPTY_FLAG_MASK);
     }
+    if (hash32_) {
+      memOut.setBits(FLAGS_BYTE, (byte) HASH32_FLAG_MASK);
+    }
     memOut.putShort(SEED_HASH_SHORT, seedHash_);
     memOut.putInt(RETAINED_ENTRIES_INT, curCount_);
     memOut.putFloat(P_FLOAT, (float) 1.0);
     memOut.putLong(THETA_LONG, thetaLong_);
-    
-    //data
-    if (curCount_ > 0) {
-      MemoryUtil.copy(mem_, preBytes, memOut, preBytes, dataBytes);
-    }
-    return byteArrOut;
+    return memOut;
+  }
+  
+  private int getImageDataBytes() {
+    return 8 << lgArrLongs_;
+  }
+  
+  private Memory getImageData() {
+    //without entries the data section is written as zeros
+    return (curCount_ > 0)? new MemoryRegion(mem_, CONST_PREAMBLE_LONGS << 3, 8 << lgArrLongs_)
+        : null;
   }
   
   @Override
   public void reset() {
+    long stamp = lock_.writeLock();
+    try {
+      resetTable();
+    } finally {
+      lock_.unlockWrite(stamp);
+    }
+  }
+  
+  private void resetTable() {
     lgArrLongs_ = lgNomLongs_ + 1;
     mem_.putByte(LG_ARR_LONGS_BYTE, (byte) (lgNomLongs_ + 1));
     curCount_ = -1; //Universal Set is true
@@ -302,6 +392,7 @@ class DirectIntersection extends SetOperation implements Intersection {
     mem_.putLong(THETA_LONG, Long.MAX_VALUE);
     empty_ = false;
     mem_.clearBits(FLAGS_BYTE, (byte) EMPTY_FLAG_MASK);
+    hash32_ = setHash32(false);
     mem_.clear(CONST_PREAMBLE_LONGS << 3, 8 << lgArrLongs_);
   }
   
@@ -387,6 +478,16 @@ class DirectIntersection extends SetOperation implements Intersection {
     return empty;
   }
   
+  private final boolean setHash32(boolean hash32) {
+    if (hash32) {
+      mem_.setBits(FLAGS_BYTE, (byte) HASH32_FLAG_MASK);
+    } 
+    else {
+      mem_.clearBits(FLAGS_BYTE, (byte) HASH32_FLAG_MASK);
+    }
+    return hash32;
+  }
+  
   private final int setLgArrLongs(int lgArrLongs) {
     mem_.putByte(LG_ARR_LONGS_BYTE, (byte) lgArrLongs);
     return lgArrLongs;
@@ -4,7 +4,8 @@
  */
 package com.yahoo.sketches.theta;
 
-import static com.yahoo.sketches.QuickSelect.selectExcludingZeros;
+import static com.yahoo.sketches.QuickSelect.selectFloydRivestExcludingZeros;
+import static com.yahoo.sketches.theta.CompactSketch.compactCache;
 import static com.yahoo.sketches.theta.HashOperations.hashInsert;
 import static com.yahoo.sketches.theta.PreambleUtil.EMPTY_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.FAMILY_BYTE;
@@ -19,19 +20,38 @@ import static com.yahoo.sketches.theta.PreambleUtil.SEED_HASH_SHORT;
 import static com.yahoo.sketches.theta.PreambleUtil.SER_VER;
 import static com.yahoo.sketches.theta.PreambleUtil.SER_VER_BYTE;
 import static com.yahoo.sketches.theta.PreambleUtil.THETA_LONG;
-import static com.yahoo.sketches.theta.PreambleUtil.checkSeedHashes;
 import static com.yahoo.sketches.theta.PreambleUtil.computeSeedHash;
 import static com.yahoo.sketches.theta.UpdateReturnState.InsertedCountIncremented;
 import static com.yahoo.sketches.theta.UpdateReturnState.RejectedDuplicate;
 import static com.yahoo.sketches.theta.UpdateReturnState.RejectedOverTheta;
+import static java.lang.Math.min;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.StampedLock;
 
 import com.yahoo.sketches.Family;
+import com.yahoo.sketches.hash.HashFunction;
 import com.yahoo.sketches.memory.Memory;
+import com.yahoo.sketches.memory.MemoryRegion;
 import com.yahoo.sketches.memory.MemoryRequest;
 import com.yahoo.sketches.memory.MemoryUtil;
 import com.yahoo.sketches.memory.NativeMemory;
 
 /**
+ * The QuickSelect sketch with its preamble and hash table in a Memory.
+ * 
+ * <p>Between rebuilds and resizes the hash table only gains hashes below an unchanged theta, 
+ * so a copy of the table taken while the writer inserts is always a valid sketch. 
+ * The rare operations that rearrange the table (rebuild, resize and reset) hold the table lock 
+ * for writing, and {@link #snapshot()} copies the table holding it for reading. 
+ * Plain updates never touch the lock.</p>
+ * 
+ * <p>With a growth Executor the next, larger Memory is requested on the Executor once the 
+ * retained entries reach a fraction of the resize threshold, and the Memory grown out of is 
+ * freed there, so a resize on the update thread only moves the hash table.</p>
+ * 
  * @author Lee Rhodes
  * @author Kevin Lang
  */
@@ -54,6 +74,12 @@ class DirectQuickSelectSketch extends DirectUpdateSketch {
   private long thetaLong_;         //use setThetaLong()
   private boolean empty_;
   private final boolean dirty_ = false;   //always false with QS sketch
+  private final StampedLock tableLock_ = new StampedLock(); //only on heap, never serialized
+  
+  private Executor growthExecutor_;    //only on heap, null unless growth is asynchronous
+  private float growthPrefetch_;       //only on heap
+  private int prefetchThreshold_ = Integer.MAX_VALUE; //only on heap, curCount to request ahead
+  private CompletableFuture<Memory> nextMem_; //only on heap, the Memory requested ahead
   
   /**
    * Construct a new sketch using the given Memory as its backing store.
@@ -141,8 +167,8 @@ class DirectQuickSelectSketch extends DirectUpdateSketch {
         ResizeFactor.getRF((srcMem.getByte(PREAMBLE_LONGS_BYTE) >>> 6) & 0X3)
     );
     short seedHashMem = srcMem.getShort(SEED_HASH_SHORT); //check for seed conflict
-    short seedHashArg = computeSeedHash(seed);
-    checkSeedHashes(seedHashMem, seedHashArg);
+    hashFn_ = HashFunction.fromSeedHash(seedHashMem, seed); //and identify the hash function
+    seedHash_ = seedHashMem;
     
     int familyID = srcMem.getByte(FAMILY_BYTE);
     if (familyID == Family.UNION.getID()) {
@@ -210,8 +236,22 @@ class DirectQuickSelectSketch extends DirectUpdateSketch {
     return this;
   }
   
+  @Override
+  public CompactSketch snapshot() {
+    return snapshot(Long.MAX_VALUE, Integer.MAX_VALUE);
+  }
+  
   @Override
   public final void reset() {
+    long stamp = tableLock_.writeLock();
+    try {
+      resetTable();
+    } finally {
+      tableLock_.unlockWrite(stamp);
+    }
+  }
+  
+  private void resetTable() {
     //clear hash table
     //hash table size and threshold stays the same
     //lgArrLongs stays the same
@@ -229,11 +269,70 @@ class DirectQuickSelectSketch extends DirectUpdateSketch {
   
   //restricted methods
   
+  @Override
+  void setHashFunction(HashFunction hashFn) {
+    super.setHashFunction(hashFn);
+    mem_.putShort(SEED_HASH_SHORT, seedHash_);
+  }
+  
+  /**
+   * Turns on asynchronous growth.
+   * See {@link UpdateSketchBuilder#setGrowthExecutor(Executor)}.
+   * @param executor the Executor of the Memory requests and frees
+   * @param prefetch the fraction of the resize threshold at which the next Memory is requested
+   */
+  void setGrowthExecutor(Executor executor, float prefetch) {
+    growthExecutor_ = executor;
+    growthPrefetch_ = prefetch;
+    prefetchThreshold_ = setPrefetchThreshold();
+  }
+  
+  /**
+   * Returns an ordered CompactSketch on the Java heap of a consistent copy of the hash table, 
+   * which can be taken while another thread updates this sketch.
+   * @param thetaLongLimit the theta of the result is at most this theta
+   * @param maxEntries if more hashes remain, theta is lowered to retain this many
+   * @return an ordered CompactSketch of a consistent copy of the hash table
+   */
+  CompactSketch snapshot(long thetaLongLimit, int maxEntries) {
+    long thetaLong;
+    long[] cache;
+    boolean empty;
+    long stamp = tableLock_.readLock();
+    try {
+      thetaLong = thetaLong_;
+      empty = empty_;
+      cache = getCache();
+    } finally {
+      tableLock_.unlockRead(stamp);
+    }
+    long thetaLongR = min(thetaLong, thetaLongLimit);
+    //hashes inserted during the copy are included, so the count is taken from the copy
+    int curCountR = HashOperations.count(cache, thetaLongR);
+    boolean emptyR = empty && (curCountR == 0);
+    long[] compactCacheR = compactCache(cache, curCountR, thetaLongR, false);
+    return CompactSketch.downsample(compactCacheR, false, emptyR, getSeedHash(), thetaLongR, 
+        maxEntries, true, null);
+  }
+  
   @Override
   int getPreambleLongs() {
     return preambleLongs_;
   }
   
+  @Override
+  Memory getImagePreamble() {
+    int preBytes = preambleLongs_ << 3;
+    byte[] preArr = new byte[preBytes];
+    mem_.getByteArray(0, preArr, 0, preBytes);
+    return new NativeMemory(preArr);
+  }
+  
+  @Override
+  Memory getImageData() {
+    return new MemoryRegion(mem_, preambleLongs_ << 3, 8 << lgArrLongs_);
+  }
+  
   //Set Argument
   
   @Override
@@ -291,6 +390,9 @@ class DirectQuickSelectSketch extends DirectUpdateSketch {
     
     int lgArrLongs = getLgArrLongs();
     int preBytes = preambleLongs_ << 3;
+    if ((stats_ != null) && stats_.sampleProbe()) {
+      stats_.recordProbeLength(HashOperations.probeLength(mem_, lgArrLongs, hash, preBytes));
+    }
     boolean inserted = hashInsert(mem_, lgArrLongs, hash, preBytes);
     if (inserted) {
       mem_.putInt(RETAINED_ENTRIES_INT, ++curCount_);
@@ -319,8 +421,8 @@ class DirectQuickSelectSketch extends DirectUpdateSketch {
           if (reqBytes <= curCapBytes) { //yes
             resizeMe(newLgArrLongs);
           }
-          else { //no, request more a bigger space
-            Memory newMem = memReq_.request(reqBytes);
+          else { //no, request more a bigger space, unless it was requested ahead
+            final Memory newMem = (nextMem_ != null) ? takeNextMem() : memReq_.request(reqBytes);
             if (newMem == null) {
               throw new IllegalArgumentException("Requested memory cannot be null.");
             }
@@ -329,12 +431,27 @@ class DirectQuickSelectSketch extends DirectUpdateSketch {
               freeMem(newMem);
               throw new IllegalArgumentException("Requested memory not granted: "+newCap+" < "+reqBytes);
             }
-            Memory oldMem = mem_;
-            moveAndResizeMe(newMem, newLgArrLongs);
-            memReq_.free(oldMem, newMem);
+            final Memory oldMem = mem_;
+            long stamp = tableLock_.writeLock(); //no snapshot may read the old mem once freed
+            try {
+              moveAndResizeMe(newMem, newLgArrLongs);
+              if (growthExecutor_ == null) {
+                memReq_.free(oldMem, newMem);
+              }
+            } finally {
+              tableLock_.unlockWrite(stamp);
+            }
+            if (growthExecutor_ != null) { //snapshots now read the new mem
+              final MemoryRequest memReq = memReq_;
+              growthExecutor_.execute(() -> memReq.free(oldMem, newMem));
+            }
           } //end of expand in current mem or not
         } //end of curBytes vs fullBytes
-      } //else curCount >= hashTableThreshold
+      } 
+      else if (curCount_ >= prefetchThreshold_) {
+        requestNextMem();
+      } //else curCount < prefetchThreshold
+      return InsertedCountIncremented;
     } //else not inserted 
     return RejectedDuplicate;
   }
@@ -349,24 +466,64 @@ class DirectQuickSelectSketch extends DirectUpdateSketch {
     return (16 << lgNomLongs) + (preambleLongs << 3);
   }
   
+  /**
+   * Returns the count at which the next Memory is requested ahead, or Integer.MAX_VALUE if 
+   * there is no growth Executor or the next resize needs no new Memory.
+   */
+  private final int setPrefetchThreshold() {
+    if ((growthExecutor_ == null) || (memReq_ == null) || (lgArrLongs_ > lgNomLongs_)) {
+      return Integer.MAX_VALUE;
+    }
+    if (getRequiredBytes(lgArrLongs_ + 1, preambleLongs_) <= mem_.getCapacity()) {
+      return Integer.MAX_VALUE;
+    }
+    return (int) (growthPrefetch_ * hashTableThreshold_);
+  }
+  
+  private final void requestNextMem() {
+    final int reqBytes = getRequiredBytes(lgArrLongs_ + 1, preambleLongs_);
+    final MemoryRequest memReq = memReq_;
+    nextMem_ = CompletableFuture.supplyAsync(() -> memReq.request(reqBytes), growthExecutor_);
+    prefetchThreshold_ = Integer.MAX_VALUE; //one request per resize
+  }
+  
+  //waits for the Memory requested ahead if it has not been granted yet
+  private final Memory takeNextMem() {
+    CompletableFuture<Memory> nextMem = nextMem_;
+    nextMem_ = null;
+    try {
+      return nextMem.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+  
   //array stays the same size. Changes theta and thus count
   private final void quickSelectAndRebuild() {
-    //Pull data into tmp arr for QS algo
+    //QuickSelect and rebuild directly in mem, without a temporary array on the heap
+    long startNanos = (stats_ == null) ? 0L : System.nanoTime();
     int lgArrLongs = getLgArrLongs();
     int arrLongs = 1 << lgArrLongs;
     int pivot = (1 << getLgNomLongs()) + 1; // pivot for QS
-    long[] tmpArr = new long[arrLongs];
     int preBytes = preambleLongs_ << 3;
     Memory mem = getMemory();
-    mem.getLongArray(preBytes, tmpArr, 0, arrLongs); //copy mem data to tmpArr
-    
-    //do the QuickSelect on tmp arr
-    setThetaLong(selectExcludingZeros(tmpArr, getRetainedEntries(true), pivot)); //changes tmpArr 
-    
-    // now we rebuild to clean up dirty data, update count
-    long[] tgtArr = new long[arrLongs];
-    setCurCount(HashOperations.hashArrayInsert(tmpArr, tgtArr, lgArrLongs, getThetaLong()));
-    mem.putLongArray(preBytes, tgtArr, 0, arrLongs); //put data back to mem
+    long stamp = tableLock_.writeLock();
+    try {
+      setThetaLong(selectFloydRivestExcludingZeros(mem, preBytes, arrLongs, 
+          getRetainedEntries(true), pivot));
+      
+      // now we rebuild to clean up dirty data, update count
+      setCurCount(HashOperations.rebuildInPlace(mem, preBytes, arrLongs, lgArrLongs, 
+          getThetaLong()));
+    } finally {
+      tableLock_.unlockWrite(stamp);
+    }
+    if (stats_ != null) {
+      stats_.countRebuild(System.nanoTime() - startNanos);
+    }
   }
   
   /**
@@ -385,32 +542,44 @@ class DirectQuickSelectSketch extends DirectUpdateSketch {
   private final void moveAndResizeMe(Memory dstMem, int dstLgArrLongs) {
     int preBytes = preambleLongs_ << 3;
     MemoryUtil.copy(mem_, 0, dstMem, 0, preBytes); //move preamble
+    dstMem.clear(preBytes, 8 << dstLgArrLongs);
     int srcHTLen = 1 << lgArrLongs_;
-    long[] srcHTArr = new long[srcHTLen];
-    mem_.getLongArray(preambleLongs_ << 3, srcHTArr, 0, srcHTLen);
-    int dstHTLen = 1 << dstLgArrLongs;
-    long[] dstHTArr = new long[dstHTLen];
-    HashOperations.hashArrayInsert(srcHTArr, dstHTArr, dstLgArrLongs, thetaLong_);
-    dstMem.putLongArray(preBytes, dstHTArr, 0, dstHTLen);
+    for (int i = 0; i < srcHTLen; i++) { //insert directly from the old mem into the new mem
+      long hash = mem_.getLong(preBytes + (i << 3));
+      if (HashOperations.continueCondition(thetaLong_, hash)) {
+        continue;
+      }
+      hashInsert(dstMem, dstLgArrLongs, hash, preBytes);
+    }
     
     mem_ = dstMem;
     setLgArrLongs(dstLgArrLongs);  //update lgArrLongs & hashTableThreshold
     hashTableThreshold_ = setHashTableThreshold(lgNomLongs_, lgArrLongs_);
+    prefetchThreshold_ = setPrefetchThreshold();
+    if (stats_ != null) {
+      stats_.countResize();
+    }
   }
   
   //Resizes existing hash array into a larger one within a single Memory assuming enough space.
   private final void resizeMe(int newLgArrLongs) {
     int preBytes = preambleLongs_ << 3;
     int srcHTLen = 1 << lgArrLongs_; //current value
-    long[] srcHTArr = new long[srcHTLen];
-    mem_.getLongArray(preBytes, srcHTArr, 0, srcHTLen);
     int dstHTLen = 1 << newLgArrLongs;
-    long[] dstHTArr = new long[dstHTLen];
-    HashOperations.hashArrayInsert(srcHTArr, dstHTArr, newLgArrLongs, thetaLong_);
-    mem_.putLongArray(preBytes, dstHTArr, 0, dstHTLen);
-    
-    setLgArrLongs(newLgArrLongs); //updates
+    long stamp = tableLock_.writeLock();
+    try {
+      mem_.clear(preBytes + (srcHTLen << 3), (dstHTLen - srcHTLen) << 3);
+      HashOperations.rebuildInPlace(mem_, preBytes, srcHTLen, newLgArrLongs, thetaLong_);
+      
+      setLgArrLongs(newLgArrLongs); //updates
+    } finally {
+      tableLock_.unlockWrite(stamp);
+    }
     hashTableThreshold_ = setHashTableThreshold(lgNomLongs_, lgArrLongs_);
+    prefetchThreshold_ = setPrefetchThreshold();
+    if (stats_ != null) {
+      stats_.countResize();
+    }
   }
   
   //special set methods
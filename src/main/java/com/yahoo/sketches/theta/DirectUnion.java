@@ -5,17 +5,27 @@
 package com.yahoo.sketches.theta;
 
 import static com.yahoo.sketches.theta.PreambleUtil.FAMILY_BYTE;
+import static com.yahoo.sketches.theta.PreambleUtil.FLAGS_BYTE;
+import static com.yahoo.sketches.theta.PreambleUtil.HASH32_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.UNION_THETA_LONG;
 
+import java.util.concurrent.locks.StampedLock;
+
 import com.yahoo.sketches.Family;
+import com.yahoo.sketches.hash.HashFunction;
 import com.yahoo.sketches.memory.Memory;
 
 /**
+ * A Union with its gadget in a Memory. An update with a sketch holds the union lock for 
+ * writing, so that {@link #snapshot()}, which holds it for reading, sees either all or none of 
+ * its hashes. Updates with single items only go through the lock of the gadget.
+ * 
  * @author Lee Rhodes
  * @author Kevin Lang
  */
 class DirectUnion extends UnionImpl {
   private final Memory unionMem_;
+  private final StampedLock unionLock_ = new StampedLock();
   
   /**
    * Construct a new Union SetOperation in off-heap Memory. Called by SetOperation.Builder.
@@ -25,9 +35,11 @@ class DirectUnion extends UnionImpl {
    * @param p <a href="{@docRoot}/resources/dictionary.html#p">See Sampling Probability, <i>p</i></a>
    * @param rf <a href="{@docRoot}/resources/dictionary.html#resizeFactor">See Resize Factor</a>
    * @param dstMem the given Memory object destination. It will be cleared prior to use.
+   * @param hashFn the hash function of the union
    */
-  DirectUnion(int lgNomLongs, long seed, float p, ResizeFactor rf, Memory dstMem) {
-    super(new DirectQuickSelectSketch(lgNomLongs, seed, p, rf, dstMem, true));
+  DirectUnion(int lgNomLongs, long seed, float p, ResizeFactor rf, Memory dstMem,
+      HashFunction hashFn) {
+    super(new DirectQuickSelectSketch(lgNomLongs, seed, p, rf, dstMem, true), hashFn);
     unionMem_ = dstMem;
     unionMem_.putByte(FAMILY_BYTE, (byte) Family.UNION.getID());
     unionMem_.putLong(UNION_THETA_LONG, unionThetaLong_);
@@ -46,8 +58,58 @@ class DirectUnion extends UnionImpl {
   
   @Override
   public void update(Sketch sketchIn) {
-    super.update(sketchIn);
-    unionMem_.putLong(UNION_THETA_LONG, unionThetaLong_);
+    long stamp = unionLock_.writeLock();
+    try {
+      super.update(sketchIn);
+      unionMem_.putLong(UNION_THETA_LONG, unionThetaLong_);
+    } finally {
+      unionLock_.unlockWrite(stamp);
+    }
+  }
+  
+  @Override
+  public void update(Memory skMem) {
+    long stamp = unionLock_.writeLock();
+    try {
+      super.update(skMem);
+      unionMem_.putLong(UNION_THETA_LONG, unionThetaLong_);
+    } finally {
+      unionLock_.unlockWrite(stamp);
+    }
+  }
+  
+  @Override
+  public CompactSketch snapshot() {
+    long stamp = unionLock_.readLock();
+    try {
+      CompactSketch result = ((DirectQuickSelectSketch) gadget_).snapshot(unionThetaLong_, 
+          1 << gadget_.getLgNomLongs());
+      return hash32_ ? CompactSketch.toHash32Sketch(result, null) : result;
+    } finally {
+      unionLock_.unlockRead(stamp);
+    }
+  }
+  
+  @Override
+  void checkPrecision(boolean hash32In) {
+    super.checkPrecision(hash32In);
+    if (hash32_) {
+      unionMem_.setBits(FLAGS_BYTE, (byte) HASH32_FLAG_MASK);
+    } 
+    else {
+      unionMem_.clearBits(FLAGS_BYTE, (byte) HASH32_FLAG_MASK);
+    }
+  }
+  
+  @Override
+  public void reset() {
+    long stamp = unionLock_.writeLock();
+    try {
+      super.reset();
+      unionMem_.putLong(UNION_THETA_LONG, unionThetaLong_);
+    } finally {
+      unionLock_.unlockWrite(stamp);
+    }
   }
   
 }
\ No newline at end of file
@@ -4,7 +4,6 @@
  */
 package com.yahoo.sketches.theta;
 
-import static com.yahoo.sketches.theta.PreambleUtil.computeSeedHash;
 
 /**
  * @author Lee Rhodes
@@ -55,7 +54,7 @@ abstract class DirectUpdateSketch extends UpdateSketch {
   }
 
   @Override
-  long getSeed() {
+  public long getSeed() {
     return seed_;
   }
   
@@ -69,7 +68,10 @@ abstract class DirectUpdateSketch extends UpdateSketch {
   
   @Override
   short getSeedHash() {
-    return computeSeedHash(getSeed());
+    if (seedHash_ == 0) { //a valid seed hash is never zero
+      seedHash_ = hashFn_.computeSeedHash(getSeed());
+    }
+    return seedHash_;
   }
   
   @Override
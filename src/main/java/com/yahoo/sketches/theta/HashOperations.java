@@ -175,6 +175,159 @@ final class HashOperations {
     return true;
   }
   
+  /**
+   * Returns the number of probes needed to find the given hash or the empty slot where it would
+   * be inserted, following the same probe sequence as {@link #hashInsert(long[], int, long)}.
+   * 
+   * @param hashTable the hash table to search
+   * @param lgArrLongs <a href="{@docRoot}/resources/dictionary.html#lgArrLongs">See lgArrLongs</a>
+   * @param hash a hash value that must not be zero
+   * @return the number of probes, which is one if the first slot probed ends the search
+   */
+  static int probeLength(long[] hashTable, int lgArrLongs, long hash) {
+    int arrayMask = (1 << lgArrLongs) - 1;
+    int stride = (2 * (int) ((hash >> lgArrLongs) & STRIDE_MASK)) + 1;
+    int curProbe = (int) (hash & arrayMask);
+    int probes = 1;
+    long curArrayHash = hashTable[curProbe];
+    while ((curArrayHash != hash) && (curArrayHash != 0) && (probes <= arrayMask)) {
+      curProbe = (curProbe + stride) & arrayMask;
+      curArrayHash = hashTable[curProbe];
+      probes++;
+    }
+    return probes;
+  }
+  
+  /**
+   * Returns the number of probes needed to find the given hash or the empty slot where it would
+   * be inserted in a hash table in Memory. 
+   * See {@link #probeLength(long[], int, long)}.
+   * 
+   * @param mem the Memory that holds the hash table to search
+   * @param lgArrLongs <a href="{@docRoot}/resources/dictionary.html#lgArrLongs">See lgArrLongs</a>
+   * @param hash a hash value that must not be zero
+   * @param memOffsetBytes offset in the memory where the hash array starts
+   * @return the number of probes, which is one if the first slot probed ends the search
+   */
+  static int probeLength(Memory mem, int lgArrLongs, long hash, int memOffsetBytes) {
+    int arrayMask = (1 << lgArrLongs) - 1;
+    int stride = (2 * (int) ((hash >> lgArrLongs) & STRIDE_MASK)) + 1;
+    int curProbe = (int) (hash & arrayMask);
+    int probes = 1;
+    long curArrayHash = mem.getLong(memOffsetBytes + (curProbe << 3));
+    while ((curArrayHash != hash) && (curArrayHash != 0) && (probes <= arrayMask)) {
+      curProbe = (curProbe + stride) & arrayMask;
+      curArrayHash = mem.getLong(memOffsetBytes + (curProbe << 3));
+      probes++;
+    }
+    return probes;
+  }
+  
+  /**
+   * Rebuilds the given hash table in place without a temporary array. Only the hashes below
+   * thetaLong are kept. The hashes to be kept must all be in the first srcLongs entries of the
+   * array and any entries beyond srcLongs must be zero, which allows the same method to grow a
+   * hash table in place to a larger lgArrLongs.
+   * 
+   * <p>The hashes to be kept are first marked with the sign bit, which valid hashes never have.
+   * Each marked hash is then inserted by its probe sequence. A probe that meets an empty or a
+   * marked slot takes it, and a displaced marked hash continues with its own probe sequence.
+   * Since a probe only passes slots that are already final, every hash can be found again.</p>
+   * 
+   * @param hashTable the hash table to rebuild
+   * @param srcLongs the number of leading entries that may hold hashes
+   * @param lgArrLongs <a href="{@docRoot}/resources/dictionary.html#lgArrLongs">See lgArrLongs</a>
+   * of the rebuilt hash table
+   * @param thetaLong <a href="{@docRoot}/resources/dictionary.html#thetaLong">See Theta Long</a>
+   * @return the number of hashes in the rebuilt hash table
+   */
+  static int rebuildInPlace(long[] hashTable, int srcLongs, int lgArrLongs, long thetaLong) {
+    checkThetaCorruption(thetaLong);
+    int count = 0;
+    for (int i = 0; i < srcLongs; i++) {
+      long hash = hashTable[i];
+      if (hash == 0) continue;
+      checkHashCorruption(hash);
+      if (continueCondition(thetaLong, hash)) {
+        hashTable[i] = 0;
+      } else {
+        hashTable[i] = hash | Long.MIN_VALUE; //mark as not yet placed
+        count++;
+      }
+    }
+    int arrayMask = (1 << lgArrLongs) - 1;
+    for (int i = 0; i < srcLongs; i++) {
+      long hash = hashTable[i];
+      if (hash >= 0) continue; //empty or placed
+      hashTable[i] = 0;
+      hash &= Long.MAX_VALUE;
+      while (hash != 0) { //place hash, possibly displacing a marked one
+        int stride = (2 * (int) ((hash >> lgArrLongs) & STRIDE_MASK)) + 1;
+        int curProbe = (int) (hash & arrayMask);
+        long curArrayHash = hashTable[curProbe];
+        while (curArrayHash > 0) {
+          curProbe = (curProbe + stride) & arrayMask;
+          curArrayHash = hashTable[curProbe];
+        }
+        hashTable[curProbe] = hash;
+        hash = curArrayHash & Long.MAX_VALUE; //zero if the slot was empty
+      }
+    }
+    return count;
+  }
+  
+  /**
+   * Rebuilds the given hash table in Memory in place without a temporary array. 
+   * See {@link #rebuildInPlace(long[], int, int, long)}.
+   * 
+   * @param mem the Memory that holds the hash table to rebuild
+   * @param memOffsetBytes offset in the memory where the hash array starts
+   * @param srcLongs the number of leading entries that may hold hashes
+   * @param lgArrLongs <a href="{@docRoot}/resources/dictionary.html#lgArrLongs">See lgArrLongs</a>
+   * of the rebuilt hash table
+   * @param thetaLong <a href="{@docRoot}/resources/dictionary.html#thetaLong">See Theta Long</a>
+   * @return the number of hashes in the rebuilt hash table
+   */
+  static int rebuildInPlace(Memory mem, int memOffsetBytes, int srcLongs, int lgArrLongs, 
+      long thetaLong) {
+    checkThetaCorruption(thetaLong);
+    int count = 0;
+    for (int i = 0; i < srcLongs; i++) {
+      int offsetBytes = memOffsetBytes + (i << 3);
+      long hash = mem.getLong(offsetBytes);
+      if (hash == 0) continue;
+      checkHashCorruption(hash);
+      if (continueCondition(thetaLong, hash)) {
+        mem.putLong(offsetBytes, 0L);
+      } else {
+        mem.putLong(offsetBytes, hash | Long.MIN_VALUE); //mark as not yet placed
+        count++;
+      }
+    }
+    int arrayMask = (1 << lgArrLongs) - 1;
+    for (int i = 0; i < srcLongs; i++) {
+      int offsetBytes = memOffsetBytes + (i << 3);
+      long hash = mem.getLong(offsetBytes);
+      if (hash >= 0) continue; //empty or placed
+      mem.putLong(offsetBytes, 0L);
+      hash &= Long.MAX_VALUE;
+      while (hash != 0) { //place hash, possibly displacing a marked one
+        int stride = (2 * (int) ((hash >> lgArrLongs) & STRIDE_MASK)) + 1;
+        int curProbe = (int) (hash & arrayMask);
+        int curProbeOffsetBytes = memOffsetBytes + (curProbe << 3);
+        long curArrayHash = mem.getLong(curProbeOffsetBytes);
+        while (curArrayHash > 0) {
+          curProbe = (curProbe + stride) & arrayMask;
+          curProbeOffsetBytes = memOffsetBytes + (curProbe << 3);
+          curArrayHash = mem.getLong(curProbeOffsetBytes);
+        }
+        mem.putLong(curProbeOffsetBytes, hash);
+        hash = curArrayHash & Long.MAX_VALUE; //zero if the slot was empty
+      }
+    }
+    return count;
+  }
+  
   /**
    * @param thetaLong must be greater than zero otherwise throws an exception.
    * <a href="{@docRoot}/resources/dictionary.html#thetaLong">See Theta Long</a>
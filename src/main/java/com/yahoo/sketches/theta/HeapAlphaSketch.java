@@ -17,8 +17,6 @@ import static com.yahoo.sketches.theta.PreambleUtil.P_FLOAT;
 import static com.yahoo.sketches.theta.PreambleUtil.RETAINED_ENTRIES_INT;
 import static com.yahoo.sketches.theta.PreambleUtil.SEED_HASH_SHORT;
 import static com.yahoo.sketches.theta.PreambleUtil.THETA_LONG;
-import static com.yahoo.sketches.theta.PreambleUtil.checkSeedHashes;
-import static com.yahoo.sketches.theta.PreambleUtil.computeSeedHash;
 import static com.yahoo.sketches.theta.UpdateReturnState.InsertedCountIncremented;
 import static com.yahoo.sketches.theta.UpdateReturnState.InsertedCountNotIncremented;
 import static com.yahoo.sketches.theta.UpdateReturnState.RejectedDuplicate;
@@ -28,6 +26,7 @@ import static java.lang.Math.min;
 import static java.lang.Math.sqrt;
 
 import com.yahoo.sketches.Family;
+import com.yahoo.sketches.hash.HashFunction;
 import com.yahoo.sketches.memory.Memory;
 
 /**
@@ -98,8 +97,8 @@ class HeapAlphaSketch extends HeapUpdateSketch {
         ResizeFactor.getRF(srcMem.getByte(LG_RESIZE_FACTOR_BYTE) >>> 6)
     );
     short seedHashMem = srcMem.getShort(SEED_HASH_SHORT); //check seed
-    short seedHashArg = computeSeedHash(seed);
-    checkSeedHashes(seedHashMem, seedHashArg);
+    hashFn_ = HashFunction.fromSeedHash(seedHashMem, seed); //and identify the hash function
+    seedHash_ = seedHashMem;
     MY_FAMILY.checkFamilyID(srcMem.getByte(FAMILY_BYTE));
     
     lgArrLongs_ = srcMem.getByte(LG_ARR_LONGS_BYTE);
@@ -187,6 +186,11 @@ class HeapAlphaSketch extends HeapUpdateSketch {
     return toByteArray(MY_FAMILY.getMinPreLongs(), (byte) MY_FAMILY.getID());
   }
   
+  @Override
+  Memory getImagePreamble() {
+    return getImagePreamble(MY_FAMILY.getMinPreLongs(), (byte) MY_FAMILY.getID());
+  }
+  
   //UpdateSketch
   
   @Override
@@ -258,6 +262,10 @@ class HeapAlphaSketch extends HeapUpdateSketch {
       return RejectedOverTheta; //signal that hash was rejected due to theta. 
     }
     
+    if ((stats_ != null) && stats_.sampleProbe()) {
+      stats_.recordProbeLength(HashOperations.probeLength(cache_, lgArrLongs_, hash));
+    }
+    
     //The duplicate/inserted tests
     if (dirty_) { //may have dirty values, must be at tgt size
       return enhancedHashInsert(cache_, hash);
@@ -370,8 +378,12 @@ class HeapAlphaSketch extends HeapUpdateSketch {
   //Checks for rare lockup condition
   // Used by hashUpdate(), rebuild()
   private final void rebuildDirty() {
+    long startNanos = (stats_ == null) ? 0L : System.nanoTime();
     int curCountBefore = curCount_;
     forceRebuildDirtyCache(); //changes curCount_ only
+    if (stats_ != null) {
+      stats_.countRebuild(System.nanoTime() - startNanos);
+    }
     if (curCountBefore == curCount_) {
       //clean but unsuccessful at reducing count, must take drastic measures, very rare.
       forceResizeCleanCache(1);
@@ -401,6 +413,9 @@ class HeapAlphaSketch extends HeapUpdateSketch {
   private final void forceResizeCleanCache(int lgResizeFactor) {
     assert (!dirty_); // Should never be dirty before a resize.
     lgArrLongs_ += lgResizeFactor; // new tgt size
+    if (stats_ != null) {
+      stats_.countResize();
+    }
     long[] tgtArr = new long[1 << lgArrLongs_];
     int newCount = HashOperations.hashArrayInsert(cache_, tgtArr, lgArrLongs_, thetaLong_);
     assert (curCount_ == newCount);
@@ -12,6 +12,7 @@ import static java.lang.Math.min;
 
 import java.util.Arrays;
 
+import com.yahoo.sketches.hash.HashFunction;
 import com.yahoo.sketches.memory.Memory;
 
 /**
@@ -25,6 +26,7 @@ class HeapAnotB extends SetOperation implements AnotB {
   private Sketch b_;
   private long thetaLong_;
   private boolean empty_; 
+  private boolean hash32_; //the hashes of A are rounded to 32 bits
   private long[] cache_; // no match set
   private int curCount_ = 0; // this will catch an attempt to get result before call to aNOTb.
   
@@ -35,14 +37,20 @@ class HeapAnotB extends SetOperation implements AnotB {
    * Construct a new Union SetOperation on the java heap.  Called by SetOperation.Builder.
    * 
    * @param seed <a href="{@docRoot}/resources/dictionary.html#seed">See seed</a>
+   * @param hashFn the hash function of the sketches
    */
-  HeapAnotB(long seed) {
-    seedHash_ = computeSeedHash(seed);
+  HeapAnotB(long seed, HashFunction hashFn) {
+    seedHash_ = hashFn.computeSeedHash(seed);
   }
   
   @Override
   @SuppressWarnings("null")
   public void update(Sketch a, Sketch b) { 
+    if ((a != null) && (b != null) && (a.getRetainedEntries(true) > 0) 
+        && (b.getRetainedEntries(true) > 0)) {
+      checkHash32(a.isHash32(), b.isHash32());
+    }
+    hash32_ = (a != null) && a.isHash32();
     a_ = a;
     b_ = b;
     thetaLong_ = Long.MAX_VALUE;
@@ -62,8 +70,14 @@ class HeapAnotB extends SetOperation implements AnotB {
       Arrays.sort(compactCache);
     }
     //Create the CompactSketch
-    CompactSketch comp = CompactSketch.createCompactSketch(compactCache, empty_, seedHash_, curCount_, 
-        thetaLong_, dstOrdered, dstMem);
+    CompactSketch comp;
+    if (hash32_) {
+      comp = CompactSketch.toHash32Sketch(CompactSketch.createCompactSketch(compactCache, empty_, 
+          seedHash_, curCount_, thetaLong_, dstOrdered, null), dstMem);
+    } else {
+      comp = CompactSketch.createCompactSketch(compactCache, empty_, seedHash_, curCount_, 
+          thetaLong_, dstOrdered, dstMem);
+    }
     reset();
     return comp;
   }
@@ -272,6 +286,7 @@ class HeapAnotB extends SetOperation implements AnotB {
     b_ = null;
     thetaLong_ = Long.MAX_VALUE;
     empty_ = true;
+    hash32_ = false;
     cache_ = null;
     curCount_ = 0;
     lgArrLongsHT_ = 5;
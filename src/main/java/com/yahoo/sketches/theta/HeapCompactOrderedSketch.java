@@ -8,6 +8,7 @@ import static com.yahoo.sketches.theta.PreambleUtil.COMPACT_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.EMPTY_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.FAMILY_BYTE;
 import static com.yahoo.sketches.theta.PreambleUtil.FLAGS_BYTE;
+import static com.yahoo.sketches.theta.PreambleUtil.HASH32_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.ORDERED_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.PREAMBLE_LONGS_BYTE;
 import static com.yahoo.sketches.theta.PreambleUtil.READ_ONLY_FLAG_MASK;
@@ -25,6 +26,7 @@ import com.yahoo.sketches.memory.NativeMemory;
 class HeapCompactOrderedSketch extends CompactSketch {
   private static final Family MY_FAMILY = Family.COMPACT;
   private final long[] cache_;
+  private final boolean hash32_;
   
   /**
    * Heapifies the given Memory.
@@ -41,7 +43,8 @@ class HeapCompactOrderedSketch extends CompactSketch {
     int preLongs = srcMem.getByte(PREAMBLE_LONGS_BYTE) & 0X3F;
     int preBytes = compactPreambleLongs(thetaLong_, empty_) << 3;
     assert (preLongs << 3) == preBytes;
-    srcMem.getLongArray(preBytes, cache_, 0, curCount_);
+    readCompactHashes(srcMem, preLongs, cache_, curCount_);
+    hash32_ = srcMem.isAnyBitsSet(FLAGS_BYTE, (byte) HASH32_FLAG_MASK);
   }
   
   /**
@@ -56,6 +59,7 @@ class HeapCompactOrderedSketch extends CompactSketch {
         );
     boolean ordered = true;
     cache_ = CompactSketch.compactCache(sketch.getCache(), curCount_, thetaLong_, ordered);
+    hash32_ = false;
   }
   
   /**
@@ -71,6 +75,7 @@ class HeapCompactOrderedSketch extends CompactSketch {
     super(empty, seedHash, curCount, thetaLong);
     assert compactOrderedCache != null;
     cache_ = (curCount == 0)? new long[0] : compactOrderedCache;
+    hash32_ = false;
   }
   
   //Sketch interface
@@ -78,6 +83,9 @@ class HeapCompactOrderedSketch extends CompactSketch {
   @SuppressWarnings("unused")
   @Override
   public byte[] toByteArray() {
+    if (hash32_) {
+      return toByteArrayHash32(); //no loss, the hashes are already rounded
+    }
     byte[] byteArray = new byte[getCurrentBytes(true)];
     Memory dstMem = new NativeMemory(byteArray);
     int emptyBit = isEmpty()? (byte) EMPTY_FLAG_MASK : 0;
@@ -87,8 +95,46 @@ class HeapCompactOrderedSketch extends CompactSketch {
     return byteArray;
   }
 
+  @Override
+  public int getCurrentBytes(boolean compact) {
+    if (hash32_) {
+      return (getPreambleLongs() << 3) + (curCount_ << 2);
+    }
+    return super.getCurrentBytes(compact);
+  }
+
   //restricted methods
   
+  @Override
+  Memory getImagePreamble() {
+    int emptyBit = isEmpty()? (byte) EMPTY_FLAG_MASK : 0;
+    int hash32Bit = hash32_? HASH32_FLAG_MASK : 0;
+    byte flags = (byte) (emptyBit |  READ_ONLY_FLAG_MASK | COMPACT_FLAG_MASK | ORDERED_FLAG_MASK 
+        | hash32Bit);
+    return compactImagePreamble(isEmpty(), getSeedHash(), getRetainedEntries(true), 
+        getThetaLong(), flags);
+  }
+  
+  @Override
+  Memory getImageData() {
+    if (curCount_ == 0) {
+      return null;
+    }
+    if (hash32_) {
+      int[] codes = new int[curCount_];
+      for (int i = 0; i < curCount_; i++) {
+        codes[i] = encodeHash32(cache_[i]);
+      }
+      return new NativeMemory(codes);
+    }
+    return new NativeMemory(cache_);
+  }
+  
+  @Override
+  boolean isHash32() {
+    return hash32_;
+  }
+  
   @Override
   public boolean isDirect() {
     return false; 
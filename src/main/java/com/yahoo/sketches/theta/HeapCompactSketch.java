@@ -41,7 +41,7 @@ class HeapCompactSketch extends CompactSketch {
     int preLongs = srcMem.getByte(PREAMBLE_LONGS_BYTE) & 0X3F;
     int preBytes = compactPreambleLongs(thetaLong_, empty_) << 3;
     assert (preLongs << 3) == preBytes;
-    srcMem.getLongArray(preBytes, cache_, 0, curCount_);
+    readCompactHashes(srcMem, preLongs, cache_, curCount_);
   }
   
   /**
@@ -90,6 +90,19 @@ class HeapCompactSketch extends CompactSketch {
 
   //restricted methods
   
+  @Override
+  Memory getImagePreamble() {
+    int emptyBit = isEmpty()? (byte) EMPTY_FLAG_MASK : 0;
+    byte flags = (byte) (emptyBit |  READ_ONLY_FLAG_MASK | COMPACT_FLAG_MASK);
+    return compactImagePreamble(isEmpty(), getSeedHash(), getRetainedEntries(true), 
+        getThetaLong(), flags);
+  }
+  
+  @Override
+  Memory getImageData() {
+    return (curCount_ > 0)? new NativeMemory(cache_) : null;
+  }
+  
   @Override
   public boolean isDirect() {
     return false; 
@@ -11,6 +11,7 @@ import static com.yahoo.sketches.theta.HashOperations.hashSearch;
 import static com.yahoo.sketches.theta.PreambleUtil.EMPTY_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.FAMILY_BYTE;
 import static com.yahoo.sketches.theta.PreambleUtil.FLAGS_BYTE;
+import static com.yahoo.sketches.theta.PreambleUtil.HASH32_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.LG_ARR_LONGS_BYTE;
 import static com.yahoo.sketches.theta.PreambleUtil.LG_NOM_LONGS_BYTE;
 import static com.yahoo.sketches.theta.PreambleUtil.PREAMBLE_LONGS_BYTE;
@@ -21,12 +22,18 @@ import static com.yahoo.sketches.theta.PreambleUtil.SER_VER;
 import static com.yahoo.sketches.theta.PreambleUtil.SER_VER_BYTE;
 import static com.yahoo.sketches.theta.PreambleUtil.THETA_LONG;
 import static com.yahoo.sketches.theta.PreambleUtil.checkSeedHashes;
+import static com.yahoo.sketches.theta.PreambleUtil.writeImage;
 import static java.lang.Math.min;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 
 import com.yahoo.sketches.Family;
+import com.yahoo.sketches.hash.HashFunction;
 import com.yahoo.sketches.memory.Memory;
+import com.yahoo.sketches.memory.MemoryRegion;
 import com.yahoo.sketches.memory.NativeMemory;
 
 /**
@@ -43,6 +50,7 @@ class HeapIntersection extends SetOperation implements Intersection{
   private int curCount_;             //curCount of HT, if < 0 means Universal Set (US) is true
   private long thetaLong_;
   private boolean empty_;
+  private boolean hash32_;           //the hashes of the HT are rounded to 32 bits
   private long[] hashTable_ = null;  //HT => Data
   
   /**
@@ -50,9 +58,10 @@ class HeapIntersection extends SetOperation implements Intersection{
    * 
    * @param lgNomLongs <a href="{@docRoot}/resources/dictionary.html#lgNomLongs">See lgNomLongs</a>
    * @param seed <a href="{@docRoot}/resources/dictionary.html#seed">See Seed</a>
+   * @param hashFn the hash function of the sketches to intersect
    */
-  HeapIntersection(int lgNomLongs, long seed) {
-    seedHash_ = computeSeedHash(seed);
+  HeapIntersection(int lgNomLongs, long seed, HashFunction hashFn) {
+    seedHash_ = hashFn.computeSeedHash(seed);
     lgNomLongs_ = lgNomLongs;
     if (lgNomLongs_ < MIN_LG_NOM_LONGS) throw new IllegalArgumentException(
         "This sketch requires a minimum nominal entries of "+(1 << MIN_LG_NOM_LONGS));
@@ -70,11 +79,13 @@ class HeapIntersection extends SetOperation implements Intersection{
    * @param seed <a href="{@docRoot}/resources/dictionary.html#seed">See seed</a> 
    */
   HeapIntersection(Memory srcMem, long seed) {
-    seedHash_ = computeSeedHash(seed);
+    seedHash_ = srcMem.getShort(SEED_HASH_SHORT);
+    HashFunction.fromSeedHash(seedHash_, seed); //check for seed hash conflict
     lgNomLongs_ = srcMem.getByte(LG_NOM_LONGS_BYTE);
     lgArrLongs_ = srcMem.getByte(LG_ARR_LONGS_BYTE);
     hashTableThreshold_ = setHashTableThreshold(lgArrLongs_);
     empty_ = srcMem.isAnyBitsSet(FLAGS_BYTE, (byte) EMPTY_FLAG_MASK);
+    hash32_ = isHash32(srcMem);
     curCount_ = srcMem.getInt(RETAINED_ENTRIES_INT);
     thetaLong_ = srcMem.getLong(THETA_LONG);
     
@@ -107,7 +118,6 @@ class HeapIntersection extends SetOperation implements Intersection{
   @Override
   @SuppressWarnings("null") //due to the state machine construction
   public void update(Sketch sketchIn) {
-    
     //The Intersection State Machine
     int skInState = ((sketchIn != null) && (sketchIn.getRetainedEntries(true) > 0))? 1 : 0;
     int sw = ((curCount_ < 0)? 0 : 4) | ((curCount_ <= 0)? 0: 2) | skInState;
@@ -135,6 +145,8 @@ class HeapIntersection extends SetOperation implements Intersection{
         thetaLong_ = min(thetaLong_, sketchIn.getThetaLong());
         empty_ |= sketchIn.isEmpty();
         
+        hash32_ = sketchIn.isHash32();
+        
         //curCount was -1, must set to >= 0
         curCount_ = sketchIn.getRetainedEntries(true);
         //Allocate a HT, checks lgArrLongs
@@ -188,6 +200,7 @@ class HeapIntersection extends SetOperation implements Intersection{
       case 7: {
         //Nth Call: curCount >0.  Incoming sketch was valid with cnt > 0.
         checkSeedHashes(seedHash_, sketchIn.getSeedHash());
+        checkHash32(hash32_, sketchIn.isHash32());
         thetaLong_ = min(thetaLong_, sketchIn.getThetaLong());
         empty_ |= sketchIn.isEmpty();
         
@@ -216,6 +229,11 @@ class HeapIntersection extends SetOperation implements Intersection{
     compactCacheR = compactCachePart(hashTable_, lgArrLongs_, curCount_, thetaLong_, dstOrdered);
     
     //Create the CompactSketch
+    if (hash32_) {
+      CompactSketch result = CompactSketch.createCompactSketch(
+          compactCacheR, empty_, seedHash_, curCount_, thetaLong_, dstOrdered, null);
+      return CompactSketch.toHash32Sketch(result, dstMem);
+    }
     return CompactSketch.createCompactSketch(
         compactCacheR, empty_, seedHash_, curCount_, thetaLong_, dstOrdered, dstMem);
   }
@@ -225,6 +243,11 @@ class HeapIntersection extends SetOperation implements Intersection{
     return getResult(true, null);
   }
   
+  @Override
+  public CompactSketch snapshot() {
+    return getResult(true, null);
+  }
+  
   @Override
   public boolean hasResult() {
     return curCount_ >= 0;
@@ -232,10 +255,30 @@ class HeapIntersection extends SetOperation implements Intersection{
   
   @Override
   public byte[] toByteArray() {
-    int preBytes = CONST_PREAMBLE_LONGS << 3;
-    int dataBytes = (hashTable_ != null)? 8 << lgArrLongs_ : 0;
-    byte[] byteArrOut = new byte[preBytes + dataBytes];
-    NativeMemory memOut = new NativeMemory(byteArrOut);
+    Memory preMem = getImagePreamble();
+    int dataBytes = getImageDataBytes();
+    byte[] byteArrOut = new byte[(int) preMem.getCapacity() + dataBytes];
+    writeImage(preMem, getImageData(), dataBytes, new NativeMemory(byteArrOut), 0);
+    return byteArrOut;
+  }
+  
+  @Override
+  public void writeTo(Memory dstMem, long offsetBytes) {
+    writeImage(getImagePreamble(), getImageData(), getImageDataBytes(), dstMem, offsetBytes);
+  }
+  
+  @Override
+  public void writeTo(ByteBuffer dstBuf) {
+    writeImage(getImagePreamble(), getImageData(), getImageDataBytes(), dstBuf);
+  }
+  
+  @Override
+  public void writeTo(WritableByteChannel channel) throws IOException {
+    writeImage(getImagePreamble(), getImageData(), getImageDataBytes(), channel);
+  }
+  
+  private Memory getImagePreamble() {
+    NativeMemory memOut = new NativeMemory(new byte[CONST_PREAMBLE_LONGS << 3]);
     
     //preamble
     memOut.putByte(PREAMBLE_LONGS_BYTE, (byte) CONST_PREAMBLE_LONGS); //RF not used = 0
@@ -249,16 +292,23 @@ class HeapIntersection extends SetOperation implements Intersection{
     else {
       memOut.clearBits(FLAGS_BYTE, (byte) EMPTY_FLAG_MASK);
     }
+    if (hash32_) {
+      memOut.setBits(FLAGS_BYTE, (byte) HASH32_FLAG_MASK);
+    }
     memOut.putShort(SEED_HASH_SHORT, seedHash_);
     memOut.putInt(RETAINED_ENTRIES_INT, curCount_);
     memOut.putFloat(P_FLOAT, (float) 1.0);
     memOut.putLong(THETA_LONG, thetaLong_);
-    
-    //data
-    if (hashTable_ != null) {
-      memOut.putLongArray(preBytes, hashTable_, 0, 1 << lgArrLongs_);
-    }
-    return byteArrOut;
+    return memOut;
+  }
+  
+  private int getImageDataBytes() {
+    return (hashTable_ != null)? 8 << lgArrLongs_ : 0;
+  }
+  
+  private Memory getImageData() {
+    return (hashTable_ != null)? new MemoryRegion(new NativeMemory(hashTable_), 0, 8 << lgArrLongs_)
+        : null;
   }
   
   @Override
@@ -270,6 +320,7 @@ class HeapIntersection extends SetOperation implements Intersection{
     
     thetaLong_ = Long.MAX_VALUE;
     empty_ = false;
+    hash32_ = false;
   }
   
   private void performIntersect(Sketch sketchIn) {
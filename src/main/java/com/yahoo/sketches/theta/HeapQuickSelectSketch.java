@@ -4,7 +4,7 @@
  */
 package com.yahoo.sketches.theta;
 
-import static com.yahoo.sketches.QuickSelect.selectExcludingZeros;
+import static com.yahoo.sketches.QuickSelect.selectFloydRivestExcludingZeros;
 import static com.yahoo.sketches.theta.PreambleUtil.EMPTY_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.FAMILY_BYTE;
 import static com.yahoo.sketches.theta.PreambleUtil.FLAGS_BYTE;
@@ -16,8 +16,6 @@ import static com.yahoo.sketches.theta.PreambleUtil.P_FLOAT;
 import static com.yahoo.sketches.theta.PreambleUtil.RETAINED_ENTRIES_INT;
 import static com.yahoo.sketches.theta.PreambleUtil.SEED_HASH_SHORT;
 import static com.yahoo.sketches.theta.PreambleUtil.THETA_LONG;
-import static com.yahoo.sketches.theta.PreambleUtil.checkSeedHashes;
-import static com.yahoo.sketches.theta.PreambleUtil.computeSeedHash;
 import static com.yahoo.sketches.theta.UpdateReturnState.InsertedCountIncremented;
 import static com.yahoo.sketches.theta.UpdateReturnState.RejectedDuplicate;
 import static com.yahoo.sketches.theta.UpdateReturnState.RejectedOverTheta;
@@ -25,6 +23,7 @@ import static java.lang.Math.max;
 import static java.lang.Math.min;
 
 import com.yahoo.sketches.Family;
+import com.yahoo.sketches.hash.HashFunction;
 import com.yahoo.sketches.memory.Memory;
 
 /**
@@ -102,8 +101,8 @@ class HeapQuickSelectSketch extends HeapUpdateSketch { //UpdateSketch implements
         ResizeFactor.getRF(srcMem.getByte(LG_RESIZE_FACTOR_BYTE) >>> 6)
     );
     short seedHashMem = srcMem.getShort(SEED_HASH_SHORT); //check for seed conflict
-    short seedHashArg = computeSeedHash(seed);
-    checkSeedHashes(seedHashMem, seedHashArg);
+    hashFn_ = HashFunction.fromSeedHash(seedHashMem, seed); //and identify the hash function
+    seedHash_ = seedHashMem;
     
     int familyID = srcMem.getByte(FAMILY_BYTE);
     if (familyID == Family.UNION.getID()) {
@@ -143,6 +142,11 @@ class HeapQuickSelectSketch extends HeapUpdateSketch { //UpdateSketch implements
     return toByteArray(preambleLongs_, (byte) MY_FAMILY.getID());
   }
   
+  @Override
+  Memory getImagePreamble() {
+    return getImagePreamble(preambleLongs_, (byte) MY_FAMILY.getID());
+  }
+  
   //UpdateSketch
   
   @Override
@@ -221,6 +225,9 @@ class HeapQuickSelectSketch extends HeapUpdateSketch { //UpdateSketch implements
     }
     
     //The duplicate/inserted tests
+    if ((stats_ != null) && stats_.sampleProbe()) {
+      stats_.recordProbeLength(HashOperations.probeLength(cache_, lgArrLongs_, hash));
+    }
     boolean inserted = HashOperations.hashInsert(cache_, lgArrLongs_, hash);
     if (inserted) {
       curCount_++;
@@ -249,6 +256,9 @@ class HeapQuickSelectSketch extends HeapUpdateSketch { //UpdateSketch implements
     int lgDeltaLongs = lgTgtLongs - lgArrLongs_;
     int lgResizeFactor = max(min(rf_.lg(), lgDeltaLongs), 1); //rf_.lg() could be 0
     lgArrLongs_ += lgResizeFactor; // new tgt size
+    if (stats_ != null) {
+      stats_.countResize();
+    }
     
     long[] tgtArr = new long[1 << lgArrLongs_];
     int newCount = HashOperations.hashArrayInsert(cache_, tgtArr, lgArrLongs_, thetaLong_);
@@ -262,16 +272,18 @@ class HeapQuickSelectSketch extends HeapUpdateSketch { //UpdateSketch implements
   
   //array stays the same size. Changes theta and thus count
   private final void quickSelectAndRebuild() {
+    long startNanos = (stats_ == null) ? 0L : System.nanoTime();
     int arrLongs = 1 << lgArrLongs_;
     
     int pivot = (1 << lgNomLongs_) + 1; // pivot for QS
 
-    thetaLong_ = selectExcludingZeros(cache_, curCount_, pivot); //changes cache_ 
+    thetaLong_ = selectFloydRivestExcludingZeros(cache_, curCount_, pivot); //changes cache_ 
     
-    // now we rebuild to clean up dirty data, update count
-    long[] tgtArr = new long[arrLongs];
-    curCount_ = HashOperations.hashArrayInsert(cache_, tgtArr, lgArrLongs_, thetaLong_);
-    cache_ = tgtArr;
+    // now we rebuild in place to clean up dirty data, update count
+    curCount_ = HashOperations.rebuildInPlace(cache_, arrLongs, lgArrLongs_, thetaLong_);
+    if (stats_ != null) {
+      stats_.countRebuild(System.nanoTime() - startNanos);
+    }
     //hashTableThreshold stays the same
   }
   
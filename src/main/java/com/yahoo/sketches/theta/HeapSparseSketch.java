@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.theta;
+
+import static com.yahoo.sketches.theta.HeapQuickSelectSketch.HQS_MIN_LG_ARR_LONGS;
+import static com.yahoo.sketches.theta.HeapQuickSelectSketch.HQS_MIN_LG_NOM_LONGS;
+import static com.yahoo.sketches.theta.PreambleUtil.MAX_THETA_LONG_AS_DOUBLE;
+import static com.yahoo.sketches.theta.UpdateReturnState.InsertedCountIncremented;
+import static com.yahoo.sketches.theta.UpdateReturnState.RejectedDuplicate;
+import static com.yahoo.sketches.theta.UpdateReturnState.RejectedOverTheta;
+
+import java.util.Arrays;
+
+import com.yahoo.sketches.Family;
+import com.yahoo.sketches.memory.Memory;
+
+/**
+ * A QuickSelect sketch on the Java heap that starts in a sparse form for low cardinalities.
+ *
+ * <p>While it retains no more than {@link #SPARSE_MAX_ENTRIES} hashes, the hashes are kept in a
+ * small sorted array that grows by doubling from zero. This is much smaller than the smallest
+ * hash table of a HeapQuickSelectSketch, which matters when very many sketches hold only a few
+ * items each. When the next hash would exceed this limit the sketch is converted into a
+ * HeapQuickSelectSketch, to which it then delegates all operations.</p>
+ *
+ * <p>In sparse form the sketch is always in exact mode with respect to <i>p</i>. Compacting it
+ * copies the sorted array directly. Operations that require the hash table form, such as
+ * toByteArray() of the update sketch, build a hash table of the smallest size on demand, so the
+ * serialized form is an ordinary QuickSelect sketch image.</p>
+ */
+class HeapSparseSketch extends HeapUpdateSketch {
+
+  /**
+   * The maximum number of hashes in sparse form. This is the resize threshold of the smallest
+   * hash table of a HeapQuickSelectSketch.
+   */
+  static final int SPARSE_MAX_ENTRIES = 1 << (HQS_MIN_LG_ARR_LONGS - 1);
+
+  private static final long[] EMPTY_ARR = new long[0];
+
+  private long[] hashes_;                //sorted, only the first curCount_ are valid
+  private int curCount_;
+  private long thetaLong_;
+  private boolean empty_;
+  private HeapQuickSelectSketch hashSketch_; //non-null once converted to the hash table form
+
+  /**
+   * Construct a new sparse sketch on the java heap.
+   *
+   * @param lgNomLongs <a href="{@docRoot}/resources/dictionary.html#lgNomLogs">See lgNomLongs</a>.
+   * @param seed <a href="{@docRoot}/resources/dictionary.html#seed">See seed</a>
+   * @param p <a href="{@docRoot}/resources/dictionary.html#p">See Sampling Probability, <i>p</i></a>
+   * @param rf <a href="{@docRoot}/resources/dictionary.html#resizeFactor">See Resize Factor</a>
+   */
+  HeapSparseSketch(int lgNomLongs, long seed, float p, ResizeFactor rf) {
+    super(lgNomLongs, seed, p, rf);
+    if (lgNomLongs_ < HQS_MIN_LG_NOM_LONGS) throw new IllegalArgumentException(
+        "This sketch requires a minimum nominal entries of "+(1 << HQS_MIN_LG_NOM_LONGS));
+    reset();
+  }
+
+  //Sketch
+
+  @Override
+  public int getRetainedEntries(boolean valid) {
+    return (hashSketch_ != null)? hashSketch_.getRetainedEntries(valid) : curCount_;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return (hashSketch_ != null)? hashSketch_.isEmpty() : empty_;
+  }
+
+  @Override
+  public byte[] toByteArray() {
+    if (hashSketch_ != null) return hashSketch_.toByteArray();
+    return toByteArray(getPreambleLongs(), (byte) Family.QUICKSELECT.getID());
+  }
+
+  @Override
+  Memory getImagePreamble() {
+    if (hashSketch_ != null) return hashSketch_.getImagePreamble();
+    return getImagePreamble(getPreambleLongs(), (byte) Family.QUICKSELECT.getID());
+  }
+
+  @Override
+  Memory getImageData() {
+    return (hashSketch_ != null)? hashSketch_.getImageData() : super.getImageData();
+  }
+
+  //UpdateSketch
+
+  @Override
+  public CompactSketch compact(boolean dstOrdered, Memory dstMem) {
+    if (hashSketch_ != null) return hashSketch_.compact(dstOrdered, dstMem);
+    long[] cacheOut = Arrays.copyOf(hashes_, curCount_); //already ordered
+    return CompactSketch.createCompactSketch(cacheOut, empty_, getSeedHash(), curCount_,
+        thetaLong_, dstOrdered, dstMem);
+  }
+
+  @Override
+  public UpdateSketch rebuild() {
+    if (hashSketch_ != null) hashSketch_.rebuild();
+    return this;
+  }
+
+  @Override
+  public final void reset() {
+    hashes_ = EMPTY_ARR;
+    curCount_ = 0;
+    thetaLong_ = (long)(p_ * MAX_THETA_LONG_AS_DOUBLE);
+    empty_ = true;
+    hashSketch_ = null;
+  }
+
+  //restricted methods
+
+  @Override
+  int getPreambleLongs() {
+    return Family.QUICKSELECT.getMinPreLongs();
+  }
+
+  /**
+   * Returns the hash table of this sketch. In sparse form a new hash table of
+   * 2<sup>lgArrLongs</sup> entries is built on every call.
+   * @return the hash table of this sketch
+   */
+  @Override
+  long[] getCache() {
+    if (hashSketch_ != null) return hashSketch_.getCache();
+    int lgArrLongs = getLgArrLongs();
+    long[] hashTable = new long[1 << lgArrLongs];
+    for (int i = 0; i < curCount_; i++) {
+      HashOperations.hashInsert(hashTable, lgArrLongs, hashes_[i]);
+    }
+    return hashTable;
+  }
+
+  @Override
+  long getThetaLong() {
+    return (hashSketch_ != null)? hashSketch_.getThetaLong() : thetaLong_;
+  }
+
+  @Override
+  boolean isDirty() {
+    return (hashSketch_ != null) && hashSketch_.isDirty();
+  }
+
+  @Override
+  int getLgArrLongs() {
+    return (hashSketch_ != null)? hashSketch_.getLgArrLongs() : HQS_MIN_LG_ARR_LONGS;
+  }
+
+  /**
+   * Returns true if this sketch is still in sparse form
+   * @return true if this sketch is still in sparse form
+   */
+  boolean isSparse() {
+    return hashSketch_ == null;
+  }
+
+  @Override
+  void setStats(UpdateStats stats) {
+    super.setStats(stats);
+    if (hashSketch_ != null) hashSketch_.setStats(stats);
+  }
+
+  @Override
+  UpdateReturnState hashUpdate(long hash) {
+    if (hashSketch_ != null) return hashSketch_.hashUpdate(hash);
+    HashOperations.checkHashCorruption(hash);
+    empty_ = false;
+
+    //The over-theta test
+    if (HashOperations.continueCondition(thetaLong_, hash)) {
+      return RejectedOverTheta;
+    }
+
+    int index = Arrays.binarySearch(hashes_, 0, curCount_, hash);
+    if (index >= 0) {
+      return RejectedDuplicate;
+    }
+    if (curCount_ == SPARSE_MAX_ENTRIES) {
+      convertToHashTable();
+      return hashSketch_.hashUpdate(hash);
+    }
+    if (curCount_ == hashes_.length) {
+      hashes_ = Arrays.copyOf(hashes_, Math.max(1, curCount_ << 1));
+    }
+    int insert = -index - 1;
+    System.arraycopy(hashes_, insert, hashes_, insert + 1, curCount_ - insert);
+    hashes_[insert] = hash;
+    curCount_++;
+    return InsertedCountIncremented;
+  }
+
+  private void convertToHashTable() {
+    HeapQuickSelectSketch hashSketch = new HeapQuickSelectSketch(lgNomLongs_, seed_, p_, rf_, false);
+    for (int i = 0; i < curCount_; i++) {
+      hashSketch.hashUpdate(hashes_[i]);
+    }
+    hashSketch.setStats(stats_);
+    hashSketch.setHashFunction(hashFn_);
+    hashSketch_ = hashSketch;
+    hashes_ = null;
+    curCount_ = 0;
+  }
+
+}
@@ -4,6 +4,7 @@
  */
 package com.yahoo.sketches.theta;
 
+import com.yahoo.sketches.hash.HashFunction;
 import com.yahoo.sketches.memory.Memory;
 
 /**
@@ -19,9 +20,10 @@ class HeapUnion extends UnionImpl {
    * @param seed <a href="{@docRoot}/resources/dictionary.html#seed">See seed</a>
    * @param p <a href="{@docRoot}/resources/dictionary.html#p">See Sampling Probability, <i>p</i></a>
    * @param rf <a href="{@docRoot}/resources/dictionary.html#resizeFactor">See Resize Factor</a>
+   * @param hashFn the hash function of the union
    */
-  HeapUnion(int lgNomLongs, long seed, float p, ResizeFactor rf) {
-    super(new HeapQuickSelectSketch(lgNomLongs, seed, p, rf, true));
+  HeapUnion(int lgNomLongs, long seed, float p, ResizeFactor rf, HashFunction hashFn) {
+    super(new HeapQuickSelectSketch(lgNomLongs, seed, p, rf, true), hashFn);
   }
   
   /**
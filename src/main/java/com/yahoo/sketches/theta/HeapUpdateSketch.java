@@ -16,7 +16,6 @@ import static com.yahoo.sketches.theta.PreambleUtil.SEED_HASH_SHORT;
 import static com.yahoo.sketches.theta.PreambleUtil.SER_VER;
 import static com.yahoo.sketches.theta.PreambleUtil.SER_VER_BYTE;
 import static com.yahoo.sketches.theta.PreambleUtil.THETA_LONG;
-import static com.yahoo.sketches.theta.PreambleUtil.computeSeedHash;
 
 import com.yahoo.sketches.memory.Memory;
 import com.yahoo.sketches.memory.NativeMemory;
@@ -43,11 +42,17 @@ abstract class HeapUpdateSketch extends UpdateSketch {
   public abstract byte[] toByteArray();
   
   byte[] toByteArray(int preLongs, byte family) {
+    Memory preMem = getImagePreamble(preLongs, family);
+    Memory dataMem = getImageData();
+    long dataBytes = dataMem.getCapacity();
+    byte[] byteArrOut = new byte[(int) (preMem.getCapacity() + dataBytes)];
+    PreambleUtil.writeImage(preMem, dataMem, dataBytes, new NativeMemory(byteArrOut), 0);
+    return byteArrOut;
+  }
+  
+  Memory getImagePreamble(int preLongs, byte family) {
     if (isDirty()) rebuild();
-    int preBytes = preLongs << 3;
-    int dataBytes = getCurrentDataLongs(false) << 3;
-    byte[] byteArrOut = new byte[preBytes + dataBytes];
-    NativeMemory memOut = new NativeMemory(byteArrOut);
+    NativeMemory memOut = new NativeMemory(new byte[preLongs << 3]);
     
     //preamble
     byte byte0 = (byte) ((this.getLgResizeFactor() << 6) | preLongs);
@@ -65,13 +70,13 @@ abstract class HeapUpdateSketch extends UpdateSketch {
     //Flags: BigEnd=0, ReadOnly=0, Empty=X, compact=0, ordered=0
     byte flags = this.isEmpty()? (byte) EMPTY_FLAG_MASK : 0;
     memOut.putByte(FLAGS_BYTE, flags);
-    
-    //Data
-    int arrLongs = 1 << this.getLgArrLongs();
-    long[] cache = this.getCache();
-    memOut.putLongArray(preBytes, cache, 0, arrLongs); //load byteArrOut
-
-    return byteArrOut;
+    return memOut;
+  }
+  
+  @Override
+  Memory getImageData() {
+    //the full hash table of 1 << lgArrLongs
+    return new NativeMemory(this.getCache());
   }
   
   //restricted methods
@@ -102,7 +107,7 @@ abstract class HeapUpdateSketch extends UpdateSketch {
   }
 
   @Override
-  long getSeed() {
+  public long getSeed() {
     return seed_;
   }
   
@@ -115,7 +120,10 @@ abstract class HeapUpdateSketch extends UpdateSketch {
 
   @Override
   short getSeedHash() {
-    return computeSeedHash(getSeed());
+    if (seedHash_ == 0) { //a valid seed hash is never zero
+      seedHash_ = hashFn_.computeSeedHash(getSeed());
+    }
+    return seedHash_;
   }
 
   @Override
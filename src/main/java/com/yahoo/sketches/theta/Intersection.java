@@ -4,6 +4,10 @@
  */
 package com.yahoo.sketches.theta;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
 import com.yahoo.sketches.memory.Memory;
 
 /**
@@ -42,6 +46,16 @@ public interface Intersection {
    */
   CompactSketch getResult();
   
+  /**
+   * Gets the result of this operation as an ordered CompactSketch on the Java heap. 
+   * A direct intersection can be snapshot by any number of reader threads while one writer 
+   * thread keeps updating it; every update is either fully included or not at all. 
+   * An intersection on the Java heap requires that it is not updated concurrently.
+   * The update method must have been called at least once.
+   * @return the current result of this operation as an ordered CompactSketch on the Java heap
+   */
+  CompactSketch snapshot();
+  
   /**
    * Returns true if there is an intersection result available
    * @return true if there is an intersection result available
@@ -54,6 +68,30 @@ public interface Intersection {
    */
   byte[] toByteArray();
   
+  /**
+   * Writes the same image as toByteArray() into the given Memory starting at the given offset,
+   * without building the full image in an intermediate array.
+   * @param dstMem the destination Memory
+   * @param offsetBytes the offset in bytes into the destination Memory
+   */
+  void writeTo(Memory dstMem, long offsetBytes);
+  
+  /**
+   * Writes the same image as toByteArray() into the given ByteBuffer starting at its current 
+   * position, which is then advanced past the written bytes. 
+   * @param dstBuf the destination ByteBuffer
+   */
+  void writeTo(ByteBuffer dstBuf);
+  
+  /**
+   * Writes the same image as toByteArray() to the given channel. The hash table is streamed 
+   * through a small, fixed size buffer so that the full image is never held in an intermediate 
+   * array.
+   * @param channel the destination channel
+   * @throws IOException if the channel throws an IOException
+   */
+  void writeTo(WritableByteChannel channel) throws IOException;
+  
   /**
    * Resets this Intersection. The seed remains intact, otherwise reverts to 
    * the Universal Set, theta of 1.0 and empty = false.
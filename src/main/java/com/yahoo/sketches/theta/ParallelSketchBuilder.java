@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.theta;
+
+import static com.yahoo.sketches.Util.checkIfPowerOf2;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.yahoo.sketches.memory.Memory;
+
+/**
+ * Builds a theta sketch from a large array of longs by splitting the input across a fork/join
+ * pool. Each leaf task hashes its range into a private HeapQuickSelectSketch and the partial
+ * results are merged pairwise with a Union. The result is a compact sketch of the whole input
+ * with at most <i>nomEntries</i> retained entries. It is identical to the result of a Union of
+ * the same nominal entries updated with a sequentially built sketch, regardless of the number
+ * of threads.
+ */
+final class ParallelSketchBuilder {
+
+  /**
+   * The minimum number of items of a leaf task. Below this the fork/join overhead dominates.
+   */
+  static final int MIN_LEAF_ITEMS = 1 << 14;
+
+  /**
+   * The number of leaf tasks created per thread, which balances the load between threads.
+   */
+  static final int LEAVES_PER_THREAD = 4;
+
+  private ParallelSketchBuilder() {}
+
+  /**
+   * Builds a compact sketch of the given items
+   * @param items the source of the items
+   * @param nomEntries <a href="{@docRoot}/resources/dictionary.html#nomEntries">Nominal Entres</a>
+   * @param seed <a href="{@docRoot}/resources/dictionary.html#seed">See Update Hash Seed</a>.
+   * @param numThreads the number of threads of the fork/join pool
+   * @return an ordered compact sketch of all the items
+   */
+  static CompactSketch build(LongSource items, int nomEntries, long seed, int numThreads) {
+    checkIfPowerOf2(nomEntries, "nomEntries");
+    if (numThreads < 1) {
+      throw new IllegalArgumentException("numThreads must be at least 1: " + numThreads);
+    }
+    long n = items.length();
+    long leafItems = (numThreads == 1)? n
+        : Math.max(MIN_LEAF_ITEMS, n / ((long) numThreads * LEAVES_PER_THREAD));
+    BuildTask root = new BuildTask(items, 0, n, leafItems, nomEntries, seed);
+    if (n <= leafItems) { //a single leaf, no need for a pool
+      return root.compute();
+    }
+    ForkJoinPool pool = new ForkJoinPool(numThreads);
+    try {
+      return pool.invoke(root);
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * A random access source of long items
+   */
+  interface LongSource {
+    long length();
+    long get(long index);
+  }
+
+  static final class ArraySource implements LongSource {
+    private final long[] arr_;
+
+    ArraySource(long[] arr) {
+      arr_ = arr;
+    }
+
+    @Override
+    public long length() {
+      return arr_.length;
+    }
+
+    @Override
+    public long get(long index) {
+      return arr_[(int) index];
+    }
+  }
+
+  static final class MemorySource implements LongSource {
+    private final Memory mem_;
+
+    MemorySource(Memory mem) {
+      mem_ = mem;
+    }
+
+    @Override
+    public long length() {
+      return mem_.getCapacity() >>> 3;
+    }
+
+    @Override
+    public long get(long index) {
+      return mem_.getLong(index << 3);
+    }
+  }
+
+  @SuppressWarnings("serial")
+  private static final class BuildTask extends RecursiveTask<CompactSketch> {
+    private final LongSource items_;
+    private final long lo_;
+    private final long hi_;
+    private final long leafItems_;
+    private final int nomEntries_;
+    private final long seed_;
+
+    BuildTask(LongSource items, long lo, long hi, long leafItems, int nomEntries, long seed) {
+      items_ = items;
+      lo_ = lo;
+      hi_ = hi;
+      leafItems_ = leafItems;
+      nomEntries_ = nomEntries;
+      seed_ = seed;
+    }
+
+    @Override
+    protected CompactSketch compute() {
+      if ((hi_ - lo_) <= leafItems_) {
+        UpdateSketch sketch = UpdateSketch.builder().setSeed(seed_).build(nomEntries_);
+        for (long i = lo_; i < hi_; i++) {
+          sketch.update(items_.get(i));
+        }
+        return sketch.downsample(nomEntries_, true, null); //at most k, as the Union results
+      }
+      long mid = (lo_ + hi_) >>> 1;
+      BuildTask left = new BuildTask(items_, lo_, mid, leafItems_, nomEntries_, seed_);
+      BuildTask right = new BuildTask(items_, mid, hi_, leafItems_, nomEntries_, seed_);
+      left.fork();
+      CompactSketch rightResult = right.compute();
+      CompactSketch leftResult = left.join();
+      Union union = SetOperation.builder().setSeed(seed_).buildUnion(nomEntries_);
+      union.update(leftResult);
+      union.update(rightResult);
+      return union.getResult(true, null);
+    }
+  }
+
+}
@@ -7,14 +7,18 @@ package com.yahoo.sketches.theta;
 import static com.yahoo.sketches.Family.idToFamily;
 import static com.yahoo.sketches.Util.LS;
 import static com.yahoo.sketches.Util.zeroPad;
-import static com.yahoo.sketches.hash.MurmurHash3.hash;
 //import static com.yahoo.sketches.Util.TWO_TO_63;
 //import static com.yahoo.sketches.Util.checkIfPowerOf2;
 
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
 
+import com.yahoo.sketches.hash.HashFunction;
 import com.yahoo.sketches.memory.Memory;
+import com.yahoo.sketches.memory.MemoryUtil;
 import com.yahoo.sketches.memory.NativeMemory;
 
 //@formatter:off
@@ -50,6 +54,9 @@ import com.yahoo.sketches.memory.NativeMemory;
  *  3   || ----------Start of Long Array ---------------------------------------------  |
  *  </pre>
  *  
+ * <p>A compact sketch with the HASH32 flag set stores each retained hash as a 32-bit int in place
+ * of the long array. See {@link CompactSketch#toByteArrayHash32()}.</p>
+ *  
  *  @author Lee Rhodes
  */
 final class PreambleUtil {
@@ -82,6 +89,7 @@ final class PreambleUtil {
   static final int EMPTY_FLAG_MASK          = 4;
   static final int COMPACT_FLAG_MASK        = 8;  
   static final int ORDERED_FLAG_MASK        = 16;
+  static final int HASH32_FLAG_MASK         = 32; // compact, ordered, 32-bit encoded hashes
   
   static final boolean NATIVE_ORDER_IS_BIG_ENDIAN  = 
       (ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN);
@@ -89,21 +97,15 @@ final class PreambleUtil {
   static final double MAX_THETA_LONG_AS_DOUBLE = Long.MAX_VALUE;
 
   /**
-   * Computes and checks the 16-bit seed hash from the given long seed.
+   * Computes and checks the 16-bit seed hash from the given long seed 
+   * and the default hash function, {@link HashFunction#MURMUR3}.
    * The seed hash may not be zero in order to maintain compatibility with older serialized
    * versions that did not have this concept.
    * @param seed <a href="{@docRoot}/resources/dictionary.html#seed">See Update Hash Seed</a>
    * @return the seed hash.
    */
   public static short computeSeedHash(long seed) {
-    long[] seedArr = {seed};
-    short seedHash = (short)((hash(seedArr, 0L)[0]) & 0xFFFFL);
-    if (seedHash == 0) {
-      throw new IllegalArgumentException(
-          "The given seed: " + seed + " produced a seedHash of zero. " + 
-          "You must choose a different seed.");
-    }
-    return seedHash; 
+    return HashFunction.MURMUR3.computeSeedHash(seed);
   }
   
   public static final void checkSeedHashes(short seedHashA, short seedHashB) {
@@ -111,6 +113,69 @@ final class PreambleUtil {
       IllegalArgumentException("Incompatible Seed Hashes. "+ seedHashA + ", "+ seedHashB);
   }
   
+  // SERIALIZED IMAGE
+  // A serialized image is a small preamble followed by a data section that is usually a view of
+  // the live cache or hash table. Writing the two parts in sequence avoids building the whole
+  // image in an intermediate array.
+  
+  /**
+   * Writes the serialized image given by its preamble and data section into the given Memory.
+   * @param preMem the preamble of the image
+   * @param dataMem a view of the data section of the image. If null, the data section is zeros.
+   * @param dataBytes the length of the data section in bytes
+   * @param dstMem the destination Memory
+   * @param offsetBytes the offset into the destination Memory
+   */
+  static void writeImage(Memory preMem, Memory dataMem, long dataBytes, Memory dstMem, 
+      long offsetBytes) {
+    long preBytes = preMem.getCapacity();
+    long dstBytes = dstMem.getCapacity() - offsetBytes;
+    if ((offsetBytes < 0) || ((preBytes + dataBytes) > dstBytes)) {
+      throw new IllegalArgumentException(
+          "Insufficient Memory: "+dstBytes+", Need: "+(preBytes + dataBytes));
+    }
+    MemoryUtil.copy(preMem, 0, dstMem, offsetBytes, preBytes);
+    if (dataMem == null) {
+      dstMem.clear(offsetBytes + preBytes, dataBytes);
+    } 
+    else {
+      MemoryUtil.copy(dataMem, 0, dstMem, offsetBytes + preBytes, dataBytes);
+    }
+  }
+  
+  /**
+   * Writes the serialized image given by its preamble and data section into the given ByteBuffer
+   * starting at its current position, which is then advanced past the image.
+   * @param preMem the preamble of the image
+   * @param dataMem a view of the data section of the image. If null, the data section is zeros.
+   * @param dataBytes the length of the data section in bytes
+   * @param dstBuf the destination ByteBuffer
+   */
+  static void writeImage(Memory preMem, Memory dataMem, long dataBytes, ByteBuffer dstBuf) {
+    long preBytes = preMem.getCapacity();
+    int remaining = dstBuf.remaining();
+    if ((preBytes + dataBytes) > remaining) {
+      throw new IllegalArgumentException(
+          "Insufficient ByteBuffer space: "+remaining+", Need: "+(preBytes + dataBytes));
+    }
+    MemoryUtil.copyToBuffer(preMem, 0, dstBuf, preBytes);
+    MemoryUtil.copyToBuffer(dataMem, 0, dstBuf, dataBytes);
+  }
+  
+  /**
+   * Writes the serialized image given by its preamble and data section to the given channel.
+   * @param preMem the preamble of the image
+   * @param dataMem a view of the data section of the image. If null, the data section is zeros.
+   * @param dataBytes the length of the data section in bytes
+   * @param channel the destination channel
+   * @throws IOException if the channel throws an IOException
+   */
+  static void writeImage(Memory preMem, Memory dataMem, long dataBytes, 
+      WritableByteChannel channel) throws IOException {
+    MemoryUtil.writeToChannel(preMem, 0, channel, preMem.getCapacity());
+    MemoryUtil.writeToChannel(dataMem, 0, channel, dataBytes);
+  }
+  
   // STRINGS
   /**
    * Returns a human readable string summary of the internal state of the given byte array. Used
@@ -149,6 +214,7 @@ final class PreambleUtil {
     boolean ordered = (flags & ORDERED_FLAG_MASK) > 0;
     boolean readOnly = (flags & READ_ONLY_FLAG_MASK) > 0;
     boolean empty = (flags & EMPTY_FLAG_MASK) > 0;
+    boolean hash32 = (flags & HASH32_FLAG_MASK) > 0;
     
     short seedHash = mem.getShort(SEED_HASH_SHORT);
     int curCount = 0;
@@ -193,6 +259,7 @@ final class PreambleUtil {
       .append("  EMPTY                       : ").append(empty).append(LS)
       .append("  COMPACT                     : ").append(compact).append(LS)
       .append("  ORDERED                     : ").append(ordered).append(LS)
+      .append("  HASH32                      : ").append(hash32).append(LS)
       .append("Bytes 6-7  : Seed Hash        : ").append(Integer.toHexString(seedHash)).append(LS);
     if (preLongs == 1) {
       sb.append(" --ABSENT, ASSUMED:").append(LS);
@@ -9,6 +9,8 @@ import static com.yahoo.sketches.Util.DEFAULT_UPDATE_SEED;
 import static com.yahoo.sketches.Util.ceilingPowerOf2;
 import static com.yahoo.sketches.Util.checkIfPowerOf2;
 import static com.yahoo.sketches.theta.PreambleUtil.FAMILY_BYTE;
+import static com.yahoo.sketches.theta.PreambleUtil.FLAGS_BYTE;
+import static com.yahoo.sketches.theta.PreambleUtil.HASH32_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.SER_VER_BYTE;
 import static java.lang.Math.max;
 
@@ -143,6 +145,30 @@ public class SetOperation {
     return PreambleUtil.computeSeedHash(seed);
   }
   
+  /**
+   * Set operations compare hashes at full precision, and a hash read from an image with 32-bit 
+   * hashes, see {@link CompactSketch#toByteArrayHash32()}, never matches its full precision value.
+   * Sketches with 32-bit hashes can therefore be combined with each other, but not with full 
+   * precision sketches.
+   * @param hash32 true if the hashes held by the set operation are rounded to 32 bits
+   * @param hash32In true if the incoming hashes are rounded to 32 bits
+   */
+  static final void checkHash32(boolean hash32, boolean hash32In) {
+    if (hash32 != hash32In) {
+      throw new IllegalArgumentException(
+          "Sketches with 32-bit hashes cannot be combined with full precision sketches.");
+    }
+  }
+  
+  /**
+   * Returns true if the given image has the 32-bit hash flag set.
+   * @param mem the given sketch or set operation image
+   * @return true if the given image has the 32-bit hash flag set
+   */
+  static final boolean isHash32(Memory mem) {
+    return mem.isAnyBitsSet(FLAGS_BYTE, (byte) HASH32_FLAG_MASK);
+  }
+  
   static final int computeLgArrLongsFromCount(final int count) {
     int upperCount = (int) Math.ceil(count / RESIZE_THRESHOLD);
     int arrLongs = max(ceilingPowerOf2(upperCount), 1 << MIN_LG_ARR_LONGS);
@@ -12,6 +12,7 @@ import static com.yahoo.sketches.Util.TAB;
 
 import com.yahoo.sketches.Family;
 import com.yahoo.sketches.Util;
+import com.yahoo.sketches.hash.HashFunction;
 import com.yahoo.sketches.memory.Memory;
 
 /**
@@ -22,6 +23,7 @@ import com.yahoo.sketches.memory.Memory;
 public class SetOperationBuilder {
   private int bLgNomLongs;
   private long bSeed;
+  private HashFunction bHashFn;
   private ResizeFactor bRF;
   private float bP;
   private Memory bDstMem;
@@ -31,6 +33,7 @@ public class SetOperationBuilder {
    * <ul>
    * <li>Nominal Entries: {@value com.yahoo.sketches.Util#DEFAULT_NOMINAL_ENTRIES}</li>
    * <li>Seed: {@value com.yahoo.sketches.Util#DEFAULT_UPDATE_SEED}</li>
+   * <li>{@link com.yahoo.sketches.hash.HashFunction#MURMUR3}</li>
    * <li>{@link com.yahoo.sketches.theta.ResizeFactor#X8}</li>
    * <li>Input Sampling Probability: 1.0</li>
    * <li>Memory: null</li>
@@ -39,6 +42,7 @@ public class SetOperationBuilder {
   public SetOperationBuilder() {
     bLgNomLongs = Integer.numberOfTrailingZeros(DEFAULT_NOMINAL_ENTRIES);
     bSeed = DEFAULT_UPDATE_SEED;
+    bHashFn = HashFunction.MURMUR3;
     bP = (float) 1.0;
     bRF = ResizeFactor.X8;
     bDstMem = null;
@@ -83,6 +87,30 @@ public class SetOperationBuilder {
     return bSeed;
   }
   
+  /**
+   * Sets the hash function with which the set operation hashes its input. It is identified by the seed 
+   * hash, so set operations only combine sketches of the same hash function. 
+   * {@link HashFunction#XXHASH64} is considerably faster for short keys than the default, 
+   * {@link HashFunction#MURMUR3}.
+   * @param hashFn the hash function
+   * @return this SetOperationBuilder
+   */
+  public SetOperationBuilder setHashFunction(HashFunction hashFn) {
+    if (hashFn == null) {
+      throw new IllegalArgumentException("hashFn must not be null");
+    }
+    bHashFn = hashFn;
+    return this;
+  }
+  
+  /**
+   * Returns the hash function
+   * @return the hash function
+   */
+  public HashFunction getHashFunction() {
+    return bHashFn;
+  }
+  
   /**
    * Sets the upfront uniform sampling probability, <i>p</i>. Although this functionality is
    * implemented for Unions only, it rarely makes sense to use it. The proper use of upfront
@@ -154,25 +182,25 @@ public class SetOperationBuilder {
     switch (family) {
       case UNION: {
         if (bDstMem == null) {
-          setOp = new HeapUnion(bLgNomLongs, bSeed, bP, bRF);
+          setOp = new HeapUnion(bLgNomLongs, bSeed, bP, bRF, bHashFn);
         } 
         else {
-          setOp = new DirectUnion(bLgNomLongs, bSeed, bP, bRF, bDstMem);
+          setOp = new DirectUnion(bLgNomLongs, bSeed, bP, bRF, bDstMem, bHashFn);
         }
         break;
       }
       case INTERSECTION: {
         if (bDstMem == null) {
-          setOp = new HeapIntersection(bLgNomLongs, bSeed);
+          setOp = new HeapIntersection(bLgNomLongs, bSeed, bHashFn);
         } 
         else {
-          setOp = new DirectIntersection(bLgNomLongs, bSeed, bDstMem);
+          setOp = new DirectIntersection(bLgNomLongs, bSeed, bDstMem, bHashFn);
         }
         break;
       }
       case A_NOT_B: {
         if (bDstMem == null) {
-          setOp = new HeapAnotB(bSeed);
+          setOp = new HeapAnotB(bSeed, bHashFn);
         } 
         else throw new IllegalArgumentException(
             "AnotB is a stateless operation and cannot be persisted.");
@@ -262,6 +290,7 @@ public class SetOperationBuilder {
        append("LgK:").append(TAB).append(bLgNomLongs).append(LS).
        append("K:").append(TAB).append(1 << bLgNomLongs).append(LS).
        append("Seed:").append(TAB).append(bSeed).append(LS).
+       append("HashFunction:").append(TAB).append(bHashFn).append(LS).
        append("p:").append(TAB).append(bP).append(LS).
        append("ResizeFactor:").append(TAB).append(bRF).append(LS).
        append("DstMemory:").append(TAB).append(bDstMem != null).append(LS);
@@ -12,9 +12,16 @@ import static com.yahoo.sketches.Util.zeroPad;
 import static com.yahoo.sketches.theta.PreambleUtil.COMPACT_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.FAMILY_BYTE;
 import static com.yahoo.sketches.theta.PreambleUtil.FLAGS_BYTE;
+import static com.yahoo.sketches.theta.PreambleUtil.HASH32_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.MAX_THETA_LONG_AS_DOUBLE;
 import static com.yahoo.sketches.theta.PreambleUtil.ORDERED_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.SER_VER_BYTE;
+import static com.yahoo.sketches.theta.PreambleUtil.writeImage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
 
 import com.yahoo.sketches.Family;
 import com.yahoo.sketches.memory.Memory;
@@ -104,6 +111,83 @@ public abstract class Sketch {
    */
   public abstract byte[] toByteArray();
   
+  /**
+   * Writes the same serialized form as {@link #toByteArray()} into the given Memory starting at 
+   * the given offset. The data section is copied directly from this sketch without building the 
+   * full image in an intermediate array.
+   * @param dstMem the destination Memory
+   * @param offsetBytes the offset in bytes into the destination Memory
+   */
+  public void writeTo(Memory dstMem, long offsetBytes) {
+    Memory preMem = getImagePreamble();
+    Memory dataMem = getImageData();
+    writeImage(preMem, dataMem, imageDataBytes(dataMem), dstMem, offsetBytes);
+  }
+  
+  /**
+   * Writes the same serialized form as {@link #toByteArray()} into the given ByteBuffer starting 
+   * at its current position, which is then advanced past the written bytes. 
+   * The data section is copied directly from this sketch without building the full image in an 
+   * intermediate array.
+   * @param dstBuf the destination ByteBuffer
+   */
+  public void writeTo(ByteBuffer dstBuf) {
+    Memory preMem = getImagePreamble();
+    Memory dataMem = getImageData();
+    writeImage(preMem, dataMem, imageDataBytes(dataMem), dstBuf);
+  }
+  
+  /**
+   * Writes the same serialized form as {@link #toByteArray()} to the given channel. 
+   * The data section is streamed through a small, fixed size buffer so that the full image is never
+   * held in an intermediate array.
+   * @param channel the destination channel
+   * @throws IOException if the channel throws an IOException
+   */
+  public void writeTo(WritableByteChannel channel) throws IOException {
+    Memory preMem = getImagePreamble();
+    Memory dataMem = getImageData();
+    writeImage(preMem, dataMem, imageDataBytes(dataMem), channel);
+  }
+  
+  /**
+   * Returns a compact sketch of this sketch reduced to the given, smaller number of nominal entries.
+   * If this sketch retains more than <i>nomEntries</i> hashes, theta is lowered to the 
+   * (<i>nomEntries</i>+1)th smallest hash and all hashes at or above it are dropped. 
+   * Otherwise the result is the same as a compact copy of this sketch.
+   * 
+   * <p>This is equivalent to, but much faster than, a Union sized with <i>nomEntries</i> that 
+   * is updated with only this sketch.</p>
+   * 
+   * @param nomEntries <a href="{@docRoot}/resources/dictionary.html#nomEntries">Nominal Entres</a>
+   * of the result. This must be a power of 2 and at least 16.
+   * @param dstOrdered 
+   * <a href="{@docRoot}/resources/dictionary.html#dstOrdered">See Destination Ordered</a>
+   * @param dstMem 
+   * <a href="{@docRoot}/resources/dictionary.html#dstMem">See Destination Memory</a>.
+   * @return the downsampled compact sketch
+   */
+  public CompactSketch downsample(int nomEntries, boolean dstOrdered, Memory dstMem) {
+    checkDownsampleNomEntries(nomEntries);
+    long thetaLong = getThetaLong();
+    long[] cache = getCache();
+    long[] compactCache;
+    if (isOrdered()) { //only the first k+1 are needed
+      compactCache = Arrays.copyOf(cache, Math.min(getRetainedEntries(true), nomEntries + 1));
+    } 
+    else {
+      int curCount = HashOperations.count(cache, thetaLong);
+      compactCache = CompactSketch.compactCache(cache, curCount, thetaLong, false);
+    }
+    if (isHash32()) {
+      CompactSketch result = CompactSketch.downsample(compactCache, isOrdered(), isEmpty(), 
+          getSeedHash(), thetaLong, nomEntries, true, null);
+      return CompactSketch.toHash32Sketch(result, dstMem);
+    }
+    return CompactSketch.downsample(compactCache, isOrdered(), isEmpty(), getSeedHash(), 
+        thetaLong, nomEntries, dstOrdered, dstMem);
+  }
+  
   /**
    * Returns a human readable summary of the sketch.  This method is equivalent to the parameterized
    * call:<br>
@@ -262,7 +346,8 @@ public abstract class Sketch {
   /**
    * Wrap takes the sketch image in Memory and refers to it directly. There is no data copying onto
    * the java heap.  Only "Direct" sketches that have been explicity stored as direct objects can
-   * be wrapped.
+   * be wrapped. A compact image with 32-bit hashes, see {@link CompactSketch#toByteArrayHash32()},
+   * is decoded onto the java heap instead.
    * @param srcMem an image of a Sketch where the image seed hash matches the given seed hash.
    * <a href="{@docRoot}/resources/dictionary.html#mem">See Memory</a>
    * @param seed <a href="{@docRoot}/resources/dictionary.html#seed">See Update Hash Seed</a>.
@@ -381,6 +466,15 @@ public abstract class Sketch {
    */
   abstract short getSeedHash();
   
+  /**
+   * Returns true if the hashes of this sketch were read from an image with 32-bit hashes, 
+   * see {@link CompactSketch#toByteArrayHash32()}.
+   * @return true if the hashes of this sketch are rounded to 32 bits
+   */
+  boolean isHash32() {
+    return false;
+  }
+  
   /**
    * Gets the value of theta as a long
    * @return the value of theta as a long
@@ -399,8 +493,36 @@ public abstract class Sketch {
    * @return the backing Memory or null.
    */
   abstract Memory getMemory();
+  
+  //SERIALIZED IMAGE
+  
+  /**
+   * Gets the preamble of the serialized form of this sketch as a small, independent Memory.
+   * This must be called before {@link #getImageData()} as it may bring the sketch up to date.
+   * @return the preamble of the serialized form
+   */
+  abstract Memory getImagePreamble();
+  
+  /**
+   * Gets a view of the data section of the serialized form of this sketch, which directly follows
+   * the preamble. The capacity of the returned Memory is the length of the data section.
+   * @return a view of the data section or null if there is no data section.
+   */
+  abstract Memory getImageData();
+  
+  static final long imageDataBytes(Memory dataMem) {
+    return (dataMem == null)? 0 : dataMem.getCapacity();
+  }
 
   
+  static final void checkDownsampleNomEntries(int nomEntries) {
+    checkIfPowerOf2(nomEntries, "nomEntries");
+    if (nomEntries < (1 << HeapQuickSelectSketch.HQS_MIN_LG_NOM_LONGS)) {
+      throw new IllegalArgumentException("nomEntries must be at least " 
+          + (1 << HeapQuickSelectSketch.HQS_MIN_LG_NOM_LONGS) + ": " + nomEntries);
+    }
+  }
+  
   static final boolean estMode(long thetaLong, boolean empty) {
     return (thetaLong < Long.MAX_VALUE) && !empty;
   }
@@ -452,6 +574,9 @@ public abstract class Sketch {
         if(!compact) {
           throw new IllegalArgumentException("Corrupted " + family + " image: must be compact");
         }
+        if (srcMem.isAnyBitsSet(FLAGS_BYTE, (byte) HASH32_FLAG_MASK)) {
+          return new HeapCompactOrderedSketch(srcMem); //32-bit hashes must be decoded
+        }
         return ordered ? new DirectCompactOrderedSketch(srcMem) : new DirectCompactSketch(srcMem);
       }
       default: {
@@ -0,0 +1,549 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.theta;
+
+import static com.yahoo.sketches.QuickSelect.selectFloydRivestExcludingZeros;
+import static com.yahoo.sketches.Util.DEFAULT_UPDATE_SEED;
+import static com.yahoo.sketches.Util.checkIfPowerOf2;
+import static com.yahoo.sketches.theta.DirectQuickSelectSketch.DQS_MIN_LG_NOM_LONGS;
+import static com.yahoo.sketches.theta.DirectQuickSelectSketch.DQS_REBUILD_THRESHOLD;
+import static com.yahoo.sketches.theta.DirectQuickSelectSketch.DQS_RESIZE_THRESHOLD;
+import static com.yahoo.sketches.theta.PreambleUtil.EMPTY_FLAG_MASK;
+import static com.yahoo.sketches.theta.PreambleUtil.FAMILY_BYTE;
+import static com.yahoo.sketches.theta.PreambleUtil.FLAGS_BYTE;
+import static com.yahoo.sketches.theta.PreambleUtil.LG_ARR_LONGS_BYTE;
+import static com.yahoo.sketches.theta.PreambleUtil.LG_NOM_LONGS_BYTE;
+import static com.yahoo.sketches.theta.PreambleUtil.PREAMBLE_LONGS_BYTE;
+import static com.yahoo.sketches.theta.PreambleUtil.P_FLOAT;
+import static com.yahoo.sketches.theta.PreambleUtil.RETAINED_ENTRIES_INT;
+import static com.yahoo.sketches.theta.PreambleUtil.SEED_HASH_SHORT;
+import static com.yahoo.sketches.theta.PreambleUtil.SER_VER;
+import static com.yahoo.sketches.theta.PreambleUtil.SER_VER_BYTE;
+import static com.yahoo.sketches.theta.PreambleUtil.THETA_LONG;
+import static com.yahoo.sketches.theta.PreambleUtil.computeSeedHash;
+import static com.yahoo.sketches.theta.UpdateReturnState.InsertedCountIncremented;
+import static com.yahoo.sketches.theta.UpdateReturnState.RejectedDuplicate;
+import static com.yahoo.sketches.theta.UpdateReturnState.RejectedNullOrEmpty;
+import static com.yahoo.sketches.theta.UpdateReturnState.RejectedOverTheta;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Arrays;
+
+import com.yahoo.sketches.Family;
+import com.yahoo.sketches.hash.HashFunction;
+import com.yahoo.sketches.memory.AllocMemory;
+import com.yahoo.sketches.memory.Memory;
+import com.yahoo.sketches.memory.NativeMemory;
+
+/**
+ * Holds a very large number of small QuickSelect theta sketches, one per non-negative int or long
+ * key, in large off-heap slabs. It is intended for per-key distinct counting where the number of
+ * keys is so large that one sketch object plus one Memory object per key would cost more than the
+ * sketch data itself.
+ *
+ * <p>Each key owns at most one block in one of the slabs. A block has the same layout as a
+ * QuickSelect sketch image: the 3 preamble longs followed by a hash table of
+ * 2<sup>lgArrLongs</sup> longs. Blocks start with a hash table of 8 entries and are moved by the
+ * arena into a block of twice the size whenever the hash table needs to grow, up to
+ * 2<sup>lgNomLongs + 1</sup> entries, at which point the sketch rebuilds in place like any other
+ * QuickSelect sketch. Released blocks are kept on a free list per size and are reused.</p>
+ *
+ * <p>The per-key state is just one long in a directory array that locates the block of the key.
+ * The update, estimate and bound methods create no per-key objects, the compact method creates
+ * only the resulting CompactSketch. Keys are expected to be dense, for example indices assigned by
+ * a dictionary, since the directory is sized by the largest key used. For the same reason a long
+ * key must be less than 2<sup>31</sup>.</p>
+ *
+ * <p>The slabs are allocated off-heap and must be released with {@link #freeMemory()}.
+ * This class is not thread safe.</p>
+ */
+public class SketchArena {
+  static final int ARENA_MIN_LG_ARR_LONGS = 3;
+  static final int DEFAULT_SLAB_BYTES = 1 << 22;
+  private static final int PREAMBLE_BYTES = Family.QUICKSELECT.getMinPreLongs() << 3;
+  //the first block of slab zero starts here, so an address of zero means "no block".
+  private static final int SLAB_START_OFFSET = 8;
+
+  private final int lgNomLongs_;
+  private final long seed_;
+  private final short seedHash_;
+  private final int slabBytes_;
+
+  private long[] directory_ = new long[0]; //per key: (slab index << 32) | offset, or zero
+  private int numKeys_ = 0;
+  private Memory[] slabs_ = new Memory[0];
+  private int numSlabs_ = 0;
+  private int slabUsedBytes_;
+  private final long[] freeHeads_; //per lgArrLongs: address of the first free block, or zero
+  private long usedBytes_ = 0;
+
+  /**
+   * Creates a new arena of sketches with the given nominal entries and the
+   * <a href="{@docRoot}/resources/dictionary.html#defaultUpdateSeed">Default Update Seed</a>.
+   * @param nomEntries <a href="{@docRoot}/resources/dictionary.html#nomEntries">Nominal Entries</a>
+   * of every sketch of this arena. It must be a power of 2 and at least 16.
+   */
+  public SketchArena(int nomEntries) {
+    this(nomEntries, DEFAULT_UPDATE_SEED, DEFAULT_SLAB_BYTES);
+  }
+
+  /**
+   * Creates a new arena of sketches.
+   * @param nomEntries <a href="{@docRoot}/resources/dictionary.html#nomEntries">Nominal Entries</a>
+   * of every sketch of this arena. It must be a power of 2 and at least 16.
+   * @param seed <a href="{@docRoot}/resources/dictionary.html#seed">See Update Hash Seed</a>.
+   * @param slabBytes the size in bytes of each off-heap slab. It must be large enough to hold the
+   * largest block, which is 24 + 16 * nomEntries bytes.
+   */
+  public SketchArena(int nomEntries, long seed, int slabBytes) {
+    checkIfPowerOf2(nomEntries, "nomEntries");
+    lgNomLongs_ = Integer.numberOfTrailingZeros(nomEntries);
+    if (lgNomLongs_ < DQS_MIN_LG_NOM_LONGS) {
+      throw new IllegalArgumentException(
+          "This sketch requires a minimum nominal entries of " + (1 << DQS_MIN_LG_NOM_LONGS));
+    }
+    int maxBlockBytes = blockBytes(lgNomLongs_ + 1);
+    if (slabBytes < (SLAB_START_OFFSET + maxBlockBytes)) {
+      throw new IllegalArgumentException(
+          "slabBytes must be at least " + (SLAB_START_OFFSET + maxBlockBytes) + ": " + slabBytes);
+    }
+    seed_ = seed;
+    seedHash_ = computeSeedHash(seed);
+    slabBytes_ = slabBytes & -8;
+    slabUsedBytes_ = slabBytes_;
+    freeHeads_ = new long[lgNomLongs_ + 2];
+  }
+
+  /**
+   * Present the sketch of the given key with a long.
+   * @param key the non-negative key
+   * @param datum The given long datum.
+   * @return <a href="{@docRoot}/resources/dictionary.html#updateReturnState">See Update Return State</a>
+   */
+  public UpdateReturnState update(int key, long datum) {
+    return hashUpdate(key, HashFunction.MURMUR3.hash(datum, seed_) >>> 1);
+  }
+
+  /**
+   * Present the sketch of the given long key with a long.
+   * @param key the non-negative key, less than 2<sup>31</sup>
+   * @param datum The given long datum.
+   * @return <a href="{@docRoot}/resources/dictionary.html#updateReturnState">See Update Return State</a>
+   */
+  public UpdateReturnState update(long key, long datum) {
+    return update(checkKey(key), datum);
+  }
+
+  /**
+   * Present the sketch of the given key with the given String.
+   * The string is converted to a byte array using UTF8 encoding.
+   * If the string is null or empty no update attempt is made and the method returns.
+   * @param key the non-negative key
+   * @param datum The given String.
+   * @return <a href="{@docRoot}/resources/dictionary.html#updateReturnState">See Update Return State</a>
+   */
+  public UpdateReturnState update(int key, String datum) {
+    if ((datum == null) || datum.isEmpty()) {
+      return RejectedNullOrEmpty;
+    }
+    return hashUpdate(key, HashFunction.MURMUR3.hash(datum.getBytes(UTF_8), seed_) >>> 1);
+  }
+
+  /**
+   * Present the sketch of the given long key with the given String.
+   * See {@link #update(int, String)}.
+   * @param key the non-negative key, less than 2<sup>31</sup>
+   * @param datum The given String.
+   * @return <a href="{@docRoot}/resources/dictionary.html#updateReturnState">See Update Return State</a>
+   */
+  public UpdateReturnState update(long key, String datum) {
+    return update(checkKey(key), datum);
+  }
+
+  /**
+   * Present the sketch of the given key with the given byte array.
+   * If the byte array is null or empty no update attempt is made and the method returns.
+   * @param key the non-negative key
+   * @param data The given byte array.
+   * @return <a href="{@docRoot}/resources/dictionary.html#updateReturnState">See Update Return State</a>
+   */
+  public UpdateReturnState update(int key, byte[] data) {
+    if ((data == null) || (data.length == 0)) {
+      return RejectedNullOrEmpty;
+    }
+    return hashUpdate(key, HashFunction.MURMUR3.hash(data, seed_) >>> 1);
+  }
+
+  /**
+   * Present the sketch of the given long key with the given byte array.
+   * See {@link #update(int, byte[])}.
+   * @param key the non-negative key, less than 2<sup>31</sup>
+   * @param data The given byte array.
+   * @return <a href="{@docRoot}/resources/dictionary.html#updateReturnState">See Update Return State</a>
+   */
+  public UpdateReturnState update(long key, byte[] data) {
+    return update(checkKey(key), data);
+  }
+
+  /**
+   * Gets the unique count estimate of the sketch of the given key.
+   * @param key the non-negative key
+   * @return the sketch's best estimate of the cardinality of the input stream.
+   */
+  public double getEstimate(int key) {
+    long addr = address(key);
+    if (addr == 0) return 0.0;
+    Memory mem = slabs_[slabIndex(addr)];
+    int off = offset(addr);
+    return Sketch.estimate(mem.getLong(off + THETA_LONG), mem.getInt(off + RETAINED_ENTRIES_INT),
+        isEmpty(mem, off));
+  }
+  /**
+   * Gets the unique count estimate of the sketch of the given long key.
+   * @param key the non-negative key, less than 2<sup>31</sup>
+   * @return the sketch's best estimate of the cardinality of the input stream.
+   */
+  public double getEstimate(long key) {
+    return getEstimate(checkKey(key));
+  }
+
+
+  /**
+   * Gets the approximate lower error bound of the sketch of the given key.
+   * @param key the non-negative key
+   * @param numStdDev <a href="{@docRoot}/resources/dictionary.html#numStdDev">See Number of Standard Deviations</a>
+   * @return the lower bound.
+   */
+  public double getLowerBound(int key, int numStdDev) {
+    long addr = address(key);
+    if (addr == 0) return 0.0;
+    Memory mem = slabs_[slabIndex(addr)];
+    int off = offset(addr);
+    return Sketch.lowerBound(numStdDev, mem.getLong(off + THETA_LONG),
+        mem.getInt(off + RETAINED_ENTRIES_INT), isEmpty(mem, off));
+  }
+  /**
+   * Gets the approximate lower error bound of the sketch of the given long key.
+   * @param key the non-negative key, less than 2<sup>31</sup>
+   * @param numStdDev <a href="{@docRoot}/resources/dictionary.html#numStdDev">See Number of Standard Deviations</a>
+   * @return the lower bound.
+   */
+  public double getLowerBound(long key, int numStdDev) {
+    return getLowerBound(checkKey(key), numStdDev);
+  }
+
+
+  /**
+   * Gets the approximate upper error bound of the sketch of the given key.
+   * @param key the non-negative key
+   * @param numStdDev <a href="{@docRoot}/resources/dictionary.html#numStdDev">See Number of Standard Deviations</a>
+   * @return the upper bound.
+   */
+  public double getUpperBound(int key, int numStdDev) {
+    long addr = address(key);
+    if (addr == 0) return 0.0;
+    Memory mem = slabs_[slabIndex(addr)];
+    int off = offset(addr);
+    return Sketch.upperBound(numStdDev, mem.getLong(off + THETA_LONG),
+        mem.getInt(off + RETAINED_ENTRIES_INT), isEmpty(mem, off));
+  }
+  /**
+   * Gets the approximate upper error bound of the sketch of the given long key.
+   * @param key the non-negative key, less than 2<sup>31</sup>
+   * @param numStdDev <a href="{@docRoot}/resources/dictionary.html#numStdDev">See Number of Standard Deviations</a>
+   * @return the upper bound.
+   */
+  public double getUpperBound(long key, int numStdDev) {
+    return getUpperBound(checkKey(key), numStdDev);
+  }
+
+
+  /**
+   * Returns the number of valid entries retained by the sketch of the given key.
+   * @param key the non-negative key
+   * @return the number of valid retained entries
+   */
+  public int getRetainedEntries(int key) {
+    long addr = address(key);
+    return (addr == 0) ? 0 : slabs_[slabIndex(addr)].getInt(offset(addr) + RETAINED_ENTRIES_INT);
+  }
+  /**
+   * Returns the number of valid entries retained by the sketch of the given long key.
+   * @param key the non-negative key, less than 2<sup>31</sup>
+   * @return the number of valid retained entries
+   */
+  public int getRetainedEntries(long key) {
+    return getRetainedEntries(checkKey(key));
+  }
+
+
+  /**
+   * Converts the sketch of the given key to a CompactSketch. A key that has never been updated
+   * results in an empty sketch.
+   * @param key the non-negative key
+   * @param dstOrdered <a href="{@docRoot}/resources/dictionary.html#dstOrdered">See Destination Ordered</a>
+   * @param dstMem <a href="{@docRoot}/resources/dictionary.html#dstMem">See Destination Memory</a>.
+   * @return this sketch as a CompactSketch in the chosen form.
+   */
+  public CompactSketch compact(int key, boolean dstOrdered, Memory dstMem) {
+    long addr = address(key);
+    if (addr == 0) {
+      return CompactSketch.createCompactSketch(new long[0], true, seedHash_, 0, Long.MAX_VALUE,
+          dstOrdered, dstMem);
+    }
+    Memory mem = slabs_[slabIndex(addr)];
+    int off = offset(addr);
+    int lgArrLongs = mem.getByte(off + LG_ARR_LONGS_BYTE);
+    int curCount = mem.getInt(off + RETAINED_ENTRIES_INT);
+    long thetaLong = mem.getLong(off + THETA_LONG);
+    long[] cache = new long[1 << lgArrLongs];
+    mem.getLongArray(off + PREAMBLE_BYTES, cache, 0, cache.length);
+    long[] cacheOut = CompactSketch.compactCache(cache, curCount, thetaLong, dstOrdered);
+    return CompactSketch.createCompactSketch(cacheOut, isEmpty(mem, off), seedHash_, curCount,
+        thetaLong, dstOrdered, dstMem);
+  }
+  /**
+   * Converts the sketch of the given long key to a CompactSketch.
+   * See {@link #compact(int, boolean, Memory)}.
+   * @param key the non-negative key, less than 2<sup>31</sup>
+   * @param dstOrdered <a href="{@docRoot}/resources/dictionary.html#dstOrdered">See Destination Ordered</a>
+   * @param dstMem <a href="{@docRoot}/resources/dictionary.html#dstMem">See Destination Memory</a>.
+   * @return this sketch as a CompactSketch in the chosen form.
+   */
+  public CompactSketch compact(long key, boolean dstOrdered, Memory dstMem) {
+    return compact(checkKey(key), dstOrdered, dstMem);
+  }
+
+
+  /**
+   * Resets the sketch of the given key to the empty state and releases its block to the arena.
+   * @param key the non-negative key
+   */
+  public void reset(int key) {
+    long addr = address(key);
+    if (addr == 0) return;
+    releaseBlock(addr);
+    directory_[key] = 0;
+  }
+  /**
+   * Resets the sketch of the given long key to the empty state and releases its block to the
+   * arena.
+   * @param key the non-negative key, less than 2<sup>31</sup>
+   */
+  public void reset(long key) {
+    reset(checkKey(key));
+  }
+
+
+  /**
+   * Returns one more than the largest key that has been updated
+   * @return one more than the largest key that has been updated
+   */
+  public int getNumKeys() {
+    return numKeys_;
+  }
+
+  /**
+   * Returns the total number of off-heap bytes allocated for the slabs of this arena
+   * @return the total number of off-heap bytes allocated for the slabs of this arena
+   */
+  public long getAllocatedBytes() {
+    return (long) numSlabs_ * slabBytes_;
+  }
+
+  /**
+   * Returns the number of off-heap bytes held by the blocks of all keys
+   * @return the number of off-heap bytes held by the blocks of all keys
+   */
+  public long getUsedBytes() {
+    return usedBytes_;
+  }
+
+  /**
+   * Releases all off-heap slabs. The arena is empty afterwards and may be used again.
+   */
+  public void freeMemory() {
+    for (int i = 0; i < numSlabs_; i++) {
+      ((NativeMemory) slabs_[i]).freeMemory();
+      slabs_[i] = null;
+    }
+    numSlabs_ = 0;
+    slabUsedBytes_ = slabBytes_;
+    directory_ = new long[0];
+    numKeys_ = 0;
+    Arrays.fill(freeHeads_, 0L);
+    usedBytes_ = 0;
+  }
+
+  //restricted methods
+
+  UpdateReturnState hashUpdate(int key, long hash) {
+    HashOperations.checkHashCorruption(hash);
+    if (key < 0) {
+      throw new IllegalArgumentException("key must not be negative: " + key);
+    }
+    if (key >= numKeys_) {
+      growDirectory(key);
+    }
+    long addr = directory_[key];
+    if (addr == 0) {
+      addr = newSketch(ARENA_MIN_LG_ARR_LONGS);
+      directory_[key] = addr;
+    }
+    Memory mem = slabs_[slabIndex(addr)];
+    int off = offset(addr);
+    mem.clearBits(off + FLAGS_BYTE, (byte) EMPTY_FLAG_MASK);
+
+    //The over-theta test
+    if (HashOperations.continueCondition(mem.getLong(off + THETA_LONG), hash)) {
+      return RejectedOverTheta;
+    }
+    int lgArrLongs = mem.getByte(off + LG_ARR_LONGS_BYTE);
+    if (!HashOperations.hashInsert(mem, lgArrLongs, hash, off + PREAMBLE_BYTES)) {
+      return RejectedDuplicate;
+    }
+    int curCount = mem.getInt(off + RETAINED_ENTRIES_INT) + 1;
+    mem.putInt(off + RETAINED_ENTRIES_INT, curCount);
+    if (curCount > hashTableThreshold(lgArrLongs)) {
+      if (lgArrLongs > lgNomLongs_) {
+        quickSelectAndRebuild(mem, off, lgArrLongs, curCount);
+      } else {
+        directory_[key] = moveAndResize(addr, lgArrLongs + 1);
+      }
+    }
+    return InsertedCountIncremented;
+  }
+
+  //private
+
+  private static int checkKey(long key) {
+    if ((key < 0) || (key > Integer.MAX_VALUE)) {
+      throw new IllegalArgumentException("key must be non-negative and less than 2^31: " + key);
+    }
+    return (int) key;
+  }
+
+  private long address(int key) {
+    if (key < 0) {
+      throw new IllegalArgumentException("key must not be negative: " + key);
+    }
+    return (key < numKeys_) ? directory_[key] : 0L;
+  }
+
+  private void growDirectory(int key) {
+    if (key >= directory_.length) {
+      int newLen = (int) Math.min(Integer.MAX_VALUE, Math.max(16L, 2L * directory_.length));
+      directory_ = Arrays.copyOf(directory_, Math.max(newLen, key + 1));
+    }
+    numKeys_ = key + 1;
+  }
+
+  private int hashTableThreshold(int lgArrLongs) {
+    double fraction = (lgArrLongs <= lgNomLongs_) ? DQS_RESIZE_THRESHOLD : DQS_REBUILD_THRESHOLD;
+    return (int) Math.floor(fraction * (1 << lgArrLongs));
+  }
+
+  //writes a new empty QuickSelect image into a new block
+  private long newSketch(int lgArrLongs) {
+    long addr = allocateBlock(lgArrLongs);
+    Memory mem = slabs_[slabIndex(addr)];
+    int off = offset(addr);
+    mem.putByte(off + PREAMBLE_LONGS_BYTE, (byte) (PREAMBLE_BYTES >>> 3));
+    mem.putByte(off + SER_VER_BYTE, (byte) SER_VER);
+    mem.putByte(off + FAMILY_BYTE, (byte) Family.QUICKSELECT.getID());
+    mem.putByte(off + LG_NOM_LONGS_BYTE, (byte) lgNomLongs_);
+    mem.putByte(off + LG_ARR_LONGS_BYTE, (byte) lgArrLongs);
+    mem.putByte(off + FLAGS_BYTE, (byte) EMPTY_FLAG_MASK);
+    mem.putShort(off + SEED_HASH_SHORT, seedHash_);
+    mem.putInt(off + RETAINED_ENTRIES_INT, 0);
+    mem.putFloat(off + P_FLOAT, (float) 1.0);
+    mem.putLong(off + THETA_LONG, Long.MAX_VALUE);
+    mem.clear(off + PREAMBLE_BYTES, 8 << lgArrLongs);
+    return addr;
+  }
+
+  //moves the sketch into a new block with a larger hash table and releases the old block
+  private long moveAndResize(long srcAddr, int dstLgArrLongs) {
+    Memory srcMem = slabs_[slabIndex(srcAddr)];
+    int srcOff = offset(srcAddr);
+    int srcLongs = 1 << srcMem.getByte(srcOff + LG_ARR_LONGS_BYTE);
+
+    long dstAddr = allocateBlock(dstLgArrLongs);
+    Memory dstMem = slabs_[slabIndex(dstAddr)];
+    int dstOff = offset(dstAddr);
+    for (int i = 0; i < PREAMBLE_BYTES; i += 8) {
+      dstMem.putLong(dstOff + i, srcMem.getLong(srcOff + i));
+    }
+    dstMem.putByte(dstOff + LG_ARR_LONGS_BYTE, (byte) dstLgArrLongs);
+    dstMem.clear(dstOff + PREAMBLE_BYTES, 8 << dstLgArrLongs);
+    for (int i = 0; i < srcLongs; i++) {
+      long hash = srcMem.getLong(srcOff + PREAMBLE_BYTES + (i << 3));
+      if (hash != 0) {
+        HashOperations.hashInsert(dstMem, dstLgArrLongs, hash, dstOff + PREAMBLE_BYTES);
+      }
+    }
+    releaseBlock(srcAddr);
+    return dstAddr;
+  }
+
+  //the hash table stays the same size. Changes theta and thus count
+  private void quickSelectAndRebuild(Memory mem, int off, int lgArrLongs, int curCount) {
+    int arrLongs = 1 << lgArrLongs;
+    int pivot = (1 << lgNomLongs_) + 1;
+    long thetaLong = selectFloydRivestExcludingZeros(mem, off + PREAMBLE_BYTES, arrLongs, curCount,
+        pivot);
+    int count = HashOperations.rebuildInPlace(mem, off + PREAMBLE_BYTES, arrLongs, lgArrLongs,
+        thetaLong);
+    mem.putLong(off + THETA_LONG, thetaLong);
+    mem.putInt(off + RETAINED_ENTRIES_INT, count);
+  }
+
+  private long allocateBlock(int lgArrLongs) {
+    int bytes = blockBytes(lgArrLongs);
+    usedBytes_ += bytes;
+    long addr = freeHeads_[lgArrLongs];
+    if (addr != 0) {
+      freeHeads_[lgArrLongs] = slabs_[slabIndex(addr)].getLong(offset(addr));
+      return addr;
+    }
+    if ((slabUsedBytes_ + bytes) > slabBytes_) {
+      if (numSlabs_ == slabs_.length) {
+        slabs_ = Arrays.copyOf(slabs_, Math.max(4, 2 * numSlabs_));
+      }
+      slabs_[numSlabs_++] = new AllocMemory(slabBytes_);
+      slabUsedBytes_ = (numSlabs_ == 1) ? SLAB_START_OFFSET : 0;
+    }
+    addr = ((long) (numSlabs_ - 1) << 32) | slabUsedBytes_;
+    slabUsedBytes_ += bytes;
+    return addr;
+  }
+
+  //pushes the block onto the free list of its size, the first long links to the next free block
+  private void releaseBlock(long addr) {
+    Memory mem = slabs_[slabIndex(addr)];
+    int off = offset(addr);
+    int lgArrLongs = mem.getByte(off + LG_ARR_LONGS_BYTE);
+    mem.putLong(off, freeHeads_[lgArrLongs]);
+    freeHeads_[lgArrLongs] = addr;
+    usedBytes_ -= blockBytes(lgArrLongs);
+  }
+
+  private static boolean isEmpty(Memory mem, int off) {
+    return (mem.getByte(off + FLAGS_BYTE) & EMPTY_FLAG_MASK) > 0;
+  }
+
+  private static int blockBytes(int lgArrLongs) {
+    return PREAMBLE_BYTES + (8 << lgArrLongs);
+  }
+
+  private static int slabIndex(long addr) {
+    return (int) (addr >>> 32);
+  }
+
+  private static int offset(long addr) {
+    return (int) addr;
+  }
+
+}
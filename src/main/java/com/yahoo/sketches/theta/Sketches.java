@@ -4,6 +4,7 @@
  */
 package com.yahoo.sketches.theta;
 
+import static com.yahoo.sketches.Util.DEFAULT_UPDATE_SEED;
 import static com.yahoo.sketches.theta.PreambleUtil.*;
 
 import com.yahoo.sketches.Family;
@@ -134,6 +135,67 @@ public final class Sketches {
     return SetOperation.wrap(srcMem, seed);
   }
   
+  //Bulk build methods
+  
+  /**
+   * Builds an ordered compact sketch of the given array of longs, splitting the work across a 
+   * fork/join pool of the given number of threads. Each thread hashes its share of the array into
+   * a private sketch and the partial sketches are merged with a Union. The result has the same 
+   * error guarantees as a sketch built sequentially with the same nominal entries.
+   * This method assumes the
+   * <a href="{@docRoot}/resources/dictionary.html#defaultUpdateSeed">Default Update Seed</a>.
+   * @param data the items to be sketched
+   * @param nomEntries <a href="{@docRoot}/resources/dictionary.html#nomEntries">Nominal Entres</a>
+   * @param numThreads the number of threads. If one, the sketch is built on the calling thread.
+   * @return an ordered compact sketch of all the given items
+   */
+  public static CompactSketch buildParallel(long[] data, int nomEntries, int numThreads) {
+    return buildParallel(data, nomEntries, DEFAULT_UPDATE_SEED, numThreads);
+  }
+  
+  /**
+   * Ref: {@link #buildParallel(long[], int, int) buildParallel(long[], int, int)}
+   * @param data the items to be sketched
+   * @param nomEntries <a href="{@docRoot}/resources/dictionary.html#nomEntries">Nominal Entres</a>
+   * @param seed <a href="{@docRoot}/resources/dictionary.html#seed">See Update Hash Seed</a>.
+   * @param numThreads the number of threads. If one, the sketch is built on the calling thread.
+   * @return an ordered compact sketch of all the given items
+   */
+  public static CompactSketch buildParallel(long[] data, int nomEntries, long seed, 
+      int numThreads) {
+    return ParallelSketchBuilder.build(
+        new ParallelSketchBuilder.ArraySource(data), nomEntries, seed, numThreads);
+  }
+  
+  /**
+   * Builds an ordered compact sketch of the longs in the given Memory, for example an off-heap 
+   * column, in the same way as {@link #buildParallel(long[], int, int)}. 
+   * The items are the consecutive 8-byte longs from offset zero to the capacity of the Memory.
+   * This method assumes the
+   * <a href="{@docRoot}/resources/dictionary.html#defaultUpdateSeed">Default Update Seed</a>.
+   * @param data <a href="{@docRoot}/resources/dictionary.html#mem">See Memory</a>
+   * @param nomEntries <a href="{@docRoot}/resources/dictionary.html#nomEntries">Nominal Entres</a>
+   * @param numThreads the number of threads. If one, the sketch is built on the calling thread.
+   * @return an ordered compact sketch of all the given items
+   */
+  public static CompactSketch buildParallel(Memory data, int nomEntries, int numThreads) {
+    return buildParallel(data, nomEntries, DEFAULT_UPDATE_SEED, numThreads);
+  }
+  
+  /**
+   * Ref: {@link #buildParallel(Memory, int, int) buildParallel(Memory, int, int)}
+   * @param data <a href="{@docRoot}/resources/dictionary.html#mem">See Memory</a>
+   * @param nomEntries <a href="{@docRoot}/resources/dictionary.html#nomEntries">Nominal Entres</a>
+   * @param seed <a href="{@docRoot}/resources/dictionary.html#seed">See Update Hash Seed</a>.
+   * @param numThreads the number of threads. If one, the sketch is built on the calling thread.
+   * @return an ordered compact sketch of all the given items
+   */
+  public static CompactSketch buildParallel(Memory data, int nomEntries, long seed, 
+      int numThreads) {
+    return ParallelSketchBuilder.build(
+        new ParallelSketchBuilder.MemorySource(data), nomEntries, seed, numThreads);
+  }
+  
   //Get size methods, etc
   
   /**
@@ -181,6 +243,55 @@ public final class Sketches {
     return SetOperation.getMaxIntersectionBytes(nomEntries);
   }
   
+  /**
+   * Ref: {@link Sketch#downsample(int, boolean, Memory) Sketch.downsample(int, boolean, Memory)}.
+   * This reads the sketch directly from the given Memory image. Compact images are downsampled 
+   * without constructing an intermediate sketch and, if ordered, only the hashes that are retained 
+   * are read. This method assumes the
+   * <a href="{@docRoot}/resources/dictionary.html#defaultUpdateSeed">Default Update Seed</a>.
+   * @param srcMem a valid memory image of a Sketch.
+   * <a href="{@docRoot}/resources/dictionary.html#mem">See Memory</a>
+   * @param nomEntries <a href="{@docRoot}/resources/dictionary.html#nomEntries">Nominal Entres</a>
+   * of the result. This must be a power of 2 and at least 16.
+   * @param dstOrdered 
+   * <a href="{@docRoot}/resources/dictionary.html#dstOrdered">See Destination Ordered</a>
+   * @param dstMem 
+   * <a href="{@docRoot}/resources/dictionary.html#dstMem">See Destination Memory</a>.
+   * @return the downsampled compact sketch
+   */
+  public static CompactSketch downsample(Memory srcMem, int nomEntries, boolean dstOrdered, 
+      Memory dstMem) {
+    return downsample(srcMem, DEFAULT_UPDATE_SEED, nomEntries, dstOrdered, dstMem);
+  }
+  
+  /**
+   * Ref: {@link #downsample(Memory, int, boolean, Memory) downsample(Memory, int, boolean, Memory)}
+   * @param srcMem a valid memory image of a Sketch.
+   * <a href="{@docRoot}/resources/dictionary.html#mem">See Memory</a>
+   * @param seed <a href="{@docRoot}/resources/dictionary.html#seed">See Update Hash Seed</a>.
+   * Compact sketches do not use the seed parameter.
+   * @param nomEntries <a href="{@docRoot}/resources/dictionary.html#nomEntries">Nominal Entres</a>
+   * of the result. This must be a power of 2 and at least 16.
+   * @param dstOrdered 
+   * <a href="{@docRoot}/resources/dictionary.html#dstOrdered">See Destination Ordered</a>
+   * @param dstMem 
+   * <a href="{@docRoot}/resources/dictionary.html#dstMem">See Destination Memory</a>.
+   * @return the downsampled compact sketch
+   */
+  public static CompactSketch downsample(Memory srcMem, long seed, int nomEntries, 
+      boolean dstOrdered, Memory dstMem) {
+    checkIfValidThetaSketch(srcMem);
+    Sketch.checkDownsampleNomEntries(nomEntries);
+    int serVer = srcMem.getByte(SER_VER_BYTE);
+    int famID = srcMem.getByte(FAMILY_BYTE);
+    if ((serVer == SER_VER) && (famID == Family.COMPACT.getID())) {
+      return CompactSketch.downsample(srcMem, nomEntries, dstOrdered, dstMem);
+    }
+    Sketch sketch = ((serVer == SER_VER) && (famID == Family.QUICKSELECT.getID()))
+        ? Sketch.wrap(srcMem, seed) : Sketch.heapify(srcMem, seed);
+    return sketch.downsample(nomEntries, dstOrdered, dstMem);
+  }
+  
   //Get estimates and bounds from Memory
   
   /**
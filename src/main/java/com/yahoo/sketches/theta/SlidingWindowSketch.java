@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.theta;
+
+import com.yahoo.sketches.memory.Memory;
+
+/**
+ * Answers distinct count queries over the most recent <i>N</i> intervals of a stream,
+ * for example the last 1440 minutes.
+ *
+ * <p>Updates go to the UpdateSketch of the current interval, which is obtained with
+ * {@link #getCurrentSketch()}. Calling {@link #advance()} closes the current interval and starts a
+ * new one, dropping the oldest interval from the window.</p>
+ *
+ * <p>The compact sketches of the last <i>N</i>-1 closed intervals are the leaves of a binary tree
+ * in which each inner node holds the union of its two children. The window is then the union of
+ * the root and the current interval, so a query costs two sketch unions, independent of
+ * <i>N</i>. Advancing replaces the oldest leaf with the interval just closed and recomputes the
+ * unions on the path to the root, which is at most ceil(log2(<i>N</i>-1)) unions per advance.</p>
+ *
+ * <p>This class is not thread safe.</p>
+ */
+public class SlidingWindowSketch {
+  private final int numIntervals_;
+  private final UpdateSketch current_;
+  private final Union union_;
+  private final int numLeaves_;            //the number of closed intervals in the window, N-1
+  private final CompactSketch[] tree_;     //tree_[i] = union of tree_[2i] and tree_[2i+1]
+  private int oldest_;                     //leaf of the oldest closed interval in the window
+
+  /**
+   * Creates a new sliding window over the given number of intervals with a sketch of each interval
+   * built by the given builder. The windowed unions are sized with the same nominal entries and
+   * seed as the builder.
+   * @param numIntervals the number of intervals in the window. It must be at least one.
+   * @param builder the builder for the sketch of each interval. It must not be configured
+   * with a destination Memory.
+   */
+  public SlidingWindowSketch(int numIntervals, UpdateSketchBuilder builder) {
+    if (numIntervals < 1) {
+      throw new IllegalArgumentException("numIntervals must be at least 1: " + numIntervals);
+    }
+    if (builder.getMemory() != null) {
+      throw new IllegalArgumentException(
+          "The interval sketches of a SlidingWindowSketch cannot be made Direct to Memory.");
+    }
+    numIntervals_ = numIntervals;
+    current_ = builder.build();
+    union_ = new SetOperationBuilder().setSeed(builder.getSeed())
+        .buildUnion(1 << builder.getLgNominalEntries());
+    numLeaves_ = numIntervals - 1;
+    tree_ = new CompactSketch[2 * numLeaves_]; //the leaves are tree_[numLeaves_ ...]
+    CompactSketch empty = unionOf(null, null);
+    for (int i = 1; i < tree_.length; i++) {
+      tree_[i] = empty; //the window starts empty
+    }
+    oldest_ = 0;
+  }
+
+  /**
+   * Returns the sketch of the current interval, which receives all updates until the next call to
+   * {@link #advance()}. The same instance is reused for every interval.
+   * @return the sketch of the current interval
+   */
+  public UpdateSketch getCurrentSketch() {
+    return current_;
+  }
+
+  /**
+   * Closes the current interval and starts a new, empty one. The oldest interval drops out of
+   * the window.
+   */
+  public void advance() {
+    if (numLeaves_ > 0) {
+      int i = numLeaves_ + oldest_;
+      tree_[i] = current_.compact(true, null);
+      while (i > 1) {
+        i >>>= 1;
+        tree_[i] = unionOf(tree_[2 * i], tree_[(2 * i) + 1]);
+      }
+      oldest_ = (oldest_ + 1 == numLeaves_) ? 0 : oldest_ + 1;
+    }
+    current_.reset();
+  }
+
+  /**
+   * Gets the result of the union of the last <i>N</i> intervals including the current one.
+   * @param dstOrdered
+   * <a href="{@docRoot}/resources/dictionary.html#dstOrdered">See Destination Ordered</a>
+   * @param dstMem
+   * <a href="{@docRoot}/resources/dictionary.html#dstMem">See Destination Memory</a>.
+   * @return the result of the union of the last <i>N</i> intervals
+   */
+  public CompactSketch getResult(boolean dstOrdered, Memory dstMem) {
+    union_.reset();
+    if (numLeaves_ > 0) {
+      union_.update(tree_[1]); //the root
+    }
+    union_.update(current_);
+    return union_.getResult(dstOrdered, dstMem);
+  }
+
+  /**
+   * Gets the unique count estimate of the last <i>N</i> intervals including the current one.
+   * @return the unique count estimate of the last <i>N</i> intervals
+   */
+  public double getEstimate() {
+    return getResult(true, null).getEstimate();
+  }
+
+  /**
+   * Returns the number of intervals in the window
+   * @return the number of intervals in the window
+   */
+  public int getNumIntervals() {
+    return numIntervals_;
+  }
+
+  private CompactSketch unionOf(Sketch a, Sketch b) {
+    union_.reset();
+    union_.update(a);
+    union_.update(b);
+    return union_.getResult(true, null);
+  }
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.theta;
+
+import static com.yahoo.sketches.Util.DEFAULT_NOMINAL_ENTRIES;
+
+import java.util.stream.Collector;
+
+import com.yahoo.sketches.hash.HashFunction;
+
+/**
+ * Stream Collectors that build theta sketches. Every thread of a parallel stream accumulates
+ * into its own UpdateSketch or Union, and the partial results are merged with a Union,
+ * so no synchronization is needed and <i>parallelStream()</i> pipelines scale across cores.
+ * All Collectors are UNORDERED and return a CompactSketch in ordered form.
+ *
+ * <p>The elements of a stream given to a toSketch collector are presented to the sketch with
+ * the matching UpdateSketch update method: Long, Integer, Short and Byte as a long, Double and
+ * Float as a double, and String, byte[], int[] and long[] as themselves. Null elements are
+ * ignored, just as the update methods ignore null Strings and arrays.</p>
+ *
+ * <pre>
+ * CompactSketch sketch = userIds.parallelStream().collect(ThetaCollectors.toSketch(4096));
+ * </pre>
+ */
+public final class ThetaCollectors {
+
+  private ThetaCollectors() {}
+
+  /**
+   * Returns a Collector that presents every element to a QuickSelect sketch with the given
+   * nominal entries and the default seed.
+   * @param <T> the type of the elements
+   * @param nomEntries <a href="{@docRoot}/resources/dictionary.html#nomEntries">Nominal Entres</a>
+   * @return a Collector that presents every element to a theta sketch
+   */
+  public static <T> Collector<T, ?, CompactSketch> toSketch(int nomEntries) {
+    return toSketch(UpdateSketch.builder().setNominalEntries(nomEntries));
+  }
+
+  /**
+   * Returns a Collector that presents every element to sketches built by the given builder.
+   * The builder must not have a Memory, since every thread needs its own sketch.
+   * The configuration of the builder is copied, so later changes of the builder have no effect.
+   * @param <T> the type of the elements
+   * @param bldr the given builder
+   * @return a Collector that presents every element to a theta sketch
+   */
+  public static <T> Collector<T, ?, CompactSketch> toSketch(UpdateSketchBuilder bldr) {
+    if (bldr.getMemory() != null) {
+      throw new IllegalArgumentException("A Collector cannot build sketches on a given Memory.");
+    }
+    final int nomEntries = 1 << bldr.getLgNominalEntries();
+    final UpdateSketchBuilder copy = UpdateSketch.builder().setNominalEntries(nomEntries)
+        .setSeed(bldr.getSeed()).setP(bldr.getP()).setResizeFactor(bldr.getResizeFactor())
+        .setFamily(bldr.getFamily()).setSparse(bldr.isSparse())
+        .setHashFunction(bldr.getHashFunction());
+    final long seed = bldr.getSeed();
+    final HashFunction hashFn = bldr.getHashFunction();
+    return Collector.of(
+        () -> new SketchAccumulator(copy.build(), nomEntries, seed, hashFn),
+        (acc, element) -> update(acc.sketch_, element),
+        SketchAccumulator::merge,
+        SketchAccumulator::getResult,
+        Collector.Characteristics.UNORDERED);
+  }
+
+  /**
+   * Returns a Collector that unions a stream of sketches with the default nominal entries and
+   * the default seed. Null sketches are interpreted as empty sketches.
+   * @return a Collector that unions a stream of sketches
+   */
+  public static Collector<Sketch, ?, CompactSketch> toUnion() {
+    return toUnion(DEFAULT_NOMINAL_ENTRIES);
+  }
+
+  /**
+   * Returns a Collector that unions a stream of sketches with the given nominal entries and
+   * the default seed. Null sketches are interpreted as empty sketches.
+   * @param nomEntries <a href="{@docRoot}/resources/dictionary.html#nomEntries">Nominal Entres</a>
+   * @return a Collector that unions a stream of sketches
+   */
+  public static Collector<Sketch, ?, CompactSketch> toUnion(int nomEntries) {
+    return toUnion(SetOperation.builder().setNominalEntries(nomEntries));
+  }
+
+  /**
+   * Returns a Collector that unions a stream of sketches with unions built by the given builder.
+   * The builder must not have a Memory, since every thread needs its own union.
+   * Null sketches are interpreted as empty sketches.
+   * @param bldr the given builder
+   * @return a Collector that unions a stream of sketches
+   */
+  public static Collector<Sketch, ?, CompactSketch> toUnion(SetOperationBuilder bldr) {
+    if (bldr.getMemory() != null) {
+      throw new IllegalArgumentException("A Collector cannot build unions on a given Memory.");
+    }
+    final int nomEntries = 1 << bldr.getLgNominalEntries();
+    final long seed = bldr.getSeed();
+    final float p = bldr.getP();
+    final ResizeFactor rf = bldr.getResizeFactor();
+    final HashFunction hashFn = bldr.getHashFunction();
+    return Collector.of(
+        () -> SetOperation.builder().setSeed(seed).setP(p).setResizeFactor(rf)
+            .setHashFunction(hashFn).buildUnion(nomEntries),
+        Union::update,
+        (a, b) -> {
+          a.update(b.getResult(false, null));
+          return a;
+        },
+        Union::getResult,
+        Collector.Characteristics.UNORDERED);
+  }
+
+  /**
+   * Presents the given element to the given sketch with the matching update method
+   * @param sketch the given sketch
+   * @param element the given element
+   */
+  static void update(UpdateSketch sketch, Object element) {
+    if (element == null) {
+      return;
+    }
+    if ((element instanceof Long) || (element instanceof Integer) || (element instanceof Short)
+        || (element instanceof Byte)) {
+      sketch.update(((Number) element).longValue());
+    }
+    else if ((element instanceof Double) || (element instanceof Float)) {
+      sketch.update(((Number) element).doubleValue());
+    }
+    else if (element instanceof String) {
+      sketch.update((String) element);
+    }
+    else if (element instanceof byte[]) {
+      sketch.update((byte[]) element);
+    }
+    else if (element instanceof int[]) {
+      sketch.update((int[]) element);
+    }
+    else if (element instanceof long[]) {
+      sketch.update((long[]) element);
+    }
+    else {
+      throw new IllegalArgumentException(
+          "Elements of this type cannot be presented to a sketch: " + element.getClass().getName());
+    }
+  }
+
+  //One per thread. The union is only created once partial results are merged into this one.
+  private static final class SketchAccumulator {
+    final UpdateSketch sketch_;
+    private final int nomEntries_;
+    private final long seed_;
+    private final HashFunction hashFn_;
+    private Union union_ = null;
+
+    SketchAccumulator(UpdateSketch sketch, int nomEntries, long seed, HashFunction hashFn) {
+      sketch_ = sketch;
+      nomEntries_ = nomEntries;
+      seed_ = seed;
+      hashFn_ = hashFn;
+    }
+
+    SketchAccumulator merge(SketchAccumulator other) {
+      if (union_ == null) {
+        union_ = SetOperation.builder().setSeed(seed_).setHashFunction(hashFn_)
+            .buildUnion(nomEntries_);
+      }
+      union_.update(other.sketch_);
+      if (other.union_ != null) {
+        union_.update(other.union_.getResult(false, null));
+      }
+      return this;
+    }
+
+    CompactSketch getResult() {
+      if (union_ == null) {
+        return sketch_.compact(true, null);
+      }
+      union_.update(sketch_);
+      return union_.getResult();
+    }
+  }
+}
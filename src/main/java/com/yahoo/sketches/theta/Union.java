@@ -4,6 +4,10 @@
  */
 package com.yahoo.sketches.theta;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
 import com.yahoo.sketches.memory.Memory;
 
 /**
@@ -99,12 +103,47 @@ public interface Union {
    * @return the result of this operation as an ordered CompactSketch on the Java heap
    */
   CompactSketch getResult();
+  
+  /**
+   * Gets the result of this operation as an ordered CompactSketch on the Java heap without 
+   * changing the internal state. A direct union can be snapshot by any number of reader threads 
+   * while one writer thread keeps updating it: every update of the union with a sketch is either 
+   * fully included or not at all. A union on the Java heap requires that it is not updated 
+   * concurrently.
+   * @return the current result of this operation as an ordered CompactSketch on the Java heap
+   */
+  CompactSketch snapshot();
+  
   /**
    * Returns a byte array image of this Union object
    * @return a byte array image of this Union object
    */
   byte[] toByteArray();
   
+  /**
+   * Writes the same image as toByteArray() into the given Memory starting at the given offset,
+   * without building the full image in an intermediate array.
+   * @param dstMem the destination Memory
+   * @param offsetBytes the offset in bytes into the destination Memory
+   */
+  void writeTo(Memory dstMem, long offsetBytes);
+  
+  /**
+   * Writes the same image as toByteArray() into the given ByteBuffer starting at its current 
+   * position, which is then advanced past the written bytes. 
+   * @param dstBuf the destination ByteBuffer
+   */
+  void writeTo(ByteBuffer dstBuf);
+  
+  /**
+   * Writes the same image as toByteArray() to the given channel. The hash table is streamed 
+   * through a small, fixed size buffer so that the full image is never held in an intermediate 
+   * array.
+   * @param channel the destination channel
+   * @throws IOException if the channel throws an IOException
+   */
+  void writeTo(WritableByteChannel channel) throws IOException;
+  
   /**
    * Resets this Union. The seed remains intact, otherwise reverts back to its virgin state.
    */
@@ -8,6 +8,7 @@ import static com.yahoo.sketches.theta.CompactSketch.compactCache;
 import static com.yahoo.sketches.theta.CompactSketch.createCompactSketch;
 import static com.yahoo.sketches.theta.PreambleUtil.FAMILY_BYTE;
 import static com.yahoo.sketches.theta.PreambleUtil.FLAGS_BYTE;
+import static com.yahoo.sketches.theta.PreambleUtil.HASH32_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.MAX_THETA_LONG_AS_DOUBLE;
 import static com.yahoo.sketches.theta.PreambleUtil.ORDERED_FLAG_MASK;
 import static com.yahoo.sketches.theta.PreambleUtil.PREAMBLE_LONGS_BYTE;
@@ -16,9 +17,15 @@ import static com.yahoo.sketches.theta.PreambleUtil.SEED_HASH_SHORT;
 import static com.yahoo.sketches.theta.PreambleUtil.SER_VER_BYTE;
 import static com.yahoo.sketches.theta.PreambleUtil.THETA_LONG;
 import static com.yahoo.sketches.theta.PreambleUtil.UNION_THETA_LONG;
+import static com.yahoo.sketches.theta.PreambleUtil.writeImage;
 import static java.lang.Math.min;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
 import com.yahoo.sketches.Family;
+import com.yahoo.sketches.hash.HashFunction;
 import com.yahoo.sketches.memory.Memory;
 import com.yahoo.sketches.memory.NativeMemory;
 
@@ -31,15 +38,18 @@ abstract class UnionImpl extends SetOperation implements Union {
   protected final short seedHash_;
   protected final UpdateSketch gadget_;
   protected long unionThetaLong_;
+  protected boolean hash32_; //the hashes of the gadget are rounded to 32 bits
   
   /**
    * Construct a new Union that can be on-heap or off-heap
    * 
    * @param gadget Configured instance of UpdateSketch.
+   * @param hashFn the hash function of the union
    */
-  UnionImpl(UpdateSketch gadget) {
+  UnionImpl(UpdateSketch gadget, HashFunction hashFn) {
     gadget_ = gadget;
-    seedHash_ = computeSeedHash(gadget_.getSeed());
+    gadget_.setHashFunction(hashFn);
+    seedHash_ = gadget_.getSeedHash();
     unionThetaLong_ = gadget_.getThetaLong();
   }
   
@@ -54,9 +64,10 @@ abstract class UnionImpl extends SetOperation implements Union {
    */
   UnionImpl(UpdateSketch gadget, Memory srcMem, long seed) {
     gadget_ = gadget;
-    seedHash_ = computeSeedHash(gadget_.getSeed());
+    seedHash_ = gadget_.getSeedHash();
     MY_FAMILY.checkFamilyID(srcMem.getByte(FAMILY_BYTE));
     unionThetaLong_ = srcMem.getLong(UNION_THETA_LONG);
+    hash32_ = isHash32(srcMem);
   }
   
   @Override
@@ -69,6 +80,9 @@ abstract class UnionImpl extends SetOperation implements Union {
     }
     
     PreambleUtil.checkSeedHashes(seedHash_, sketchIn.getSeedHash());
+    if (sketchIn.getRetainedEntries(true) > 0) {
+      checkPrecision(sketchIn.isHash32());
+    }
     long thetaLongIn = sketchIn.getThetaLong();
     
     unionThetaLong_ = min(unionThetaLong_, thetaLongIn); //Theta rule
@@ -132,31 +146,37 @@ abstract class UnionImpl extends SetOperation implements Union {
   
   @Override
   public void update(long datum) {
+    if (hash32_) { checkPrecision(false); }
     gadget_.update(datum);
   }
   
   @Override
   public void update(double datum) {
+    if (hash32_) { checkPrecision(false); }
     gadget_.update(datum);
   }
   
   @Override
   public void update(String datum) {
+    if (hash32_) { checkPrecision(false); }
     gadget_.update(datum);
   }
   
   @Override
   public void update(byte[] data) {
+    if (hash32_) { checkPrecision(false); }
     gadget_.update(data);
   }
   
   @Override
   public void update(int[] data) {
+    if (hash32_) { checkPrecision(false); }
     gadget_.update(data);
   }
   
   @Override
   public void update(long[] data) {
+    if (hash32_) { checkPrecision(false); }
     gadget_.update(data);
   }
   
@@ -165,6 +185,9 @@ abstract class UnionImpl extends SetOperation implements Union {
     long thetaLongIn = skMem.getLong(THETA_LONG);
     unionThetaLong_ = min(unionThetaLong_, thetaLongIn); //Theta rule
     int curCount = skMem.getInt(RETAINED_ENTRIES_INT);
+    if (curCount > 0) {
+      checkPrecision(false);
+    }
     int preLongs = 3;
     for (int i = 0; i < curCount; i++ ) {
       int offsetBytes = (preLongs +i) << 3;
@@ -191,6 +214,9 @@ abstract class UnionImpl extends SetOperation implements Union {
       thetaLongIn = skMem.getLong(THETA_LONG);
     }
     unionThetaLong_ = min(unionThetaLong_, thetaLongIn); //Theta rule
+    if (curCount > 0) {
+      checkPrecision(false);
+    }
     for (int i = 0; i < curCount; i++ ) {
       int offsetBytes = (preLongs +i) << 3;
       long hashIn = skMem.getLong(offsetBytes);
@@ -216,8 +242,21 @@ abstract class UnionImpl extends SetOperation implements Union {
       thetaLongIn = skMem.getLong(THETA_LONG);
     }
     unionThetaLong_ = min(unionThetaLong_, thetaLongIn); //Theta rule
+    boolean hash32In = isHash32(skMem);
+    if (curCount > 0) {
+      checkPrecision(hash32In);
+    }
     boolean ordered = skMem.isAnyBitsSet(FLAGS_BYTE, (byte) ORDERED_FLAG_MASK);
-    if (ordered) {
+    if (hash32In) { //always ordered
+      long[] cacheIn = new long[curCount];
+      CompactSketch.readCompactHashes(skMem, preLongs, cacheIn, curCount);
+      for (int i = 0; i < curCount; i++ ) {
+        long hashIn = cacheIn[i];
+        if (hashIn >= unionThetaLong_) break; // "early stop"
+        gadget_.hashUpdate(hashIn); //backdoor update, hash function is bypassed
+      }
+    }
+    else if (ordered) {
       for (int i = 0; i < curCount; i++ ) {
         int offsetBytes = (preLongs +i) << 3;
         long hashIn = skMem.getLong(offsetBytes);
@@ -253,6 +292,11 @@ abstract class UnionImpl extends SetOperation implements Union {
     int curCountR = HashOperations.count(gadgetCache, thetaLongR);
     long[] compactCacheR = compactCache(gadgetCache, curCountR, thetaLongR, dstOrdered);
     boolean emptyR = (gadget_.isEmpty() && (p >= thetaR) && (curCountR == 0));
+    if (hash32_) {
+      CompactSketch result = createCompactSketch(compactCacheR, emptyR, seedHash_, curCountR, 
+          thetaLongR, dstOrdered, null);
+      return CompactSketch.toHash32Sketch(result, dstMem);
+    }
     return createCompactSketch(compactCacheR, emptyR, seedHash_, curCountR, thetaLongR, 
         dstOrdered, dstMem);
   }
@@ -262,18 +306,78 @@ abstract class UnionImpl extends SetOperation implements Union {
     return getResult(true, null);
   }
   
+  @Override
+  public CompactSketch snapshot() {
+    //same result as getResult(), but the gadget is not rebuilt
+    long thetaLongR = min(gadget_.getThetaLong(), unionThetaLong_);
+    long[] gadgetCache = gadget_.getCache();
+    int curCountR = HashOperations.count(gadgetCache, thetaLongR);
+    long[] compactCacheR = compactCache(gadgetCache, curCountR, thetaLongR, false);
+    boolean emptyR = gadget_.isEmpty() && (curCountR == 0);
+    CompactSketch result = CompactSketch.downsample(compactCacheR, false, emptyR, seedHash_, 
+        thetaLongR, 1 << gadget_.getLgNomLongs(), true, null);
+    return hash32_ ? CompactSketch.toHash32Sketch(result, null) : result;
+  }
+  
   @Override
   public byte[] toByteArray() {
     byte[] gadgetByteArr = gadget_.toByteArray();
     Memory mem = new NativeMemory(gadgetByteArr);
     mem.putLong(UNION_THETA_LONG, unionThetaLong_); // union theta
+    if (hash32_) {
+      mem.setBits(FLAGS_BYTE, (byte) HASH32_FLAG_MASK);
+    }
     return gadgetByteArr;
   }
   
+  @Override
+  public void writeTo(Memory dstMem, long offsetBytes) {
+    Memory preMem = getImagePreamble();
+    Memory dataMem = gadget_.getImageData();
+    writeImage(preMem, dataMem, Sketch.imageDataBytes(dataMem), dstMem, offsetBytes);
+  }
+  
+  @Override
+  public void writeTo(ByteBuffer dstBuf) {
+    Memory preMem = getImagePreamble();
+    Memory dataMem = gadget_.getImageData();
+    writeImage(preMem, dataMem, Sketch.imageDataBytes(dataMem), dstBuf);
+  }
+  
+  @Override
+  public void writeTo(WritableByteChannel channel) throws IOException {
+    Memory preMem = getImagePreamble();
+    Memory dataMem = gadget_.getImageData();
+    writeImage(preMem, dataMem, Sketch.imageDataBytes(dataMem), channel);
+  }
+  
   @Override
   public void reset() {
     gadget_.reset();
     unionThetaLong_ = gadget_.getThetaLong();
+    hash32_ = false;
+  }
+  
+  private Memory getImagePreamble() {
+    Memory preMem = gadget_.getImagePreamble();
+    preMem.putLong(UNION_THETA_LONG, unionThetaLong_); // union theta
+    if (hash32_) {
+      preMem.setBits(FLAGS_BYTE, (byte) HASH32_FLAG_MASK);
+    }
+    return preMem;
+  }
+  
+  /**
+   * The gadget takes the precision of the first hashes it retains. Once it retains hashes, 
+   * incoming hashes of the other precision are rejected, see {@link #checkHash32(boolean, boolean)}.
+   * @param hash32In true if the incoming hashes are rounded to 32 bits
+   */
+  void checkPrecision(boolean hash32In) {
+    if (gadget_.getRetainedEntries(true) == 0) {
+      hash32_ = hash32In;
+    } else {
+      checkHash32(hash32_, hash32In);
+    }
   }
   
 }
@@ -4,10 +4,11 @@
  */
 package com.yahoo.sketches.theta;
 
-import static com.yahoo.sketches.hash.MurmurHash3.hash;
 import static com.yahoo.sketches.theta.UpdateReturnState.RejectedNullOrEmpty;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+import com.yahoo.sketches.hash.HashFunction;
+import com.yahoo.sketches.hash.MurmurHash3;
 import com.yahoo.sketches.memory.Memory;
 
 /**
@@ -18,6 +19,9 @@ import com.yahoo.sketches.memory.Memory;
  * @author Lee Rhodes 
  */
 public abstract class UpdateSketch extends Sketch {
+  UpdateStats stats_; //null unless counting was requested from the builder
+  HashFunction hashFn_ = HashFunction.MURMUR3;
+  short seedHash_; //the seed hash of hashFn_ and the seed, zero until first computed
   
   UpdateSketch() {}
   
@@ -97,6 +101,19 @@ public abstract class UpdateSketch extends Sketch {
     return compact(true, null);
   }
   
+  /**
+   * Returns an ordered CompactSketch on the Java heap that is a consistent copy of this sketch.
+   * A direct QuickSelect sketch can be snapshot by any number of reader threads while one writer 
+   * thread keeps updating it: the copy holds every update up to the last rebuild or resize of the 
+   * hash table and possibly some of the later ones, but never a partially rebuilt table. 
+   * For all other sketches this is the same as compact() and requires the sketch not to be 
+   * updated concurrently.
+   * @return an ordered CompactSketch on the Java heap that is a consistent copy of this sketch
+   */
+  public CompactSketch snapshot() {
+    return compact(true, null);
+  }
+  
   /**
    * Rebuilds the hash table to remove dirty values or to reduce the size
    * to nominal entries.
@@ -112,8 +129,7 @@ public abstract class UpdateSketch extends Sketch {
    * <a href="{@docRoot}/resources/dictionary.html#updateReturnState">See Update Return State</a>
    */
   public UpdateReturnState update(long datum) {
-    long[] data = { datum };
-    return hashUpdate(hash(data, getSeed())[0] >>> 1);
+    return hashUpdateWithStats(hashFn_.hash(datum, getSeed()) >>> 1);
   }
   
   /**
@@ -129,8 +145,8 @@ public abstract class UpdateSketch extends Sketch {
    */
   public UpdateReturnState update(double datum) {
     double d = (datum == 0.0) ? 0.0 : datum; // canonicalize -0.0, 0.0
-    long[] data = { Double.doubleToLongBits(d) };// canonicalize all NaN forms
-    return hashUpdate(hash(data, getSeed())[0] >>> 1);
+    long data = Double.doubleToLongBits(d);// canonicalize all NaN forms
+    return hashUpdateWithStats(hashFn_.hash(data, getSeed()) >>> 1);
   }
   
   /**
@@ -147,7 +163,7 @@ public abstract class UpdateSketch extends Sketch {
       return RejectedNullOrEmpty; 
     }
     byte[] data = datum.getBytes(UTF_8);
-    return hashUpdate(hash(data, getSeed())[0] >>> 1);
+    return hashUpdateWithStats(hashFn_.hash(data, getSeed()) >>> 1);
   }
   
   /**
@@ -162,7 +178,7 @@ public abstract class UpdateSketch extends Sketch {
     if ((data == null) || (data.length == 0)) {
       return RejectedNullOrEmpty;
     }
-    return hashUpdate(hash(data, getSeed())[0] >>> 1);
+    return hashUpdateWithStats(hashFn_.hash(data, getSeed()) >>> 1);
   }
   
   /**
@@ -177,7 +193,7 @@ public abstract class UpdateSketch extends Sketch {
     if ((data == null) || (data.length == 0)) {
       return RejectedNullOrEmpty;
     }
-    return hashUpdate(hash(data, getSeed())[0] >>> 1);
+    return hashUpdateWithStats(hashFn_.hash(data, getSeed()) >>> 1);
   }
   
   /**
@@ -192,11 +208,116 @@ public abstract class UpdateSketch extends Sketch {
     if ((data == null) || (data.length == 0)) {
       return RejectedNullOrEmpty;
     }
-    return hashUpdate(hash(data, getSeed())[0] >>> 1);
+    return hashUpdateWithStats(hashFn_.hash(data, getSeed()) >>> 1);
+  }
+  
+  /**
+   * Present this sketch with the key of several fields that has been put into the given hasher,
+   * which then starts over with the next key. The result is the same as presenting the byte array
+   * of the concatenated fields to {@link #update(byte[])}, without building that array.
+   * If no bytes have been put no update attempt is made and the method returns.
+   * 
+   * @param hasher the given hasher. Its seed must match the seed of this sketch.
+   * @return 
+   * <a href="{@docRoot}/resources/dictionary.html#updateReturnState">See Update Return State</a>
+   * @throws IllegalArgumentException if the seed does not match, or this sketch does not hash 
+   * with {@link HashFunction#MURMUR3}
+   */
+  public UpdateReturnState update(MurmurHash3.Hasher hasher) {
+    if ((hasher == null) || (hasher.getLengthBytes() == 0)) {
+      return RejectedNullOrEmpty;
+    }
+    return updateWithHash(hasher.finish(), hasher.getSeed());
+  }
+  
+  /**
+   * Present this sketch with the 128-bit hash of a datum that has already been hashed by the 
+   * caller. This allows one hash of a datum to be applied to many sketches. 
+   * The result is the same as presenting the datum itself to the corresponding update method.
+   * 
+   * @param hash the 128-bit hash of the datum as returned by 
+   * {@link com.yahoo.sketches.hash.MurmurHash3#hash(long[], long) MurmurHash3.hash(datum, seed)}
+   * where the datum has been converted the same way as by the update methods.
+   * @param seed the seed that was used to compute the hash. It must match the seed of this sketch.
+   * <a href="{@docRoot}/resources/dictionary.html#seed">See Update Hash Seed</a>.
+   * @return 
+   * <a href="{@docRoot}/resources/dictionary.html#updateReturnState">See Update Return State</a>
+   * @throws IllegalArgumentException if the seed does not match, or this sketch does not hash 
+   * with {@link HashFunction#MURMUR3}
+   */
+  public UpdateReturnState updateWithHash(long[] hash, long seed) {
+    if (seed != getSeed()) {
+      throw new IllegalArgumentException(
+          "The seed of the hash does not match the seed of this sketch: " + seed);
+    }
+    if (hashFn_ != HashFunction.MURMUR3) {
+      throw new IllegalArgumentException(
+          "A MurmurHash3 hash cannot update a sketch that hashes with " + hashFn_);
+    }
+    return hashUpdateWithStats(hash[0] >>> 1);
+  }
+  
+  /**
+   * Returns the counters of the update path of this sketch, if they were requested with
+   * {@link UpdateSketchBuilder#setStats(UpdateStats)}, otherwise null.
+   * @return the counters of the update path of this sketch or null
+   */
+  public UpdateStats getStats() {
+    return stats_;
+  }
+  
+  /**
+   * Gets the configured seed
+   * @return the configured seed.
+   * <a href="{@docRoot}/resources/dictionary.html#seed">See Update Hash Seed</a>.
+   */
+  public abstract long getSeed();
+  
+  /**
+   * Returns the hash function with which this sketch hashes its input. 
+   * See {@link UpdateSketchBuilder#setHashFunction(HashFunction)}.
+   * @return the hash function of this sketch
+   */
+  public HashFunction getHashFunction() {
+    return hashFn_;
+  }
+  
+  /**
+   * Returns the fraction of the slots of the hash table that are currently occupied, 
+   * including any dirty entries.
+   * @return the fraction of the slots of the hash table that are currently occupied
+   */
+  public double getLoadFactor() {
+    return (double) getRetainedEntries(false) / (1 << getLgArrLongs());
   }
   
   //restricted methods
   
+  /**
+   * Attaches the given counters to this sketch.
+   * @param stats the given counters, or null to stop counting
+   */
+  void setStats(UpdateStats stats) {
+    stats_ = stats;
+  }
+  
+  /**
+   * Sets the hash function of this new sketch, which also determines its seed hash.
+   * @param hashFn the given hash function
+   */
+  void setHashFunction(HashFunction hashFn) {
+    seedHash_ = hashFn.computeSeedHash(getSeed()); //also checks the seed
+    hashFn_ = hashFn;
+  }
+  
+  private UpdateReturnState hashUpdateWithStats(long hash) {
+    UpdateReturnState state = hashUpdate(hash);
+    if (stats_ != null) {
+      stats_.countUpdate(state);
+    }
+    return state;
+  }
+  
   /**
    * All potential updates converge here.
    * <p>Don't ever call this unless you really know what you are doing!</p>
@@ -231,11 +352,6 @@ public abstract class UpdateSketch extends Sketch {
    */
   abstract float getP();
   
-  /**
-   * Gets the configured seed
-   * @return the configured seed
-   */
-  abstract long getSeed();
   
   /**
    * Returns true if the internal cache contains "dirty" values that are greater than or equal
@@ -10,8 +10,11 @@ import static com.yahoo.sketches.Util.checkIfPowerOf2;
 import static com.yahoo.sketches.Util.LS;
 import static com.yahoo.sketches.Util.TAB;
 
+import java.util.concurrent.Executor;
+
 import com.yahoo.sketches.Family;
 import com.yahoo.sketches.Util;
+import com.yahoo.sketches.hash.HashFunction;
 import com.yahoo.sketches.memory.Memory;
 
 /**
@@ -20,31 +23,51 @@ import com.yahoo.sketches.memory.Memory;
  * @author Lee Rhodes 
  */
 public class UpdateSketchBuilder {
+  /**
+   * The default fraction of the resize threshold at which the next Memory is requested ahead
+   */
+  public static final float DEFAULT_GROWTH_PREFETCH = 0.75f;
+  
   private int bLgNomLongs;
   private long bSeed;
+  private HashFunction bHashFn;
   private ResizeFactor bRF;
   private Family bFam;
   private float bP;
   private Memory bDstMem;
+  private boolean bSparse;
+  private UpdateStats bStats;
+  private Executor bGrowthExecutor;
+  private float bGrowthPrefetch;
   
   /**
    * Constructor for building a new UpdateSketch. The default configuration is 
    * <ul>
    * <li>Nominal Entries: {@value com.yahoo.sketches.Util#DEFAULT_NOMINAL_ENTRIES}</li>
    * <li>Seed: {@value com.yahoo.sketches.Util#DEFAULT_UPDATE_SEED}</li>
+   * <li>{@link com.yahoo.sketches.hash.HashFunction#MURMUR3}</li>
    * <li>{@link com.yahoo.sketches.theta.ResizeFactor#X8}</li>
    * <li>{@link com.yahoo.sketches.Family#QUICKSELECT}</li>
    * <li>Input Sampling Probability: 1.0</li>
    * <li>Memory: null</li>
+   * <li>Sparse: false</li>
+   * <li>Stats: null</li>
+   * <li>Growth Executor: null</li>
+   * <li>Growth Prefetch: {@value #DEFAULT_GROWTH_PREFETCH}</li>
    * </ul>
    */
   public UpdateSketchBuilder() {
     bLgNomLongs = Integer.numberOfTrailingZeros(DEFAULT_NOMINAL_ENTRIES);
     bSeed = DEFAULT_UPDATE_SEED;
+    bHashFn = HashFunction.MURMUR3;
     bP = (float) 1.0;
     bRF = ResizeFactor.X8;
     bFam = Family.QUICKSELECT;
     bDstMem = null;
+    bSparse = false;
+    bStats = null;
+    bGrowthExecutor = null;
+    bGrowthPrefetch = DEFAULT_GROWTH_PREFETCH;
   }
   
   /**
@@ -84,6 +107,30 @@ public class UpdateSketchBuilder {
     return bSeed;
   }
   
+  /**
+   * Sets the hash function with which the sketch hashes its input. It is identified by the seed 
+   * hash, so set operations only combine sketches of the same hash function. 
+   * {@link HashFunction#XXHASH64} is considerably faster for short keys than the default, 
+   * {@link HashFunction#MURMUR3}.
+   * @param hashFn the hash function
+   * @return this UpdateSketchBuilder
+   */
+  public UpdateSketchBuilder setHashFunction(HashFunction hashFn) {
+    if (hashFn == null) {
+      throw new IllegalArgumentException("hashFn must not be null");
+    }
+    bHashFn = hashFn;
+    return this;
+  }
+  
+  /**
+   * Returns the hash function
+   * @return the hash function
+   */
+  public HashFunction getHashFunction() {
+    return bHashFn;
+  }
+  
   /**
    * Sets the upfront uniform sampling probability, <i>p</i>
    * @param p <a href="{@docRoot}/resources/dictionary.html#p">See Sampling Probability, <i>p</i></a>
@@ -162,6 +209,97 @@ public class UpdateSketchBuilder {
     return bDstMem;
   }
   
+  /**
+   * Sets whether a heap QuickSelect sketch starts in a sparse form, which keeps its first few 
+   * hashes in a small sorted array instead of a hash table. This greatly reduces the memory of 
+   * sketches that retain only a few entries. The sketch converts itself to the hash table form 
+   * when it grows beyond the sparse limit. This only applies to the QuickSelect family 
+   * on the Java heap.
+   * @param sparse true if the sketch should start in sparse form
+   * @return this UpdateSketchBuilder
+   */
+  public UpdateSketchBuilder setSparse(boolean sparse) {
+    bSparse = sparse;
+    return this;
+  }
+  
+  /**
+   * Returns true if a heap QuickSelect sketch starts in sparse form
+   * @return true if a heap QuickSelect sketch starts in sparse form
+   */
+  public boolean isSparse() {
+    return bSparse;
+  }
+  
+  /**
+   * Sets the counters of the update path that the built sketches will increment. 
+   * The same instance may be given to several sketches that are updated by the same thread. 
+   * If null, which is the default, the built sketches do no counting at all.
+   * @param stats the counters of the update path, or null
+   * @return this UpdateSketchBuilder
+   */
+  public UpdateSketchBuilder setStats(UpdateStats stats) {
+    bStats = stats;
+    return this;
+  }
+  
+  /**
+   * Returns the counters of the update path given to the built sketches, or null
+   * @return the counters of the update path given to the built sketches, or null
+   */
+  public UpdateStats getStats() {
+    return bStats;
+  }
+  
+  /**
+   * Sets the Executor on which a Direct QuickSelect sketch requests its next, larger Memory ahead 
+   * of time and frees the Memory it has grown out of. The update thread then only moves the hash 
+   * table into the new Memory when the resize threshold is reached. If the request made ahead has 
+   * not completed by then, the update thread waits for it.
+   * 
+   * <p>This only applies to a Direct sketch whose Memory has a MemoryRequest, 
+   * which must then be thread safe. A Memory requested ahead that the sketch never grows into 
+   * remains the responsibility of the MemoryRequest, like the Memory of the sketch itself. 
+   * If null, which is the default, the sketch grows synchronously on the update thread.</p>
+   * @param executor the Executor of the Memory requests, or null
+   * @return this UpdateSketchBuilder
+   */
+  public UpdateSketchBuilder setGrowthExecutor(Executor executor) {
+    bGrowthExecutor = executor;
+    return this;
+  }
+  
+  /**
+   * Returns the Executor of the Memory requests made ahead of time, or null
+   * @return the Executor of the Memory requests made ahead of time, or null
+   */
+  public Executor getGrowthExecutor() {
+    return bGrowthExecutor;
+  }
+  
+  /**
+   * Sets how early the next Memory is requested when a growth Executor is given: 
+   * the request is made once the retained entries reach this fraction of the resize threshold 
+   * of the current hash table.
+   * @param fraction the fraction of the resize threshold, which must be &gt; 0 and &le; 1.0
+   * @return this UpdateSketchBuilder
+   */
+  public UpdateSketchBuilder setGrowthPrefetch(float fraction) {
+    if ((fraction <= 0.0) || (fraction > 1.0)) {
+      throw new IllegalArgumentException("Growth prefetch must be > 0 and <= 1.0: "+fraction);
+    }
+    bGrowthPrefetch = fraction;
+    return this;
+  }
+  
+  /**
+   * Returns the fraction of the resize threshold at which the next Memory is requested ahead
+   * @return the fraction of the resize threshold at which the next Memory is requested ahead
+   */
+  public float getGrowthPrefetch() {
+    return bGrowthPrefetch;
+  }
+  
   /**
    * Returns an UpdateSketch with the current configuration of this Builder.
    * @return an UpdateSketch
@@ -170,6 +308,9 @@ public class UpdateSketchBuilder {
     UpdateSketch sketch = null;
     switch (bFam) {
       case ALPHA: {
+        if (bSparse) {
+          throw new IllegalArgumentException("AlphaSketch cannot be made Sparse.");
+        }
         if (bDstMem == null) {
           sketch = new HeapAlphaSketch(bLgNomLongs, bSeed, bP, bRF);
         } 
@@ -180,11 +321,19 @@ public class UpdateSketchBuilder {
       }
       case QUICKSELECT: {
         if (bDstMem == null) {
-          sketch = new HeapQuickSelectSketch(bLgNomLongs, bSeed, bP, bRF, false);
+          sketch = bSparse? new HeapSparseSketch(bLgNomLongs, bSeed, bP, bRF)
+              : new HeapQuickSelectSketch(bLgNomLongs, bSeed, bP, bRF, false);
         } 
+        else if (bSparse) {
+          throw new IllegalArgumentException("A Direct sketch cannot be made Sparse.");
+        }
         else {
-          sketch = 
+          DirectQuickSelectSketch dqs = 
             new DirectQuickSelectSketch(bLgNomLongs, bSeed, bP, bRF, bDstMem, false);
+          if (bGrowthExecutor != null) {
+            dqs.setGrowthExecutor(bGrowthExecutor, bGrowthPrefetch);
+          }
+          sketch = dqs;
         }
         break;
       }
@@ -193,6 +342,10 @@ public class UpdateSketchBuilder {
           "Given Family cannot be built as a Sketch: "+bFam.toString());
       }
     }
+    if (bStats != null) {
+      sketch.setStats(bStats);
+    }
+    sketch.setHashFunction(bHashFn);
     return sketch;
   }
   
@@ -215,10 +368,15 @@ public class UpdateSketchBuilder {
        append("LgK:").append(TAB).append(bLgNomLongs).append(LS).
        append("K:").append(TAB).append(1 << bLgNomLongs).append(LS).
        append("Seed:").append(TAB).append(bSeed).append(LS).
+       append("HashFunction:").append(TAB).append(bHashFn).append(LS).
        append("p:").append(TAB).append(bP).append(LS).
        append("ResizeFactor:").append(TAB).append(bRF).append(LS).
        append("Family:").append(TAB).append(bFam).append(LS).
-       append("DstMemory:").append(TAB).append(bDstMem != null).append(LS);
+       append("DstMemory:").append(TAB).append(bDstMem != null).append(LS).
+       append("Sparse:").append(TAB).append(bSparse).append(LS).
+       append("Stats:").append(TAB).append(bStats != null).append(LS).
+       append("GrowthExecutor:").append(TAB).append(bGrowthExecutor != null).append(LS).
+       append("GrowthPrefetch:").append(TAB).append(bGrowthPrefetch).append(LS);
     return sb.toString();
   }
   
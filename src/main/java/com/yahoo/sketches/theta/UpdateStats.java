@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.theta;
+
+import static com.yahoo.sketches.Util.LS;
+import static com.yahoo.sketches.Util.TAB;
+
+/**
+ * Counters of the update path of one or more UpdateSketches. An instance is attached to a sketch
+ * with {@link UpdateSketchBuilder#setStats(UpdateStats)}. The same instance may be given to
+ * several sketches that are updated by the same thread, or the instances of several sketches can
+ * be combined afterwards with {@link #merge(UpdateStats)}. A sketch built without an instance
+ * does no counting at all.
+ *
+ * <p>The outcome of every update that reaches the hash table is counted, as well as the resizes
+ * and rebuilds of the hash table and the time spent in the rebuilds. The number of probes of the
+ * hash table needed to find the slot of a hash is sampled once every
+ * 2<sup>{@value #LG_PROBE_SAMPLE_INTERVAL}</sup> updates, since it requires an extra lookup.</p>
+ *
+ * <p>This class is not thread safe.</p>
+ */
+public class UpdateStats {
+  static final int LG_PROBE_SAMPLE_INTERVAL = 6;
+  private static final int PROBE_SAMPLE_MASK = (1 << LG_PROBE_SAMPLE_INTERVAL) - 1;
+
+  private long inserts_;
+  private long duplicates_;
+  private long overTheta_;
+  private long resizes_;
+  private long rebuilds_;
+  private long rebuildNanos_;
+  private long probeSamples_;
+  private long probeSum_;
+  private int maxProbeLength_;
+  private int sampleCounter_;
+
+  /**
+   * Creates a new set of counters, all zero.
+   */
+  public UpdateStats() {}
+
+  /**
+   * Returns the number of hashes inserted into the hash table
+   * @return the number of hashes inserted into the hash table
+   */
+  public long getInserts() {
+    return inserts_;
+  }
+
+  /**
+   * Returns the number of hashes rejected as duplicates
+   * @return the number of hashes rejected as duplicates
+   */
+  public long getDuplicates() {
+    return duplicates_;
+  }
+
+  /**
+   * Returns the number of hashes rejected because they were not less than theta
+   * @return the number of hashes rejected because they were not less than theta
+   */
+  public long getRejectedOverTheta() {
+    return overTheta_;
+  }
+
+  /**
+   * Returns the number of times a hash table was resized to a larger size
+   * @return the number of times a hash table was resized to a larger size
+   */
+  public long getResizes() {
+    return resizes_;
+  }
+
+  /**
+   * Returns the number of times a hash table was rebuilt with a lower theta
+   * @return the number of times a hash table was rebuilt with a lower theta
+   */
+  public long getRebuilds() {
+    return rebuilds_;
+  }
+
+  /**
+   * Returns the total time spent in rebuilds in nanoseconds
+   * @return the total time spent in rebuilds in nanoseconds
+   */
+  public long getRebuildNanos() {
+    return rebuildNanos_;
+  }
+
+  /**
+   * Returns the number of sampled probe lengths
+   * @return the number of sampled probe lengths
+   */
+  public long getProbeSamples() {
+    return probeSamples_;
+  }
+
+  /**
+   * Returns the mean of the sampled probe lengths, where a hash found or placed in its first slot
+   * has a probe length of one. Returns zero if there are no samples.
+   * @return the mean of the sampled probe lengths
+   */
+  public double getMeanProbeLength() {
+    return (probeSamples_ == 0) ? 0.0 : (double) probeSum_ / probeSamples_;
+  }
+
+  /**
+   * Returns the largest sampled probe length
+   * @return the largest sampled probe length
+   */
+  public int getMaxProbeLength() {
+    return maxProbeLength_;
+  }
+
+  /**
+   * Adds the counts of the given instance to this one.
+   * @param other the given instance
+   * @return this instance
+   */
+  public UpdateStats merge(UpdateStats other) {
+    inserts_ += other.inserts_;
+    duplicates_ += other.duplicates_;
+    overTheta_ += other.overTheta_;
+    resizes_ += other.resizes_;
+    rebuilds_ += other.rebuilds_;
+    rebuildNanos_ += other.rebuildNanos_;
+    probeSamples_ += other.probeSamples_;
+    probeSum_ += other.probeSum_;
+    maxProbeLength_ = Math.max(maxProbeLength_, other.maxProbeLength_);
+    return this;
+  }
+
+  /**
+   * Sets all counters back to zero.
+   */
+  public void reset() {
+    inserts_ = 0;
+    duplicates_ = 0;
+    overTheta_ = 0;
+    resizes_ = 0;
+    rebuilds_ = 0;
+    rebuildNanos_ = 0;
+    probeSamples_ = 0;
+    probeSum_ = 0;
+    maxProbeLength_ = 0;
+    sampleCounter_ = 0;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("UpdateStats:").append(LS).
+       append("Inserts:").append(TAB).append(inserts_).append(LS).
+       append("Duplicates:").append(TAB).append(duplicates_).append(LS).
+       append("RejectedOverTheta:").append(TAB).append(overTheta_).append(LS).
+       append("Resizes:").append(TAB).append(resizes_).append(LS).
+       append("Rebuilds:").append(TAB).append(rebuilds_).append(LS).
+       append("RebuildNanos:").append(TAB).append(rebuildNanos_).append(LS).
+       append("ProbeSamples:").append(TAB).append(probeSamples_).append(LS).
+       append("MeanProbeLength:").append(TAB).append(getMeanProbeLength()).append(LS).
+       append("MaxProbeLength:").append(TAB).append(maxProbeLength_).append(LS);
+    return sb.toString();
+  }
+
+  //restricted methods
+
+  void countUpdate(UpdateReturnState state) {
+    switch (state) {
+      case InsertedCountIncremented:
+      case InsertedCountNotIncremented: {
+        inserts_++;
+        break;
+      }
+      case RejectedDuplicate: {
+        duplicates_++;
+        break;
+      }
+      case RejectedOverTheta: {
+        overTheta_++;
+        break;
+      }
+      default: //nothing to count
+    }
+  }
+
+  void countResize() {
+    resizes_++;
+  }
+
+  void countRebuild(long nanos) {
+    rebuilds_++;
+    rebuildNanos_ += nanos;
+  }
+
+  /**
+   * Returns true if the probe length of the current update should be sampled
+   * @return true if the probe length of the current update should be sampled
+   */
+  boolean sampleProbe() {
+    return (sampleCounter_++ & PROBE_SAMPLE_MASK) == 0;
+  }
+
+  void recordProbeLength(int probeLength) {
+    probeSamples_++;
+    probeSum_ += probeLength;
+    maxProbeLength_ = Math.max(maxProbeLength_, probeLength);
+  }
+
+}
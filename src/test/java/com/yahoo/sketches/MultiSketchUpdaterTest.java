@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches;
+
+import static com.yahoo.sketches.Util.DEFAULT_UPDATE_SEED;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+import com.yahoo.sketches.hash.HashFunction;
+import com.yahoo.sketches.hash.MurmurHash3;
+import com.yahoo.sketches.hll.HllSketch;
+import com.yahoo.sketches.theta.UpdateReturnState;
+import com.yahoo.sketches.theta.UpdateSketch;
+
+public class MultiSketchUpdaterTest {
+
+  @Test
+  public void checkSameAsIndividualUpdates() {
+    UpdateSketch theta1 = UpdateSketch.builder().build(64);
+    UpdateSketch theta2 = UpdateSketch.builder().build(1024);
+    HllSketch hll = HllSketch.builder().setLogBuckets(10).build();
+    MultiSketchUpdater updater = new MultiSketchUpdater().add(theta1).add(theta2).add(hll);
+    assertEquals(updater.getNumSketches(), 3);
+
+    UpdateSketch expTheta1 = UpdateSketch.builder().build(64);
+    UpdateSketch expTheta2 = UpdateSketch.builder().build(1024);
+    HllSketch expHll = HllSketch.builder().setLogBuckets(10).build();
+
+    for (int i = 0; i < 2000; i++) {
+      updater.update((long) i);
+      updater.update("s" + i);
+      updater.update(new int[] {i, 1});
+      expTheta1.update(i);
+      expTheta1.update("s" + i);
+      expTheta1.update(new int[] {i, 1});
+      expTheta2.update(i);
+      expTheta2.update("s" + i);
+      expTheta2.update(new int[] {i, 1});
+      expHll.update(new long[] {i});
+      expHll.update(("s" + i).getBytes(UTF_8));
+      expHll.update(new int[] {i, 1});
+    }
+    updater.update(-0.0);
+    expTheta1.update(0.0);
+    expTheta2.update(0.0);
+    expHll.update(new long[] {Double.doubleToLongBits(0.0)});
+    updater.update(new byte[] {1, 2});
+    expTheta1.update(new byte[] {1, 2});
+    expTheta2.update(new byte[] {1, 2});
+    expHll.update(new byte[] {1, 2});
+    updater.update(new long[] {3, 4});
+    expTheta1.update(new long[] {3, 4});
+    expTheta2.update(new long[] {3, 4});
+    expHll.update(new long[] {3, 4});
+
+    //null or empty are ignored
+    updater.update((String) null);
+    updater.update("");
+    updater.update((byte[]) null);
+    updater.update(new int[0]);
+    updater.update(new long[0]);
+
+    assertEquals(theta1.compact().toByteArray(), expTheta1.compact().toByteArray());
+    assertEquals(theta2.compact().toByteArray(), expTheta2.compact().toByteArray());
+    assertEquals(hll.toByteArray(), expHll.toByteArray());
+  }
+
+  @Test
+  public void checkUpdateWithHash() {
+    UpdateSketch sk = UpdateSketch.builder().setSeed(123L).build(64);
+    long[] hash = MurmurHash3.hash(new long[] {7}, 123L);
+    assertEquals(sk.updateWithHash(hash, 123L), UpdateReturnState.InsertedCountIncremented);
+    assertEquals(sk.update(7L), UpdateReturnState.RejectedDuplicate);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkThetaSeedMismatch() {
+    UpdateSketch sk = UpdateSketch.builder().build(64);
+    new MultiSketchUpdater(123L).add(sk); //rejected before any update
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkThetaHashFunctionMismatch() {
+    UpdateSketch sk = UpdateSketch.builder().setHashFunction(HashFunction.XXHASH64).build(64);
+    new MultiSketchUpdater().add(sk);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkHllSeedMismatch() {
+    new MultiSketchUpdater(123L).add(HllSketch.builder().setLogBuckets(10).build());
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkHllUpdateWithHashSeedMismatch() {
+    HllSketch hll = HllSketch.builder().setLogBuckets(10).build();
+    hll.updateWithHash(MurmurHash3.hash(new long[] {7}, DEFAULT_UPDATE_SEED), 123L);
+  }
+
+}
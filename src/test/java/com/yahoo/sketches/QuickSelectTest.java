@@ -6,14 +6,19 @@ package com.yahoo.sketches;
 
 import static com.yahoo.sketches.QuickSelect.select;
 import static com.yahoo.sketches.QuickSelect.selectExcludingZeros;
+import static com.yahoo.sketches.QuickSelect.selectFloydRivest;
+import static com.yahoo.sketches.QuickSelect.selectFloydRivestExcludingZeros;
 import static com.yahoo.sketches.QuickSelect.selectIncludingZeros;
 import static java.lang.String.format;
 
+import java.util.Arrays;
 import java.util.Random;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import com.yahoo.sketches.memory.NativeMemory;
+
 /**
  * @author Lee Rhodes
  */
@@ -416,6 +421,82 @@ public class QuickSelectTest {
 //
 //  }
   
+  @Test
+  public void checkSelectInMemory() {
+    Random rand = new Random(7);
+    int len = 1000;
+    long[] arr = new long[len];
+    for (int i = 0; i < len; i++) {
+      arr[i] = (i % 4 == 0) ? 0 : (rand.nextLong() >>> 1);
+    }
+    long[] copy = arr.clone();
+    int nonZeros = len - 250;
+    long exp = selectExcludingZeros(copy, nonZeros, 100);
+    NativeMemory mem = new NativeMemory(new byte[16 + (len << 3)]);
+    mem.putLongArray(16, arr, 0, len);
+    Assert.assertEquals(selectExcludingZeros(mem, 16, len, nonZeros, 100), exp);
+    Assert.assertEquals(selectExcludingZeros(mem, 16, len, nonZeros, nonZeros + 1), 0L);
+    long[] result = new long[len];
+    mem.getLongArray(16, result, 0, len);
+    Assert.assertEquals(result, copy); //same permutation as the array version
+    Assert.assertEquals(select(mem, 16, 0, len - 1, len - 1), select(copy, 0, len - 1, len - 1));
+  }
+  
+  @Test
+  public void checkFloydRivest() {
+    Random rand = new Random(11);
+    int[] sizes = {1, 2, 3, 10, 601, 1000, 5000};
+    for (int len : sizes) {
+      for (int variant = 0; variant < 4; variant++) {
+        long[] arr = new long[len];
+        for (int i = 0; i < len; i++) {
+          switch (variant) {
+            case 0: arr[i] = rand.nextLong() >>> 1; break;
+            case 1: arr[i] = i; break; //sorted
+            case 2: arr[i] = len - i; break; //reverse sorted
+            default: arr[i] = rand.nextInt(5); break; //many duplicates and zeros
+          }
+        }
+        long[] sorted = arr.clone();
+        Arrays.sort(sorted);
+        for (int k : new int[] {0, len / 3, len / 2, len - 1}) {
+          long[] work = arr.clone();
+          Assert.assertEquals(selectFloydRivest(work, 0, len - 1, k), sorted[k]);
+          for (int i = 0; i < k; i++) Assert.assertTrue(work[i] <= sorted[k]);
+          for (int i = k + 1; i < len; i++) Assert.assertTrue(work[i] >= sorted[k]);
+          
+          NativeMemory mem = new NativeMemory(new byte[8 + (len << 3)]);
+          mem.putLongArray(8, arr, 0, len);
+          Assert.assertEquals(selectFloydRivest(mem, 8, 0, len - 1, k), sorted[k]);
+          long[] memWork = new long[len];
+          mem.getLongArray(8, memWork, 0, len);
+          Assert.assertEquals(memWork, work); //same permutation as the array version
+        }
+      }
+    }
+  }
+  
+  @Test
+  public void checkFloydRivestExcludingZeros() {
+    Random rand = new Random(12);
+    int len = 1 << 12;
+    long[] arr = new long[len];
+    int nonZeros = 0;
+    for (int i = 0; i < len; i++) {
+      if (rand.nextInt(16) != 0) {
+        arr[i] = rand.nextLong() >>> 1;
+        nonZeros++;
+      }
+    }
+    int pivot = (len / 2) + 1;
+    long exp = selectExcludingZeros(arr.clone(), nonZeros, pivot);
+    Assert.assertEquals(selectFloydRivestExcludingZeros(arr.clone(), nonZeros, pivot), exp);
+    Assert.assertEquals(selectFloydRivestExcludingZeros(arr.clone(), nonZeros, nonZeros + 1), 0L);
+    NativeMemory mem = new NativeMemory(arr.clone());
+    Assert.assertEquals(selectFloydRivestExcludingZeros(mem, 0, len, nonZeros, pivot), exp);
+    Assert.assertEquals(selectFloydRivestExcludingZeros(mem, 0, len, nonZeros, nonZeros + 1), 0L);
+  }
+  
   @Test
   public void printlnTest() {
     println("PRINTING: "+this.getClass().getName());
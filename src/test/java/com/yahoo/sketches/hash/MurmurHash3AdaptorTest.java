@@ -4,15 +4,24 @@
  */
 package com.yahoo.sketches.hash;
 
+import static com.yahoo.sketches.Util.ceilingPowerOf2;
 import static com.yahoo.sketches.hash.MurmurHash3Adaptor.asDouble;
 import static com.yahoo.sketches.hash.MurmurHash3Adaptor.asInt;
+import static com.yahoo.sketches.hash.MurmurHash3Adaptor.hashAsDouble;
+import static com.yahoo.sketches.hash.MurmurHash3Adaptor.hashModulo;
 import static com.yahoo.sketches.hash.MurmurHash3Adaptor.hashToBytes;
 import static com.yahoo.sketches.hash.MurmurHash3Adaptor.hashToLongs;
 import static com.yahoo.sketches.hash.MurmurHash3Adaptor.modulo;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Random;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import com.yahoo.sketches.memory.Memory;
+import com.yahoo.sketches.memory.NativeMemory;
+
 /**
  * @author Lee Rhodes
  */
@@ -75,6 +84,20 @@ public class MurmurHash3AdaptorTest {
 
   }
 
+  @Test
+  public void checkToBytesAndLongsMemory() {
+    byte[] arr = { 0, 1, 2, 3 };
+    Memory mem = new NativeMemory(arr);
+    Assert.assertEquals(hashToBytes(mem, 1, 2, 0L), hashToBytes(new byte[] { 1, 2 }, 0L));
+    Assert.assertEquals(hashToLongs(mem, 1, 2, 0L), hashToLongs(new byte[] { 1, 2 }, 0L));
+    mem = null;
+    Assert.assertEquals(hashToBytes(mem, 0, 2, 0L), null);
+    Assert.assertEquals(hashToLongs(mem, 0, 2, 0L), null);
+    mem = new NativeMemory(arr);
+    Assert.assertEquals(hashToBytes(mem, 2, 0, 0L), null);
+    Assert.assertEquals(hashToLongs(mem, 2, 0, 0L), null);
+  }
+
   @Test
   public void checkToBytesDouble() {
     byte[] result = hashToBytes(1.0, 0L);
@@ -314,6 +337,118 @@ public class MurmurHash3AdaptorTest {
     asInt(s, 1);
   }
   
+  //Check the allocation-free functions against the array based ones they replace
+  
+  @Test
+  public void checkAsIntSameAsArrays() {
+    Random rand = new Random(1);
+    int[] ns = { 2, 3, 7, 1000, (3 << 28), (1 << 30) + 1, Integer.MAX_VALUE };
+    for (int trial = 0; trial < 300; trial++) {
+      int n = ns[trial % ns.length];
+      long[] longArr = new long[1 + rand.nextInt(5)];
+      for (int i = 0; i < longArr.length; i++) { longArr[i] = rand.nextLong(); }
+      Assert.assertEquals(asInt(longArr, n), oldAsInteger(longArr, n));
+      Assert.assertEquals(asInt(longArr[0], n), oldAsInteger(new long[] {longArr[0]}, n));
+      double d = Double.longBitsToDouble(longArr[0]);
+      Assert.assertEquals(asInt(d, n), 
+          oldAsInteger(new long[] {Double.doubleToLongBits(d)}, n));
+      
+      int[] intArr = new int[1 + rand.nextInt(5)];
+      for (int i = 0; i < intArr.length; i++) { intArr[i] = rand.nextInt(); }
+      Assert.assertEquals(asInt(intArr, n), oldAsInteger(oldToLongArray(intArr), n));
+      Assert.assertEquals(asInt(intArr[0], n), asInt(new int[] {intArr[0]}, n)); //int as long
+      
+      byte[] byteArr = new byte[1 + rand.nextInt(20)];
+      rand.nextBytes(byteArr);
+      int expected = oldAsInteger(oldToLongArray(byteArr), n);
+      Assert.assertEquals(asInt(byteArr, n), expected);
+      Memory mem = new NativeMemory(new byte[byteArr.length + 5]);
+      mem.putByteArray(3, byteArr, 0, byteArr.length);
+      Assert.assertEquals(asInt(mem, 3, byteArr.length, n), expected);
+      
+      StringBuilder sb = new StringBuilder();
+      for (int i = rand.nextInt(12) + 1; i-- > 0;) { sb.append((char) rand.nextInt(0X3000)); }
+      if ((trial & 1) == 0) { sb.append("\ud83d\ude00"); }
+      else if ((trial % 3) == 0) { sb.append('\ud83d'); } //unpaired
+      String str = sb.toString();
+      Assert.assertEquals(asInt(str, n), oldAsInteger(oldToLongArray(str.getBytes(UTF_8)), n));
+    }
+  }
+  
+  @Test
+  public void checkHashAsDoubleAndModuloSameAsArrays() {
+    Random rand = new Random(2);
+    long seed = 9001L;
+    for (int trial = 0; trial < 200; trial++) {
+      int div = 1 + rand.nextInt(1000);
+      long v = rand.nextLong();
+      Assert.assertEquals(hashAsDouble(v, seed), asDouble(hashToLongs(v, seed)));
+      Assert.assertEquals(hashModulo(v, seed, div), modulo(hashToLongs(v, seed), div));
+      
+      double d = (trial == 0) ? -0.0 : rand.nextGaussian();
+      Assert.assertEquals(hashAsDouble(d, seed), asDouble(hashToLongs(d, seed)));
+      Assert.assertEquals(hashModulo(d, seed, div), modulo(hashToLongs(d, seed), div));
+      
+      String str = "key-" + v + "-\u00e9\u20ac";
+      Assert.assertEquals(hashAsDouble(str, seed), asDouble(hashToLongs(str, seed)));
+      Assert.assertEquals(hashModulo(str, seed, div), modulo(hashToLongs(str, seed), div));
+      
+      byte[] byteArr = new byte[1 + rand.nextInt(40)];
+      rand.nextBytes(byteArr);
+      Memory mem = new NativeMemory(byteArr);
+      Assert.assertEquals(hashAsDouble(mem, 0, byteArr.length, seed), 
+          asDouble(hashToLongs(byteArr, seed)));
+      Assert.assertEquals(hashModulo(mem, 0, byteArr.length, seed, div), 
+          modulo(hashToLongs(byteArr, seed), div));
+    }
+  }
+  
+  @Test (expectedExceptions = IllegalArgumentException.class)
+  public void checkHashModuloStringEmpty() {
+    hashModulo("", 0L, 7);
+  }
+  
+  @Test (expectedExceptions = IllegalArgumentException.class)
+  public void checkAsIntMemoryEmpty() {
+    asInt(new NativeMemory(new byte[8]), 0, 0, 7);
+  }
+  
+  @Test (expectedExceptions = IllegalArgumentException.class)
+  public void checkAsIntMemoryOutOfBounds() {
+    asInt(new NativeMemory(new byte[8]), 4, 5, 7);
+  }
+  
+  //The array based asInt as it was before the allocation-free functions
+  private static int oldAsInteger(long[] data, int n) {
+    long seed = 0;
+    long mask = (n > (1 << 30)) ? 0X7FFFFFFFL : ceilingPowerOf2(n) - 1;
+    for (int cnt = 1; cnt < 10000; cnt++) {
+      long[] h = MurmurHash3.hash(data, seed);
+      long[] t = { h[0] & mask, (h[0] >>> 33) & mask, h[1] & mask, (h[1] >>> 33) & mask };
+      for (long ti : t) {
+        if (ti < n) { return (int) ti; }
+      }
+      seed += 9219741426499971445L;
+    }
+    throw new IllegalStateException();
+  }
+  
+  private static long[] oldToLongArray(byte[] data) {
+    long[] longArr = new long[(data.length + 7) / 8];
+    for (int bi = 0; bi < data.length; bi++) {
+      longArr[bi / 8] |= (((long) data[bi]) << (bi * 8) % 64);
+    }
+    return longArr;
+  }
+  
+  private static long[] oldToLongArray(int[] data) {
+    long[] longArr = new long[(data.length + 1) / 2];
+    for (int ii = 0; ii < data.length; ii++) {
+      longArr[ii / 2] |= (((long) data[ii]) << (ii * 32) % 64);
+    }
+    return longArr;
+  }
+  
   @Test
   public void printlnTest() {
     println("PRINTING: "+this.getClass().getName());
@@ -7,10 +7,19 @@ package com.yahoo.sketches.hash;
 import static com.yahoo.sketches.hash.MurmurHash3.hash;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import com.yahoo.sketches.hash.MurmurHash3;
+import com.yahoo.sketches.memory.AllocMemory;
+import com.yahoo.sketches.memory.ByteBufferMemory;
+import com.yahoo.sketches.memory.Memory;
+import com.yahoo.sketches.memory.MemoryRegion;
+import com.yahoo.sketches.memory.NativeMemory;
 
 /**
  * Tests the MurmurHash3 against specific, known hash results given known
@@ -170,6 +179,111 @@ public class MurmurHash3Test {
     return out;
   }
 
+  @Test
+  public void checkMemoryRegionSameAsByteArr() {
+    String keyStr = "The quick brown fox jumps over the lazy dog";
+    byte[] key = keyStr.getBytes(UTF_8);
+    long[] result = hash(new NativeMemory(key), 0, key.length, 0);
+    Assert.assertEquals(result[0], 0xe34bbc7bbc071b6cL);
+    Assert.assertEquals(result[1], 0x7a433ca9c49a9347L);
+
+    byte[] arr = new byte[100];
+    for (int i = 0; i < arr.length; i++) { arr[i] = (byte) ((i * 37) + 11); }
+    AllocMemory aMem = new AllocMemory(arr.length + 3);
+    aMem.putByteArray(3, arr, 0, arr.length);
+    Memory bMem = new ByteBufferMemory(arr);
+    for (int off = 0; off < 20; off += 7) {
+      for (int len = 0; len <= (arr.length - off); len++) {
+        byte[] sub = new byte[len];
+        System.arraycopy(arr, off, sub, 0, len);
+        long[] expected = hash(sub, 123L);
+        Assert.assertEquals(hash(aMem, off + 3, len, 123L), expected);
+        Assert.assertEquals(hash(new MemoryRegion(aMem, off + 3, len), 0, len, 123L), expected);
+        Assert.assertEquals(hash(bMem, off, len, 123L), expected);
+      }
+    }
+    aMem.freeMemory();
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkMemoryRegionOutOfBounds() {
+    hash(new NativeMemory(new byte[16]), 8, 9, 0);
+  }
+
+  @Test
+  public void checkHasherSameAsConcatenatedArray() {
+    MurmurHash3.Hasher hasher = new MurmurHash3.Hasher(123L);
+    Random rand = new Random(1);
+    for (int trial = 0; trial < 500; trial++) {
+      ByteBuffer buf = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+      int fields = rand.nextInt(8);
+      for (int f = 0; f < fields; f++) {
+        switch (rand.nextInt(4)) {
+          case 0: {
+            long v = rand.nextLong();
+            hasher.putLong(v);
+            buf.putLong(v);
+            break;
+          }
+          case 1: {
+            int v = rand.nextInt();
+            hasher.putInt(v);
+            buf.putInt(v);
+            break;
+          }
+          case 2: {
+            byte v = (byte) rand.nextInt();
+            hasher.putByte(v);
+            buf.put(v);
+            break;
+          }
+          default: {
+            byte[] v = new byte[rand.nextInt(40)];
+            rand.nextBytes(v);
+            hasher.putBytes(v);
+            buf.put(v);
+          }
+        }
+      }
+      byte[] key = new byte[buf.position()];
+      buf.flip();
+      buf.get(key);
+      Assert.assertEquals(hasher.getLengthBytes(), key.length);
+      Assert.assertEquals(hasher.finish(), hash(key, 123L));
+      Assert.assertEquals(hasher.getLengthBytes(), 0); //starts over
+    }
+  }
+
+  @Test
+  public void checkHasherSameAsLongAndIntArr() {
+    MurmurHash3.Hasher hasher = new MurmurHash3.Hasher(0);
+    long[] longs = { 1L, -2L, 3L, Long.MIN_VALUE, 0x0123456789ABCDEFL };
+    for (long v : longs) { hasher.putLong(v); }
+    Assert.assertEquals(hasher.finish(), hash(longs, 0));
+    int[] ints = { 7, -1, 0x80000000, 42, 5 };
+    for (int v : ints) { hasher.putInt(v); }
+    long[] h = hasher.finish();
+    Assert.assertEquals(h, hash(ints, 0));
+    Assert.assertTrue(h == hasher.finish()); //reused
+  }
+
+  @Test
+  public void checkHasherPutString() {
+    MurmurHash3.Hasher hasher = new MurmurHash3.Hasher(0);
+    String[] strs = { "", "The quick brown fox jumps over the lazy dog", "caf\u00e9", "\u20ac100",
+        "\ud83d\ude00 smile", "bad \ud83d surrogate", "tail \ude00", "end\ud83d" };
+    for (String str : strs) {
+      hasher.putString(str);
+      Assert.assertEquals(hasher.finish(), hash(str.getBytes(UTF_8), 0), str);
+    }
+    hasher.putString("tenant").putLong(17L).putString("dev\u00ef\u00e7e");
+    hasher.reset();
+    hasher.putString("The quick brown fox jumps over the lazy dog");
+    long[] result = hasher.finish();
+    Assert.assertEquals(result[0], 0xe34bbc7bbc071b6cL);
+    Assert.assertEquals(result[1], 0x7a433ca9c49a9347L);
+  }
+
   @Test
   public void printlnTest() {
     println("PRINTING: "+this.getClass().getName());
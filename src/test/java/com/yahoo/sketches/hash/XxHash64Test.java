@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.hash;
+
+import static com.yahoo.sketches.Util.DEFAULT_UPDATE_SEED;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.yahoo.sketches.memory.NativeMemory;
+
+/**
+ * Tests the XxHash64 against known hash results of the reference XXH64 and the HashFunction.
+ */
+public class XxHash64Test {
+
+  @Test
+  public void checkKnownResults() {
+    assertEquals(XxHash64.hash(new byte[0], 0L), 0XEF46DB3751D8E999L);
+    assertEquals(XxHash64.hash("abc".getBytes(UTF_8), 0L), 0X44BC2CF5AD770999L);
+    byte[] fox = "The quick brown fox jumps over the lazy dog".getBytes(UTF_8);
+    assertEquals(XxHash64.hash(fox, 0L), 0X0B242D361FDA71BCL);
+    assertEquals(XxHash64.hash(fox, 9001L), 0XF9A44825A085FB77L);
+  }
+
+  @Test
+  public void checkArraysHashLikeTheirBytes() {
+    for (int n = 0; n < 80; n++) {
+      long[] longs = new long[n];
+      int[] ints = new int[2 * n + 1];
+      for (int i = 0; i < n; i++) {
+        longs[i] = (i * 0X9E3779B97F4A7C15L) ^ n;
+        ints[2 * i] = (int) longs[i];
+        ints[2 * i + 1] = (int) (longs[i] >>> 32);
+      }
+      ints[2 * n] = -n;
+      NativeMemory mem = new NativeMemory(new byte[(ints.length << 2) + 3]);
+      mem.putIntArray(0, ints, 0, ints.length);
+
+      byte[] longBytes = new byte[n << 3];
+      mem.getByteArray(0, longBytes, 0, longBytes.length);
+      assertEquals(XxHash64.hash(longs, DEFAULT_UPDATE_SEED),
+          XxHash64.hash(longBytes, DEFAULT_UPDATE_SEED));
+
+      byte[] intBytes = new byte[ints.length << 2];
+      mem.getByteArray(0, intBytes, 0, intBytes.length);
+      long h = XxHash64.hash(ints, DEFAULT_UPDATE_SEED);
+      assertEquals(h, XxHash64.hash(intBytes, DEFAULT_UPDATE_SEED));
+      assertEquals(h, XxHash64.hash(mem, 0, intBytes.length, DEFAULT_UPDATE_SEED));
+    }
+  }
+
+  @Test
+  public void checkSingleLong() {
+    for (long x : new long[] {0L, 1L, -1L, Long.MIN_VALUE, 0X123456789ABCDEFL}) {
+      assertEquals(XxHash64.hash(x, DEFAULT_UPDATE_SEED),
+          XxHash64.hash(new long[] {x}, DEFAULT_UPDATE_SEED));
+      assertEquals(HashFunction.XXHASH64.hash(x, DEFAULT_UPDATE_SEED),
+          XxHash64.hash(x, DEFAULT_UPDATE_SEED));
+      assertEquals(HashFunction.MURMUR3.hash(x, DEFAULT_UPDATE_SEED),
+          MurmurHash3.hash(new long[] {x}, DEFAULT_UPDATE_SEED)[0]);
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkMemoryRegionOutOfBounds() {
+    XxHash64.hash(new NativeMemory(new byte[16]), 8, 9, 0L);
+  }
+
+  @Test
+  public void checkSeedHashes() {
+    short murmurSeedHash = HashFunction.MURMUR3.computeSeedHash(DEFAULT_UPDATE_SEED);
+    short xxSeedHash = HashFunction.XXHASH64.computeSeedHash(DEFAULT_UPDATE_SEED);
+    assertTrue(murmurSeedHash != xxSeedHash);
+    assertEquals(HashFunction.fromSeedHash(murmurSeedHash, DEFAULT_UPDATE_SEED),
+        HashFunction.MURMUR3);
+    assertEquals(HashFunction.fromSeedHash(xxSeedHash, DEFAULT_UPDATE_SEED),
+        HashFunction.XXHASH64);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkUnknownSeedHash() {
+    short murmurSeedHash = HashFunction.MURMUR3.computeSeedHash(DEFAULT_UPDATE_SEED);
+    short xxSeedHash = HashFunction.XXHASH64.computeSeedHash(DEFAULT_UPDATE_SEED);
+    short other = 1;
+    while ((other == murmurSeedHash) || (other == xxSeedHash)) { other++; }
+    HashFunction.fromSeedHash(other, DEFAULT_UPDATE_SEED);
+  }
+
+  @Test
+  public void printlnTest() {
+    println("PRINTING: "+this.getClass().getName());
+  }
+
+  /**
+   * @param s value to print
+   */
+  static void println(String s) {
+    //System.out.println(s); //disable here
+  }
+
+}
@@ -0,0 +1,71 @@
+package com.yahoo.sketches.hll;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class HllCollectorsTest
+{
+  @Test
+  public void testSameAsSingleSketch()
+  {
+    HllSketch expected = HllSketch.builder().setLogBuckets(10).build();
+    for (long i = 0; i < 100000; i++) {
+      expected.update(new long[]{i});
+    }
+    HllSketch seq = LongStream.range(0, 100000).boxed().collect(HllCollectors.toSketch(10));
+    HllSketch par = LongStream.range(0, 100000).boxed().parallel().collect(HllCollectors.toSketch(10));
+    //the maximum per bucket does not depend on the order or the partitioning
+    Assert.assertEquals(seq.getEstimate(), expected.getEstimate(), 0.0);
+    Assert.assertEquals(par.getEstimate(), expected.getEstimate(), 0.0);
+    Assert.assertEquals(par.toByteArray(), expected.toByteArray());
+  }
+
+  @Test
+  public void testElementTypes()
+  {
+    HllSketch expected = HllSketch.builder().setLogBuckets(10).build();
+    Object[] all = {1L, 2, (short) 3, (byte) 4, 5.0, 6.0f, "seven", new byte[]{8},
+        new int[]{9}, new long[]{10L}, null, "", new byte[0], new int[0], new long[0]};
+    for (Object o : all) {
+      HllCollectors.update(expected, o);
+    }
+    HllSketch collected = Arrays.asList(all).stream().collect(HllCollectors.toSketch(10));
+    Assert.assertEquals(collected.getEstimate(), 10.0, 0.5);
+    Assert.assertEquals(collected.getEstimate(), expected.getEstimate(), 0.0);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testBadElementType()
+  {
+    Arrays.<Object>asList(new Object()).stream().collect(HllCollectors.toSketch(10));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testHipNotAllowed()
+  {
+    HllCollectors.toSketch(HllSketch.builder().setHipEstimator(true));
+  }
+
+  @Test
+  public void testToUnion()
+  {
+    List<HllSketch> sketches = new ArrayList<>();
+    HllSketch expected = HllSketch.builder().setLogBuckets(10).build();
+    for (int s = 0; s < 32; s++) {
+      HllSketch sk = HllSketch.builder().setLogBuckets(10).setDenseMode(s % 2 == 0).build();
+      for (int i = 0; i < 300; i++) {
+        sk.update(new long[]{(s * 100) + i});
+      }
+      sketches.add(sk);
+      expected.union(sk);
+    }
+    sketches.add(null);
+    HllSketch par = sketches.parallelStream().collect(HllCollectors.toUnion(10));
+    Assert.assertEquals(par.getEstimate(), expected.getEstimate(), 0.0);
+  }
+}
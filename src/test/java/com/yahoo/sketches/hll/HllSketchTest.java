@@ -1,9 +1,17 @@
 package com.yahoo.sketches.hll;
 
+import com.yahoo.sketches.Util;
+import com.yahoo.sketches.hash.HashFunction;
+import com.yahoo.sketches.hash.MurmurHash3;
+import com.yahoo.sketches.memory.NativeMemory;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.util.Arrays;
 
 public class HllSketchTest
@@ -58,6 +66,93 @@ public class HllSketchTest
     Assert.assertEquals(compactNoPreambleBytes, new byte[compactNoPreambleBytes.length]);
   }
 
+  @Test(dataProvider = "sketches")
+  public void testWriteTo(HllSketch sketch) throws IOException
+  {
+    for (int i = 0; i < sketch.numBuckets() * 3; i += 7) {
+      sketch.update(new int[]{i});
+    }
+
+    for (HllSketch sk : new HllSketch[]{sketch, sketch.asCompact()}) {
+      byte[] expected = sk.toByteArray();
+
+      byte[] memArr = new byte[expected.length + 3];
+      sk.writeTo(new NativeMemory(memArr), 3);
+      Assert.assertEquals(Arrays.copyOfRange(memArr, 3, memArr.length), expected);
+
+      ByteBuffer buf = ByteBuffer.allocateDirect(expected.length);
+      sk.writeTo(buf);
+      Assert.assertEquals(buf.position(), expected.length);
+      byte[] bufArr = new byte[expected.length];
+      buf.flip();
+      buf.get(bufArr);
+      Assert.assertEquals(bufArr, expected);
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      sk.writeTo(Channels.newChannel(out));
+      Assert.assertEquals(out.toByteArray(), expected);
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testWriteToMemoryTooSmall()
+  {
+    HllSketch sketch = HllSketch.builder().setLogBuckets(10).setDenseMode(true).build();
+    sketch.writeTo(new NativeMemory(new byte[sketch.toByteArray().length - 1]), 0);
+  }
+
+  @Test
+  public void testHashFunction()
+  {
+    HllSketchBuilder bob = HllSketch.builder().setLogBuckets(10).setHashFunction(HashFunction.XXHASH64);
+    HllSketch sketch = bob.build();
+    HllSketch dense = bob.copy().setDenseMode(true).build();
+    Assert.assertEquals(sketch.getHashFunction(), HashFunction.XXHASH64);
+    Assert.assertEquals(sketch.getPreamble().getSeedHash(),
+        HashFunction.XXHASH64.computeSeedHash(Util.DEFAULT_UPDATE_SEED));
+    Assert.assertEquals(sketch.getPreamble().getLogConfigK(), 10);
+    Assert.assertEquals(HllSketch.builder().build().getHashFunction(), HashFunction.MURMUR3);
+
+    int n = 10000;
+    for (int i = 0; i < n; ++i) {
+      sketch.update(new long[]{i});
+      dense.update(new long[]{i});
+    }
+    Assert.assertEquals(sketch.getEstimate(), n, n * 0.1);
+    Assert.assertEquals(dense.getEstimate(), sketch.getEstimate(), 0.0000001);
+
+    HllSketch unioned = bob.build();
+    unioned.union(sketch);
+    Assert.assertEquals(unioned.getEstimate(), sketch.getEstimate(), 0.0000001);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testUnionOfMixedHashFunctions()
+  {
+    HllSketch sketch = HllSketch.builder().setLogBuckets(10).setHashFunction(HashFunction.XXHASH64).build();
+    HllSketch.builder().setLogBuckets(10).build().union(sketch);
+  }
+
+  @Test
+  public void testUpdateWithHasher()
+  {
+    HllSketch sketch = HllSketch.builder().setLogBuckets(10).build();
+    HllSketch sketch2 = HllSketch.builder().setLogBuckets(10).build();
+    MurmurHash3.Hasher hasher = new MurmurHash3.Hasher(Util.DEFAULT_UPDATE_SEED);
+    for (int i = 0; i < 5000; ++i) {
+      sketch.update(new int[]{i % 3, i});
+      sketch2.update(hasher.putInt(i % 3).putInt(i));
+    }
+    Assert.assertEquals(sketch2.toByteArray(), sketch.toByteArray());
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testUpdateWithMurmurHash()
+  {
+    HllSketch sketch = HllSketch.builder().setHashFunction(HashFunction.XXHASH64).build();
+    sketch.updateWithHash(MurmurHash3.hash(new long[]{7}, Util.DEFAULT_UPDATE_SEED), Util.DEFAULT_UPDATE_SEED);
+  }
+
   @DataProvider(name = "sketches")
   public static Object[][] getSketches()
   {
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.memory;
+
+import static org.testng.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.annotations.Test;
+
+/**
+ * Checks the Java 9 version of ByteBufferMemory in the multi-release jar. These tests are run by
+ * the failsafe plugin of the java9 profile against the packaged jar, since the unit tests see
+ * only the classes of the Java 8 baseline.
+ */
+public class ByteBufferMemoryIT {
+
+  @Test
+  public void checkAtomicAcrossMemoriesOfTheSameBuffer() throws Exception {
+    for (ByteBuffer bb : new ByteBuffer[] {ByteBuffer.allocate(16), ByteBuffer.allocateDirect(16)}) {
+      int threads = 4;
+      int adds = 100000;
+      ExecutorService exec = Executors.newFixedThreadPool(threads);
+      try {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+          Memory mem = new ByteBufferMemory(bb); //a Memory for each thread
+          futures.add(exec.submit(() -> {
+            for (int i = 0; i < adds; i++) {
+              mem.getAndAddLong(0, 1L);
+              long v = mem.getLong(8);
+              while (!((ByteBufferMemory) mem).compareAndSwapLong(8, v, v + 2)) {
+                v = mem.getLong(8);
+              }
+            }
+          }));
+        }
+        for (Future<?> f : futures) { f.get(); }
+      } finally {
+        exec.shutdown();
+      }
+      Memory mem = new ByteBufferMemory(bb);
+      assertEquals(mem.getLong(0), (long) threads * adds);
+      assertEquals(mem.getLong(8), 2L * threads * adds);
+    }
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void checkMisalignedAtomic() {
+    Memory mem = ByteBufferMemory.allocateDirect(16);
+    mem.getAndAddLong(4, 1L);
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.memory;
+
+import static com.yahoo.sketches.memory.CommonTests.getAndAddSetTests;
+import static com.yahoo.sketches.memory.CommonTests.setClearIsBitsTests;
+import static com.yahoo.sketches.memory.CommonTests.setClearMemoryRegionsTests;
+import static com.yahoo.sketches.memory.CommonTests.setGetArraysTests;
+import static com.yahoo.sketches.memory.CommonTests.setGetPartialArraysWithOffsetTests;
+import static com.yahoo.sketches.memory.CommonTests.setGetTests;
+import static com.yahoo.sketches.memory.CommonTests.toHexStringAllMemTests;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ReadOnlyBufferException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.annotations.Test;
+
+import com.yahoo.sketches.theta.Sketch;
+import com.yahoo.sketches.theta.UpdateSketch;
+
+public class ByteBufferMemoryTest {
+
+  @Test
+  public void checkCommonTestsHeapAndDirect() {
+    for (boolean direct : new boolean[] {false, true}) {
+      toHexStringAllMemTests(newMem(48, direct));
+      setClearMemoryRegionsTests(newMem(64, direct));
+      setGetTests(newMem(16, direct));
+      setGetArraysTests(newMem(32, direct));
+      setGetPartialArraysWithOffsetTests(newMem(32, direct));
+      setClearIsBitsTests(newMem(8, direct));
+      getAndAddSetTests(newMem(8, direct));
+    }
+  }
+
+  @Test
+  public void checkSameBytesAsNativeMemory() {
+    byte[] nativeArr = new byte[64];
+    byte[] bufArr = new byte[64];
+    Memory nMem = new NativeMemory(nativeArr);
+    Memory bMem = new ByteBufferMemory(bufArr);
+    for (Memory mem : new Memory[] {nMem, bMem}) {
+      mem.putLong(0, 0X0102030405060708L);
+      mem.putInt(8, -2);
+      mem.putDouble(16, 1.5);
+      mem.putShortArray(24, new short[] {1, 2, 3}, 0, 3);
+      mem.fill(32, 13, (byte) 7);
+      mem.setBits(50, (byte) 5);
+    }
+    assertEquals(bufArr, nativeArr);
+    assertEquals(bMem.getLong(0), nMem.getLong(0));
+  }
+
+  @Test
+  public void checkIgnoresPositionLimitAndOrder() {
+    ByteBuffer bb = ByteBuffer.allocate(16).order(ByteOrder.BIG_ENDIAN);
+    bb.position(4).limit(8);
+    Memory mem = new ByteBufferMemory(bb);
+    assertEquals(mem.getCapacity(), 16);
+    mem.putLong(8, 1L);
+    assertEquals(bb.array()[8], 1);
+    assertEquals(bb.position(), 4);
+    assertEquals(bb.limit(), 8);
+    assertEquals(bb.order(), ByteOrder.BIG_ENDIAN);
+  }
+
+  @Test
+  public void checkCopyAndMemoryUtilCopy() {
+    Memory mem = ByteBufferMemory.allocateDirect(64);
+    for (int i = 0; i < 32; i++) { mem.putByte(i, (byte) i); }
+    mem.copy(0, 32, 32);
+    for (int i = 0; i < 32; i++) { assertEquals(mem.getByte(32 + i), (byte) i); }
+
+    NativeMemory nMem = new NativeMemory(new byte[64]);
+    MemoryUtil.copy(mem, 8, nMem, 0, 48);
+    assertEquals(nMem.getLong(0), mem.getLong(8));
+    Memory bMem = new ByteBufferMemory(new byte[64]);
+    MemoryUtil.copy(nMem, 0, bMem, 16, 48);
+    assertEquals(bMem.getLong(16), mem.getLong(8));
+
+    Memory region = new MemoryRegion(bMem, 16, 32);
+    assertEquals(region.getLong(0), mem.getLong(8));
+    MemoryUtil.copy(region, 0, nMem, 56, 8);
+    assertEquals(nMem.getLong(56), mem.getLong(8));
+  }
+
+  @Test
+  public void checkDirectSketch() {
+    int k = 512;
+    int bytes = Sketch.getMaxUpdateSketchBytes(k);
+    UpdateSketch bSk = UpdateSketch.builder().initMemory(ByteBufferMemory.allocateDirect(bytes))
+        .build(k);
+    UpdateSketch nSk = UpdateSketch.builder().initMemory(new NativeMemory(new byte[bytes])).build(k);
+    for (int i = 0; i < (4 * k); i++) {
+      bSk.update(i);
+      nSk.update(i);
+    }
+    assertEquals(bSk.getEstimate(), nSk.getEstimate());
+    assertEquals(bSk.toByteArray(), nSk.toByteArray());
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void checkOutOfBounds() {
+    Memory mem = new ByteBufferMemory(new byte[16]);
+    mem.getLong(12);
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void checkOffsetBeyondInt() {
+    Memory mem = new ByteBufferMemory(new byte[16]);
+    mem.getByte(1L << 32);
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void checkArrayOutOfBounds() {
+    Memory mem = new ByteBufferMemory(new byte[16]);
+    mem.putLongArray(8, new long[2], 0, 2);
+  }
+
+  @Test(expectedExceptions = ReadOnlyBufferException.class)
+  public void checkReadOnly() {
+    Memory mem = new ByteBufferMemory(ByteBuffer.allocate(16).asReadOnlyBuffer());
+    mem.putInt(0, 1);
+  }
+
+  @Test
+  public void checkCompareAndSwap() {
+    for (boolean direct : new boolean[] {false, true}) {
+      ByteBufferMemory mem = (ByteBufferMemory) newMem(16, direct);
+      mem.putInt(4, 7);
+      assertFalse(mem.compareAndSwapInt(4, 8, 9));
+      assertTrue(mem.compareAndSwapInt(4, 7, 9));
+      assertEquals(mem.getInt(4), 9);
+      mem.putLong(8, -1L);
+      assertFalse(mem.compareAndSwapLong(8, 0L, 1L));
+      assertTrue(mem.compareAndSwapLong(8, -1L, 1L));
+      assertEquals(mem.getLong(8), 1L);
+    }
+  }
+
+  @Test
+  public void checkConcurrentGetAndAdd() throws Exception {
+    int threads = 4;
+    int adds = 100000;
+    ByteBufferMemory mem = ByteBufferMemory.allocateDirect(16);
+    ExecutorService exec = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(exec.submit(() -> {
+          for (int i = 0; i < adds; i++) {
+            mem.getAndAddLong(0, 1L);
+            mem.getAndAddInt(8, 2);
+          }
+        }));
+      }
+      for (Future<?> f : futures) { f.get(); }
+    } finally {
+      exec.shutdown();
+    }
+    assertEquals(mem.getLong(0), (long) threads * adds);
+    assertEquals(mem.getInt(8), 2 * threads * adds);
+  }
+
+  @Test
+  public void checkSliceOfArray() {
+    byte[] arr = new byte[32];
+    ByteBuffer bb = ByteBuffer.wrap(arr, 8, 16).slice();
+    Memory mem = new ByteBufferMemory(bb);
+    assertEquals(mem.getCapacity(), 16);
+    mem.putLong(8, 0X0102030405060708L);
+    assertEquals(arr[16], 8);
+    assertEquals(mem.getLong(8), 0X0102030405060708L);
+    try {
+      mem.getLong(16);
+      fail();
+    } catch (IndexOutOfBoundsException e) {
+      //expected
+    }
+  }
+
+  @Test
+  public void printlnTest() {
+    println("PRINTING: "+this.getClass().getName());
+  }
+
+  private static Memory newMem(int capacityBytes, boolean direct) {
+    return direct ? ByteBufferMemory.allocateDirect(capacityBytes)
+        : new ByteBufferMemory(new byte[capacityBytes]);
+  }
+
+  /**
+   * @param s value to print
+   */
+  static void println(String s) {
+    //System.out.println(s); //disable here
+  }
+
+}
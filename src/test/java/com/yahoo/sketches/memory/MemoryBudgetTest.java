@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.memory;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+public class MemoryBudgetTest {
+
+  @Test
+  public void checkAccountingByTag() {
+    MemoryBudget budget = new MemoryBudget(10000);
+    Memory a = budget.allocate("a", 1000);
+    Memory b = budget.getRequest("b").request(3000);
+    assertTrue(budget.getRequest("a") == a.getMemoryRequest());
+    assertEquals(budget.getUsedBytes(), 4000);
+    assertEquals(budget.getUsedBytes("a"), 1000);
+    assertEquals(budget.getUsedBytes("b"), 3000);
+    assertEquals(budget.getUsedBytes("c"), 0);
+    assertEquals(budget.getUsedBytesByTag().toString(), "{a=1000, b=3000}");
+
+    b.getMemoryRequest().free(b);
+    assertEquals(budget.getUsedBytes("b"), 0);
+    ((NativeMemory) a).freeMemory(); //freeing directly also returns the bytes
+    ((NativeMemory) a).freeMemory();
+    assertEquals(budget.getUsedBytes(), 0);
+    assertEquals(budget.getHighWaterBytes(), 4000);
+    assertEquals(budget.getGrantedRequests(), 2);
+    println(budget.toSummary());
+  }
+
+  @Test
+  public void checkRejection() {
+    MemoryBudget budget = new MemoryBudget(1000);
+    Memory a = budget.allocate("a", 600);
+    assertNull(budget.getRequest("b").request(600));
+    assertEquals(budget.getRejectedRequests(), 1);
+    try {
+      budget.allocate("b", 600);
+      throw new AssertionError();
+    } catch (IllegalArgumentException e) {
+      //expected
+    }
+    assertEquals(budget.getUsedBytes(), 600);
+    budget.setLimitBytes(2000);
+    Memory b = budget.allocate("b", 600);
+    ((NativeMemory) a).freeMemory();
+    ((NativeMemory) b).freeMemory();
+    assertEquals(budget.getUsedBytes(), 0);
+  }
+
+  @Test
+  public void checkPressureHandlerEvicts() {
+    MemoryBudget budget = new MemoryBudget(1000);
+    final Memory cold = budget.allocate("cold", 800);
+    final String[] pressure = new String[1];
+    budget.setPressureHandler((bud, tag, requestedBytes) -> {
+      pressure[0] = tag + ":" + requestedBytes;
+      ((NativeMemory) cold).freeMemory();
+    });
+    Memory hot = budget.allocate("hot", 500);
+    assertEquals(pressure[0], "hot:500");
+    assertEquals(budget.getUsedBytes("cold"), 0);
+    assertEquals(budget.getUsedBytes(), 500);
+    assertEquals(budget.getRejectedRequests(), 0);
+    ((NativeMemory) hot).freeMemory();
+  }
+
+  @Test
+  public void checkLeakFreedReturnsBytes() throws InterruptedException {
+    MemoryBudget budget = new MemoryBudget(10000);
+    NativeAllocations.setReportLeaks(false);
+    NativeAllocations.setFreeLeaks(true);
+    try {
+      leak(budget, "leaky", 4096);
+      assertEquals(budget.getUsedBytes("leaky"), 4096);
+      for (int i = 0; (i < 100) && (budget.getUsedBytes() > 0); i++) {
+        System.gc();
+        Thread.sleep(10);
+        NativeAllocations.processLeaks();
+      }
+      assertEquals(budget.getUsedBytes("leaky"), 0);
+      assertEquals(budget.getUsedBytes(), 0);
+    } finally {
+      NativeAllocations.setReportLeaks(true);
+      NativeAllocations.setFreeLeaks(false);
+    }
+  }
+
+  private static void leak(MemoryBudget budget, String tag, long bytes) {
+    Memory mem = budget.allocate(tag, bytes);
+    mem.putLong(0, 1L);
+  }
+
+  @Test
+  public void printlnTest() {
+    println("PRINTING: "+this.getClass().getName());
+  }
+
+  /**
+   * @param s value to print
+   */
+  static void println(String s) {
+    //System.out.println(s); //disable here
+  }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.memory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+public class MemoryUtilTest {
+
+  @Test
+  public void checkEqualsAndMismatchAcrossMemories() {
+    byte[] arr = new byte[100];
+    for (int i = 0; i < arr.length; i++) { arr[i] = (byte) (i * 7); }
+    NativeMemory nMem = new NativeMemory(arr);
+    AllocMemory aMem = new AllocMemory(108);
+    aMem.putByteArray(8, arr, 0, 100);
+    Memory region = new MemoryRegion(aMem, 8, 100);
+    Memory bMem = new ByteBufferMemory(arr.clone());
+
+    for (Memory other : new Memory[] {region, bMem}) {
+      assertTrue(MemoryUtil.equals(nMem, 0, other, 0, 100));
+      assertEquals(MemoryUtil.mismatch(nMem, 0, 100, other, 0, 100), -1);
+      assertEquals(MemoryUtil.compare(nMem, 0, 100, other, 0, 100), 0);
+    }
+    assertTrue(MemoryUtil.equals(nMem, 0, aMem, 8, 100));
+    assertTrue(MemoryUtil.equals(nMem, 0, nMem, 0, 100));
+
+    //every position of the mismatch, within and after the words
+    for (int i = 0; i < 100; i++) {
+      byte b = region.getByte(i);
+      region.putByte(i, (byte) (b + 1));
+      assertFalse(MemoryUtil.equals(nMem, 0, region, 0, 100));
+      assertEquals(MemoryUtil.mismatch(nMem, 0, 100, region, 0, 100), i);
+      assertEquals(MemoryUtil.mismatch(nMem, 0, i, region, 0, i), -1);
+      region.putByte(i, b);
+    }
+    aMem.freeMemory();
+  }
+
+  @Test
+  public void checkCompare() {
+    Memory a = new NativeMemory(new byte[] {1, 2, 3, (byte) 0X80, 5, 6, 7, 8, 9});
+    Memory b = new NativeMemory(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+    assertTrue(MemoryUtil.compare(a, 0, 9, b, 0, 9) > 0); //unsigned bytes
+    assertTrue(MemoryUtil.compare(b, 0, 9, a, 0, 9) < 0);
+    assertTrue(MemoryUtil.compare(b, 0, 9, b, 0, 10) < 0); //a prefix is less
+    assertTrue(MemoryUtil.compare(b, 0, 10, b, 0, 9) > 0);
+    assertEquals(MemoryUtil.mismatch(b, 0, 9, b, 0, 10), 9);
+    assertEquals(MemoryUtil.compare(a, 4, 5, b, 4, 5), 0);
+    assertEquals(MemoryUtil.compare(a, 0, 0, b, 0, 0), 0);
+  }
+
+  @Test
+  public void checkHashKnownValues() {
+    assertEquals(hash(""), 0XEF46DB3751D8E999L);
+    assertEquals(hash("a"), 0XD24EC4F1A98C6E5BL);
+    assertEquals(hash("abc"), 0X44BC2CF5AD770999L);
+    assertEquals(hash("Nobody inspects the spammish repetition"), 0XFBCEA83C8A378BF1L);
+  }
+
+  @Test
+  public void checkHashIndependentOfMemoryAndOffset() {
+    byte[] arr = new byte[1000];
+    for (int i = 0; i < arr.length; i++) { arr[i] = (byte) (i * 31); }
+    NativeMemory nMem = new NativeMemory(arr);
+    AllocMemory aMem = new AllocMemory(1003);
+    aMem.putByteArray(3, arr, 0, 1000);
+    Memory bMem = new ByteBufferMemory(arr);
+    for (int len = 0; len <= 1000; len += 37) {
+      long h = MemoryUtil.hash(nMem, 0, len, 1L);
+      assertEquals(MemoryUtil.hash(aMem, 3, len, 1L), h);
+      assertEquals(MemoryUtil.hash(new MemoryRegion(aMem, 3, len), 0, len, 1L), h);
+      assertEquals(MemoryUtil.hash(bMem, 0, len, 1L), h);
+    }
+    assertTrue(MemoryUtil.hash(nMem, 0, 1000, 1L) != MemoryUtil.hash(nMem, 0, 1000, 2L));
+    aMem.freeMemory();
+  }
+
+  private static long hash(String s) {
+    byte[] bytes = s.getBytes(UTF_8);
+    return MemoryUtil.hash(new NativeMemory(bytes), 0, bytes.length, 0L);
+  }
+
+  @Test
+  public void printlnTest() {
+    println("PRINTING: "+this.getClass().getName());
+  }
+
+  /**
+   * @param s value to print
+   */
+  static void println(String s) {
+    //System.out.println(s); //disable here
+  }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.memory;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+public class NativeAllocationsTest {
+
+  //Leaks of other tests may be detected at any time, which moves their bytes from live to leaked,
+  //so the sums of live and leaked are compared.
+  @Test
+  public void checkLiveBytesAndHighWater() {
+    long liveBefore = live();
+    long bytesBefore = liveBytes();
+    long totalBefore = NativeAllocations.getTotalAllocations();
+    AllocMemory mem1 = new AllocMemory(1000);
+    AllocMemory mem2 = new AllocMemory(24);
+    assertEquals(live(), liveBefore + 2);
+    assertEquals(liveBytes(), bytesBefore + 1024);
+    assertEquals(NativeAllocations.getTotalAllocations(), totalBefore + 2);
+    NativeAllocations.resetHighWaterBytes();
+    long high = NativeAllocations.getHighWaterBytes();
+    assertTrue(high >= 1024);
+    mem1.freeMemory();
+    mem1.freeMemory(); //a second free changes nothing
+    assertEquals(liveBytes(), bytesBefore + 24);
+    mem2.freeMemory();
+    assertEquals(live(), liveBefore);
+    assertEquals(liveBytes(), bytesBefore);
+    assertEquals(NativeAllocations.getHighWaterBytes(), high);
+    NativeAllocations.resetHighWaterBytes();
+    assertTrue(NativeAllocations.getHighWaterBytes() <= (high - 1024));
+    println(NativeAllocations.toSummary());
+  }
+
+  private static long live() {
+    return NativeAllocations.getLiveAllocations() + NativeAllocations.getLeakedAllocations();
+  }
+
+  private static long liveBytes() {
+    return NativeAllocations.getLiveBytes() + NativeAllocations.getLeakedBytes();
+  }
+
+  @Test
+  public void checkSites() {
+    NativeAllocations.setTrackSites(true);
+    try {
+      assertTrue(NativeAllocations.isTrackSites());
+      AllocMemory mem = new AllocMemory(64);
+      boolean found = false;
+      for (Throwable site : NativeAllocations.getLiveAllocationSites()) {
+        for (StackTraceElement e : site.getStackTrace()) {
+          found |= e.getMethodName().equals("checkSites");
+        }
+      }
+      assertTrue(found);
+      mem.freeMemory();
+    } finally {
+      NativeAllocations.setTrackSites(false);
+    }
+    assertFalse(NativeAllocations.isTrackSites());
+  }
+
+  @Test
+  public void checkLeakIsDetectedAndFreed() throws InterruptedException {
+    NativeAllocations.setReportLeaks(false);
+    NativeAllocations.setFreeLeaks(true);
+    try {
+      long leakedBefore = NativeAllocations.getLeakedAllocations();
+      long leakedBytesBefore = NativeAllocations.getLeakedBytes();
+      leak(4096);
+      for (int i = 0; (i < 100) && (NativeAllocations.getLeakedAllocations() == leakedBefore); i++) {
+        System.gc();
+        Thread.sleep(10);
+        NativeAllocations.processLeaks();
+      }
+      assertTrue(NativeAllocations.getLeakedAllocations() >= (leakedBefore + 1));
+      assertTrue(NativeAllocations.getLeakedBytes() >= (leakedBytesBefore + 4096));
+    } finally {
+      NativeAllocations.setReportLeaks(true);
+      NativeAllocations.setFreeLeaks(false);
+    }
+  }
+
+  @Test
+  public void checkLeaksNotFreedByDefault() {
+    assertFalse(NativeAllocations.isFreeLeaks());
+  }
+
+  private static void leak(long bytes) {
+    AllocMemory mem = new AllocMemory(bytes);
+    mem.putLong(0, 1L);
+  }
+
+  @Test
+  public void checkZeroCapacity() {
+    long liveBefore = live();
+    AllocMemory mem = new AllocMemory(0);
+    assertFalse(mem.isAllocated());
+    mem.freeMemory();
+    assertEquals(live(), liveBefore);
+  }
+
+  @Test
+  public void printlnTest() {
+    println("PRINTING: "+this.getClass().getName());
+  }
+
+  /**
+   * @param s value to print
+   */
+  static void println(String s) {
+    //System.out.println(s); //disable here
+  }
+
+}
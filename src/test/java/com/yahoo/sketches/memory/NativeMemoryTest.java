@@ -15,7 +15,11 @@ import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.Channels;
 
 import org.testng.annotations.Test;
 
@@ -111,6 +115,19 @@ public class NativeMemoryTest {
     //freeMemory not needed, array is on-heap
   }
   
+  @Test
+  public void checkIntArray() {
+    int[] srcArray = { 1, -2, 3, -4, 5, -6, 7, -8 };
+    int[] dstArray = new int[8];
+    NativeMemory mem = new NativeMemory(srcArray);
+    assertEquals(mem.getCapacity(), 32);
+    mem.getIntArray(0, dstArray, 0, 8);
+
+    for (int i=0; i<8; i++) {
+      assertEquals(dstArray[i], srcArray[i]);
+    }
+  }
+  
   @Test(expectedExceptions = IllegalArgumentException.class)
   public void checkNativeBaseBound() {
     int memCapacity = 64;
@@ -521,6 +538,90 @@ public class NativeMemoryTest {
     assertEquals(idx, -1);
   }
   
+  @Test
+  public void checkCopyLargeStaysInBounds() {
+    int len = (3<<20) + 8;
+    byte[] srcArr = new byte[len];
+    for (int i=0; i<len; i++) srcArr[i] = (byte) i;
+    byte[] dstArr = new byte[len + 16];
+    
+    MemoryUtil.copy(new NativeMemory(srcArr), 0, new NativeMemory(dstArr), 8, len);
+    for (int i=0; i<len; i++) {
+      assertEquals(dstArr[i + 8], srcArr[i]);
+    }
+    for (int i=0; i<8; i++) {
+      assertEquals(dstArr[i], 0);
+      assertEquals(dstArr[len + 8 + i], 0);
+    }
+  }
+  
+  @Test
+  public void checkCopyToBuffer() {
+    byte[] srcArr = new byte[64];
+    for (int i=0; i<64; i++) srcArr[i] = (byte) (i + 1);
+    Memory src = new NativeMemory(srcArr);
+    
+    ByteBuffer heapBuf = ByteBuffer.allocate(80);
+    heapBuf.position(4);
+    ByteBuffer slice = heapBuf.slice();
+    slice.position(4);
+    MemoryUtil.copyToBuffer(src, 8, slice, 32);
+    assertEquals(slice.position(), 36);
+    for (int i=0; i<32; i++) {
+      assertEquals(heapBuf.get(8 + i), srcArr[8 + i]);
+    }
+    
+    ByteBuffer directBuf = ByteBuffer.allocateDirect(64);
+    directBuf.put((byte) -1);
+    MemoryUtil.copyToBuffer(src, 0, directBuf, 32);
+    MemoryUtil.copyToBuffer(null, 0, directBuf, 16);
+    assertEquals(directBuf.position(), 49);
+    for (int i=0; i<32; i++) {
+      assertEquals(directBuf.get(1 + i), srcArr[i]);
+    }
+    for (int i=33; i<49; i++) {
+      assertEquals(directBuf.get(i), 0);
+    }
+  }
+  
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkCopyToBufferTooSmall() {
+    MemoryUtil.copyToBuffer(new NativeMemory(new byte[16]), 0, ByteBuffer.allocate(8), 16);
+  }
+  
+  @Test(expectedExceptions = ReadOnlyBufferException.class)
+  public void checkCopyToBufferReadOnly() {
+    MemoryUtil.copyToBuffer(new NativeMemory(new byte[16]), 0, 
+        ByteBuffer.allocate(16).asReadOnlyBuffer(), 16);
+  }
+  
+  @Test
+  public void checkWriteToChannel() throws IOException {
+    int len = (3 * MemoryUtil.CHANNEL_CHUNK_BYTES) + 5;
+    NativeMemory mem = new AllocMemory(len + 8);
+    for (int i=0; i<len + 8; i++) mem.putByte(i, (byte) i);
+    
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    MemoryUtil.writeToChannel(mem, 8, Channels.newChannel(out), len);
+    MemoryUtil.writeToChannel(null, 0, Channels.newChannel(out), 3);
+    byte[] outArr = out.toByteArray();
+    assertEquals(outArr.length, len + 3);
+    for (int i=0; i<len; i++) {
+      assertEquals(outArr[i], (byte) (i + 8));
+    }
+    for (int i=len; i<len + 3; i++) {
+      assertEquals(outArr[i], 0);
+    }
+    mem.freeMemory();
+  }
+  
+  @SuppressWarnings("unused")
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkIntArrExcep() {
+    int[] arr = new int[0];
+    new NativeMemory(arr);
+  }
+  
   @SuppressWarnings("unused")
   @Test(expectedExceptions = IllegalArgumentException.class)
   public void checkLongArrExcep() {
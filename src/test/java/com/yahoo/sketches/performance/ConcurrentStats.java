@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.performance;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Holds the key metrics of a single concurrent ingestion trial and formats them as CSV or JSON.
+ */
+public class ConcurrentStats {
+  IngestPattern pattern;
+  int threads;
+  long updates;     //total updates of all threads
+  long elapsed_nS;  //from the start of the first thread to the end of the final merge, if any
+  double estimate;  //of the final sketch
+  long p50_nS;      //latency quantiles of the sampled single updates
+  long p99_nS;
+  long p999_nS;
+  long max_nS;
+  long gcCount;
+  long gcTime_mS;
+
+  /**
+   * Returns the total number of updates per second of all threads
+   * @return the total number of updates per second of all threads
+   */
+  public double getUpdatesPerSec() {
+    return (updates * 1e9) / elapsed_nS;
+  }
+
+  /**
+   * Returns the number of updates per second of each thread
+   * @return the number of updates per second of each thread
+   */
+  public double getUpdatesPerSecPerThread() {
+    return getUpdatesPerSec() / threads;
+  }
+
+  /**
+   * Sets the latency quantiles from the given sampled latencies, which are sorted in place
+   * @param latencies_nS the given sampled latencies in nanoseconds
+   * @param count the number of valid entries of latencies_nS
+   */
+  void setLatencies(long[] latencies_nS, int count) {
+    if (count == 0) { return; }
+    Arrays.sort(latencies_nS, 0, count);
+    p50_nS = latencies_nS[quantileIndex(0.5, count)];
+    p99_nS = latencies_nS[quantileIndex(0.99, count)];
+    p999_nS = latencies_nS[quantileIndex(0.999, count)];
+    max_nS = latencies_nS[count - 1];
+  }
+
+  private static int quantileIndex(double frac, int count) {
+    int idx = (int) Math.floor(frac * count);
+    return (idx >= count)? count - 1 : idx;
+  }
+
+  /**
+   * Returns a CSV column header row
+   * @return a CSV column header row
+   */
+  public static String getCsvHeader() {
+    return "Pattern,Threads,Updates,Elapsed_mS,UpdatesPerSec,UpdatesPerSecPerThread,Estimate,"
+        + "P50_nS,P99_nS,P999_nS,Max_nS,GcCount,GcTime_mS";
+  }
+
+  /**
+   * Returns this Stats as a CSV row
+   * @return this Stats as a CSV row
+   */
+  public String toCsv() {
+    return String.format(Locale.US, "%s,%d,%d,%.3f,%.1f,%.1f,%.1f,%d,%d,%d,%d,%d,%d",
+        pattern, threads, updates, elapsed_nS / 1e6, getUpdatesPerSec(), getUpdatesPerSecPerThread(),
+        estimate, p50_nS, p99_nS, p999_nS, max_nS, gcCount, gcTime_mS);
+  }
+
+  /**
+   * Returns this Stats as a JSON object
+   * @return this Stats as a JSON object
+   */
+  public String toJson() {
+    return String.format(Locale.US,
+        "{\"pattern\": \"%s\", \"threads\": %d, \"updates\": %d, \"elapsed_mS\": %.3f, "
+        + "\"updatesPerSec\": %.1f, \"updatesPerSecPerThread\": %.1f, \"estimate\": %.1f, "
+        + "\"p50_nS\": %d, \"p99_nS\": %d, \"p999_nS\": %d, \"max_nS\": %d, "
+        + "\"gcCount\": %d, \"gcTime_mS\": %d}",
+        pattern, threads, updates, elapsed_nS / 1e6, getUpdatesPerSec(), getUpdatesPerSecPerThread(),
+        estimate, p50_nS, p99_nS, p999_nS, max_nS, gcCount, gcTime_mS);
+  }
+
+  /**
+   * Returns the given Stats as a JSON array
+   * @param statsList the given Stats
+   * @return the given Stats as a JSON array
+   */
+  public static String toJson(List<ConcurrentStats> statsList) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("[\n");
+    for (int i = 0; i < statsList.size(); i++) {
+      sb.append("  ").append(statsList.get(i).toJson());
+      sb.append((i < (statsList.size() - 1))? ",\n" : "\n");
+    }
+    sb.append("]");
+    return sb.toString();
+  }
+}
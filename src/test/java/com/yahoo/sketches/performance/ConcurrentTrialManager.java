@@ -0,0 +1,263 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.performance;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import com.yahoo.sketches.PowerLawGenerator;
+import com.yahoo.sketches.PowerLawGenerator.Pair;
+import com.yahoo.sketches.memory.AllocMemory;
+import com.yahoo.sketches.theta.SetOperation;
+import com.yahoo.sketches.theta.Sketch;
+import com.yahoo.sketches.theta.Union;
+import com.yahoo.sketches.theta.UpdateSketch;
+import com.yahoo.sketches.theta.UpdateSketchBuilder;
+
+/**
+ * Manages the execution of concurrent ingestion trials, where a number of writer threads update
+ * theta sketches in one of the {@link IngestPattern}s.
+ *
+ * <p>The keys of every thread are drawn from a power-law distribution generated with the
+ * {@link PowerLawGenerator}: a few keys are repeated many times and most keys appear only once,
+ * as in typical event streams. Every thread and every trial has its own disjoint set of keys.
+ * The latency of one update out of every 2<sup>lgSampleInterval</sup> is measured, including the
+ * time spent waiting for the lock in the shared patterns.</p>
+ */
+public class ConcurrentTrialManager {
+  private UpdateSketchBuilder udBldr_ = null;
+  private IngestPattern pattern_ = IngestPattern.SKETCH_PER_THREAD_UNION;
+  private int updatesPerThread_ = 1 << 20;
+  private int lgSampleInterval_ = 6;
+  private long[] keys_ = null; //the power-law keys, shared read-only by all threads
+  private long trial_ = 0;     //makes the keys of every trial unique
+
+  /**
+   * Sets the theta UpdateSketch builder used to create the theta UpdateSketches.
+   * Any Memory of the builder is ignored; the SHARED_DIRECT pattern allocates its own.
+   * @param udBldr the theta UpdateSketchBuilder
+   */
+  public void setUpdateSketchBuilder(UpdateSketchBuilder udBldr) {
+    udBldr_ = udBldr;
+  }
+
+  /**
+   * Sets the ingestion pattern of the following trials
+   * @param pattern the ingestion pattern
+   */
+  public void setPattern(IngestPattern pattern) {
+    pattern_ = pattern;
+  }
+
+  /**
+   * Sets the number of updates of every thread and the sampling of their latencies
+   * @param updatesPerThread the number of updates of every thread
+   * @param lgSampleInterval the latency of one out of every 2<sup>lgSampleInterval</sup> updates
+   * is measured.
+   */
+  public void setUpdatesProfile(int updatesPerThread, int lgSampleInterval) {
+    if (updatesPerThread < 1) {
+      throw new IllegalArgumentException("updatesPerThread must be > 0: " + updatesPerThread);
+    }
+    updatesPerThread_ = updatesPerThread;
+    lgSampleInterval_ = lgSampleInterval;
+    keys_ = null;
+  }
+
+  /**
+   * Runs one trial with the given number of writer threads and returns its Stats.
+   * @param threads the given number of writer threads
+   * @return the Stats of this trial
+   */
+  public ConcurrentStats doTrial(int threads) {
+    if (keys_ == null) {
+      keys_ = powerLawKeys(updatesPerThread_, new Random(updatesPerThread_));
+    }
+    trial_++;
+    final UpdateSketch[] sketches = new UpdateSketch[threads];
+    AllocMemory mem = null;
+    Object lock = null;
+    switch (pattern_) {
+      case SKETCH_PER_THREAD_UNION: {
+        for (int t = 0; t < threads; t++) {
+          sketches[t] = udBldr_.initMemory(null).build();
+        }
+        break;
+      }
+      case SHARED_LOCKED: {
+        UpdateSketch sketch = udBldr_.initMemory(null).build();
+        for (int t = 0; t < threads; t++) { sketches[t] = sketch; }
+        lock = sketch;
+        break;
+      }
+      case SHARED_DIRECT: {
+        mem = new AllocMemory(Sketch.getMaxUpdateSketchBytes(1 << udBldr_.getLgNominalEntries()));
+        UpdateSketch sketch = udBldr_.initMemory(mem).build();
+        udBldr_.initMemory(null);
+        for (int t = 0; t < threads; t++) { sketches[t] = sketch; }
+        lock = sketch;
+        break;
+      }
+      default: throw new IllegalArgumentException("Unknown pattern: " + pattern_);
+    }
+
+    final int samples = (updatesPerThread_ >>> lgSampleInterval_) + 1;
+    final long[][] latencies = new long[threads][samples];
+    final int[] counts = new int[threads];
+    final CountDownLatch startLatch = new CountDownLatch(1);
+    Thread[] writers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      final int tIdx = t;
+      final long offset = (trial_ << 48) + ((long) t << 32);
+      final Object fLock = lock;
+      writers[t] = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            startLatch.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+          counts[tIdx] = ingest(sketches[tIdx], fLock, offset, latencies[tIdx]);
+        }
+      });
+      writers[t].start();
+    }
+
+    long gcCountBefore = gcCount();
+    long gcTimeBefore = gcTime_mS();
+    long start_nS = System.nanoTime();
+    startLatch.countDown();
+    for (Thread w : writers) {
+      try {
+        w.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      }
+    }
+    double estimate;
+    if (pattern_ == IngestPattern.SKETCH_PER_THREAD_UNION) {
+      Union union = SetOperation.builder().buildUnion(1 << udBldr_.getLgNominalEntries());
+      for (UpdateSketch sk : sketches) { union.update(sk); }
+      estimate = union.getResult().getEstimate();
+    } else {
+      estimate = sketches[0].getEstimate();
+    }
+    long elapsed_nS = System.nanoTime() - start_nS;
+
+    ConcurrentStats stats = new ConcurrentStats();
+    stats.pattern = pattern_;
+    stats.threads = threads;
+    stats.updates = (long) threads * updatesPerThread_;
+    stats.elapsed_nS = elapsed_nS;
+    stats.estimate = estimate;
+    stats.gcCount = gcCount() - gcCountBefore;
+    stats.gcTime_mS = gcTime_mS() - gcTimeBefore;
+    long[] all = new long[threads * samples];
+    int n = 0;
+    for (int t = 0; t < threads; t++) {
+      System.arraycopy(latencies[t], 0, all, n, counts[t]);
+      n += counts[t];
+    }
+    stats.setLatencies(all, n);
+    if (mem != null) { mem.freeMemory(); }
+    return stats;
+  }
+
+  //returns the number of sampled latencies
+  private int ingest(UpdateSketch sketch, Object lock, long offset, long[] latencies) {
+    final long[] keys = keys_;
+    final int mask = (1 << lgSampleInterval_) - 1;
+    int n = 0;
+    for (int i = 0; i < keys.length; i++) {
+      long key = keys[i] + offset;
+      if ((i & mask) == 0) {
+        long start_nS = System.nanoTime();
+        update(sketch, lock, key);
+        latencies[n++] = System.nanoTime() - start_nS;
+      } else {
+        update(sketch, lock, key);
+      }
+    }
+    return n;
+  }
+
+  private static void update(UpdateSketch sketch, Object lock, long key) {
+    if (lock == null) {
+      sketch.update(key);
+    } else {
+      synchronized (lock) {
+        sketch.update(key);
+      }
+    }
+  }
+
+  /**
+   * Returns the given number of keys, shuffled, whose frequencies follow a power law from one
+   * key that is repeated about sqrt(numKeys) times down to many keys that appear only once.
+   * The keys are less than 2<sup>32</sup>.
+   * @param numKeys the given number of keys
+   * @param rand the source of the shuffle
+   * @return the power-law keys
+   */
+  static long[] powerLawKeys(int numKeys, Random rand) {
+    double maxFreq = Math.max(2.0, Math.sqrt(numKeys));
+    Pair start = new Pair(1.0, maxFreq);
+    Pair end = new Pair(numKeys, 1.0);
+    PowerLawGenerator gen = new PowerLawGenerator(2.0, 16, start, end);
+    long[] keys = new long[numKeys];
+    long nextKey = 0;
+    int n = 0;
+    int gi = gen.getStartGenIndex();
+    double prevX = 0.0;
+    //each generating index covers the ranks from the previous x up to its own x
+    while (n < numKeys) {
+      Pair p = gen.getPair(gi);
+      int distinct = Math.max(1, (int) Math.round(p.x - prevX));
+      int freq = Math.max(1, (int) Math.round(p.y));
+      prevX = p.x;
+      for (int d = 0; (d < distinct) && (n < numKeys); d++) {
+        long key = nextKey++;
+        for (int f = 0; (f < freq) && (n < numKeys); f++) {
+          keys[n++] = key;
+        }
+      }
+      if (gi != gen.getEndGenIndex()) { gi += gen.getDelta(); }
+    }
+    for (int i = numKeys - 1; i > 0; i--) {
+      int j = rand.nextInt(i + 1);
+      long k = keys[i];
+      keys[i] = keys[j];
+      keys[j] = k;
+    }
+    return keys;
+  }
+
+  private static long gcCount() {
+    long count = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(0, gc.getCollectionCount());
+    }
+    return count;
+  }
+
+  private static long gcTime_mS() {
+    long time = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      time += Math.max(0, gc.getCollectionTime());
+    }
+    return time;
+  }
+
+  @Override
+  public String toString() {
+    return "Concurrent Profile: Pattern: " + pattern_ + ", UpdatesPerThread: " + updatesPerThread_
+        + ", LgSampleInterval: " + lgSampleInterval_;
+  }
+}
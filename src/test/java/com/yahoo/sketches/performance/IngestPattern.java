@@ -0,0 +1,28 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.performance;
+
+/**
+ * The ways concurrent writer threads can feed theta sketches, as measured by the
+ * {@link ConcurrentTrialManager}.
+ */
+public enum IngestPattern {
+  /**
+   * Every thread updates its own heap sketch. When all threads are done the sketches are
+   * merged with a Union, which is part of the measured time.
+   */
+  SKETCH_PER_THREAD_UNION,
+
+  /**
+   * All threads update one shared heap sketch, holding a lock for every update.
+   */
+  SHARED_LOCKED,
+
+  /**
+   * All threads update one shared direct sketch in off-heap memory, holding a lock for every
+   * update, since a direct sketch is not thread safe either.
+   */
+  SHARED_DIRECT
+}
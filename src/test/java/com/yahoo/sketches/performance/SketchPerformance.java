@@ -7,6 +7,9 @@ package com.yahoo.sketches.performance;
 import static java.lang.Math.floor;
 import static java.lang.Math.pow;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.yahoo.sketches.Family;
 import com.yahoo.sketches.hll.HllSketch;
 import com.yahoo.sketches.hll.HllSketchBuilder;
@@ -23,6 +26,9 @@ import com.yahoo.sketches.theta.UpdateSketchBuilder;
  * using a constant number of points per octave. This dramatically reduces the number of plotting 
  * points required and produces nice plots when plotted against a log axis. 
  * 
+ * <p>It can also measure the scalability of concurrent ingestion with 1 to N writer threads, 
+ * see {@link #startConcurrent(ConcurrentTrialManager, int, boolean)}.
+ * 
  * <p>See the main() method as an example of how to configure.
  * 
  * @author Lee Rhodes
@@ -63,6 +69,33 @@ public class SketchPerformance {
     println("TestTime: "+min+":"+sec);
   }
   
+  /**
+   * Runs a concurrent ingestion trial for every number of writer threads from 1 to maxThreads
+   * with the ingestion pattern configured in the given ConcurrentTrialManager, and prints one
+   * row of ConcurrentStats per number of threads as CSV or JSON. Every trial is preceded by a
+   * warmup trial with the same number of threads, which is not reported.
+   * 
+   * @param trialMgr ConcurrentTrialManager to be used
+   * @param maxThreads the maximum number of writer threads
+   * @param json true for JSON output, false for CSV
+   */
+  public static void startConcurrent(ConcurrentTrialManager trialMgr, int maxThreads, 
+      boolean json) {
+    List<ConcurrentStats> statsList = new ArrayList<>();
+    if (!json) println(ConcurrentStats.getCsvHeader());
+    for (int threads = 1; threads <= maxThreads; threads++) {
+      trialMgr.doTrial(threads); //warmup
+      System.gc();
+      ConcurrentStats stats = trialMgr.doTrial(threads);
+      if (json) {
+        statsList.add(stats);
+      } else {
+        println(stats.toCsv());
+      }
+    }
+    if (json) println(ConcurrentStats.toJson(statsList));
+  }
+  
   /**
    * This is set up so that the number of trials may vary based on the number of uniques for the
    * trial set.
@@ -97,6 +130,25 @@ public class SketchPerformance {
     //Common parameters
     int lgK = 12; //4096
     boolean udSketch = false;  //set true if you want to use a theta UpdateSketch, false for HLL
+    boolean concurrent = false; //set true for the multi-threaded theta ingestion trials
+    
+    if (concurrent) {
+      //Concurrent Parameters
+      int maxThreads = Runtime.getRuntime().availableProcessors();
+      boolean json = false; //CSV if false
+      
+      ConcurrentTrialManager concMgr = new ConcurrentTrialManager();
+      udBldr = UpdateSketch.builder().setNominalEntries(1 << lgK);
+      concMgr.setUpdateSketchBuilder(udBldr);
+      concMgr.setUpdatesProfile(1 << 22, 6);
+      for (IngestPattern pattern : IngestPattern.values()) {
+        concMgr.setPattern(pattern);
+        startConcurrent(concMgr, maxThreads, json);
+      }
+      println(udBldr.toString());
+      println(concMgr.toString());
+      return;
+    }
     
     if (udSketch) { //UpdateSketch Builder
       
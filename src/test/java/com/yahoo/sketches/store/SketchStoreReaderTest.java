@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.store;
+
+import static com.yahoo.sketches.store.SketchStoreWriterTest.sketch;
+import static com.yahoo.sketches.store.SketchStoreWriterTest.tempFile;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.yahoo.sketches.Family;
+import com.yahoo.sketches.hll.HllSketch;
+import com.yahoo.sketches.memory.Memory;
+import com.yahoo.sketches.theta.CompactSketch;
+import com.yahoo.sketches.theta.Sketch;
+import com.yahoo.sketches.theta.UpdateSketch;
+
+public class SketchStoreReaderTest {
+
+  @Test
+  public void checkThetaAndHll() throws IOException {
+    File file = tempFile();
+    try {
+      UpdateSketch usk = sketch(0, 10000);
+      CompactSketch unordered = sketch(5, 50).compact(false, null);
+      HllSketch hll = HllSketch.builder().setLogBuckets(10).build();
+      for (int i = 0; i < 1000; i++) {
+        hll.update(new int[] {i});
+      }
+
+      SketchStoreWriter writer = new SketchStoreWriter(file, false);
+      writer.put("theta", usk);
+      writer.put("unordered", unordered);
+      writer.put("empty", UpdateSketch.builder().build(16));
+      writer.put("hll", hll);
+      writer.close();
+
+      SketchStoreReader reader = new SketchStoreReader(file);
+      assertEquals(reader.getNumEntries(), 4);
+
+      Sketch sk = reader.getSketch("theta");
+      assertTrue(sk.isDirect());
+      assertTrue(sk.isCompact());
+      assertEquals(sk.getEstimate(), usk.getEstimate(), 0.0);
+      assertEquals(sk.getRetainedEntries(true), usk.getRetainedEntries(true));
+      assertEquals(reader.getFamily("theta"), Family.COMPACT);
+
+      assertEquals(reader.getSketch("unordered").getEstimate(), 50.0, 0.0);
+      assertTrue(reader.getSketch("empty").isEmpty());
+
+      assertEquals(reader.getFamily("hll"), Family.HLL);
+      Memory mem = reader.getMemory("hll");
+      byte[] expected = hll.toByteArray();
+      assertEquals(mem.getCapacity(), expected.length);
+      byte[] actual = new byte[expected.length];
+      mem.getByteArray(0, actual, 0, actual.length);
+      assertEquals(actual, expected);
+
+      assertTrue(!reader.contains("missing"));
+      assertNull(reader.getFamily("missing"));
+      assertNull(reader.getMemory("missing"));
+      assertNull(reader.getSketch("missing"));
+
+      List<String> keys = reader.getKeys();
+      Collections.sort(keys);
+      assertEquals(keys.toString(), "[empty, hll, theta, unordered]");
+      reader.close();
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void checkManyKeys() throws IOException {
+    File file = tempFile();
+    try {
+      SketchStoreWriter writer = new SketchStoreWriter(file, false, 12);
+      int n = 2000;
+      for (int i = 0; i < n; i++) {
+        writer.put("key-" + i, sketch(i, i % 100));
+      }
+      writer.close();
+
+      SketchStoreReader reader = new SketchStoreReader(file);
+      assertEquals(reader.getNumEntries(), n);
+      assertEquals(reader.getKeys().size(), n);
+      for (int i = 0; i < n; i++) {
+        assertEquals(reader.getSketch("key-" + i).getEstimate(), i % 100, 0.0);
+      }
+      reader.close();
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkHllIsNotThetaSketch() throws IOException {
+    File file = tempFile();
+    try {
+      SketchStoreWriter writer = new SketchStoreWriter(file, false);
+      writer.put("hll", HllSketch.builder().setLogBuckets(10).build());
+      writer.close();
+      SketchStoreReader reader = new SketchStoreReader(file);
+      reader.getSketch("hll");
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void checkClosed() throws IOException {
+    File file = tempFile();
+    try {
+      SketchStoreWriter writer = new SketchStoreWriter(file, false);
+      writer.put("key", sketch(0, 10));
+      writer.close();
+      SketchStoreReader reader = new SketchStoreReader(file);
+      reader.close();
+      reader.getSketch("key");
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkBadMagic() throws IOException {
+    File file = tempFile();
+    try {
+      FileOutputStream out = new FileOutputStream(file);
+      out.write(new byte[64]);
+      out.close();
+      new SketchStoreReader(file);
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkNotClosed() throws IOException {
+    File file = tempFile();
+    try {
+      SketchStoreWriter writer = new SketchStoreWriter(file, false);
+      writer.put("key", sketch(0, 10));
+      //not closed, so no index or trailer
+      new SketchStoreReader(file);
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+}
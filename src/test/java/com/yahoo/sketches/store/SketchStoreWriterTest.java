@@ -0,0 +1,197 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.store;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.testng.annotations.Test;
+
+import com.yahoo.sketches.theta.UpdateSketch;
+
+public class SketchStoreWriterTest {
+
+  @Test
+  public void checkAppendKeepsExistingEntries() throws IOException {
+    File file = tempFile();
+    try {
+      SketchStoreWriter writer = new SketchStoreWriter(file, false, 10);
+      for (int i = 0; i < 20; i++) {
+        writer.put("a" + i, sketch(i, i * 2));
+      }
+      writer.close();
+
+      writer = new SketchStoreWriter(file, true);
+      assertEquals(writer.getNumEntries(), 20);
+      for (int i = 0; i < 20; i++) {
+        writer.put("b" + i, sketch(i, i * 3));
+      }
+      writer.close();
+
+      SketchStoreReader reader = new SketchStoreReader(file);
+      assertEquals(reader.getNumEntries(), 40);
+      for (int i = 0; i < 20; i++) {
+        assertEquals(reader.getSketch("a" + i).getEstimate(), i * 2.0, 0.0);
+        assertEquals(reader.getSketch("b" + i).getEstimate(), i * 3.0, 0.0);
+      }
+      reader.close();
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void checkAppendKeepsOldIndex() throws IOException {
+    File file = tempFile();
+    try {
+      SketchStoreWriter writer = new SketchStoreWriter(file, false);
+      writer.put("a", sketch(0, 100));
+      writer.close();
+      long oldBytes = file.length();
+
+      writer = new SketchStoreWriter(file, true);
+      assertEquals(file.length(), oldBytes);
+      writer.put("b", sketch(0, 200));
+      writer.close();
+      assertTrue(file.length() > oldBytes);
+
+      SketchStoreReader reader = new SketchStoreReader(file);
+      assertEquals(reader.getNumEntries(), 2);
+      reader.close();
+
+      //the store as it was before the append is still in the first bytes of the file
+      RandomAccessFile raf = new RandomAccessFile(file, "rw");
+      raf.setLength(oldBytes);
+      raf.close();
+      reader = new SketchStoreReader(file);
+      assertEquals(reader.getNumEntries(), 1);
+      assertEquals(reader.getSketch("a").getEstimate(), 100.0, 0.0);
+      assertTrue(!reader.contains("b"));
+      reader.close();
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void checkReplaceKey() throws IOException {
+    File file = tempFile();
+    try {
+      SketchStoreWriter writer = new SketchStoreWriter(file, false);
+      writer.put("key", sketch(0, 100));
+      writer.put("key", sketch(0, 200));
+      assertEquals(writer.getNumEntries(), 1);
+      writer.close();
+
+      writer = new SketchStoreWriter(file, true);
+      writer.put("key", sketch(0, 300));
+      writer.close();
+
+      SketchStoreReader reader = new SketchStoreReader(file);
+      assertEquals(reader.getNumEntries(), 1);
+      assertEquals(reader.getSketch("key").getEstimate(), 300.0, 0.0);
+      reader.close();
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void checkNoAppendTruncates() throws IOException {
+    File file = tempFile();
+    try {
+      SketchStoreWriter writer = new SketchStoreWriter(file, false);
+      writer.put("key", sketch(0, 100));
+      writer.close();
+
+      writer = new SketchStoreWriter(file, false);
+      writer.close();
+
+      SketchStoreReader reader = new SketchStoreReader(file);
+      assertEquals(reader.getNumEntries(), 0);
+      assertTrue(!reader.contains("key"));
+      reader.close();
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void checkRecordsDoNotStraddleSegments() throws IOException {
+    File file = tempFile();
+    try {
+      SketchStoreWriter writer = new SketchStoreWriter(file, false, 10);
+      for (int i = 0; i < 50; i++) {
+        writer.put("k" + i, sketch(0, 20 + i)); //variable sized records
+      }
+      writer.close();
+
+      SketchStoreReader reader = new SketchStoreReader(file);
+      for (int i = 0; i < 50; i++) {
+        assertEquals(reader.getSketch("k" + i).getEstimate(), 20.0 + i, 0.0);
+      }
+      reader.close();
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkRecordTooLarge() throws IOException {
+    File file = tempFile();
+    SketchStoreWriter writer = new SketchStoreWriter(file, false, 10);
+    try {
+      writer.put("key", sketch(0, 1000));
+    }
+    finally {
+      writer.close();
+      file.delete();
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkBadSegmentSize() throws IOException {
+    new SketchStoreWriter(tempFile(), false, 9);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkAppendToBadFile() throws IOException {
+    File file = tempFile();
+    try {
+      FileOutputStream out = new FileOutputStream(file);
+      out.write(new byte[64]);
+      out.close();
+      new SketchStoreWriter(file, true);
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+  static UpdateSketch sketch(int start, int n) {
+    UpdateSketch sk = UpdateSketch.builder().build(1024);
+    for (int i = 0; i < n; i++) {
+      sk.update(start + i);
+    }
+    return sk;
+  }
+
+  static File tempFile() throws IOException {
+    File file = File.createTempFile("sketchstore", ".bin");
+    file.deleteOnExit();
+    return file;
+  }
+
+}
@@ -9,6 +9,7 @@ import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 import org.testng.annotations.Test;
 
@@ -205,4 +206,214 @@ public class CompactSketchTest {
     //System.out.println(s); //disable here
   }
   
+  @Test
+  public void checkHash32Codec() {
+    long[] hashes = {1L, (1L << 26) - 1, 1L << 26, (1L << 27) - 1, 1L << 27, (1L << 40) + 12345,
+        Long.MAX_VALUE >>> 1, Long.MAX_VALUE - 1};
+    long prev = 0;
+    for (long hash : hashes) {
+      long dec = CompactSketch.decodeHash32(CompactSketch.encodeHash32(hash));
+      assertTrue(dec <= hash);
+      assertTrue(dec > prev); //order preserved
+      assertTrue((hash - dec) < (1L << Math.max(0, 64 - Long.numberOfLeadingZeros(hash) - 27)));
+      prev = dec;
+    }
+    assertEquals(CompactSketch.decodeHash32(CompactSketch.encodeHash32((1L << 27) - 1)), (1L << 27) - 1);
+  }
+  
+  @Test
+  public void checkHash32RoundTrip() {
+    int k = 1024;
+    UpdateSketch usk = UpdateSketch.builder().build(k);
+    for (int i = 0; i < 10000; i++) usk.update(i);
+    CompactSketch csk = usk.compact(false, null);
+    byte[] bytes32 = csk.toByteArrayHash32();
+    assertEquals(bytes32.length, 24 + (4 * csk.getRetainedEntries(true)));
+    assertTrue(bytes32.length < (csk.toByteArray().length * 0.51));
+    
+    Memory mem = new NativeMemory(bytes32);
+    Sketch heap = Sketch.heapify(mem);
+    Sketch wrap = Sketch.wrap(mem);
+    assertTrue(heap.isOrdered());
+    assertFalse(wrap.isDirect());
+    assertEquals(heap.getEstimate(), csk.getEstimate(), 0.0);
+    assertEquals(wrap.getEstimate(), csk.getEstimate(), 0.0);
+    assertEquals(Sketches.getEstimate(mem), csk.getEstimate(), 0.0);
+    assertEquals(((CompactSketch) heap).toByteArrayHash32(), bytes32); //stable
+    
+    //exact mode and empty
+    UpdateSketch small = UpdateSketch.builder().build(k);
+    for (int i = 0; i < 10; i++) small.update(i);
+    byte[] small32 = small.compact().toByteArrayHash32();
+    assertEquals(small32.length, 16 + 40);
+    assertEquals(Sketch.wrap(new NativeMemory(small32)).getEstimate(), 10.0, 0.0);
+    byte[] empty32 = UpdateSketch.builder().build(k).compact().toByteArrayHash32();
+    assertEquals(empty32.length, 8);
+    assertTrue(Sketch.heapify(new NativeMemory(empty32)).isEmpty());
+  }
+  
+  @Test
+  public void checkHash32FormIsKept() throws Exception {
+    int k = 512;
+    UpdateSketch usk = UpdateSketch.builder().build(k);
+    for (int i = 0; i < 20000; i++) usk.update(i);
+    byte[] bytes32 = usk.compact().toByteArrayHash32();
+    Memory mem = new NativeMemory(bytes32);
+    Sketch heap = Sketch.heapify(mem);
+    assertTrue(heap.isHash32());
+    assertEquals(heap.getCurrentBytes(true), bytes32.length);
+    assertEquals(heap.toByteArray(), bytes32);
+    SketchTest.checkWriteTo(heap);
+    
+    CompactSketch down = Sketches.downsample(mem, 256, false, null);
+    assertEquals(down.getRetainedEntries(true), 256);
+    assertTrue(down.isHash32());
+    byte[] downArr = new byte[bytes32.length];
+    down = heap.downsample(256, false, new NativeMemory(downArr));
+    assertTrue(down.isHash32());
+    assertTrue(Sketch.wrap(new NativeMemory(downArr)).isHash32());
+    assertFalse(usk.compact().isHash32());
+  }
+  
+  @Test
+  public void checkHash32SetOperations() {
+    int k = 512;
+    UpdateSketch a = UpdateSketch.builder().build(k);
+    UpdateSketch b = UpdateSketch.builder().build(k);
+    for (int i = 0; i < 20000; i++) a.update(i);
+    for (int i = 10000; i < 30000; i++) b.update(i);
+    byte[] a32 = a.compact().toByteArrayHash32();
+    byte[] b32 = b.compact().toByteArrayHash32();
+    
+    Union union = SetOperation.builder().buildUnion(k);
+    union.update(a.compact());
+    union.update(b.compact());
+    double expUnion = union.getResult().getEstimate();
+    
+    Union union32 = SetOperation.builder().buildUnion(k);
+    union32.update(new NativeMemory(a32));
+    union32.update(Sketch.wrap(new NativeMemory(b32)));
+    CompactSketch result = union32.getResult(false, null);
+    assertTrue(result.isHash32());
+    assertEquals(result.getEstimate(), expUnion, expUnion * 0.001);
+    assertTrue(union32.snapshot().isHash32());
+    
+    Memory unionMem = new NativeMemory(new byte[SetOperation.getMaxUnionBytes(k)]);
+    Union dUnion32 = SetOperation.builder().initMemory(unionMem).buildUnion(k);
+    dUnion32.update(Sketch.heapify(new NativeMemory(a32)));
+    dUnion32.update(new NativeMemory(b32));
+    assertEquals(dUnion32.getResult().getEstimate(), result.getEstimate());
+    Union wrapped = (Union) SetOperation.wrap(unionMem);
+    assertTrue(wrapped.getResult().isHash32());
+    checkRejected(() -> wrapped.update(a.compact()));
+    checkRejected(() -> wrapped.update(1L));
+    wrapped.reset();
+    wrapped.update(a.compact());
+    assertFalse(wrapped.getResult().isHash32());
+    
+    Intersection inter = SetOperation.builder().buildIntersection(k);
+    inter.update(a);
+    inter.update(b);
+    double expInter = inter.getResult().getEstimate();
+    
+    Intersection inter32 = SetOperation.builder().buildIntersection(k);
+    inter32.update(Sketch.wrap(new NativeMemory(a32)));
+    inter32.update(Sketch.heapify(new NativeMemory(b32)));
+    result = inter32.getResult();
+    assertTrue(result.isHash32());
+    assertEquals(result.getEstimate(), expInter, expInter * 0.01);
+    Intersection heapified = (Intersection) SetOperation.heapify(
+        new NativeMemory(inter32.toByteArray()));
+    checkRejected(() -> heapified.update(b));
+    
+    Memory interMem = new NativeMemory(new byte[SetOperation.getMaxIntersectionBytes(k)]);
+    Intersection dInter32 = SetOperation.builder().initMemory(interMem).buildIntersection(k);
+    dInter32.update(Sketch.wrap(new NativeMemory(a32)));
+    dInter32.update(Sketch.heapify(new NativeMemory(b32)));
+    assertEquals(dInter32.getResult().getEstimate(), result.getEstimate());
+    Intersection dWrapped = (Intersection) SetOperation.wrap(interMem);
+    assertTrue(dWrapped.getResult().isHash32());
+    checkRejected(() -> dWrapped.update(b));
+    
+    UpdateSketch x = UpdateSketch.builder().build(k);
+    UpdateSketch y = UpdateSketch.builder().build(k);
+    for (int i = 0; i < 300; i++) x.update(i);
+    for (int i = 100; i < 400; i++) y.update(i);
+    AnotB aNotB32 = SetOperation.builder().buildANotB(k);
+    aNotB32.update(Sketch.wrap(new NativeMemory(x.compact().toByteArrayHash32())), 
+        Sketch.wrap(new NativeMemory(y.compact().toByteArrayHash32())));
+    result = aNotB32.getResult(false, null);
+    assertTrue(result.isHash32());
+    assertEquals(result.getEstimate(), 100.0);
+  }
+  
+  @Test
+  public void checkHash32MixedWithFullPrecisionRejected() {
+    int k = 512;
+    UpdateSketch usk = UpdateSketch.builder().build(k);
+    for (int i = 0; i < 20000; i++) usk.update(i);
+    CompactSketch csk = usk.compact();
+    Memory mem32 = new NativeMemory(csk.toByteArrayHash32());
+    Sketch sk32 = Sketch.wrap(mem32);
+    Sketch down32 = sk32.downsample(256, true, null);
+    Sketch reread32 = Sketch.heapify(new NativeMemory(sk32.toByteArray()));
+    Memory unionMem = new NativeMemory(new byte[SetOperation.getMaxUnionBytes(k)]);
+    Memory interMem = new NativeMemory(new byte[SetOperation.getMaxIntersectionBytes(k)]);
+    
+    for (Sketch sk : new Sketch[] {sk32, down32, reread32}) {
+      for (Sketch[] pair : new Sketch[][] {{usk, sk}, {sk, csk}}) {
+        checkRejected(() -> {
+          Union union = SetOperation.builder().buildUnion(k);
+          union.update(pair[0]);
+          union.update(pair[1]);
+        });
+        checkRejected(() -> {
+          Union union = SetOperation.builder().initMemory(unionMem).buildUnion(k);
+          union.update(pair[0]);
+          union.update(pair[1]);
+        });
+        checkRejected(() -> {
+          Intersection inter = SetOperation.builder().buildIntersection(k);
+          inter.update(pair[0]);
+          inter.update(pair[1]);
+        });
+        checkRejected(() -> {
+          Intersection inter = SetOperation.builder().initMemory(interMem).buildIntersection(k);
+          inter.update(pair[0]);
+          inter.update(pair[1]);
+        });
+        checkRejected(() -> SetOperation.builder().buildANotB().update(pair[0], pair[1]));
+      }
+    }
+    checkRejected(() -> {
+      Union union = SetOperation.builder().buildUnion(k);
+      union.update(csk);
+      union.update(mem32);
+    });
+    checkRejected(() -> {
+      Union union = SetOperation.builder().buildUnion(k);
+      union.update(mem32);
+      union.update(new NativeMemory(csk.toByteArray()));
+    });
+    
+    //a set operation without retained hashes accepts either precision
+    UpdateSketch empty = UpdateSketch.builder().build(k);
+    Union union = SetOperation.builder().buildUnion(k);
+    union.update(empty);
+    union.update(sk32);
+    assertTrue(union.getResult().isHash32());
+    AnotB aNotB = SetOperation.builder().buildANotB();
+    aNotB.update(usk, empty);
+    assertFalse(aNotB.getResult().isHash32());
+  }
+  
+  private static void checkRejected(Runnable setOperation) {
+    try {
+      setOperation.run();
+      fail();
+    } catch (IllegalArgumentException e) {
+      //expected
+    }
+  }
+
 }
\ No newline at end of file
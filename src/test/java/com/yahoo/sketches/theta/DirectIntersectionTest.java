@@ -11,6 +11,12 @@ import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
 import org.testng.annotations.Test;
 
 import com.yahoo.sketches.Family;
@@ -22,6 +28,37 @@ import com.yahoo.sketches.memory.NativeMemory;
  */
 public class DirectIntersectionTest {
   
+  @Test
+  public void checkWriteTo() throws IOException {
+    int k = 512;
+    Memory iMem = new NativeMemory(new byte[getMaxIntersectionBytes(k)]);
+    Intersection inter = SetOperation.builder().initMemory(iMem).buildIntersection(k);
+    byte[] expected = inter.toByteArray(); //virgin
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    inter.writeTo(Channels.newChannel(out));
+    assertEquals(out.toByteArray(), expected);
+    
+    UpdateSketch sk1 = UpdateSketch.builder().build(k);
+    UpdateSketch sk2 = UpdateSketch.builder().build(k);
+    for (int i=0; i<2*k; i++) sk1.update(i);
+    for (int i=k; i<3*k; i++) sk2.update(i);
+    inter.update(sk1);
+    inter.update(sk2);
+    expected = inter.toByteArray();
+    
+    byte[] memArr = new byte[expected.length + 8];
+    inter.writeTo(new NativeMemory(memArr), 8);
+    assertEquals(Arrays.copyOfRange(memArr, 8, memArr.length), expected);
+    
+    ByteBuffer buf = ByteBuffer.allocate(expected.length);
+    inter.writeTo(buf);
+    assertEquals(buf.array(), expected);
+    
+    out = new ByteArrayOutputStream();
+    inter.writeTo(Channels.newChannel(out));
+    assertEquals(out.toByteArray(), expected);
+  }
+  
   @Test
   public void checkExactIntersectionNoOverlap() {
     int lgK = 9;
@@ -672,6 +709,51 @@ public class DirectIntersectionTest {
     assertEquals(csk.getCurrentBytes(true), 8);
   }
   
+  @Test
+  public void checkSnapshot() {
+    int k = 512;
+    Memory iMem = new NativeMemory(new byte[getMaxIntersectionBytes(k)]);
+    Intersection inter = SetOperation.builder().initMemory(iMem).buildIntersection(k);
+    UpdateSketch skA = UpdateSketch.builder().build(k);
+    UpdateSketch skB = UpdateSketch.builder().build(k);
+    for (int i = 0; i < 400; i++) skA.update(i);
+    for (int i = 200; i < 600; i++) skB.update(i);
+    inter.update(skA);
+    inter.update(skB);
+    CompactSketch snap = inter.snapshot();
+    assertEquals(snap.getRetainedEntries(true), 200);
+    assertEquals(snap.getCache(), inter.getResult().getCache());
+  }
+  
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void checkSnapshotWithoutResult() {
+    int k = 512;
+    Memory iMem = new NativeMemory(new byte[getMaxIntersectionBytes(k)]);
+    Intersection inter = SetOperation.builder().initMemory(iMem).buildIntersection(k);
+    inter.snapshot();
+  }
+  
+  @Test
+  public void checkSnapshotWhileUpdating() throws InterruptedException {
+    int k = 2048;
+    Memory iMem = new NativeMemory(new byte[getMaxIntersectionBytes(k)]);
+    final Intersection inter = SetOperation.builder().initMemory(iMem).buildIntersection(k);
+    final UpdateSketch skA = UpdateSketch.builder().build(k);
+    for (int i = 0; i < 1000; i++) skA.update(i);
+    inter.update(skA);
+    Thread writer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        for (int r = 0; r < 500; r++) inter.update(skA); //rewrites the whole table every time
+      }
+    });
+    writer.start();
+    while (writer.isAlive()) {
+      assertEquals(inter.snapshot().getRetainedEntries(true), 1000);
+    }
+    writer.join();
+  }
+  
   @Test
   public void printlnTest() {
     println("PRINTING: "+this.getClass().getName());
@@ -12,13 +12,19 @@ import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.testng.annotations.Test;
 
 import com.yahoo.sketches.Family;
 import com.yahoo.sketches.memory.AllocMemory;
 import com.yahoo.sketches.memory.Memory;
+import com.yahoo.sketches.memory.MemoryBudget;
 import com.yahoo.sketches.memory.MemoryRequest;
 import com.yahoo.sketches.memory.NativeMemory;
 import com.yahoo.sketches.theta.CompactSketch;
@@ -126,6 +132,25 @@ public class DirectQuickSelectSketchTest {
     
   }
   
+  @Test
+  public void checkUpdateReturnStates() {
+    int k = 512;
+    UpdateSketch usk = UpdateSketch.builder().initMemory(makeNativeMemory(k)).build(k);
+    for (int i = 0; i < k; i++) {
+      assertEquals(usk.update(i), UpdateReturnState.InsertedCountIncremented);
+      assertEquals(usk.update(i), UpdateReturnState.RejectedDuplicate);
+    }
+    int inserted = k;
+    for (int i = k; i < (8 * k); i++) {
+      UpdateReturnState state = usk.update(i);
+      assertTrue((state == UpdateReturnState.InsertedCountIncremented)
+          || (state == UpdateReturnState.RejectedOverTheta));
+      if (state == UpdateReturnState.InsertedCountIncremented) inserted++;
+    }
+    assertTrue(usk.isEstimationMode());
+    assertTrue(inserted > (2 * k)); //also the inserts that triggered no rebuild
+  }
+  
   @Test(expectedExceptions = IllegalArgumentException.class)
   public void checkWrapIllegalSketchID_UpdateSketch() {
     int k = 512;
@@ -651,7 +676,100 @@ public class DirectQuickSelectSketchTest {
     println("Freed: " + nMem.getCapacity());
     nMem.freeMemory();
   }
-  
+
+  @Test
+  public void checkGrowthRequestedAhead() {
+    int k = 4096;
+    int u = 2*k;
+    final List<Runnable> tasks = new ArrayList<>();
+    final boolean[] onExecutor = new boolean[1];
+    final int[] requests = new int[2]; //made on the update thread, made on the executor
+    MemoryManager memMgr = new MemoryManager() {
+      @Override
+      public Memory request(long capacityBytes) {
+        requests[onExecutor[0] ? 1 : 0]++;
+        return super.request(capacityBytes);
+      }
+    };
+    Memory mem1 = new AllocMemory(k / 4, memMgr);
+    UpdateSketch usk1 = UpdateSketch.builder().initMemory(mem1).setResizeFactor(ResizeFactor.X2)
+        .setGrowthExecutor(tasks::add).setGrowthPrefetch(0.5f).build(k);
+    UpdateSketch usk2 = UpdateSketch.builder().setResizeFactor(ResizeFactor.X2).build(k);
+
+    for (int i=0; i<u; i++) {
+      usk1.update(i);
+      usk2.update(i);
+      onExecutor[0] = true; //run the requests and frees, which must be ahead of the growth
+      for (Runnable task : tasks) { task.run(); }
+      onExecutor[0] = false;
+      tasks.clear();
+    }
+    assertEquals(requests[0], 0);
+    assertTrue(requests[1] > 0);
+    assertFalse(((NativeMemory) mem1).isAllocated()); //freed on the executor
+    assertEquals(usk1.compact(true, null).toByteArray(), usk2.compact(true, null).toByteArray());
+    ((NativeMemory) usk1.getMemory()).freeMemory();
+  }
+
+  @Test
+  public void checkGrowthOnThreadPool() throws InterruptedException {
+    int k = 1 << 14;
+    int u = 4*k;
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Memory mem1 = new AllocMemory(1024, new MemoryManager());
+      UpdateSketch usk1 = UpdateSketch.builder().initMemory(mem1).setResizeFactor(ResizeFactor.X2)
+          .setGrowthExecutor(executor).build(k);
+      UpdateSketch usk2 = UpdateSketch.builder().setResizeFactor(ResizeFactor.X2).build(k);
+      for (int i=0; i<u; i++) {
+        usk1.update(i);
+        usk2.update(i);
+      }
+      assertEquals(usk1.getEstimate(), usk2.getEstimate());
+      assertEquals(usk1.compact(true, null).toByteArray(), usk2.compact(true, null).toByteArray());
+      ((NativeMemory) usk1.getMemory()).freeMemory();
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void checkDirectSketchGrowsWithinBudget() {
+    int k = 4096;
+    MemoryBudget budget = new MemoryBudget(1 << 20);
+    UpdateSketch sk = UpdateSketch.builder().initMemory(budget.allocate("sk", 1024))
+        .setResizeFactor(ResizeFactor.X2).build(k);
+    for (int i = 0; i < (2 * k); i++) { sk.update(i); }
+    assertEquals(budget.getUsedBytes("sk"), sk.getMemory().getCapacity());
+    assertTrue(budget.getGrantedRequests() > 1);
+    ((NativeMemory) sk.getMemory()).freeMemory();
+    assertEquals(budget.getUsedBytes(), 0);
+  }
+
+  @Test
+  public void checkDirectSketchGrowthRejected() {
+    int k = 4096;
+    MemoryBudget budget = new MemoryBudget(8192);
+    UpdateSketch sk = UpdateSketch.builder().initMemory(budget.allocate("sk", 1024))
+        .setResizeFactor(ResizeFactor.X2).build(k);
+    try {
+      for (int i = 0; i < (2 * k); i++) { sk.update(i); }
+      throw new AssertionError();
+    } catch (IllegalArgumentException e) {
+      assertNotNull(e.getMessage());
+    }
+    assertEquals(budget.getRejectedRequests(), 1);
+    assertTrue(budget.getUsedBytes() <= 8192);
+    ((NativeMemory) sk.getMemory()).freeMemory();
+    assertEquals(budget.getUsedBytes(), 0);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkBadGrowthPrefetch() {
+    UpdateSketch.builder().setGrowthPrefetch(1.5f);
+  }
+
   //////////////////////////////////////////////////////
   //this one allocates twice what was asked
   private class MemoryManager2 implements MemoryRequest {
@@ -840,6 +958,57 @@ public class DirectQuickSelectSketchTest {
     UpdateSketch usk2 = (UpdateSketch) Sketches.wrapSketch(mem1);
   }
   
+  @Test
+  public void checkSnapshotMatchesCompact() {
+    int k = 512;
+    UpdateSketch usk = UpdateSketch.builder().initMemory(makeNativeMemory(k)).build(k);
+    assertTrue(usk.snapshot().isEmpty());
+    for (int i = 0; i < (4 * k); i++) usk.update(i);
+    CompactSketch snap = usk.snapshot();
+    CompactSketch csk = usk.compact(true, null);
+    assertTrue(snap.isOrdered());
+    assertFalse(snap.isEmpty());
+    assertEquals(snap.getThetaLong(), csk.getThetaLong());
+    assertEquals(snap.getCache(), csk.getCache());
+    usk.reset();
+    assertTrue(usk.snapshot().isEmpty());
+  }
+  
+  @Test
+  public void checkSnapshotWhileUpdating() throws InterruptedException {
+    final int k = 1024;
+    final int u = 1 << 18;
+    MemoryManager memMgr = new MemoryManager();
+    Memory mem = memMgr.request(k); //grows and moves several times
+    final UpdateSketch usk = UpdateSketch.builder().initMemory(mem).build(k);
+    Thread writer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        for (int i = 0; i < u; i++) usk.update(i);
+      }
+    });
+    writer.start();
+    int snapshots = 0;
+    while (writer.isAlive() || (snapshots == 0)) {
+      CompactSketch snap = usk.snapshot();
+      long[] cache = snap.getCache();
+      assertEquals(cache.length, snap.getRetainedEntries(true));
+      assertTrue(cache.length < (2 * k));
+      for (int i = 0; i < cache.length; i++) {
+        assertTrue((cache[i] > 0) && (cache[i] < snap.getThetaLong()));
+        assertTrue((i == 0) || (cache[i - 1] < cache[i]));
+      }
+      assertTrue(snap.getEstimate() < (1.1 * u));
+      snapshots++;
+    }
+    writer.join();
+    CompactSketch snap = usk.snapshot();
+    assertEquals(snap.getCache(), usk.compact(true, null).getCache());
+    assertEquals(snap.getEstimate(), u, 0.05 * u);
+    println("Snapshots: " + snapshots);
+    ((NativeMemory) usk.getMemory()).freeMemory();
+  }
+  
   @Test
   public void printlnTest() {
     println("PRINTING: "+this.getClass().getName());
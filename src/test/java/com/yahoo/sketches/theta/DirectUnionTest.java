@@ -18,6 +18,10 @@ import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.util.Arrays;
 
 /**
@@ -119,6 +123,33 @@ public class DirectUnionTest {
     testAllCompactForms(union2, u, 0.0);
   }
   
+  @Test
+  public void checkWriteTo() throws IOException {
+    int k = 512;
+    UpdateSketch usk = UpdateSketch.builder().build(k);
+    for (int i=0; i<4*k; i++) usk.update(i); //est mode
+    Memory uMem = new NativeMemory(new byte[getMaxUnionBytes(k)]);
+    Union union = SetOperation.builder().initMemory(uMem).buildUnion(k);
+    union.update(usk);
+    byte[] expected = union.toByteArray();
+    
+    byte[] memArr = new byte[expected.length + 8];
+    union.writeTo(new NativeMemory(memArr), 8);
+    assertEquals(Arrays.copyOfRange(memArr, 8, memArr.length), expected);
+    
+    ByteBuffer buf = ByteBuffer.allocateDirect(expected.length);
+    union.writeTo(buf);
+    assertEquals(buf.position(), expected.length);
+    byte[] bufArr = new byte[expected.length];
+    buf.flip();
+    buf.get(bufArr);
+    assertEquals(bufArr, expected);
+    
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    union.writeTo(Channels.newChannel(out));
+    assertEquals(out.toByteArray(), expected);
+  }
+  
   //these parallel the checkHeapifyExact, etc.
   @Test 
   public void checkWrapExact() {
@@ -608,6 +639,50 @@ public class DirectUnionTest {
     assertEquals(csk.getCurrentBytes(true), 8);
   }
   
+  @Test
+  public void checkSnapshot() {
+    int k = 512;
+    Memory uMem = new NativeMemory(new byte[getMaxUnionBytes(k)]);
+    Union union = SetOperation.builder().initMemory(uMem).buildUnion(k);
+    assertTrue(union.snapshot().isEmpty());
+    UpdateSketch usk = UpdateSketch.builder().setNominalEntries(2 * k).build();
+    for (int i = 0; i < (8 * k); i++) usk.update(i);
+    union.update(usk);
+    for (int i = 0; i < k; i++) union.update(i + (8 * k));
+    CompactSketch snap = union.snapshot();
+    CompactSketch result = union.getResult();
+    assertEquals(snap.getRetainedEntries(true), k);
+    assertEquals(snap.getThetaLong(), result.getThetaLong());
+    assertEquals(snap.getCache(), result.getCache());
+  }
+  
+  @Test
+  public void checkSnapshotSeesWholeSketchUpdates() throws InterruptedException {
+    final int k = 4096;
+    final int m = 64; //entries of every sketch, all unions stay exact
+    Memory uMem = new NativeMemory(new byte[getMaxUnionBytes(k)]);
+    final Union union = SetOperation.builder().initMemory(uMem).buildUnion(k);
+    final UpdateSketch[] sketches = new UpdateSketch[50];
+    for (int j = 0; j < sketches.length; j++) {
+      sketches[j] = UpdateSketch.builder().build(k);
+      for (int i = 0; i < m; i++) sketches[j].update((j * m) + i);
+    }
+    Thread writer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        for (int r = 0; r < 20; r++) {
+          for (UpdateSketch sk : sketches) union.update(sk);
+          union.reset();
+        }
+      }
+    });
+    writer.start();
+    while (writer.isAlive()) {
+      assertEquals(union.snapshot().getRetainedEntries(true) % m, 0);
+    }
+    writer.join();
+  }
+  
   @Test
   public void printlnTest() {
     println("PRINTING: "+this.getClass().getName());
@@ -5,11 +5,16 @@
 package com.yahoo.sketches.theta;
 
 import static com.yahoo.sketches.theta.HashOperations.*;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.assertFalse;
 
+import java.util.Random;
+
 import org.testng.annotations.Test;
 
+import com.yahoo.sketches.memory.NativeMemory;
+
 
 public class HashOperationsTest {
   
@@ -66,4 +71,58 @@ public class HashOperationsTest {
     //System.out.println(s); //disable here
   }
   
+  @Test
+  public void checkRebuildInPlace() {
+    Random rand = new Random(1);
+    int lgArrLongs = 10;
+    int arrLongs = 1 << lgArrLongs;
+    long[] table = new long[arrLongs];
+    for (int i = 0; i < 900; i++) {
+      hashInsert(table, lgArrLongs, (rand.nextLong() >>> 1) | 1L);
+    }
+    long thetaLong = Long.MAX_VALUE / 2;
+    long[] expected = new long[arrLongs];
+    int expCount = hashArrayInsert(table, expected, lgArrLongs, thetaLong);
+    
+    NativeMemory mem = new NativeMemory(new byte[8 + (arrLongs << 3)]);
+    mem.putLongArray(8, table, 0, arrLongs);
+    assertEquals(rebuildInPlace(table, arrLongs, lgArrLongs, thetaLong), expCount);
+    assertEquals(rebuildInPlace(mem, 8, arrLongs, lgArrLongs, thetaLong), expCount);
+    long[] memTable = new long[arrLongs];
+    mem.getLongArray(8, memTable, 0, arrLongs);
+    assertEquals(memTable, table);
+    checkAllFound(table, lgArrLongs, expected, expCount);
+  }
+  
+  @Test
+  public void checkGrowInPlace() {
+    Random rand = new Random(2);
+    int lgArrLongs = 6;
+    long[] table = new long[1 << 10];
+    for (int i = 0; i < 48; i++) {
+      hashInsert(table, lgArrLongs, (rand.nextLong() >>> 1) | 1L);
+    }
+    long[] expected = table.clone();
+    for (int lg = lgArrLongs + 1; lg <= 10; lg++) { //the old table is in the first 1 << (lg - 1)
+      assertEquals(rebuildInPlace(table, 1 << (lg - 1), lg, Long.MAX_VALUE), 48);
+      checkAllFound(table, lg, expected, 48);
+    }
+  }
+  
+  private static void checkAllFound(long[] table, int lgArrLongs, long[] hashes, int count) {
+    int found = 0;
+    for (long hash : hashes) {
+      if (hash == 0) continue;
+      if (hash < 0) continue;
+      boolean present = false;
+      for (long h : table) {
+        if (h == hash) present = true;
+      }
+      if (!present) continue;
+      assertFalse(hashInsert(table.clone(), lgArrLongs, hash)); //reachable by its probe sequence
+      found++;
+    }
+    assertEquals(found, count);
+  }
+  
 }
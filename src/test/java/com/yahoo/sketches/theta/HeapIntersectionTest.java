@@ -10,6 +10,12 @@ import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
 import org.testng.annotations.Test;
 
 //import com.yahoo.sketches.theta.Sketch.Builder;
@@ -378,6 +384,36 @@ public class HeapIntersectionTest {
     inter.update(sk1);
   }
   
+  @Test
+  public void checkWriteTo() throws IOException {
+    int k = 512;
+    Intersection inter = SetOperation.builder().buildIntersection(k);
+    byte[] expected = inter.toByteArray(); //virgin
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    inter.writeTo(Channels.newChannel(out));
+    assertEquals(out.toByteArray(), expected);
+    
+    UpdateSketch sk1 = UpdateSketch.builder().build(k);
+    UpdateSketch sk2 = UpdateSketch.builder().build(k);
+    for (int i=0; i<2*k; i++) sk1.update(i);
+    for (int i=k; i<3*k; i++) sk2.update(i);
+    inter.update(sk1);
+    inter.update(sk2);
+    expected = inter.toByteArray();
+    
+    byte[] memArr = new byte[expected.length + 8];
+    inter.writeTo(new NativeMemory(memArr), 8);
+    assertEquals(Arrays.copyOfRange(memArr, 8, memArr.length), expected);
+    
+    ByteBuffer buf = ByteBuffer.allocate(expected.length);
+    inter.writeTo(buf);
+    assertEquals(buf.array(), expected);
+    
+    out = new ByteArrayOutputStream();
+    inter.writeTo(Channels.newChannel(out));
+    assertEquals(out.toByteArray(), expected);
+  }
+  
   @Test
   public void checkHeapify() {
     int lgK = 9;
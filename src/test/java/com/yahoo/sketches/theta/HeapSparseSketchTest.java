@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.theta;
+
+import static com.yahoo.sketches.theta.HeapSparseSketch.SPARSE_MAX_ENTRIES;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.testng.annotations.Test;
+
+import com.yahoo.sketches.Family;
+import com.yahoo.sketches.memory.NativeMemory;
+
+public class HeapSparseSketchTest {
+
+  @Test
+  public void checkSameAsQuickSelect() {
+    int k = 512;
+    UpdateSketch sparse = UpdateSketch.builder().setSparse(true).build(k);
+    UpdateSketch hqs = UpdateSketch.builder().build(k);
+    assertTrue(sparse instanceof HeapSparseSketch);
+    assertEquals(sparse.compact().toByteArray(), hqs.compact().toByteArray());
+
+    for (int i = 0; i < 5000; i++) {
+      assertEquals(sparse.update(i), hqs.update(i));
+      assertEquals(sparse.update(i), hqs.update(i)); //duplicate or over theta
+      assertEquals(((HeapSparseSketch) sparse).isSparse(), i < SPARSE_MAX_ENTRIES);
+      if ((i < 40) || ((i % 500) == 0)) {
+        assertEquals(sparse.getEstimate(), hqs.getEstimate(), 0.0);
+        assertEquals(sparse.compact(true, null).toByteArray(), hqs.compact(true, null).toByteArray());
+        assertEquals(sparse.compact(false, null).getEstimate(), hqs.getEstimate(), 0.0);
+        if (i >= SPARSE_MAX_ENTRIES) { //sparse form serializes with the smallest hash table
+          assertEquals(sparse.toByteArray(), hqs.toByteArray());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void checkSerializeSparse() throws IOException {
+    UpdateSketch sparse = UpdateSketch.builder().setSparse(true).build(1024);
+    for (int i = 0; i < 10; i++) sparse.update(i);
+    byte[] bytes = sparse.toByteArray();
+    assertEquals(bytes.length, 24 + (8 << HeapQuickSelectSketch.HQS_MIN_LG_ARR_LONGS));
+
+    Sketch heapified = Sketch.heapify(new NativeMemory(bytes));
+    assertTrue(heapified instanceof HeapQuickSelectSketch);
+    assertEquals(heapified.getEstimate(), 10.0, 0.0);
+    assertEquals(Sketch.wrap(new NativeMemory(bytes)).getEstimate(), 10.0, 0.0);
+    SketchTest.checkWriteTo(sparse);
+
+    CompactSketch csk = sparse.compact(true, new NativeMemory(new byte[sparse.getCurrentBytes(true)]));
+    assertTrue(csk.isDirect());
+    assertEquals(csk.getEstimate(), 10.0, 0.0);
+    assertEquals(Sketches.getEstimate(new NativeMemory(sparse.compact().toByteArray())), 10.0, 0.0);
+  }
+
+  @Test
+  public void checkSetOperations() {
+    UpdateSketch a = UpdateSketch.builder().setSparse(true).build(1024);
+    UpdateSketch b = UpdateSketch.builder().setSparse(true).build(1024);
+    for (int i = 0; i < 10; i++) a.update(i);
+    for (int i = 5; i < 12; i++) b.update(i);
+
+    Union union = SetOperation.builder().buildUnion(1024);
+    union.update(a);
+    union.update(b);
+    assertEquals(union.getResult().getEstimate(), 12.0, 0.0);
+
+    Intersection inter = SetOperation.builder().buildIntersection(1024);
+    inter.update(a);
+    inter.update(b);
+    assertEquals(inter.getResult().getEstimate(), 5.0, 0.0);
+
+    AnotB aNotB = SetOperation.builder().buildANotB(1024);
+    aNotB.update(a, b);
+    assertEquals(aNotB.getResult().getEstimate(), 5.0, 0.0);
+  }
+
+  @Test
+  public void checkResetAndP() {
+    UpdateSketch sk = UpdateSketch.builder().setSparse(true).setP((float) 0.5).build(1024);
+    assertTrue(sk.isEmpty());
+    int accepted = 0;
+    for (int i = 0; i < 20; i++) {
+      if (sk.update(i) == UpdateReturnState.InsertedCountIncremented) accepted++;
+    }
+    assertFalse(sk.isEmpty());
+    assertEquals(sk.getRetainedEntries(true), accepted);
+    assertTrue(sk.getThetaLong() < Long.MAX_VALUE);
+
+    for (int i = 20; i < 1000; i++) sk.update(i);
+    assertFalse(((HeapSparseSketch) sk).isSparse());
+    sk.reset();
+    assertTrue(((HeapSparseSketch) sk).isSparse());
+    assertTrue(sk.isEmpty());
+    assertEquals(sk.getRetainedEntries(true), 0);
+    sk.update(1);
+    assertEquals(sk.getRetainedEntries(true), 1);
+    assertTrue(sk.rebuild() == sk);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkSparseAlpha() {
+    UpdateSketch.builder().setSparse(true).setFamily(Family.ALPHA).build();
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkSparseDirect() {
+    UpdateSketch.builder().setSparse(true).initMemory(new NativeMemory(new byte[1 << 16])).build(1024);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkMinNomEntries() {
+    new HeapSparseSketch(3, 9001L, (float) 1.0, ResizeFactor.X8);
+  }
+
+}
@@ -10,6 +10,10 @@ import static com.yahoo.sketches.theta.PreambleUtil.SER_VER_BYTE;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.util.Arrays;
 
 import com.yahoo.sketches.memory.Memory;
@@ -86,6 +90,32 @@ public class HeapUnionTest {
     testAllCompactForms(union, u, 0.0);
   }
 
+  @Test
+  public void checkWriteTo() throws IOException {
+    int k = 512;
+    UpdateSketch usk = UpdateSketch.builder().build(k);
+    for (int i=0; i<4*k; i++) usk.update(i); //est mode
+    Union union = SetOperation.builder().buildUnion(k);
+    union.update(usk);
+    byte[] expected = union.toByteArray();
+    
+    byte[] memArr = new byte[expected.length + 8];
+    union.writeTo(new NativeMemory(memArr), 8);
+    assertEquals(Arrays.copyOfRange(memArr, 8, memArr.length), expected);
+    
+    ByteBuffer buf = ByteBuffer.allocateDirect(expected.length);
+    union.writeTo(buf);
+    assertEquals(buf.position(), expected.length);
+    byte[] bufArr = new byte[expected.length];
+    buf.flip();
+    buf.get(bufArr);
+    assertEquals(bufArr, expected);
+    
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    union.writeTo(Channels.newChannel(out));
+    assertEquals(out.toByteArray(), expected);
+  }
+  
   @Test 
   public void checkHeapifyExact() {
     int lgK = 9; //512
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.theta;
+
+import static com.yahoo.sketches.theta.Sketches.buildParallel;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.yahoo.sketches.memory.NativeMemory;
+
+public class ParallelSketchBuilderTest {
+
+  @Test
+  public void checkMatchesSequentialBuild() {
+    int k = 1024;
+    int n = 300000;
+    long[] data = new long[n];
+    UpdateSketch seq = UpdateSketch.builder().build(k);
+    for (int i = 0; i < n; i++) {
+      data[i] = i * 31L;
+      seq.update(data[i]);
+    }
+    CompactSketch expected = seq.downsample(k, true, null);
+
+    for (int threads : new int[] {1, 2, 4, 7}) {
+      CompactSketch csk = buildParallel(data, k, threads);
+      assertTrue(csk.isOrdered());
+      assertEquals(csk.getEstimate(), expected.getEstimate(), 0.0);
+      assertEquals(csk.getCache(), expected.getCache());
+
+      CompactSketch mcsk = buildParallel(new NativeMemory(data), k, threads);
+      assertEquals(mcsk.getCache(), expected.getCache());
+    }
+  }
+
+  @Test
+  public void checkSmallAndEmptyInput() {
+    assertTrue(buildParallel(new long[0], 64, 4).isEmpty());
+    CompactSketch csk = buildParallel(new long[] {1, 2, 3, 3}, 64, 4);
+    assertEquals(csk.getEstimate(), 3.0, 0.0);
+  }
+
+  @Test
+  public void checkSeed() {
+    long[] data = {1, 2, 3};
+    CompactSketch csk = buildParallel(data, 64, 123L, 2);
+    UpdateSketch usk = UpdateSketch.builder().setSeed(123L).build(64);
+    for (long d : data) usk.update(d);
+    assertEquals(csk.getSeedHash(), usk.getSeedHash());
+    assertEquals(csk.getCache(), usk.compact(true, null).getCache());
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkBadThreads() {
+    buildParallel(new long[10], 64, 0);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkBadNomEntries() {
+    buildParallel(new long[10], 100, 2);
+  }
+
+}
@@ -14,6 +14,7 @@ import java.nio.ByteBuffer;
 import org.testng.annotations.Test;
 
 import com.yahoo.sketches.Family;
+import com.yahoo.sketches.hash.HashFunction;
 import com.yahoo.sketches.memory.Memory;
 import com.yahoo.sketches.memory.MemoryRegion;
 import com.yahoo.sketches.memory.NativeMemory;
@@ -131,6 +132,55 @@ public class SetOperationTest {
     union.update(usk2); //throws seed exception here
   }
   
+  @Test
+  public void checkHashFunction() {
+    int k = 1024;
+    UpdateSketch usk1 = UpdateSketch.builder().setHashFunction(HashFunction.XXHASH64).build(k);
+    UpdateSketch usk2 = UpdateSketch.builder().setHashFunction(HashFunction.XXHASH64)
+        .initMemory(new NativeMemory(new byte[getMaxUpdateSketchBytes(k)])).build(k);
+    for (int i=0; i<k/2; i++) usk1.update(i);
+    for (int i=k/4; i<k/2 + k/4; i++) usk2.update(i);
+    assertEquals(usk2.getHashFunction(), HashFunction.XXHASH64);
+    
+    UpdateSketch usk3 = (UpdateSketch) Sketch.heapify(new NativeMemory(usk1.toByteArray()));
+    assertEquals(usk3.getHashFunction(), HashFunction.XXHASH64);
+    for (int i=0; i<k/2; i++) usk3.update(i); //same hashes
+    assertEquals(usk3.getEstimate(), k/2, 0.0);
+    UpdateSketch usk4 = (UpdateSketch) Sketch.wrap(usk2.getMemory());
+    assertEquals(usk4.getHashFunction(), HashFunction.XXHASH64);
+    
+    SetOperationBuilder bldr = SetOperation.builder().setHashFunction(HashFunction.XXHASH64);
+    Union union = bldr.buildUnion(k);
+    union.update(usk1);
+    union.update(usk2.compact());
+    assertEquals(union.getResult().getEstimate(), 3*k/4, 0.0);
+    Memory unionMem = new NativeMemory(union.toByteArray());
+    Union union2 = (Union) SetOperation.heapify(unionMem);
+    union2.update(usk3);
+    assertEquals(union2.getResult().getEstimate(), 3*k/4, 0.0);
+    
+    Intersection inter = bldr.buildIntersection(k);
+    inter.update(usk1);
+    inter.update(usk2);
+    assertEquals(inter.getResult().getEstimate(), k/4, 0.0);
+    
+    AnotB aNotB = bldr.buildANotB();
+    aNotB.update(usk1, usk2);
+    assertEquals(aNotB.getResult().getEstimate(), k/4, 0.0);
+  }
+  
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkMixedHashFunctions() {
+    int k = 1024;
+    UpdateSketch usk1 = UpdateSketch.builder().setHashFunction(HashFunction.XXHASH64).build(k);
+    UpdateSketch usk2 = UpdateSketch.builder().build(k);
+    usk1.update(1);
+    usk2.update(2);
+    Union union = SetOperation.builder().setHashFunction(HashFunction.XXHASH64).buildUnion(k);
+    union.update(usk1);
+    union.update(usk2); //throws seed hash exception here
+  }
+  
   @Test(expectedExceptions = IllegalArgumentException.class)
   public void checkIllegalSetOpHeapify() {
     int k = 64;
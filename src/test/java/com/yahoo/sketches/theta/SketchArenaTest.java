@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.theta;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.yahoo.sketches.memory.NativeMemory;
+
+public class SketchArenaTest {
+
+  @Test
+  public void checkSameAsQuickSelect() {
+    int k = 64;
+    int numKeys = 200;
+    SketchArena arena = new SketchArena(k, 123L, 4096);
+    UpdateSketch[] expected = new UpdateSketch[numKeys];
+    for (int key = 0; key < numKeys; key++) {
+      expected[key] = UpdateSketch.builder().setSeed(123L).build(k);
+    }
+    for (int i = 0; i < 1000; i++) {
+      for (int key = 0; key < numKeys; key++) {
+        if (i < (key * 5)) {
+          long v = (i * 7L) + key;
+          UpdateReturnState state = arena.update(key, v);
+          assertEquals(state, expected[key].update(v));
+        }
+      }
+    }
+    assertEquals(arena.getNumKeys(), numKeys);
+    assertTrue(arena.getAllocatedBytes() > 4096);
+    for (int key = 0; key < numKeys; key++) {
+      UpdateSketch sk = expected[key];
+      assertEquals(arena.getEstimate(key), sk.getEstimate(), 0.0);
+      assertEquals(arena.getRetainedEntries(key), sk.getRetainedEntries(true));
+      assertEquals(arena.getLowerBound(key, 2), sk.getLowerBound(2), 0.0);
+      assertEquals(arena.getUpperBound(key, 2), sk.getUpperBound(2), 0.0);
+      assertEquals(arena.compact(key, true, null).toByteArray(), sk.compact(true, null).toByteArray());
+      assertEquals(arena.compact(key, false, null).getEstimate(), sk.getEstimate(), 0.0);
+    }
+    arena.freeMemory();
+    assertEquals(arena.getAllocatedBytes(), 0);
+  }
+
+  @Test
+  public void checkOtherTypesAndEmpty() {
+    SketchArena arena = new SketchArena(1024);
+    UpdateSketch sk = UpdateSketch.builder().build(1024);
+    assertEquals(arena.getEstimate(5), 0.0, 0.0);
+    assertTrue(arena.compact(5, true, null).isEmpty());
+    assertEquals(arena.update(3, (String) null), UpdateReturnState.RejectedNullOrEmpty);
+    assertEquals(arena.update(3, new byte[0]), UpdateReturnState.RejectedNullOrEmpty);
+    for (int i = 0; i < 100; i++) {
+      arena.update(3, "s" + i);
+      arena.update(3, new byte[] {(byte) i, 1});
+      sk.update("s" + i);
+      sk.update(new byte[] {(byte) i, 1});
+    }
+    assertEquals(arena.getNumKeys(), 4);
+    assertEquals(arena.getEstimate(0), 0.0, 0.0);
+    NativeMemory dstMem = new NativeMemory(new byte[sk.getCurrentBytes(true)]);
+    CompactSketch csk = arena.compact(3, true, dstMem);
+    assertTrue(csk.isDirect());
+    assertEquals(csk.toByteArray(), sk.compact(true, null).toByteArray());
+    arena.freeMemory();
+  }
+
+  @Test
+  public void checkResetReusesBlocks() {
+    SketchArena arena = new SketchArena(16, 9001L, 1024);
+    for (int key = 0; key < 10; key++) {
+      for (int i = 0; i < 100; i++) arena.update(key, i);
+    }
+    long allocated = arena.getAllocatedBytes();
+    long used = arena.getUsedBytes();
+    for (int key = 0; key < 10; key++) {
+      arena.reset(key);
+      assertEquals(arena.getEstimate(key), 0.0, 0.0);
+    }
+    assertEquals(arena.getUsedBytes(), 0);
+    for (int key = 0; key < 10; key++) {
+      for (int i = 0; i < 100; i++) arena.update(key, i);
+      assertTrue(arena.getEstimate(key) > 50.0);
+    }
+    assertEquals(arena.getAllocatedBytes(), allocated);
+    assertEquals(arena.getUsedBytes(), used);
+    arena.freeMemory();
+  }
+
+  @Test
+  public void checkLongKeys() {
+    SketchArena arena = new SketchArena(64, 9001L, 4096);
+    SketchArena expected = new SketchArena(64, 9001L, 4096);
+    for (int i = 0; i < 500; i++) {
+      assertEquals(arena.update(7L, (long) i), expected.update(7, (long) i));
+      assertEquals(arena.update(3L, "s" + i), expected.update(3, "s" + i));
+      assertEquals(arena.update(3L, new byte[] {(byte) i, 2}), expected.update(3, new byte[] {(byte) i, 2}));
+    }
+    for (int key = 0; key < 8; key++) {
+      assertEquals(arena.getEstimate((long) key), expected.getEstimate(key), 0.0);
+      assertEquals(arena.getLowerBound((long) key, 1), expected.getLowerBound(key, 1), 0.0);
+      assertEquals(arena.getUpperBound((long) key, 1), expected.getUpperBound(key, 1), 0.0);
+      assertEquals(arena.getRetainedEntries((long) key), expected.getRetainedEntries(key));
+      assertEquals(arena.compact((long) key, true, null).toByteArray(),
+          expected.compact(key, true, null).toByteArray());
+    }
+    arena.reset(7L);
+    assertEquals(arena.getEstimate(7L), 0.0, 0.0);
+    arena.freeMemory();
+    expected.freeMemory();
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkLongKeyTooLarge() {
+    SketchArena arena = new SketchArena(16);
+    arena.update(1L << 31, 1L);
+  }
+
+  @Test
+  public void checkOnlyFirstSlabSkipsStartOffset() {
+    int blockBytes = 24 + (8 << SketchArena.ARENA_MIN_LG_ARR_LONGS);
+    int slabBytes = 4 * blockBytes; //slab zero has room for 3 blocks, the others for 4
+    SketchArena arena = new SketchArena(16, 9001L, slabBytes);
+    for (int key = 0; key < 7; key++) {
+      arena.update(key, 1L);
+    }
+    assertEquals(arena.getAllocatedBytes(), 2L * slabBytes);
+    arena.update(7, 1L);
+    assertEquals(arena.getAllocatedBytes(), 3L * slabBytes);
+    arena.freeMemory();
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkNegativeKey() {
+    SketchArena arena = new SketchArena(16);
+    arena.update(-1, 1L);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkSlabTooSmall() {
+    new SketchArena(1024, 9001L, 1024);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkMinNomEntries() {
+    new SketchArena(8);
+  }
+
+}
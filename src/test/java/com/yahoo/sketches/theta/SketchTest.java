@@ -4,6 +4,12 @@
  */
 package com.yahoo.sketches.theta;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
 import com.yahoo.sketches.Family;
 import com.yahoo.sketches.memory.Memory;
 import com.yahoo.sketches.memory.NativeMemory;
@@ -21,6 +27,8 @@ import static com.yahoo.sketches.theta.ResizeFactor.X4;
 import static com.yahoo.sketches.theta.ResizeFactor.X8;
 import static com.yahoo.sketches.theta.Sketch.getMaxCompactSketchBytes;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 /**
  * @author Lee Rhodes
@@ -277,6 +285,162 @@ public class SketchTest {
     Sketch sketch2 = Sketch.wrap(mem);
   }
   
+  @Test
+  public void checkWriteToAllSketchForms() throws IOException {
+    int k = 512;
+    for (Family fam : new Family[] {QUICKSELECT, ALPHA}) {
+      for (int u : new int[] {0, k/2, 4*k}) {
+        UpdateSketch usk = UpdateSketch.builder().setFamily(fam).build(k);
+        for (int i = 0; i < u; i++) usk.update(i);
+        checkWriteTo(usk);
+        checkWriteTo(usk.compact(false, null));
+        checkWriteTo(usk.compact(true, null));
+        checkWriteTo(usk.compact(false, new NativeMemory(new byte[usk.getCurrentBytes(true)])));
+        checkWriteTo(usk.compact(true, new NativeMemory(new byte[usk.getCurrentBytes(true)])));
+      }
+    }
+    UpdateSketch dsk = UpdateSketch.builder().initMemory(
+        new NativeMemory(new byte[Sketch.getMaxUpdateSketchBytes(k)])).build(k);
+    for (int i = 0; i < 4*k; i++) dsk.update(i);
+    checkWriteTo(dsk);
+  }
+  
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkWriteToMemoryTooSmall() {
+    UpdateSketch usk = UpdateSketch.builder().build(64);
+    usk.update(1);
+    usk.writeTo(new NativeMemory(new byte[usk.toByteArray().length]), 8);
+  }
+  
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkWriteToBufferTooSmall() {
+    UpdateSketch usk = UpdateSketch.builder().build(64);
+    usk.update(1);
+    usk.writeTo(ByteBuffer.allocate(usk.toByteArray().length - 1));
+  }
+  
+  @Test
+  public void checkWriteToDirtyAlphaSketch() throws IOException {
+    for (int method = 0; method < 3; method++) {
+      UpdateSketch usk = dirtyAlphaSketch();
+      byte[] actual;
+      if (method == 0) {
+        actual = new byte[Sketch.getMaxUpdateSketchBytes(512)];
+        usk.writeTo(new NativeMemory(actual), 0);
+      } else if (method == 1) {
+        ByteBuffer buf = ByteBuffer.allocate(Sketch.getMaxUpdateSketchBytes(512));
+        usk.writeTo(buf);
+        actual = Arrays.copyOf(buf.array(), buf.position());
+      } else {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        usk.writeTo(Channels.newChannel(out));
+        actual = out.toByteArray();
+      }
+      byte[] expected = dirtyAlphaSketch().toByteArray();
+      assertEquals(Arrays.copyOf(actual, expected.length), expected);
+      assertEquals(usk.toByteArray(), expected);
+    }
+  }
+  
+  /**
+   * @return an Alpha sketch whose cache has not been rebuilt since its last update
+   */
+  private static UpdateSketch dirtyAlphaSketch() {
+    UpdateSketch usk = UpdateSketch.builder().setFamily(ALPHA).build(512);
+    for (int i = 0; i < 20000; i++) usk.update(i);
+    return usk;
+  }
+  
+  /**
+   * Checks that all writeTo methods reproduce toByteArray() exactly.
+   * @param sk the sketch to check
+   * @throws IOException if the channel fails
+   */
+  static void checkWriteTo(Sketch sk) throws IOException {
+    byte[] expected = sk.toByteArray();
+    int offset = 8;
+    
+    byte[] memArr = new byte[expected.length + offset];
+    sk.writeTo(new NativeMemory(memArr), offset);
+    assertEquals(Arrays.copyOfRange(memArr, offset, memArr.length), expected);
+    
+    ByteBuffer heapBuf = ByteBuffer.allocate(expected.length + 2*offset);
+    heapBuf.position(offset);
+    sk.writeTo(heapBuf.slice());
+    sk.writeTo(heapBuf);
+    assertEquals(heapBuf.position(), expected.length + offset);
+    assertEquals(Arrays.copyOfRange(heapBuf.array(), offset, offset + expected.length), expected);
+    
+    ByteBuffer directBuf = ByteBuffer.allocateDirect(expected.length + offset);
+    directBuf.position(offset);
+    sk.writeTo(directBuf);
+    assertEquals(directBuf.position(), directBuf.capacity());
+    byte[] directArr = new byte[expected.length];
+    directBuf.position(offset);
+    directBuf.get(directArr);
+    assertEquals(directArr, expected);
+    
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    sk.writeTo(Channels.newChannel(out));
+    assertEquals(out.toByteArray(), expected);
+  }
+  
+  @Test
+  public void checkDownsampleMatchesUnion() {
+    int k = 4096;
+    int k2 = 512;
+    UpdateSketch usk = UpdateSketch.builder().build(k);
+    for (int i = 0; i < 100000; i++) usk.update(i);
+    
+    Union union = SetOperation.builder().buildUnion(k2);
+    union.update(usk);
+    CompactSketch expected = union.getResult(true, null);
+    assertEquals(expected.getRetainedEntries(true), k2);
+    
+    Sketch[] sources = { usk, usk.compact(true, null), usk.compact(false, null),
+        usk.compact(true, new NativeMemory(new byte[usk.getCurrentBytes(true)])),
+        usk.compact(false, new NativeMemory(new byte[usk.getCurrentBytes(true)])) };
+    for (Sketch src : sources) {
+      for (boolean ordered : new boolean[] {true, false}) {
+        CompactSketch csk = src.downsample(k2, ordered, null);
+        assertEquals(csk.getRetainedEntries(true), k2);
+        assertEquals(csk.getEstimate(), expected.getEstimate(), 0.0);
+        assertEquals(csk.isOrdered(), ordered);
+        long[] hashes = Arrays.copyOf(csk.getCache(), k2);
+        Arrays.sort(hashes);
+        assertEquals(hashes, expected.getCache());
+      }
+    }
+    //the source is not modified
+    assertEquals(usk.getRetainedEntries(true), sources[1].getRetainedEntries(true));
+    assertEquals(usk.getEstimate(), sources[2].getEstimate(), 0.0);
+  }
+  
+  @Test
+  public void checkDownsampleSmallSketch() {
+    UpdateSketch usk = UpdateSketch.builder().build(1024);
+    for (int i = 0; i < 100; i++) usk.update(i);
+    CompactSketch csk = usk.downsample(128, true, null);
+    assertEquals(csk.getRetainedEntries(true), 100);
+    assertEquals(csk.getEstimate(), 100.0, 0.0);
+    assertFalse(csk.isEstimationMode());
+    
+    Memory dstMem = new NativeMemory(new byte[usk.getCurrentBytes(true)]);
+    csk = UpdateSketch.builder().build(1024).downsample(16, false, dstMem);
+    assertTrue(csk.isEmpty());
+    assertTrue(csk.isDirect());
+  }
+  
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkDownsampleNomEntriesNotPowerOf2() {
+    UpdateSketch.builder().build(1024).downsample(100, true, null);
+  }
+  
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkDownsampleNomEntriesTooSmall() {
+    UpdateSketch.builder().build(1024).downsample(8, true, null);
+  }
+  
   @Test
   public void printlnTest() {
     println("PRINTING: "+this.getClass().getName());
@@ -142,6 +142,36 @@ public class SketchesTest {
     Sketches.getEstimate(srcMem);
   }
   
+  @Test
+  public void checkDownsampleFromMemory() {
+    int k = 4096;
+    int k2 = 256;
+    UpdateSketch usk = updateSketchBuilder().build(k);
+    for (int i = 0; i < 50000; i++) usk.update(i);
+    double expected = usk.downsample(k2, true, null).getEstimate();
+    
+    Memory[] images = {
+        new NativeMemory(usk.toByteArray()),
+        new NativeMemory(usk.compact(true, null).toByteArray()),
+        new NativeMemory(usk.compact(false, null).toByteArray()),
+        convertSerV3toSerV1(new NativeMemory(usk.compact(true, null).toByteArray()))
+    };
+    for (Memory srcMem : images) {
+      Memory dstMem = new NativeMemory(new byte[getMaxCompactSketchBytes(k2)]);
+      CompactSketch csk = Sketches.downsample(srcMem, k2, true, dstMem);
+      assertTrue(csk.isDirect());
+      assertEquals(csk.getRetainedEntries(true), k2);
+      assertEquals(csk.getEstimate(), expected, 0.0);
+      assertEquals(Sketches.getEstimate(dstMem), expected, 0.0);
+    }
+  }
+  
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkDownsampleSetOperationMemory() {
+    Union union = setOperationBuilder().buildUnion(1024);
+    Sketches.downsample(new NativeMemory(union.toByteArray()), 16, true, null);
+  }
+  
   @Test
   public void printlnTest() {
     println("PRINTING: "+this.getClass().getName());
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.theta;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.yahoo.sketches.memory.NativeMemory;
+
+public class SlidingWindowSketchTest {
+
+  @Test
+  public void checkExactWindow() {
+    int n = 5;
+    SlidingWindowSketch window = new SlidingWindowSketch(n, UpdateSketch.builder().setNominalEntries(4096));
+    assertEquals(window.getNumIntervals(), n);
+    assertTrue(window.getResult(true, null).isEmpty());
+    for (int t = 0; t < 23; t++) {
+      for (int i = 0; i < 100; i++) {
+        window.getCurrentSketch().update((t * 100) + i);
+      }
+      assertEquals(window.getEstimate(), Math.min(t + 1, n) * 100.0, 0.0);
+      window.advance();
+      assertEquals(window.getEstimate(), Math.min(t + 1, n - 1) * 100.0, 0.0);
+    }
+  }
+
+  @Test
+  public void checkEstimationModeMatchesFullUnion() {
+    int n = 7;
+    int k = 512;
+    SlidingWindowSketch window = new SlidingWindowSketch(n, UpdateSketch.builder().setNominalEntries(k));
+    List<CompactSketch> intervals = new ArrayList<CompactSketch>();
+    for (int t = 0; t < 30; t++) {
+      UpdateSketch sk = window.getCurrentSketch();
+      for (int i = 0; i < 1000; i++) {
+        sk.update((t * 500) + i); //overlapping intervals
+      }
+      intervals.add(sk.compact(true, null));
+
+      Union union = SetOperation.builder().buildUnion(k);
+      for (int j = Math.max(0, intervals.size() - n); j < intervals.size(); j++) {
+        union.update(intervals.get(j));
+      }
+      CompactSketch expected = union.getResult(true, null);
+      CompactSketch result = window.getResult(true, null);
+      assertEquals(result.getEstimate(), expected.getEstimate(), 0.0);
+      assertEquals(result.getRetainedEntries(true), expected.getRetainedEntries(true));
+      window.advance();
+    }
+  }
+
+  @Test
+  public void checkSingleInterval() {
+    SlidingWindowSketch window = new SlidingWindowSketch(1, UpdateSketch.builder());
+    window.getCurrentSketch().update(1);
+    assertEquals(window.getEstimate(), 1.0, 0.0);
+    window.advance();
+    assertEquals(window.getEstimate(), 0.0, 0.0);
+    window.getCurrentSketch().update(2);
+    window.getCurrentSketch().update(3);
+    CompactSketch result = window.getResult(false, new NativeMemory(new byte[64]));
+    assertEquals(result.getEstimate(), 2.0, 0.0);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkBadNumIntervals() {
+    new SlidingWindowSketch(0, UpdateSketch.builder());
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkDirectBuilder() {
+    new SlidingWindowSketch(2, UpdateSketch.builder().initMemory(new NativeMemory(new byte[1 << 16])));
+  }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.theta;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.testng.annotations.Test;
+
+import com.yahoo.sketches.Family;
+import com.yahoo.sketches.hash.HashFunction;
+import com.yahoo.sketches.memory.NativeMemory;
+
+public class ThetaCollectorsTest {
+
+  @Test
+  public void checkSameAsSingleSketch() {
+    int k = 1024;
+    UpdateSketch expected = UpdateSketch.builder().build(k);
+    for (long i = 0; i < 100000; i++) expected.update(i);
+
+    CompactSketch seq = LongStream.range(0, 100000).boxed().collect(ThetaCollectors.toSketch(k));
+    CompactSketch par = LongStream.range(0, 100000).boxed().parallel()
+        .collect(ThetaCollectors.toSketch(k));
+    assertEquals(seq.getEstimate(), expected.compact(true, null).getEstimate(), 0.0);
+    assertEquals(par.getRetainedEntries(true), k);
+    assertTrue(par.isOrdered());
+    assertEquals(par.getEstimate(), 100000, 100000 * 0.1);
+  }
+
+  @Test
+  public void checkExactParallel() {
+    CompactSketch par = LongStream.range(0, 1000).boxed().parallel()
+        .collect(ThetaCollectors.toSketch(4096));
+    assertEquals(par.getEstimate(), 1000.0, 0.0);
+    assertTrue(LongStream.range(0, 0).boxed().collect(ThetaCollectors.toSketch(4096)).isEmpty());
+  }
+
+  @Test
+  public void checkElementTypes() {
+    UpdateSketch expected = UpdateSketch.builder().build(1024);
+    List<Object> elements = new ArrayList<>();
+    Object[] all = {1L, 2, (short) 3, (byte) 4, 5.0, 6.0f, "seven", new byte[] {8},
+        new int[] {9}, new long[] {10L}, null, "", new byte[0]};
+    elements.addAll(Arrays.asList(all));
+    for (Object o : all) ThetaCollectors.update(expected, o);
+    assertEquals(expected.getEstimate(), 10.0, 0.0);
+    CompactSketch csk = elements.stream().collect(ThetaCollectors.toSketch(1024));
+    assertEquals(csk.getEstimate(), 10.0, 0.0);
+    //an Integer is presented as the same long
+    assertEquals(Arrays.<Object>asList(1).stream().collect(ThetaCollectors.toSketch(1024)).toByteArray(),
+        Arrays.<Object>asList(1L).stream().collect(ThetaCollectors.toSketch(1024)).toByteArray());
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkBadElementType() {
+    Arrays.<Object>asList(new Object()).stream().collect(ThetaCollectors.toSketch(1024));
+  }
+
+  @Test
+  public void checkBuilder() {
+    UpdateSketchBuilder bldr = UpdateSketch.builder().setSeed(123).setFamily(Family.ALPHA)
+        .setNominalEntries(512);
+    CompactSketch csk = LongStream.range(0, 10000).boxed().parallel()
+        .collect(ThetaCollectors.toSketch(bldr));
+    assertEquals(csk.getSeedHash(), UpdateSketch.builder().setSeed(123).build().getSeedHash());
+    assertEquals(csk.getEstimate(), 10000, 10000 * 0.15);
+  }
+
+  @Test
+  public void checkHashFunction() {
+    UpdateSketchBuilder bldr = UpdateSketch.builder().setHashFunction(HashFunction.XXHASH64)
+        .setNominalEntries(1024);
+    UpdateSketch expected = bldr.build();
+    for (long i = 0; i < 100000; i++) expected.update(i);
+    CompactSketch seq = LongStream.range(0, 100000).boxed()
+        .collect(ThetaCollectors.toSketch(bldr));
+    assertEquals(seq.toByteArray(), expected.compact(true, null).toByteArray());
+
+    CompactSketch par = LongStream.range(0, 100000).boxed().parallel()
+        .collect(ThetaCollectors.toSketch(bldr));
+    assertEquals(par.getSeedHash(), expected.getSeedHash());
+    assertEquals(par.getEstimate(), 100000, 100000 * 0.1);
+
+    List<Sketch> sketches = new ArrayList<>();
+    for (int s = 0; s < 16; s++) {
+      UpdateSketch sk = bldr.build();
+      for (int i = 0; i < 1000; i++) sk.update((s * 500) + i);
+      sketches.add(sk);
+    }
+    CompactSketch union = sketches.parallelStream().collect(ThetaCollectors.toUnion(
+        SetOperation.builder().setHashFunction(HashFunction.XXHASH64).setNominalEntries(4096)));
+    assertEquals(union.getSeedHash(), expected.getSeedHash());
+    assertEquals(union.getEstimate(), 8500, 8500 * 0.1);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkBuilderWithMemory() {
+    ThetaCollectors.toSketch(UpdateSketch.builder().initMemory(new NativeMemory(new byte[1 << 16])));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkUnionBuilderWithMemory() {
+    ThetaCollectors.toUnion(SetOperation.builder().initMemory(new NativeMemory(new byte[1 << 16])));
+  }
+
+  @Test
+  public void checkToUnion() {
+    List<Sketch> sketches = new ArrayList<>();
+    Union expected = SetOperation.builder().buildUnion(4096);
+    for (int s = 0; s < 64; s++) {
+      UpdateSketch sk = UpdateSketch.builder().build(4096);
+      for (int i = 0; i < 500; i++) sk.update((s * 250) + i); //overlapping
+      sketches.add(sk.compact(true, null));
+      expected.update(sk);
+    }
+    sketches.add(null);
+    CompactSketch par = sketches.parallelStream().collect(ThetaCollectors.toUnion(4096));
+    CompactSketch seq = sketches.stream().collect(ThetaCollectors.toUnion(4096));
+    assertEquals(par.toByteArray(), expected.getResult().toByteArray());
+    assertEquals(seq.toByteArray(), expected.getResult().toByteArray());
+    assertTrue(sketches.stream().filter(s -> s == null).collect(ThetaCollectors.toUnion()).isEmpty());
+    //collected results can be grouped
+    assertEquals(sketches.stream().filter(s -> s != null)
+        .collect(Collectors.groupingBy(s -> s.getRetainedEntries(true) > 0,
+            ThetaCollectors.toUnion(4096))).size(), 1);
+  }
+
+}
@@ -9,6 +9,7 @@ import static org.testng.Assert.assertEquals;
 import org.testng.annotations.Test;
 
 import com.yahoo.sketches.Family;
+import com.yahoo.sketches.hash.MurmurHash3;
 import com.yahoo.sketches.memory.Memory;
 import com.yahoo.sketches.memory.NativeMemory;
 import com.yahoo.sketches.theta.UpdateSketch;
@@ -109,6 +110,27 @@ public class UpdateSketchTest {
   }
   
   
+  @Test
+  public void checkUpdateWithHasher() {
+    UpdateSketch sk1 = Sketches.updateSketchBuilder().build();
+    UpdateSketch sk2 = Sketches.updateSketchBuilder().build();
+    MurmurHash3.Hasher hasher = new MurmurHash3.Hasher(sk2.getSeed());
+    for (long i = 0; i < 1000; i++) {
+      sk1.update(new long[] { i % 7, i, -i });
+      assertEquals(sk2.update(hasher.putLong(i % 7).putLong(i).putLong(-i)),
+          UpdateReturnState.InsertedCountIncremented);
+    }
+    assertEquals(sk2.update(hasher), UpdateReturnState.RejectedNullOrEmpty);
+    assertEquals(sk2.getEstimate(), sk1.getEstimate(), 0.0);
+    assertEquals(sk2.compact().toByteArray(), sk1.compact().toByteArray());
+  }
+  
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void checkUpdateWithHasherOfOtherSeed() {
+    UpdateSketch sk = Sketches.updateSketchBuilder().build();
+    sk.update(new MurmurHash3.Hasher(123L).putLong(1L));
+  }
+  
   @Test
   public void printlnTest() {
     println("PRINTING: "+this.getClass().getName());
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026, Yahoo! Inc.
+ * Licensed under the terms of the Apache License 2.0. See LICENSE file at the project root for terms.
+ */
+package com.yahoo.sketches.theta;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.yahoo.sketches.Family;
+import com.yahoo.sketches.memory.NativeMemory;
+
+public class UpdateStatsTest {
+
+  @Test
+  public void checkHeapQuickSelect() {
+    checkCounts(UpdateSketch.builder().setStats(new UpdateStats()));
+  }
+
+  @Test
+  public void checkDirectQuickSelect() {
+    int k = 512;
+    int bytes = Sketch.getMaxUpdateSketchBytes(k);
+    //the hash table starts small and resizes within the given memory
+    NativeMemory mem = new NativeMemory(new byte[bytes]);
+    checkCounts(UpdateSketch.builder().setStats(new UpdateStats()).initMemory(mem)
+        .setResizeFactor(ResizeFactor.X2));
+  }
+
+  @Test
+  public void checkAlpha() {
+    checkCounts(UpdateSketch.builder().setStats(new UpdateStats()).setFamily(Family.ALPHA));
+  }
+
+  @Test
+  public void checkSparse() {
+    checkCounts(UpdateSketch.builder().setStats(new UpdateStats()).setSparse(true));
+  }
+
+  private static void checkCounts(UpdateSketchBuilder bldr) {
+    int k = 512;
+    UpdateSketch sk = bldr.build(k);
+    UpdateStats stats = sk.getStats();
+    assertTrue(stats == bldr.getStats());
+    long inserts = 0, duplicates = 0, overTheta = 0;
+    for (int i = 0; i < 20000; i++) {
+      for (int j = 0; j < 2; j++) { //the second update is a duplicate or over theta
+        UpdateReturnState state = sk.update(i);
+        switch (state) {
+          case InsertedCountIncremented:
+          case InsertedCountNotIncremented: inserts++; break;
+          case RejectedDuplicate: duplicates++; break;
+          case RejectedOverTheta: overTheta++; break;
+          default: break;
+        }
+      }
+    }
+    assertEquals(stats.getInserts(), inserts);
+    assertEquals(stats.getDuplicates(), duplicates);
+    assertEquals(stats.getRejectedOverTheta(), overTheta);
+    assertTrue(inserts > 0);
+    assertTrue(duplicates > 0);
+    assertTrue(overTheta > 0);
+    assertTrue(stats.getResizes() > 0);
+    assertTrue(stats.getRebuilds() > 0);
+    assertTrue(stats.getRebuildNanos() > 0);
+    assertTrue(stats.getProbeSamples() > 0);
+    assertTrue(stats.getMeanProbeLength() >= 1.0);
+    assertTrue(stats.getMaxProbeLength() >= 1);
+    double load = sk.getLoadFactor();
+    assertTrue((load > 0.0) && (load < 1.0));
+    println(stats.toString());
+  }
+
+  @Test
+  public void checkDisabledByDefault() {
+    UpdateSketch sk = UpdateSketch.builder().build(64);
+    assertNull(sk.getStats());
+    assertNull(UpdateSketch.builder().getStats());
+    for (int i = 0; i < 1000; i++) sk.update(i);
+    assertNull(sk.getStats());
+  }
+
+  @Test
+  public void checkMergeAndReset() {
+    UpdateStats a = new UpdateStats();
+    UpdateStats b = new UpdateStats();
+    UpdateSketch skA = UpdateSketch.builder().setStats(a).build(64);
+    UpdateSketch skB = UpdateSketch.builder().setStats(b).build(64);
+    for (int i = 0; i < 1000; i++) {
+      skA.update(i);
+      skB.update(i + 1000);
+    }
+    UpdateStats sum = new UpdateStats().merge(a).merge(b);
+    assertEquals(sum.getInserts(), a.getInserts() + b.getInserts());
+    assertEquals(sum.getRejectedOverTheta(), a.getRejectedOverTheta() + b.getRejectedOverTheta());
+    assertEquals(sum.getRebuilds(), a.getRebuilds() + b.getRebuilds());
+    assertEquals(sum.getProbeSamples(), a.getProbeSamples() + b.getProbeSamples());
+    assertEquals(sum.getMaxProbeLength(), Math.max(a.getMaxProbeLength(), b.getMaxProbeLength()));
+
+    //one instance shared by two sketches
+    UpdateStats shared = new UpdateStats();
+    UpdateSketchBuilder bldr = UpdateSketch.builder().setStats(shared);
+    UpdateSketch skC = bldr.build(64);
+    UpdateSketch skD = bldr.build(64);
+    for (int i = 0; i < 1000; i++) {
+      skC.update(i);
+      skD.update(i + 1000);
+    }
+    assertEquals(shared.getInserts(), sum.getInserts());
+
+    sum.reset();
+    assertEquals(sum.getInserts(), 0);
+    assertEquals(sum.getProbeSamples(), 0);
+    assertEquals(sum.getMeanProbeLength(), 0.0, 0.0);
+    assertEquals(sum.getMaxProbeLength(), 0);
+  }
+
+  @Test
+  public void checkProbeLength() {
+    int lgArrLongs = 4;
+    long[] table = new long[1 << lgArrLongs];
+    assertEquals(HashOperations.probeLength(table, lgArrLongs, 3L), 1);
+    HashOperations.hashInsert(table, lgArrLongs, 3L);
+    assertEquals(HashOperations.probeLength(table, lgArrLongs, 3L), 1);
+    //same first slot, so the second probe finds an empty slot
+    assertEquals(HashOperations.probeLength(table, lgArrLongs, 3L + (1L << lgArrLongs)), 2);
+    NativeMemory mem = new NativeMemory(new byte[(8 << lgArrLongs) + 16]);
+    HashOperations.hashInsert(mem, lgArrLongs, 3L, 16);
+    assertEquals(HashOperations.probeLength(mem, lgArrLongs, 3L, 16), 1);
+    assertEquals(HashOperations.probeLength(mem, lgArrLongs, 3L + (1L << lgArrLongs), 16), 2);
+  }
+
+  @Test
+  public void checkLoadFactorEmpty() {
+    assertEquals(UpdateSketch.builder().build(64).getLoadFactor(), 0.0, 0.0);
+  }
+
+  @Test
+  public void printlnTest() {
+    println("PRINTING: "+this.getClass().getName());
+  }
+
+  /**
+   * @param s value to print
+   */
+  static void println(String s) {
+    //System.out.println(s); //disable here
+  }
+
+}